@@ -35,6 +35,7 @@ import org.mule.api.registry.MuleRegistry;
 import org.mule.api.registry.RegistrationException;
 import org.mule.api.registry.Registry;
 import org.mule.api.security.SecurityManager;
+import org.mule.api.serialization.ObjectSerializer;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStoreManager;
 import org.mule.api.transaction.TransactionManagerFactory;
@@ -55,6 +56,7 @@ import org.mule.management.stats.AllStatistics;
 import org.mule.management.stats.ProcessingTimeWatcher;
 import org.mule.registry.DefaultRegistryBroker;
 import org.mule.registry.MuleRegistryHelper;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.transport.DefaultPollingController;
 import org.mule.transport.PollingController;
 import org.mule.util.ApplicationShutdownSplashScreen;
@@ -139,6 +141,8 @@ public class DefaultMuleContext implements MuleContext
 
     private StreamCloserService streamCloserService;
 
+    private ObjectSerializer objectSerializer;
+
     private ClassLoader executionClassLoader;
 
     protected LocalMuleClient localMuleClient;
@@ -717,6 +721,27 @@ public class DefaultMuleContext implements MuleContext
         return this.streamCloserService;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectSerializer getObjectSerializer()
+    {
+        if (this.objectSerializer == null)
+        {
+            ObjectSerializer registeredSerializer = this.getRegistry().lookupObject(MuleProperties.OBJECT_SERIALIZER);
+            if (registeredSerializer == null)
+            {
+                JavaObjectSerializer defaultSerializer = new JavaObjectSerializer();
+                defaultSerializer.setMuleContext(this);
+                registeredSerializer = defaultSerializer;
+            }
+            this.objectSerializer = registeredSerializer;
+        }
+
+        return this.objectSerializer;
+    }
+
     public ThreadingProfile getDefaultThreadingProfile()
     {
         return (ThreadingProfile) getRegistry().lookupObject(MuleProperties.OBJECT_DEFAULT_THREADING_PROFILE);
@@ -97,7 +97,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     /**
      * Scoped properties for this message
      */
-    private MessagePropertiesContext properties = new MessagePropertiesContext();
+    private MessagePropertiesContext properties;
 
     /**
      * Collection of attachments that were attached to the incoming message
@@ -109,6 +109,12 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
      */
     private transient Map<String, DataHandler> outboundAttachments = new HashMap<String, DataHandler>();
 
+    /**
+     * Whether the attachment maps are shared with copies of this message, they must be copied before
+     * being modified
+     */
+    private transient boolean sharedAttachments;
+
     private transient byte[] cache;
     protected transient MuleContext muleContext;
 
@@ -161,6 +167,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     {
         id =  UUID.getUUID();
         rootId = id;
+        properties = new MessagePropertiesContext();
         
         setMuleContext(muleContext);
 
@@ -197,6 +204,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
         {
             MuleMessage payloadMessage = (MuleMessage) message;
             setPayload(payloadMessage.getPayload());
+            properties = new MessagePropertiesContext();
             copyMessageProperties(payloadMessage);
         }
         else
@@ -219,7 +227,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
             setSessionProperties(((DefaultMuleMessage) previous).properties.sessionMap);
         }
 
-        copyAttachments(previous);
+        shareAttachments(previous);
 
         resetAccessControl();
     }
@@ -232,6 +240,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
         }
         else
         {
+            properties = new MessagePropertiesContext();
             copyMessageProperties(muleMessage);
         }        
     }
@@ -259,8 +268,40 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
         }
     }
 
+    /**
+     * Copies the attachments of a message into a new message. Attachments of a {@link DefaultMuleMessage}
+     * are shared until any of the messages modifies them, so copying a message does not depend on the
+     * number of attachments it has.
+     */
+    private void shareAttachments(MuleMessage previous)
+    {
+        if (previous instanceof DefaultMuleMessage)
+        {
+            DefaultMuleMessage previousMessage = (DefaultMuleMessage) previous;
+            previousMessage.sharedAttachments = true;
+            inboundAttachments = previousMessage.inboundAttachments;
+            outboundAttachments = previousMessage.outboundAttachments;
+            sharedAttachments = true;
+        }
+        else
+        {
+            copyAttachments(previous);
+        }
+    }
+
+    private void copyAttachmentsOnWrite()
+    {
+        if (sharedAttachments)
+        {
+            inboundAttachments = new HashMap<String, DataHandler>(inboundAttachments);
+            outboundAttachments = new HashMap<String, DataHandler>(outboundAttachments);
+            sharedAttachments = false;
+        }
+    }
+
     private void copyAttachments(MuleMessage previous)
     {
+        copyAttachmentsOnWrite();
         if (previous.getInboundAttachmentNames().size() > 0)
         {
             for (String name : previous.getInboundAttachmentNames())
@@ -1084,6 +1125,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     public void addOutboundAttachment(String name, DataHandler dataHandler) throws Exception
     {
         assertAccess(WRITE);
+        copyAttachmentsOnWrite();
         outboundAttachments.put(name, dataHandler);
     }
 
@@ -1093,6 +1135,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     public void addInboundAttachment(String name, DataHandler dataHandler) throws Exception
     {
         assertAccess(WRITE);
+        copyAttachmentsOnWrite();
         inboundAttachments.put(name, dataHandler);
     }
 
@@ -1143,6 +1186,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
         {
             dh = new DataHandler(object, contentType);
         }
+        copyAttachmentsOnWrite();
         outboundAttachments.put(name, dh);
     }
 
@@ -1150,6 +1194,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     public void removeOutboundAttachment(String name) throws Exception
     {
         assertAccess(WRITE);
+        copyAttachmentsOnWrite();
         outboundAttachments.remove(name);
     }
 
@@ -1317,6 +1362,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
     public void clearAttachments()
     {
         assertAccess(WRITE);
+        copyAttachmentsOnWrite();
         outboundAttachments.clear();
     }
 
@@ -2015,6 +2061,7 @@ public class DefaultMuleMessage implements MuleMessage, ThreadSafeAccess, Deseri
             newMessage.setInboundProperty(s.getKey(), s.getValue());
         }
 
+        newMessage.copyAttachmentsOnWrite();
         newMessage.inboundAttachments.clear();
         newMessage.outboundAttachments.clear();
 
@@ -392,6 +392,9 @@ public class MessagePropertiesContext implements Serializable
         }
     }
 
+    /**
+     * Keeps extending {@link CaseInsensitiveHashMap} so messages serialized by previous versions can still be read.
+     */
     private static class UndefinedInvocationPropertiesMap extends CaseInsensitiveHashMap
     {
         private static final long serialVersionUID = 8400889672358403911L;
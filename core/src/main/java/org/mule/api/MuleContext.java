@@ -26,6 +26,7 @@ import org.mule.api.registry.MuleRegistry;
 import org.mule.api.registry.RegistrationException;
 import org.mule.api.registry.Registry;
 import org.mule.api.security.SecurityManager;
+import org.mule.api.serialization.ObjectSerializer;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStoreManager;
 import org.mule.api.util.StreamCloserService;
@@ -214,6 +215,15 @@ public interface MuleContext extends Lifecycle
      */
     public StreamCloserService getStreamCloserService();
 
+    /**
+     * Returns the configured {@link org.mule.api.serialization.ObjectSerializer}, used to serialize the
+     * objects that are persisted or sent over the wire
+     *
+     * @return a {@link org.mule.api.serialization.ObjectSerializer}
+     * @since 3.7.0
+     */
+    ObjectSerializer getObjectSerializer();
+
     // TODO This should ideally only be available via an Admin interface
     void addRegistry(Registry registry);
 
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.management.stats;
+
+/**
+ * Implemented by objects in the registry that have statistics to be published as an MBean by the JMX agent,
+ * so modules can expose their statistics without the agent knowing about them.
+ *
+ * @param <T> the management interface of the statistics
+ */
+public interface StatisticsMBeanProvider<T>
+{
+
+    /**
+     * @return the name of the statistics, unique among the statistics of the same type
+     */
+    String getStatisticsName();
+
+    /**
+     * @return the type of the statistics, used as the type of the MBean object name
+     */
+    String getStatisticsType();
+
+    /**
+     * @return the management interface of the statistics
+     */
+    Class<T> getStatisticsInterface();
+
+    /**
+     * @return the statistics, or null if there are none available yet
+     */
+    T getStatistics();
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.serialization;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.lang.SerializationException;
+
+/**
+ * Serializes and deserializes the objects Mule persists or sends over the wire, such as queued events,
+ * object store values and sessions.
+ * <p/>
+ * The instance used by a {@link org.mule.api.MuleContext} is registered under
+ * {@link org.mule.api.config.MuleProperties#OBJECT_SERIALIZER} and obtained through
+ * {@link org.mule.api.MuleContext#getObjectSerializer()}. Implementations must be thread safe and should be
+ * able to deserialize data written with standard Java serialization, so data persisted by previous versions
+ * can still be read.
+ * <p/>
+ * All methods throw {@link SerializationException} (runtime) if the operation fails.
+ *
+ * @since 3.7.0
+ */
+public interface ObjectSerializer
+{
+
+    /**
+     * Serializes the given object into a byte array.
+     */
+    byte[] serialize(Object object) throws SerializationException;
+
+    /**
+     * Serializes the given object into the given stream. The stream is closed once the object is written.
+     */
+    void serialize(Object object, OutputStream out) throws SerializationException;
+
+    /**
+     * Deserializes an object using the execution class loader of the context.
+     */
+    <T> T deserialize(byte[] bytes) throws SerializationException;
+
+    /**
+     * Deserializes an object using the given class loader to resolve the classes in the data.
+     */
+    <T> T deserialize(byte[] bytes, ClassLoader classLoader) throws SerializationException;
+
+    /**
+     * Deserializes an object from the given stream using the execution class loader of the context. The
+     * stream is closed once the object is read.
+     */
+    <T> T deserialize(InputStream inputStream) throws SerializationException;
+
+    /**
+     * Deserializes an object from the given stream using the given class loader to resolve the classes in the
+     * data. The stream is closed once the object is read.
+     */
+    <T> T deserialize(InputStream inputStream, ClassLoader classLoader) throws SerializationException;
+}
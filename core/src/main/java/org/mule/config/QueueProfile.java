@@ -17,6 +17,7 @@ import org.mule.util.queue.DefaultQueueConfiguration;
 import org.mule.util.queue.DelegateQueueManager;
 import org.mule.util.queue.QueueConfiguration;
 import org.mule.util.queue.QueueManager;
+import org.mule.util.queue.QueueStoreDelegateType;
 
 import java.io.Serializable;
 
@@ -28,6 +29,7 @@ public class QueueProfile
 {
     private int maxOutstandingMessages = 0;
     private QueueStore<Serializable> objectStore;
+    private QueueStoreDelegateType storeDelegateType = QueueStoreDelegateType.DEFAULT;
 
     public static QueueProfile newInstancePersistingToDefaultMemoryQueueStore(MuleContext muleContext)
     {
@@ -55,6 +57,7 @@ public class QueueProfile
     {
         this.maxOutstandingMessages = queueProfile.getMaxOutstandingMessages();
         this.objectStore = queueProfile.objectStore;
+        this.storeDelegateType = queueProfile.getStoreDelegateType();
     }
 
     public QueueProfile(int maxOutstandingMessages, QueueStore<Serializable> objectStore)
@@ -85,6 +88,26 @@ public class QueueProfile
         this.maxOutstandingMessages = maxOutstandingMessages;
     }
 
+    /**
+     * This specifies how the queue elements are held by the queue store.
+     *
+     * @return the type of store used for the queue elements
+     */
+    public QueueStoreDelegateType getStoreDelegateType()
+    {
+        return storeDelegateType;
+    }
+
+    /**
+     * This specifies how the queue elements are held by the queue store.
+     *
+     * @param storeDelegateType the type of store used for the queue elements
+     */
+    public void setStoreDelegateType(QueueStoreDelegateType storeDelegateType)
+    {
+        this.storeDelegateType = storeDelegateType;
+    }
+
     public QueueConfiguration configureQueue(MuleContext context, String component, QueueManager queueManager)
         throws InitialisationException
     {
@@ -103,7 +126,7 @@ public class QueueProfile
         {
             return new org.mule.util.queue.objectstore.QueueConfiguration(context, maxOutstandingMessages, objectStore);
         }
-        return new DefaultQueueConfiguration(maxOutstandingMessages, objectStore.isPersistent());
+        return new DefaultQueueConfiguration(maxOutstandingMessages, objectStore.isPersistent(), storeDelegateType);
     }
 
     public ListableObjectStore<Serializable> getObjectStore()
@@ -125,6 +148,6 @@ public class QueueProfile
     public String toString()
     {
         return "QueueProfile{maxOutstandingMessage=" + maxOutstandingMessages + ", storeType="
-               + objectStore.getClass() + "}";
+               + objectStore.getClass() + ", storeDelegateType=" + storeDelegateType + "}";
     }
 }
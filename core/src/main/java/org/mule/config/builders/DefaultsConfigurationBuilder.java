@@ -26,6 +26,7 @@ import org.mule.management.stats.DefaultProcessingTimeWatcher;
 import org.mule.model.seda.SedaModel;
 import org.mule.retry.policies.NoRetryPolicyTemplate;
 import org.mule.security.MuleSecurityManager;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.util.DefaultStreamCloserService;
 import org.mule.util.lock.MuleLockFactory;
 import org.mule.util.lock.SingleServerLockProvider;
@@ -91,6 +92,7 @@ public class DefaultsConfigurationBuilder extends AbstractConfigurationBuilder
         registry.registerObject(MuleProperties.OBJECT_MULE_ENDPOINT_FACTORY, new DefaultEndpointFactory());
         registry.registerObject(MuleProperties.OBJECT_MULE_STREAM_CLOSER_SERVICE,
             new DefaultStreamCloserService());
+        registry.registerObject(MuleProperties.OBJECT_SERIALIZER, new JavaObjectSerializer());
 
         registry.registerObject(MuleProperties.OBJECT_LOCK_PROVIDER, new SingleServerLockProvider());
         registry.registerObject(MuleProperties.OBJECT_LOCK_FACTORY, new MuleLockFactory());
@@ -18,6 +18,7 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
     private final AtomicLong fatalError = new AtomicLong(0);
     private int threadPoolSize = 0;
     protected final ComponentStatistics flowStatistics = new ComponentStatistics();
+    private RouterStatistics aggregatorStatistics = null;
     
     // these can't sensibly converted to AtomicLong as they are processed together
     // in incQueuedEvent
@@ -82,6 +83,10 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
     {
         super.setEnabled(b);
         flowStatistics.setEnabled(enabled);
+        if (aggregatorStatistics != null)
+        {
+            aggregatorStatistics.setEnabled(enabled);
+        }
     }
 
     public synchronized void clear()
@@ -94,6 +99,10 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         {
             flowStatistics.clear();
         }
+        if (aggregatorStatistics != null)
+        {
+            aggregatorStatistics.clear();
+        }
     }
 
     public void addCompleteFlowExecutionTime(long time)
@@ -141,6 +150,28 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         return fatalError.get();
     }
 
+    /**
+     * @return the statistics of the correlation groups handled by the aggregators of the flow construct,
+     *         or null if it has no aggregators
+     */
+    public synchronized RouterStatistics getAggregatorStatistics()
+    {
+        return aggregatorStatistics;
+    }
+
+    /**
+     * @return the statistics shared by the aggregators of the flow construct, created by the first one
+     */
+    public synchronized RouterStatistics getOrCreateAggregatorStatistics()
+    {
+        if (aggregatorStatistics == null)
+        {
+            aggregatorStatistics = new RouterStatistics(RouterStatistics.TYPE_INBOUND);
+            aggregatorStatistics.setEnabled(enabled);
+        }
+        return aggregatorStatistics;
+    }
+
     public int getThreadPoolSize()
     {
         return threadPoolSize;
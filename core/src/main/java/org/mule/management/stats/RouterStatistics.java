@@ -39,6 +39,8 @@ public class RouterStatistics implements Statistics
     private long caughtInCatchAll;
     private long totalRouted;
     private long totalReceived;
+    private long expiredGroups;
+    private long dispatchedGroups;
     private Map routed;
     private int type;
 
@@ -48,6 +50,8 @@ public class RouterStatistics implements Statistics
         totalRouted = 0;
         totalReceived = 0;
         caughtInCatchAll = 0;
+        expiredGroups = 0;
+        dispatchedGroups = 0;
         routed.clear();
     }
 
@@ -160,6 +164,22 @@ public class RouterStatistics implements Statistics
         caughtInCatchAll++;
     }
 
+    /**
+     * Increment the correlation groups that timed out before being completed
+     */
+    public synchronized void incrementExpiredGroups()
+    {
+        expiredGroups++;
+    }
+
+    /**
+     * Increment the expired correlation groups that were dispatched with the events received so far
+     */
+    public synchronized void incrementDispatchedGroups()
+    {
+        dispatchedGroups++;
+    }
+
     /**
      * @return Returns the notRouted.
      */
@@ -209,6 +229,22 @@ public class RouterStatistics implements Statistics
         }
     }
 
+    /**
+     * @return Returns the expiredGroups.
+     */
+    public final long getExpiredGroups()
+    {
+        return expiredGroups;
+    }
+
+    /**
+     * @return Returns the dispatchedGroups.
+     */
+    public final long getDispatchedGroups()
+    {
+        return dispatchedGroups;
+    }
+
     public boolean isInbound()
     {
         return type == TYPE_INBOUND;
@@ -13,6 +13,7 @@ import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.NameableObject;
+import org.mule.api.config.MuleProperties;
 import org.mule.api.config.ThreadingProfile;
 import org.mule.api.context.WorkManager;
 import org.mule.api.execution.ExecutionCallback;
@@ -36,7 +37,10 @@ import org.mule.util.queue.QueueConfiguration;
 import org.mule.util.queue.QueueSession;
 import org.mule.work.MuleWorkManager;
 
+import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.Work;
@@ -52,12 +56,19 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
     protected static final String QUEUE_NAME_PREFIX = "seda.queue";
     public static int DEFAULT_QUEUE_SIZE_MAX_THREADS_FACTOR = 4;
 
+    /**
+     * Maximum number of events taken from the queue each time the stage wakes up. Events of persistent
+     * queues are always taken one at a time.
+     */
+    public static final String DEQUEUE_BATCH_SIZE_PROPERTY_KEY = MuleProperties.SYSTEM_PROPERTY_PREFIX + "seda.dequeueBatchSize";
+
     protected QueueProfile queueProfile;
     protected int queueTimeout;
     protected QueueStatistics queueStatistics;
     protected String queueName;
     protected Queue queue;
     protected QueueConfiguration queueConfiguration;
+    protected int dequeueBatchSize = Integer.getInteger(DEQUEUE_BATCH_SIZE_PROPERTY_KEY, 1);
     private WaitableBoolean running = new WaitableBoolean(false);
     protected SedaStageLifecycleManager lifecycleManager;
 
@@ -138,11 +149,19 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
         }
     }
 
-    protected MuleEvent dequeue() throws Exception
+    /**
+     * Takes up to {@link #dequeueBatchSize} events from the queue with a single operation, waiting up
+     * to the queue timeout for the first one. Persistent queues are not batched, as the events are taken
+     * outside a transaction and would be lost from the store if the stage stopped before dispatching them.
+     *
+     * @param events list where the dequeued events are added
+     * @return the number of dequeued events
+     */
+    protected int dequeue(List<Serializable> events) throws Exception
     {
         if (queue == null)
         {
-            return null;
+            return 0;
         }
         if (logger.isTraceEnabled())
         {
@@ -150,16 +169,27 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
                 getStageDescription(), queueTimeout));
         }
 
-        MuleEvent event = (MuleEvent)queue.poll(queueTimeout);
-        // If the service has been paused why the poll was waiting for an event to
-        // arrive on the queue,
-        // we put the object back on the queue
-        if (event != null && lifecycleManager.isPhaseComplete(Pausable.PHASE_NAME))
+        int dequeued = queue.drainTo(events, isQueuePersistent() ? 1 : dequeueBatchSize, queueTimeout);
+        // If the service has been paused why the poll was waiting for events to
+        // arrive on the queue, we put them back on the queue
+        if (dequeued > 0 && lifecycleManager.isPhaseComplete(Pausable.PHASE_NAME))
         {
-            queue.untake(event);
-            return null;
+            rollbackDequeue(events, 0);
+            return 0;
+        }
+        return dequeued;
+    }
+
+    /**
+     * Puts back the dequeued events from the given index on, keeping their order, and removes them
+     * from the list.
+     */
+    private void rollbackDequeue(List<Serializable> events, int fromIndex)
+    {
+        for (int i = events.size() - 1; i >= fromIndex; i--)
+        {
+            rollbackDequeue((MuleEvent) events.remove(i));
         }
-        return event;
     }
 
     /**
@@ -188,12 +218,13 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
      */
     public void run()
     {
-        DefaultMuleEvent event = null;
+        List<Serializable> events = new ArrayList<Serializable>(dequeueBatchSize);
         QueueSession queueSession = muleContext.getQueueManager().getQueueSession();
 
         running.set(true);
         while (!lifecycleManager.getState().isStopped())
         {
+            events.clear();
             try
             {
                 // Wait if the service is paused
@@ -225,7 +256,7 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
                     }
                 }
 
-                event = (DefaultMuleEvent)dequeue();
+                dequeue(events);
             }
             catch (InterruptedException ie)
             {
@@ -236,60 +267,84 @@ public class SedaStageInterceptingMessageProcessor extends AsyncInterceptingMess
                 muleContext.getExceptionListener().handleException(e);
             }
 
-            if (event != null)
+            for (int i = 0; i < events.size(); i++)
             {
-                final MuleEvent eventToProcess = event;
-                TransactionalErrorHandlingExecutionTemplate executionTemplate = TransactionalErrorHandlingExecutionTemplate.createMainExecutionTemplate(muleContext, event.getFlowConstruct().getExceptionListener());
-                ExecutionCallback<MuleEvent> processingCallback = new ExecutionCallback<MuleEvent>()
+                // If the service was paused or stopped while the batch was being scheduled,
+                // put the remaining events back on the queue
+                if (isDispatchHalted(queueSession))
                 {
+                    rollbackDequeue(events, i);
+                    break;
+                }
+                processDequeuedEvent((DefaultMuleEvent) events.get(i));
+            }
+        }
+        running.set(false);
+    }
 
-                    @Override
-                    public MuleEvent process() throws Exception
-                    {
-                        if (isStatsEnabled())
-                        {
-                            queueStatistics.decQueuedEvent();
-                        }
+    /**
+     * Dequeued events are not dispatched while the stage is paused, nor when it is stopping without
+     * draining its queue.
+     */
+    private boolean isDispatchHalted(QueueSession queueSession)
+    {
+        if (lifecycleManager.isPhaseComplete(Pausable.PHASE_NAME) || lifecycleManager.getState().isStopped())
+        {
+            return true;
+        }
+        return lifecycleManager.getState().isStopping() && (isQueuePersistent() || queueSession == null);
+    }
 
-                        if (logger.isDebugEnabled())
-                        {
-                            logger.debug(MessageFormat.format("{0}: Dequeued event from {1}",
-                                getStageDescription(), getQueueName()));
-                        }
-                        AsyncMessageProcessorWorker work = new AsyncMessageProcessorWorker(eventToProcess);
-                        try
-                        {
-                            // TODO Remove this thread handoff to ensure Zero Message Loss
-                            workManagerSource.getWorkManager().scheduleWork(work, WorkManager.INDEFINITE,
-                                null, new AsyncWorkListener(next));
-                        }
-                        catch (Exception e)
-                        {
-                            // because dequeued event may still be owned by a previuos
-                            // thread we need to use the copy created in AsyncMessageProcessorWorker
-                            // constructor.
-                            OptimizedRequestContext.unsafeSetEvent(work.getEvent());
-                            throw new MessagingException(work.getEvent(), e, SedaStageInterceptingMessageProcessor.this);
-                        }
-                        return null;
-                    }
-                };
+    private void processDequeuedEvent(final DefaultMuleEvent event)
+    {
+        TransactionalErrorHandlingExecutionTemplate executionTemplate = TransactionalErrorHandlingExecutionTemplate.createMainExecutionTemplate(muleContext, event.getFlowConstruct().getExceptionListener());
+        ExecutionCallback<MuleEvent> processingCallback = new ExecutionCallback<MuleEvent>()
+        {
 
-                try
+            @Override
+            public MuleEvent process() throws Exception
+            {
+                if (isStatsEnabled())
                 {
-                    executionTemplate.execute(processingCallback);
+                    queueStatistics.decQueuedEvent();
                 }
-                catch (MessagingException e)
+
+                if (logger.isDebugEnabled())
                 {
-                    //Already handled by processing template
+                    logger.debug(MessageFormat.format("{0}: Dequeued event from {1}",
+                        getStageDescription(), getQueueName()));
+                }
+                AsyncMessageProcessorWorker work = new AsyncMessageProcessorWorker(event);
+                try
+                {
+                    // TODO Remove this thread handoff to ensure Zero Message Loss
+                    workManagerSource.getWorkManager().scheduleWork(work, WorkManager.INDEFINITE,
+                        null, new AsyncWorkListener(next));
                 }
                 catch (Exception e)
                 {
-                    muleContext.getExceptionListener().handleException(e);
+                    // because dequeued event may still be owned by a previuos
+                    // thread we need to use the copy created in AsyncMessageProcessorWorker
+                    // constructor.
+                    OptimizedRequestContext.unsafeSetEvent(work.getEvent());
+                    throw new MessagingException(work.getEvent(), e, SedaStageInterceptingMessageProcessor.this);
                 }
+                return null;
             }
+        };
+
+        try
+        {
+            executionTemplate.execute(processingCallback);
+        }
+        catch (MessagingException e)
+        {
+            //Already handled by processing template
+        }
+        catch (Exception e)
+        {
+            muleContext.getExceptionListener().handleException(e);
         }
-        running.set(false);
     }
 
     /** Are the events in the SEDA queue persistent? */
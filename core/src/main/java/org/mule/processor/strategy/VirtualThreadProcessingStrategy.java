@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.processor.strategy;
+
+import org.mule.api.MuleContext;
+import org.mule.api.config.ThreadingProfile;
+import org.mule.work.VirtualThreadWorkManagerFactory;
+
+/**
+ * This strategy processes the pipeline of message processors asynchronously like
+ * {@link AsynchronousProcessingStrategy}, but runs each message on its own virtual thread when the JVM
+ * supports them instead of taking a thread from a pool.
+ * <p/>
+ * The number of messages processed at the same time is limited by the max concurrency (the max threads of
+ * the threading profile), so back-pressure is kept: once it is reached the pool exhausted action is applied.
+ *
+ * @see org.mule.work.VirtualThreadWorkManager
+ */
+public class VirtualThreadProcessingStrategy extends AsynchronousProcessingStrategy
+{
+
+    @Override
+    protected ThreadingProfile createThreadingProfile(MuleContext muleContext)
+    {
+        ThreadingProfile threadingProfile = super.createThreadingProfile(muleContext);
+        threadingProfile.setWorkManagerFactory(new VirtualThreadWorkManagerFactory());
+        threadingProfile.setMuleContext(muleContext);
+        return threadingProfile;
+    }
+
+    public Integer getMaxConcurrency()
+    {
+        return maxThreads;
+    }
+
+    public void setMaxConcurrency(Integer maxConcurrency)
+    {
+        this.maxThreads = maxConcurrency;
+    }
+
+}
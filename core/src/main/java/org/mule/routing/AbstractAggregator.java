@@ -21,7 +21,9 @@ import org.mule.api.lifecycle.Startable;
 import org.mule.api.lifecycle.Stoppable;
 import org.mule.api.routing.Aggregator;
 import org.mule.api.routing.MessageInfoMapping;
+import org.mule.api.routing.RouterStatisticsRecorder;
 import org.mule.api.service.Service;
+import org.mule.management.stats.RouterStatistics;
 import org.mule.processor.AbstractInterceptingMessageProcessor;
 import org.mule.routing.correlation.EventCorrelator;
 import org.mule.routing.correlation.EventCorrelatorCallback;
@@ -35,7 +37,8 @@ import org.mule.util.concurrent.ThreadNameHelper;
  */
 
 public abstract class AbstractAggregator extends AbstractInterceptingMessageProcessor
-    implements Initialisable, MuleContextAware, FlowConstructAware, Aggregator, Startable, Stoppable, Disposable
+    implements Initialisable, MuleContextAware, FlowConstructAware, Aggregator, Startable, Stoppable, Disposable,
+    RouterStatisticsRecorder
 {
 
     protected EventCorrelator eventCorrelator;
@@ -47,6 +50,7 @@ public abstract class AbstractAggregator extends AbstractInterceptingMessageProc
     private boolean failOnTimeout = true;
     protected boolean persistentStores;
     protected String storePrefix = null;
+    private RouterStatistics routerStatistics;
 
     public void initialise() throws InitialisationException
     {
@@ -73,8 +77,29 @@ public abstract class AbstractAggregator extends AbstractInterceptingMessageProc
             }
         }
 
+        if (routerStatistics == null)
+        {
+            routerStatistics = createRouterStatistics();
+        }
+
         eventCorrelator.setTimeout(timeout);
         eventCorrelator.setFailOnTimeout(isFailOnTimeout());
+        eventCorrelator.setRouterStatistics(routerStatistics);
+    }
+
+    /**
+     * Uses the aggregator statistics of the flow construct, so they are published along with the rest
+     * of its statistics.
+     */
+    private RouterStatistics createRouterStatistics()
+    {
+        if (flowConstruct.getStatistics() != null)
+        {
+            return flowConstruct.getStatistics().getOrCreateAggregatorStatistics();
+        }
+        RouterStatistics statistics = new RouterStatistics(RouterStatistics.TYPE_INBOUND);
+        statistics.setEnabled(muleContext.getStatistics().isEnabled());
+        return statistics;
     }
 
     public void start() throws MuleException
@@ -162,6 +187,16 @@ public abstract class AbstractAggregator extends AbstractInterceptingMessageProc
         this.storePrefix = storePrefix;
     }
 
+    public RouterStatistics getRouterStatistics()
+    {
+        return routerStatistics;
+    }
+
+    public void setRouterStatistics(RouterStatistics routerStatistics)
+    {
+        this.routerStatistics = routerStatistics;
+    }
+
     public void dispose()
     {
         eventCorrelator.dispose();
@@ -31,6 +31,7 @@ import org.mule.api.store.ObjectStoreManager;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.context.notification.RoutingNotification;
 import org.mule.execution.ErrorHandlingExecutionTemplate;
+import org.mule.management.stats.RouterStatistics;
 import org.mule.routing.EventGroup;
 import org.mule.routing.EventProcessingThread;
 import org.mule.util.StringMessageUtils;
@@ -44,6 +45,9 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.util.concurrent.Striped;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -60,6 +64,23 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
     public static final int MAX_PROCESSED_GROUPS = 50000;
 
+    /**
+     * System property to define the number of locks used to serialize the processing of events
+     * with the same correlation id. Events whose ids map to different locks are processed in parallel.
+     */
+    public static final String LOCK_STRIPES_PROPERTY = MuleProperties.SYSTEM_PROPERTY_PREFIX + "correlator.lockStripes";
+
+    private static final int DEFAULT_LOCK_STRIPES = 256;
+
+    /**
+     * System property to define how often, in milliseconds, the expiry index is reloaded from the event
+     * groups store, so groups stored by other cluster nodes or before a restart are also expired.
+     * Zero or a negative value only loads the index when the node becomes the primary polling instance.
+     */
+    public static final String EXPIRY_INDEX_REFRESH_INTERVAL_PROPERTY = MuleProperties.SYSTEM_PROPERTY_PREFIX + "correlator.expiryIndexRefreshInterval";
+
+    private static final long DEFAULT_EXPIRY_INDEX_REFRESH_INTERVAL = 60 * 1000;
+
     private static final long ONE_DAY_IN_MILLI = 1000 * 60 * 60 * 24;
 
     protected long groupTimeToLive = ONE_DAY_IN_MILLI;
@@ -71,11 +92,24 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
      */
     protected ListableObjectStore<EventGroup> eventGroups;
 
-    protected final Object groupsLock = new Object();
+    /**
+     * Locks guarding the lookup, update and completion of each event group, selected by group id.
+     */
+    protected final Striped<Lock> groupLocks = Striped.lock(Integer.getInteger(LOCK_STRIPES_PROPERTY, DEFAULT_LOCK_STRIPES));
 
-    // @GuardedBy groupsLock
+    // @GuardedBy the lock of each group id
     protected ObjectStore<Long> processedGroups = null;
 
+    /**
+     * Ids of the groups in {@link #eventGroups} ordered by creation time, used to find the expired groups.
+     */
+    // @GuardedBy the lock of each group id
+    private final EventGroupExpiryIndex expiryIndex = new EventGroupExpiryIndex();
+
+    private final long expiryIndexRefreshInterval = Long.getLong(EXPIRY_INDEX_REFRESH_INTERVAL_PROPERTY, DEFAULT_EXPIRY_INDEX_REFRESH_INTERVAL);
+
+    private RouterStatistics routerStatistics;
+
     private long timeout = -1; // undefined
 
     private boolean failOnTimeout = true;
@@ -144,15 +178,19 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
     public void forceGroupExpiry(String groupId) throws MessagingException
     {
+        EventGroup group;
+        Lock groupLock = getGroupLock(groupId);
+        groupLock.lock();
         try
         {
             if (eventGroups.retrieve(groupId) != null)
             {
-                handleGroupExpiry(getEventGroup(groupId));
+                group = getEventGroup(groupId);
             }
             else
             {
                 addProcessedGroup(groupId);
+                return;
             }
         }
         catch (ObjectStoreException e)
@@ -160,6 +198,11 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             // TODO improve this
             throw new MessagingException(null, e);
         }
+        finally
+        {
+            groupLock.unlock();
+        }
+        handleGroupExpiry(group);
     }
 
     public MuleEvent process(MuleEvent event) throws RoutingException
@@ -186,8 +229,11 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             throw new RoutingException(CoreMessages.noCorrelationId(), event, timeoutMessageProcessor);
         }
 
-        // spinloop for the EventGroup lookup
-        while (true)
+        // ensure that only one thread at a time evaluates the EventGroup for this correlation id,
+        // events for other groups are processed concurrently
+        Lock groupLock = getGroupLock(groupId);
+        groupLock.lock();
+        try
         {
             try
             {
@@ -216,76 +262,70 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             try
             {
                 group = this.getEventGroup(groupId);
+
+                // does the group exist?
+                if (group == null)
+                {
+                    // ..apparently not, so create a new one & add it
+                    group = this.addEventGroup(callback.createEventGroup(event, groupId));
+                    expiryIndex.add(groupId, group.getCreated());
+                }
             }
             catch (ObjectStoreException e)
             {
                 throw new RoutingException(event, timeoutMessageProcessor, e);
             }
 
-            // does the group exist?
-            if (group == null)
+            if (logger.isDebugEnabled())
             {
-                // ..apparently not, so create a new one & add it
-                try
-                {
-                    group = this.addEventGroup(callback.createEventGroup(event, groupId));
-                }
-                catch (ObjectStoreException e)
-                {
-                    throw new RoutingException(event, timeoutMessageProcessor, e);
-                }
+                logger.debug("Adding event to aggregator group: " + groupId);
+            }
+
+            // add the incoming event to the group
+            try
+            {
+                group.addEvent(event);
+            }
+            catch (ObjectStoreException e)
+            {
+                throw new RoutingException(event, timeoutMessageProcessor, e);
             }
 
-            // ensure that only one thread at a time evaluates this EventGroup
-            synchronized (groupsLock)
+            // check to see if the event group is ready to be aggregated
+            if (callback.shouldAggregateEvents(group))
             {
-                if (logger.isDebugEnabled())
+                // create the response event
+                MuleEvent returnEvent = callback.aggregateEvents(group);
+                returnEvent.getMessage().setCorrelationId(groupId);
+                String rootId = group.getCommonRootId();
+                if (rootId != null)
                 {
-                    logger.debug("Adding event to aggregator group: " + groupId);
+                    returnEvent.getMessage().setMessageRootId(rootId);
                 }
 
-                // add the incoming event to the group
+                // remove the eventGroup as no further message will be received
+                // for this group once we aggregate
                 try
                 {
-                    group.addEvent(event);
+                    this.removeEventGroup(group);
+                    group.clear();
                 }
                 catch (ObjectStoreException e)
                 {
                     throw new RoutingException(event, timeoutMessageProcessor, e);
                 }
 
-                // check to see if the event group is ready to be aggregated
-                if (callback.shouldAggregateEvents(group))
-                {
-                    // create the response event
-                    MuleEvent returnEvent = callback.aggregateEvents(group);
-                    returnEvent.getMessage().setCorrelationId(groupId);
-                    String rootId = group.getCommonRootId();
-                    if (rootId != null)
-                    {
-                        returnEvent.getMessage().setMessageRootId(rootId);
-                    }
-
-                    // remove the eventGroup as no further message will be received
-                    // for this group once we aggregate
-                    try
-                    {
-                        this.removeEventGroup(group);
-                        group.clear();
-                    }
-                    catch (ObjectStoreException e)
-                    {
-                        throw new RoutingException(event, timeoutMessageProcessor, e);
-                    }
-
-                    return returnEvent;
-                }
-                else
-                {
-                    return null;
-                }
+                return returnEvent;
+            }
+            else
+            {
+                return null;
             }
         }
+        finally
+        {
+            groupLock.unlock();
+        }
     }
 
     protected EventGroup getEventGroup(Serializable groupId) throws ObjectStoreException
@@ -293,7 +333,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
         try
         {
             EventGroup eventGroup = eventGroups.retrieve(groupId);
-            if (!eventGroup.isInitialised())
+            if (eventGroup != null && !eventGroup.isInitialised())
             {
                 try
                 {
@@ -329,23 +369,27 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
     {
         final Object groupId = group.getGroupId();
         eventGroups.remove((Serializable) groupId);
+        expiryIndex.remove((Serializable) groupId);
         addProcessedGroup(groupId);
     }
 
     protected void addProcessedGroup(Object id) throws ObjectStoreException
     {
-        synchronized (groupsLock)
-        {
-            processedGroups.store((Serializable) id, System.currentTimeMillis());
-        }
+        processedGroups.store((Serializable) id, System.currentTimeMillis());
     }
 
     protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException
     {
-        synchronized (groupsLock)
-        {
-            return processedGroups.contains((Serializable) id);
-        }
+        return processedGroups.contains((Serializable) id);
+    }
+
+    /**
+     * @param groupId correlation id of the group
+     * @return the lock that must be held while the group is looked up, updated or completed
+     */
+    protected Lock getGroupLock(Object groupId)
+    {
+        return groupLocks.get(groupId);
     }
 
     public boolean isFailOnTimeout()
@@ -368,16 +412,47 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
         this.timeout = timeout;
     }
 
+    public RouterStatistics getRouterStatistics()
+    {
+        return routerStatistics;
+    }
+
+    public void setRouterStatistics(RouterStatistics routerStatistics)
+    {
+        this.routerStatistics = routerStatistics;
+    }
+
+    private boolean isStatisticsEnabled()
+    {
+        return routerStatistics != null && routerStatistics.isEnabled();
+    }
+
     protected void handleGroupExpiry(EventGroup group) throws MessagingException
     {
+        Lock groupLock = getGroupLock(group.getGroupId());
+        groupLock.lock();
         try
         {
+            if (!eventGroups.contains((Serializable) group.getGroupId()))
+            {
+                // the group was completed or expired by another thread
+                return;
+            }
             removeEventGroup(group);
         }
         catch (ObjectStoreException e)
         {
             throw new MessagingException(group.getMessageCollectionEvent(), e);
         }
+        finally
+        {
+            groupLock.unlock();
+        }
+
+        if (isStatisticsEnabled())
+        {
+            routerStatistics.incrementExpiredGroups();
+        }
 
         if (isFailOnTimeout())
         {
@@ -444,6 +519,10 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                         }
                         expiredAndDispatchedGroups.store((Serializable) group.getGroupId(),
                                                          group.getCreated());
+                        if (isStatisticsEnabled())
+                        {
+                            routerStatistics.incrementDispatchedGroups();
+                        }
                     }
                     else
                     {
@@ -488,6 +567,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
         private ExpiryMonitor expiryMonitor;
         public static final long DELAY_TIME = 10;
+        private boolean primaryNode;
+        private long nextExpiryIndexRefresh;
 
         public ExpiringGroupMonitoringThread()
         {
@@ -533,19 +614,32 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             ////in a different node when the primary goes down.
             if (!muleContext.isPrimaryPollingInstance())
             {
+                primaryNode = false;
                 return;
             }
 
+            long now = System.currentTimeMillis();
+            if (!primaryNode || (expiryIndexRefreshInterval > 0 && now >= nextExpiryIndexRefresh))
+            {
+                primaryNode = true;
+                nextExpiryIndexRefresh = now + expiryIndexRefreshInterval;
+                refreshExpiryIndex();
+            }
+
             List<EventGroup> expired = new ArrayList<EventGroup>(1);
             try
             {
-                for (Serializable o : eventGroups.allKeys())
+                for (Serializable groupId : expiryIndex.getGroupsCreatedBefore(now - getTimeout()))
                 {
-                    EventGroup group = getEventGroup(o);
-                    if (group.getCreated() + getTimeout() < System.currentTimeMillis())
+                    EventGroup group = getEventGroup(groupId);
+                    if (group != null)
                     {
                         expired.add(group);
                     }
+                    else
+                    {
+                        removeStaleIndexEntry(groupId);
+                    }
                 }
             }
             catch (ObjectStoreException e)
@@ -582,6 +676,59 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             }
         }
 
+        /**
+         * Adds to the expiry index the groups in the store that were created by other cluster nodes or
+         * before a restart. Only done when taking over expiration and then periodically, as it
+         * requires reading every group.
+         */
+        private void refreshExpiryIndex()
+        {
+            try
+            {
+                for (Serializable groupId : eventGroups.allKeys())
+                {
+                    if (!expiryIndex.contains(groupId))
+                    {
+                        Lock groupLock = getGroupLock(groupId);
+                        groupLock.lock();
+                        try
+                        {
+                            EventGroup group = getEventGroup(groupId);
+                            if (group != null)
+                            {
+                                expiryIndex.add(groupId, group.getCreated());
+                            }
+                        }
+                        finally
+                        {
+                            groupLock.unlock();
+                        }
+                    }
+                }
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("Could not load event groups to expire due to ObjectStoreException " + e);
+            }
+        }
+
+        private void removeStaleIndexEntry(Serializable groupId) throws ObjectStoreException
+        {
+            Lock groupLock = getGroupLock(groupId);
+            groupLock.lock();
+            try
+            {
+                if (!eventGroups.contains(groupId))
+                {
+                    expiryIndex.remove(groupId);
+                }
+            }
+            finally
+            {
+                groupLock.unlock();
+            }
+        }
+
         @Override
         public void dispose()
         {
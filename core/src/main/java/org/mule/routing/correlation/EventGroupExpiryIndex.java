@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.routing.correlation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the ids of the event groups held by an {@link EventCorrelator} ordered by creation time,
+ * so the groups that reached their timeout can be found without walking the whole group store.
+ * <p/>
+ * The index only holds group ids and creation times, groups are still retrieved from the
+ * store once they expire.
+ */
+class EventGroupExpiryIndex
+{
+
+    private final ConcurrentSkipListSet<Entry> entriesByCreation = new ConcurrentSkipListSet<Entry>();
+    private final ConcurrentMap<Serializable, Entry> entriesById = new ConcurrentHashMap<Serializable, Entry>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Registers a group, does nothing if the group is already registered.
+     *
+     * @param groupId id of the group
+     * @param created creation time of the group in milliseconds
+     */
+    void add(Serializable groupId, long created)
+    {
+        Entry entry = new Entry(groupId, created, sequence.incrementAndGet());
+        if (entriesById.putIfAbsent(groupId, entry) == null)
+        {
+            entriesByCreation.add(entry);
+        }
+    }
+
+    /**
+     * Unregisters a group.
+     *
+     * @param groupId id of the group
+     */
+    void remove(Serializable groupId)
+    {
+        Entry entry = entriesById.remove(groupId);
+        if (entry != null)
+        {
+            entriesByCreation.remove(entry);
+        }
+    }
+
+    /**
+     * @param createdBefore limit creation time in milliseconds, exclusive
+     * @return the ids of the groups created before the given time, oldest first
+     */
+    List<Serializable> getGroupsCreatedBefore(long createdBefore)
+    {
+        List<Serializable> groupIds = new ArrayList<Serializable>(1);
+        for (Entry entry : entriesByCreation)
+        {
+            if (entry.created >= createdBefore)
+            {
+                break;
+            }
+            groupIds.add(entry.groupId);
+        }
+        return groupIds;
+    }
+
+    boolean contains(Serializable groupId)
+    {
+        return entriesById.containsKey(groupId);
+    }
+
+    int size()
+    {
+        return entriesById.size();
+    }
+
+    void clear()
+    {
+        entriesById.clear();
+        entriesByCreation.clear();
+    }
+
+    private static final class Entry implements Comparable<Entry>
+    {
+
+        private final Serializable groupId;
+        private final long created;
+        private final long sequence;
+
+        private Entry(Serializable groupId, long created, long sequence)
+        {
+            this.groupId = groupId;
+            this.created = created;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other)
+        {
+            if (created != other.created)
+            {
+                return created < other.created ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.api.MuleContext;
+import org.mule.api.context.MuleContextAware;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.util.store.DeserializationPostInitialisable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.lang.SerializationException;
+
+/**
+ * Base {@link ObjectSerializer} that validates the arguments, takes care of closing the streams, wraps the
+ * errors into {@link SerializationException} and initializes the
+ * {@link DeserializationPostInitialisable} objects after deserialization.
+ *
+ * @since 3.7.0
+ */
+public abstract class AbstractObjectSerializer implements ObjectSerializer, MuleContextAware
+{
+
+    protected MuleContext muleContext;
+
+    @Override
+    public byte[] serialize(Object object) throws SerializationException
+    {
+        try
+        {
+            return doSerialize(object);
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(e);
+        }
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream out) throws SerializationException
+    {
+        if (out == null)
+        {
+            throw new IllegalArgumentException("The OutputStream must not be null");
+        }
+        try
+        {
+            doSerialize(object, out);
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(e);
+        }
+        finally
+        {
+            closeQuietly(out);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes) throws SerializationException
+    {
+        return deserialize(bytes, getDefaultClassLoader());
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, ClassLoader classLoader) throws SerializationException
+    {
+        if (bytes == null)
+        {
+            throw new IllegalArgumentException("The byte[] must not be null");
+        }
+        return deserialize(new ByteArrayInputStream(bytes), classLoader);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream) throws SerializationException
+    {
+        return deserialize(inputStream, getDefaultClassLoader());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(InputStream inputStream, ClassLoader classLoader) throws SerializationException
+    {
+        if (inputStream == null)
+        {
+            throw new IllegalArgumentException("The InputStream must not be null");
+        }
+        if (classLoader == null)
+        {
+            throw new IllegalArgumentException("The ClassLoader must not be null");
+        }
+        try
+        {
+            Object object = doDeserialize(inputStream, classLoader);
+            if (object instanceof DeserializationPostInitialisable && muleContext != null)
+            {
+                DeserializationPostInitialisable.Implementation.init(object, muleContext);
+            }
+            return (T) object;
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(e);
+        }
+        finally
+        {
+            closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Serializes the object into a byte array. Writes into a new {@link ByteArrayOutputStream} by default,
+     * implementations may override it to reuse buffers.
+     */
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        doSerialize(object, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the object into the stream, which is closed by the caller.
+     */
+    protected abstract void doSerialize(Object object, OutputStream out) throws Exception;
+
+    /**
+     * Reads an object from the stream, which is closed by the caller.
+     */
+    protected abstract Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception;
+
+    protected ClassLoader getDefaultClassLoader()
+    {
+        if (muleContext != null && muleContext.getExecutionClassLoader() != null)
+        {
+            return muleContext.getExecutionClassLoader();
+        }
+        return Thread.currentThread().getContextClassLoader();
+    }
+
+    private void closeQuietly(Closeable closeable)
+    {
+        try
+        {
+            closeable.close();
+        }
+        catch (IOException e)
+        {
+            // ignore close exception
+        }
+    }
+
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        this.muleContext = context;
+    }
+}
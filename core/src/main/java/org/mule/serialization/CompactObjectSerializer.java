@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.MessagePropertiesContext;
+import org.mule.management.stats.ProcessingTime;
+import org.mule.session.DefaultMuleSession;
+import org.mule.transformer.types.CollectionDataType;
+import org.mule.transformer.types.SimpleDataType;
+import org.mule.transport.NullPayload;
+import org.mule.util.CaseInsensitiveConcurrentMap;
+import org.mule.util.CaseInsensitiveMapWrapper;
+import org.mule.util.CaseInsensitiveOpenHashMap;
+import org.mule.util.CopyOnWriteCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * {@link org.mule.api.serialization.ObjectSerializer} that builds on Java serialization, so any
+ * {@link java.io.Serializable} object is supported with its custom serialization methods, but reduces both
+ * the size of the data and the time spent writing it:
+ * <ul>
+ * <li>Registered classes are written as a two bytes id instead of a full class descriptor with the class
+ * name, serial version UID and fields. The classes of the Mule messages, events and sessions and the most
+ * common JDK types are registered by default, more can be added with {@link #setRegisteredClasses(List)}.</li>
+ * <li>The stream header is not written and each thread reuses its output buffer and object stream when
+ * serializing into byte arrays.</li>
+ * </ul>
+ * The data starts with a marker byte that allows to tell it apart from standard Java serialization, which is
+ * still read. As ids depend on the order of registration, the classes registered by an application can only
+ * be appended while there is data written with the previous registrations.
+ * <p/>
+ * It is not used unless it is registered as the
+ * {@link org.mule.api.config.MuleProperties#OBJECT_SERIALIZER} object, for instance with a
+ * {@code <spring:bean name="_muleDefaultObjectSerializer" class="org.mule.serialization.CompactObjectSerializer"/>}
+ * in the application config. Data it writes cannot be read back by {@link JavaObjectSerializer}.
+ *
+ * @since 3.7.0
+ */
+public class CompactObjectSerializer extends AbstractObjectSerializer
+{
+
+    /**
+     * First byte of the serialized data. Java serialization streams start with 0xAC.
+     */
+    static final byte FORMAT_MARKER = (byte) 0xC5;
+
+    private static final int UNREGISTERED_CLASS = 0;
+    private static final int MAX_REGISTERED_CLASSES = 0xFFFE;
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<Class<?>> DEFAULT_REGISTERED_CLASSES = Arrays.<Class<?>>asList(
+            DefaultMuleMessage.class, DefaultMuleEvent.class, MessagePropertiesContext.class,
+            DefaultMuleSession.class, CopyOnWriteCaseInsensitiveMap.class, CaseInsensitiveOpenHashMap.class,
+            CaseInsensitiveMapWrapper.class, CaseInsensitiveConcurrentMap.class, SimpleDataType.class,
+            CollectionDataType.class, MessageExchangePattern.class, ProcessingTime.class, NullPayload.class,
+            Object[].class, String[].class, byte[].class, Enum.class, Number.class, Integer.class, Long.class,
+            Boolean.class, Double.class, Date.class, URI.class, HashMap.class, LinkedHashMap.class,
+            TreeMap.class, ConcurrentHashMap.class, ArrayList.class, LinkedList.class, HashSet.class);
+
+    private volatile ClassRegistry classRegistry = new ClassRegistry(DEFAULT_REGISTERED_CLASSES);
+
+    private final ThreadLocal<ReusableOutput> reusableOutput = new ThreadLocal<ReusableOutput>()
+    {
+        @Override
+        protected ReusableOutput initialValue()
+        {
+            try
+            {
+                return new ReusableOutput();
+            }
+            catch (IOException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /**
+     * Registers classes in addition to the default ones. Both the writer and the reader of the data must
+     * register the same classes in the same order.
+     */
+    public void setRegisteredClasses(List<Class<?>> registeredClasses)
+    {
+        List<Class<?>> classes = new ArrayList<Class<?>>(DEFAULT_REGISTERED_CLASSES);
+        classes.addAll(registeredClasses);
+        classRegistry = new ClassRegistry(classes);
+    }
+
+    @Override
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        ReusableOutput output = reusableOutput.get();
+        if (output.inUse)
+        {
+            // Serializing from the custom serialization method of another object being serialized
+            return super.doSerialize(object);
+        }
+        if (output.registry != classRegistry)
+        {
+            reusableOutput.remove();
+            output = reusableOutput.get();
+        }
+
+        boolean reusable = false;
+        output.inUse = true;
+        try
+        {
+            byte[] bytes = output.write(object);
+            reusable = output.buffer.capacity() <= MAX_REUSED_BUFFER_SIZE;
+            return bytes;
+        }
+        finally
+        {
+            output.inUse = false;
+            if (!reusable)
+            {
+                // Either the stream state is unknown after a failure or the buffer is too big to keep
+                reusableOutput.remove();
+            }
+        }
+    }
+
+    @Override
+    protected void doSerialize(Object object, OutputStream out) throws Exception
+    {
+        out.write(FORMAT_MARKER);
+        ObjectOutputStream objectOutputStream = new RegisteredClassesObjectOutputStream(out);
+        objectOutputStream.writeObject(object);
+        objectOutputStream.flush();
+    }
+
+    @Override
+    protected Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception
+    {
+        PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, 1);
+        int marker = pushbackInputStream.read();
+        if (marker == (FORMAT_MARKER & 0xFF))
+        {
+            return new RegisteredClassesObjectInputStream(pushbackInputStream, classLoader).readObject();
+        }
+
+        if (marker != -1)
+        {
+            pushbackInputStream.unread(marker);
+        }
+        return new ClassLoaderObjectInputStream(classLoader, pushbackInputStream).readObject();
+    }
+
+    private static class ClassRegistry
+    {
+
+        private final Class<?>[] classes;
+        private final Map<Class<?>, Integer> ids;
+
+        ClassRegistry(List<Class<?>> registeredClasses)
+        {
+            if (registeredClasses.size() > MAX_REGISTERED_CLASSES)
+            {
+                throw new IllegalArgumentException("Cannot register more than " + MAX_REGISTERED_CLASSES + " classes");
+            }
+            classes = registeredClasses.toArray(new Class<?>[registeredClasses.size()]);
+            ids = new IdentityHashMap<Class<?>, Integer>(classes.length);
+            for (int i = 0; i < classes.length; i++)
+            {
+                if (ObjectStreamClass.lookup(classes[i]) == null)
+                {
+                    throw new IllegalArgumentException("Class " + classes[i].getName() + " is not serializable");
+                }
+                if (ids.put(classes[i], i + 1) != null)
+                {
+                    throw new IllegalArgumentException("Class " + classes[i].getName() + " is registered twice");
+                }
+            }
+        }
+
+        int idOf(Class<?> type)
+        {
+            Integer id = ids.get(type);
+            return id == null ? UNREGISTERED_CLASS : id;
+        }
+
+        Class<?> classOf(int id)
+        {
+            return id > 0 && id <= classes.length ? classes[id - 1] : null;
+        }
+    }
+
+    private class RegisteredClassesObjectOutputStream extends ObjectOutputStream
+    {
+
+        private final ClassRegistry registry = classRegistry;
+
+        RegisteredClassesObjectOutputStream(OutputStream out) throws IOException
+        {
+            super(out);
+        }
+
+        @Override
+        protected void writeStreamHeader() throws IOException
+        {
+            // The format marker replaces the stream header
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException
+        {
+            int id = registry.idOf(desc.forClass());
+            writeShort(id);
+            if (id == UNREGISTERED_CLASS)
+            {
+                super.writeClassDescriptor(desc);
+            }
+        }
+    }
+
+    private class RegisteredClassesObjectInputStream extends ObjectInputStream
+    {
+
+        private final ClassRegistry registry = classRegistry;
+        private final ClassLoader classLoader;
+
+        RegisteredClassesObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException
+        {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected void readStreamHeader() throws IOException
+        {
+            // The format marker replaces the stream header
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException
+        {
+            int id = readUnsignedShort();
+            if (id == UNREGISTERED_CLASS)
+            {
+                return super.readClassDescriptor();
+            }
+            Class<?> type = registry.classOf(id);
+            if (type == null)
+            {
+                throw new InvalidClassException("No class is registered with id " + id);
+            }
+            return ObjectStreamClass.lookup(type);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+        {
+            try
+            {
+                return Class.forName(desc.getName(), false, classLoader);
+            }
+            catch (ClassNotFoundException e)
+            {
+                // Primitive types are not resolved by the class loader
+                return super.resolveClass(desc);
+            }
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException
+        {
+            Class<?>[] interfaceClasses = new Class<?>[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++)
+            {
+                interfaceClasses[i] = Class.forName(interfaces[i], false, classLoader);
+            }
+            try
+            {
+                return Proxy.getProxyClass(classLoader, interfaceClasses);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return super.resolveProxyClass(interfaces);
+            }
+        }
+    }
+
+    /**
+     * Buffer and object stream reused by a thread to serialize objects into byte arrays.
+     */
+    private class ReusableOutput
+    {
+
+        private final ReusableByteArrayOutputStream buffer = new ReusableByteArrayOutputStream();
+        private final RegisteredClassesObjectOutputStream objectOutputStream;
+        private final ClassRegistry registry;
+        private boolean inUse;
+
+        ReusableOutput() throws IOException
+        {
+            objectOutputStream = new RegisteredClassesObjectOutputStream(buffer);
+            registry = objectOutputStream.registry;
+        }
+
+        byte[] write(Object object) throws IOException
+        {
+            buffer.reset();
+            buffer.write(FORMAT_MARKER);
+            objectOutputStream.writeObject(object);
+            objectOutputStream.flush();
+            byte[] bytes = buffer.toByteArray();
+
+            // Forgets the written objects, so the next one is written as in a new stream. The reset mark
+            // written to the buffer is discarded.
+            objectOutputStream.reset();
+            objectOutputStream.flush();
+            return bytes;
+        }
+    }
+
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream
+    {
+
+        ReusableByteArrayOutputStream()
+        {
+            super(512);
+        }
+
+        int capacity()
+        {
+            return buf.length;
+        }
+    }
+}
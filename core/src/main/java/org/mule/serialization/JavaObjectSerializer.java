@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * Default {@link org.mule.api.serialization.ObjectSerializer}, it uses standard Java serialization.
+ * The data it writes can be read by any version of Mule.
+ *
+ * @since 3.7.0
+ */
+public class JavaObjectSerializer extends AbstractObjectSerializer
+{
+
+    @Override
+    protected void doSerialize(Object object, OutputStream out) throws Exception
+    {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(out);
+        objectOutputStream.writeObject(object);
+        objectOutputStream.flush();
+    }
+
+    @Override
+    protected Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception
+    {
+        return new ClassLoaderObjectInputStream(classLoader, inputStream).readObject();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import org.mule.api.MuleContext;
+import org.mule.api.MuleSession;
+import org.mule.api.security.SecurityContext;
+import org.mule.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.SerializationException;
+
+/**
+ * Compact binary representation of a {@link MuleSession} used by {@link LazySessionHandler}.
+ * <p/>
+ * The session id, valid flag and security context form a header that is read as soon as the session is
+ * received. Properties follow the header and are only read when first accessed. Strings, booleans, integers,
+ * longs, doubles and byte arrays are written natively, any other value is written using the
+ * {@link org.mule.api.serialization.ObjectSerializer} of the context.
+ */
+final class BinarySessionFormat
+{
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte MAGIC = 'M';
+    private static final byte VERSION = 1;
+
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BYTES = 6;
+    private static final byte SERIALIZED = 7;
+
+    private BinarySessionFormat()
+    {
+    }
+
+    /**
+     * @return true if the bytes were written by {@link #serialize(MuleSession, MuleContext)}, false if they
+     *         are a Java serialized session
+     */
+    static boolean isBinaryFormat(byte[] bytes)
+    {
+        return bytes.length > 1 && bytes[0] == MAGIC && bytes[1] == VERSION;
+    }
+
+    /**
+     * Serializes the session. All the property values must be {@link Serializable}.
+     */
+    static byte[] serialize(MuleSession session, MuleContext muleContext)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, session.getId());
+            out.writeBoolean(session.isValid());
+
+            SecurityContext securityContext = session.getSecurityContext();
+            if (securityContext instanceof Serializable)
+            {
+                writeBytes(out, SerializationUtils.serialize((Serializable) securityContext, muleContext));
+            }
+            else
+            {
+                out.writeInt(-1);
+            }
+
+            Set<String> propertyNames = session.getPropertyNamesAsSet();
+            out.writeInt(propertyNames.size());
+            for (String propertyName : propertyNames)
+            {
+                writeString(out, propertyName);
+                writeValue(out, session.getProperty(propertyName), muleContext);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new SerializationException(e);
+        }
+    }
+
+    /**
+     * Reads the session header. Properties are left in the bytes and are read by {@link LazySessionProperties}
+     * when first accessed.
+     *
+     * @param bytes the serialized session
+     * @param encodedSession the value of the header the bytes were decoded from
+     * @param muleContext context used to resolve the classes of serialized values
+     */
+    static DefaultMuleSession deserialize(byte[] bytes, String encodedSession, MuleContext muleContext)
+    {
+        try
+        {
+            ByteArrayInputStream byteStream = new ByteArrayInputStream(bytes);
+            DataInputStream in = new DataInputStream(byteStream);
+            in.skipBytes(2);
+            String id = readString(in);
+            boolean valid = in.readBoolean();
+
+            SecurityContext securityContext = null;
+            byte[] securityContextBytes = readBytes(in);
+            if (securityContextBytes != null)
+            {
+                securityContext = (SecurityContext) SerializationUtils.deserialize(securityContextBytes, muleContext);
+            }
+
+            int propertiesOffset = bytes.length - byteStream.available();
+            LazySessionProperties properties = new LazySessionProperties(bytes, propertiesOffset, muleContext);
+            return new DefaultMuleSession(id, valid, securityContext, properties, encodedSession);
+        }
+        catch (IOException e)
+        {
+            throw new SerializationException(e);
+        }
+    }
+
+    /**
+     * Reads the properties written after the session header.
+     */
+    static void deserializeProperties(byte[] bytes, int offset, MuleContext muleContext, Map<String, Object> properties)
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset));
+            int size = in.readInt();
+            for (int i = 0; i < size; i++)
+            {
+                String key = readString(in);
+                properties.put(key, readValue(in, muleContext));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new SerializationException(e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value, MuleContext muleContext) throws IOException
+    {
+        if (value instanceof String)
+        {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        }
+        else if (value instanceof Boolean)
+        {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof Integer)
+        {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        }
+        else if (value instanceof Long)
+        {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        }
+        else if (value instanceof Double)
+        {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        }
+        else if (value instanceof byte[])
+        {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        }
+        else
+        {
+            out.writeByte(SERIALIZED);
+            writeBytes(out, SerializationUtils.serialize((Serializable) value, muleContext));
+        }
+    }
+
+    private static Object readValue(DataInputStream in, MuleContext muleContext) throws IOException
+    {
+        byte type = in.readByte();
+        switch (type)
+        {
+            case STRING:
+                return readString(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BYTES:
+                return readBytes(in);
+            case SERIALIZED:
+                return SerializationUtils.deserialize(readBytes(in), muleContext);
+            default:
+                throw new IOException("Unknown session property type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        writeBytes(out, value == null ? null : value.getBytes(UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeInt(-1);
+        }
+        else
+        {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0)
+        {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
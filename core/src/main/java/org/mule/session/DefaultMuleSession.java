@@ -61,6 +61,12 @@ public final class DefaultMuleSession implements MuleSession
     @Deprecated
     private FlowConstruct flowConstruct;
 
+    /**
+     * The encoded session this session was received as, which can be sent again while the session is not
+     * modified. See {@link LazySessionHandler}.
+     */
+    private transient String encodedSession;
+
     public DefaultMuleSession()
     {
         id = UUID.getUUID();
@@ -82,8 +88,12 @@ public final class DefaultMuleSession implements MuleSession
     public DefaultMuleSession(MuleSession session)
     {
         this.id = session.getId();
-        this.securityContext = session.getSecurityContext();
         this.valid = session.isValid();
+        if (session instanceof DefaultMuleSession && copyEncodedSession((DefaultMuleSession) session))
+        {
+            return;
+        }
+        this.securityContext = session.getSecurityContext();
 
         createPropertiesMap();
         for (String key : session.getPropertyNamesAsSet())
@@ -92,6 +102,36 @@ public final class DefaultMuleSession implements MuleSession
         }
     }
 
+    DefaultMuleSession(String id, boolean valid, SecurityContext securityContext,
+                       LazySessionProperties properties, String encodedSession)
+    {
+        this.id = id;
+        this.valid = valid;
+        this.securityContext = securityContext;
+        this.properties = properties;
+        this.encodedSession = encodedSession;
+    }
+
+    /**
+     * Shares the encoded session of the given session if its properties were not read yet, so the copy does
+     * not need to read them either.
+     */
+    private boolean copyEncodedSession(DefaultMuleSession session)
+    {
+        if (session.encodedSession != null && session.properties instanceof LazySessionProperties)
+        {
+            LazySessionProperties pendingProperties = ((LazySessionProperties) session.properties).copyPending();
+            if (pendingProperties != null)
+            {
+                this.securityContext = session.securityContext;
+                this.properties = pendingProperties;
+                this.encodedSession = session.encodedSession;
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Deprecated constructor
 
     @Deprecated
@@ -135,6 +175,10 @@ public final class DefaultMuleSession implements MuleSession
     @Override
     public void setValid(boolean value)
     {
+        if (valid != value)
+        {
+            encodedSession = null;
+        }
         valid = value;
     }
 
@@ -255,6 +299,20 @@ public final class DefaultMuleSession implements MuleSession
         return properties;
     }
 
+    /**
+     * @return the encoded session this session was received as if it was not modified since, null otherwise.
+     *         Sessions with a security context are never considered unmodified, as the context is mutable.
+     */
+    String getEncodedSession()
+    {
+        if (encodedSession != null && securityContext == null && properties instanceof LazySessionProperties
+            && !((LazySessionProperties) properties).isModified())
+        {
+            return encodedSession;
+        }
+        return null;
+    }
+
     void removeNonSerializableProperties()
     {
         Iterator<Entry<String, Object>> propertyIterator = properties.entrySet().iterator();
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.MuleSession;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.model.SessionException;
+import org.mule.config.i18n.MessageFactory;
+import org.mule.util.Base64;
+import org.mule.util.SerializationUtils;
+
+import java.io.IOException;
+
+/**
+ * A session handler that stores the session in the "MULE_SESSION" property as a Base64 encoded byte array,
+ * like {@link SerializeAndEncodeSessionHandler}, but using a compact binary format instead of Java
+ * serialization.
+ * <p/>
+ * Session properties are only read when first accessed. If the session was not modified since it was
+ * retrieved from a message, the received property is sent again as it is instead of serializing the session.
+ * Sessions serialized by {@link SerializeAndEncodeSessionHandler} can also be retrieved, but the receivers of
+ * the sessions stored by this handler must use this handler too.
+ */
+public class LazySessionHandler extends SerializeAndEncodeSessionHandler
+{
+
+    @Override
+    public MuleSession retrieveSessionInfoFromMessage(MuleMessage message) throws MuleException
+    {
+        String serializedEncodedSession = message.getInboundProperty(MuleProperties.MULE_SESSION_PROPERTY);
+        if (serializedEncodedSession == null)
+        {
+            return null;
+        }
+
+        byte[] serializedSession = Base64.decode(serializedEncodedSession);
+        if (serializedSession == null)
+        {
+            return null;
+        }
+        if (BinarySessionFormat.isBinaryFormat(serializedSession))
+        {
+            return BinarySessionFormat.deserialize(serializedSession, serializedEncodedSession, message.getMuleContext());
+        }
+        return (MuleSession) SerializationUtils.deserialize(serializedSession, message.getMuleContext());
+    }
+
+    @Override
+    public void storeSessionInfoToMessage(MuleSession session, MuleMessage message) throws MuleException
+    {
+        String serializedEncodedSession = null;
+        if (session instanceof DefaultMuleSession)
+        {
+            serializedEncodedSession = ((DefaultMuleSession) session).getEncodedSession();
+        }
+
+        if (serializedEncodedSession == null)
+        {
+            byte[] serializedSession = BinarySessionFormat.serialize(removeNonSerializableProperties(session, message.getMuleContext()), message.getMuleContext());
+            try
+            {
+                serializedEncodedSession = Base64.encodeBytes(serializedSession, Base64.DONT_BREAK_LINES);
+            }
+            catch (IOException e)
+            {
+                throw new SessionException(MessageFactory.createStaticMessage("Unable to serialize MuleSession"), e);
+            }
+        }
+        else if (logger.isDebugEnabled())
+        {
+            logger.debug("Session was not modified, propagating received session header");
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Adding encoded Session header to message: " + serializedEncodedSession);
+        }
+        message.setOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY, serializedEncodedSession);
+    }
+}
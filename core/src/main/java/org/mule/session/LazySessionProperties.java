@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import org.mule.api.MuleContext;
+import org.mule.util.CaseInsensitiveConcurrentMap;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session properties read from a {@link BinarySessionFormat} only when they are first accessed.
+ * <p/>
+ * Keeps track of whether the properties may have changed since they were received, so the received bytes can
+ * be sent again instead of serializing the session. Properties are considered modified once they are written,
+ * removed, or a value that is not immutable is handed out, as it could be changed in place.
+ */
+class LazySessionProperties implements Map<String, Object>, Serializable
+{
+
+    private static final long serialVersionUID = -2413785027593916324L;
+
+    private transient byte[] serializedProperties;
+    private transient int offset;
+    private transient MuleContext muleContext;
+    private transient volatile boolean modified;
+
+    private transient volatile Map<String, Object> properties;
+
+    LazySessionProperties(byte[] serializedProperties, int offset, MuleContext muleContext)
+    {
+        this.serializedProperties = serializedProperties;
+        this.offset = offset;
+        this.muleContext = muleContext;
+    }
+
+    /**
+     * @return true if the properties may differ from the ones received
+     */
+    boolean isModified()
+    {
+        return modified;
+    }
+
+    /**
+     * @return a copy of these properties that still has to be read, or null if these were already read
+     */
+    synchronized LazySessionProperties copyPending()
+    {
+        if (properties != null)
+        {
+            return null;
+        }
+        return new LazySessionProperties(serializedProperties, offset, muleContext);
+    }
+
+    private Map<String, Object> properties()
+    {
+        Map<String, Object> current = properties;
+        if (current == null)
+        {
+            synchronized (this)
+            {
+                current = properties;
+                if (current == null)
+                {
+                    current = new CaseInsensitiveConcurrentMap<Object>();
+                    BinarySessionFormat.deserializeProperties(serializedProperties, offset, muleContext, current);
+                    properties = current;
+                    serializedProperties = null;
+                    muleContext = null;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, Object> modifiableProperties()
+    {
+        Map<String, Object> current = properties();
+        modified = true;
+        return current;
+    }
+
+    private static boolean isImmutable(Object value)
+    {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Integer
+               || value instanceof Long || value instanceof Double || value instanceof Character
+               || value instanceof Short || value instanceof Byte || value instanceof Float;
+    }
+
+    @Override
+    public int size()
+    {
+        return properties().size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return properties().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return properties().containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value)
+    {
+        return properties().containsValue(value);
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        Object value = properties().get(key);
+        if (!isImmutable(value))
+        {
+            modified = true;
+        }
+        return value;
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+        return modifiableProperties().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+        return modifiableProperties().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> other)
+    {
+        modifiableProperties().putAll(other);
+    }
+
+    @Override
+    public void clear()
+    {
+        modifiableProperties().clear();
+    }
+
+    @Override
+    public Set<String> keySet()
+    {
+        return new KeySet(properties().keySet());
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        return modifiableProperties().values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet()
+    {
+        return modifiableProperties().entrySet();
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return properties().equals(other);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return properties().hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return properties().toString();
+    }
+
+    /**
+     * Replaces this map by the read properties when serialized, so the stream does not depend on this class.
+     */
+    private Object writeReplace()
+    {
+        return properties();
+    }
+
+    /**
+     * Key set that flags the properties as modified when a key is removed through it.
+     */
+    private class KeySet extends AbstractSet<String>
+    {
+
+        private final Set<String> keys;
+
+        KeySet(Set<String> keys)
+        {
+            this.keys = keys;
+        }
+
+        @Override
+        public int size()
+        {
+            return keys.size();
+        }
+
+        @Override
+        public boolean contains(Object key)
+        {
+            return keys.contains(key);
+        }
+
+        @Override
+        public Iterator<String> iterator()
+        {
+            final Iterator<String> iterator = keys.iterator();
+            return new Iterator<String>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next()
+                {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove()
+                {
+                    modified = true;
+                    iterator.remove();
+                }
+            };
+        }
+    }
+}
@@ -46,7 +46,7 @@ public class SerializeAndEncodeSessionHandler extends SerializeOnlySessionHandle
     @Override
     public void storeSessionInfoToMessage(MuleSession session, MuleMessage message) throws MuleException
     {        
-        byte[] serializedSession = SerializationUtils.serialize(removeNonSerializableProperties(session,message.getMuleContext()));
+        byte[] serializedSession = SerializationUtils.serialize(removeNonSerializableProperties(session, message.getMuleContext()), message.getMuleContext());
         String serializedEncodedSession;
         try
         {
@@ -49,7 +49,7 @@ public class SerializeOnlySessionHandler implements SessionHandler
 
     public void storeSessionInfoToMessage(MuleSession session, MuleMessage message) throws MuleException
     {
-        byte[] serializedSession = SerializationUtils.serialize(removeNonSerializableProperties(session,message.getMuleContext()));
+        byte[] serializedSession = SerializationUtils.serialize(removeNonSerializableProperties(session, message.getMuleContext()), message.getMuleContext());
         
         if (logger.isDebugEnabled())
         {
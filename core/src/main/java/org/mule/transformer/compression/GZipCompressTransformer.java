@@ -54,7 +54,7 @@ public class GZipCompressTransformer extends AbstractCompressionTransformer
                 }
                 else
                 {
-                    data = SerializationUtils.serialize((Serializable) src);
+                    data = SerializationUtils.serialize((Serializable) src, muleContext);
                 }
                 return getStrategy().compressByteArray(data);
             }
@@ -23,6 +23,6 @@ public class MuleMessageToByteArray extends AbstractMessageTransformer
     @Override
     public Object transformMessage(MuleMessage message, String outputEncoding)
     {
-        return SerializationUtils.serialize(message);
+        return SerializationUtils.serialize(message, muleContext);
     }
 }
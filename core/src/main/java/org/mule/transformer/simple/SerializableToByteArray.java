@@ -60,7 +60,7 @@ public class SerializableToByteArray extends AbstractTransformer implements Disc
 
         try
         {
-            return SerializationUtils.serialize((Serializable) src);
+            return SerializationUtils.serialize((Serializable) src, muleContext);
         }
         catch (Exception e)
         {
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link Map} implementation with the same key semantics as {@link CaseInsensitiveHashMap}, optimized
+ * for {@link String} keys.
+ * <p/>
+ * Keys are hashed folding the case of each character on the fly, so lookups do not create a lower case copy
+ * of the key. Entries are kept in insertion order in arrays indexed by an open addressing table with linear
+ * probing, so copying the map is a copy of a few arrays. Null keys are not supported.
+ * <br>
+ * This implementation is not thread-safe.
+ */
+public class CaseInsensitiveOpenHashMap<K, V> extends AbstractMap<K, V> implements Serializable, Cloneable
+{
+
+    private static final long serialVersionUID = 2873431869405362418L;
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    /**
+     * Open addressing table, holds the index of the entry plus one, {@link #EMPTY} or {@link #DELETED}
+     */
+    private transient int[] table;
+    private transient Object[] keys;
+    private transient Object[] values;
+    private transient int[] hashes;
+    /**
+     * Number of used entry positions, including removed entries
+     */
+    private transient int entryCount;
+    private transient int size;
+    private transient int deletedSlots;
+    private transient int modCount;
+    private transient Set<Entry<K, V>> entrySet;
+
+    public CaseInsensitiveOpenHashMap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity number of entries the map can hold before growing
+     */
+    public CaseInsensitiveOpenHashMap(int initialCapacity)
+    {
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException("Initial capacity must not be negative: " + initialCapacity);
+        }
+        allocate(Math.max(initialCapacity, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Constructor copying elements from another map. Keys that differ only in case are merged.
+     *
+     * @param map the map to copy
+     */
+    @SuppressWarnings("unchecked")
+    public CaseInsensitiveOpenHashMap(Map<? extends K, ? extends V> map)
+    {
+        if (map instanceof CaseInsensitiveOpenHashMap)
+        {
+            copyFrom((CaseInsensitiveOpenHashMap<K, V>) map);
+        }
+        else
+        {
+            allocate(Math.max(map.size(), DEFAULT_CAPACITY));
+            putAll(map);
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        table = new int[tableSizeFor(capacity)];
+    }
+
+    private void copyFrom(CaseInsensitiveOpenHashMap<K, V> that)
+    {
+        table = that.table.clone();
+        keys = that.keys.clone();
+        values = that.values.clone();
+        hashes = that.hashes.clone();
+        entryCount = that.entryCount;
+        size = that.size;
+        deletedSlots = that.deletedSlots;
+    }
+
+    /**
+     * @return a table size that keeps the load factor under 0.5 for the given number of entries
+     */
+    private static int tableSizeFor(int capacity)
+    {
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+        return Math.max(tableSize, 16);
+    }
+
+    /**
+     * Hashes the key folding the case of each character, consistently with
+     * {@link String#equalsIgnoreCase(String)}.
+     */
+    static int hash(Object key)
+    {
+        int hash;
+        if (key instanceof String)
+        {
+            String string = (String) key;
+            hash = 0;
+            for (int i = 0; i < string.length(); i++)
+            {
+                hash = 31 * hash + foldCase(string.charAt(i));
+            }
+        }
+        else
+        {
+            hash = key.hashCode();
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char foldCase(char c)
+    {
+        if (c < 128)
+        {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean isEqualKey(Object key1, Object key2)
+    {
+        if (key1 == key2)
+        {
+            return true;
+        }
+        if (key1 instanceof String && key2 instanceof String)
+        {
+            return ((String) key1).equalsIgnoreCase((String) key2);
+        }
+        return key1.equals(key2);
+    }
+
+    /**
+     * @return the index of the entry holding the key or -1 if there is none
+     */
+    private int findEntry(Object key, int hash)
+    {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true)
+        {
+            int value = table[slot];
+            if (value == EMPTY)
+            {
+                return -1;
+            }
+            if (value != DELETED)
+            {
+                int entry = value - 1;
+                if (hashes[entry] == hash && isEqualKey(keys[entry], key))
+                {
+                    return entry;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the slot of the table pointing to the entry
+     */
+    private int findSlot(int entry)
+    {
+        int mask = table.length - 1;
+        int slot = hashes[entry] & mask;
+        while (table[slot] != entry + 1)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertInTable(int entry)
+    {
+        int mask = table.length - 1;
+        int slot = hashes[entry] & mask;
+        while (table[slot] > EMPTY)
+        {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == DELETED)
+        {
+            deletedSlots--;
+        }
+        table[slot] = entry + 1;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return key != null && findEntry(key, hash(key)) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key)
+    {
+        if (key == null)
+        {
+            return null;
+        }
+        int entry = findEntry(key, hash(key));
+        return entry < 0 ? null : (V) values[entry];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(K key, V value)
+    {
+        if (key == null)
+        {
+            throw new NullPointerException("Null keys are not supported");
+        }
+        int hash = hash(key);
+        int entry = findEntry(key, hash);
+        if (entry >= 0)
+        {
+            V previous = (V) values[entry];
+            values[entry] = value;
+            return previous;
+        }
+
+        ensureCapacity();
+        entry = entryCount++;
+        keys[entry] = key;
+        values[entry] = value;
+        hashes[entry] = hash;
+        insertInTable(entry);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    private void ensureCapacity()
+    {
+        if (entryCount == keys.length)
+        {
+            // Grow only if removed entries do not free enough space
+            resize(size + 1 > keys.length * 3 / 4 ? keys.length * 2 : keys.length);
+        }
+        else if ((size + deletedSlots + 1) * 2 > table.length)
+        {
+            resize(keys.length);
+        }
+    }
+
+    /**
+     * Compacts the entries removing the deleted ones and rebuilds the table
+     */
+    private void resize(int capacity)
+    {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        int oldEntryCount = entryCount;
+        allocate(capacity);
+        entryCount = 0;
+        deletedSlots = 0;
+        for (int i = 0; i < oldEntryCount; i++)
+        {
+            if (oldKeys[i] != null)
+            {
+                keys[entryCount] = oldKeys[i];
+                values[entryCount] = oldValues[i];
+                hashes[entryCount] = oldHashes[i];
+                insertInTable(entryCount);
+                entryCount++;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(Object key)
+    {
+        if (key == null)
+        {
+            return null;
+        }
+        int entry = findEntry(key, hash(key));
+        if (entry < 0)
+        {
+            return null;
+        }
+        V previous = (V) values[entry];
+        removeEntry(entry);
+        return previous;
+    }
+
+    private void removeEntry(int entry)
+    {
+        table[findSlot(entry)] = DELETED;
+        deletedSlots++;
+        keys[entry] = null;
+        values[entry] = null;
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(table, EMPTY);
+        Arrays.fill(keys, 0, entryCount, null);
+        Arrays.fill(values, 0, entryCount, null);
+        entryCount = 0;
+        size = 0;
+        deletedSlots = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet()
+    {
+        if (entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Clones the map without cloning the keys or values.
+     *
+     * @return a shallow clone
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CaseInsensitiveOpenHashMap<K, V> clone()
+    {
+        try
+        {
+            CaseInsensitiveOpenHashMap<K, V> clone = (CaseInsensitiveOpenHashMap<K, V>) super.clone();
+            clone.copyFrom(this);
+            clone.entrySet = null;
+            clone.modCount = 0;
+            return clone;
+        }
+        catch (CloneNotSupportedException e)
+        {
+            throw new InternalError();
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < entryCount; i++)
+        {
+            if (keys[i] != null)
+            {
+                out.writeObject(keys[i]);
+                out.writeObject(values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        int entries = in.readInt();
+        allocate(Math.max(entries, DEFAULT_CAPACITY));
+        for (int i = 0; i < entries; i++)
+        {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>>
+    {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator()
+        {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if (!(o instanceof Entry))
+            {
+                return false;
+            }
+            Entry<?, ?> candidate = (Entry<?, ?>) o;
+            Object key = candidate.getKey();
+            if (key == null)
+            {
+                return false;
+            }
+            int entry = findEntry(key, hash(key));
+            return entry >= 0 && ObjectUtils.equals(values[entry], candidate.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if (!contains(o))
+            {
+                return false;
+            }
+            CaseInsensitiveOpenHashMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear()
+        {
+            CaseInsensitiveOpenHashMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>>
+    {
+
+        private int next = 0;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            while (next < entryCount && keys[next] == null)
+            {
+                next++;
+            }
+            return next < entryCount;
+        }
+
+        @Override
+        public Entry<K, V> next()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return new EntryView(current);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (current < 0 || keys[current] == null)
+            {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(current);
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class EntryView implements Entry<K, V>
+    {
+
+        private final int entry;
+        private final K key;
+
+        @SuppressWarnings("unchecked")
+        private EntryView(int entry)
+        {
+            this.entry = entry;
+            this.key = (K) keys[entry];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V getValue()
+        {
+            return keys[entry] == key ? (V) values[entry] : get(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V setValue(V value)
+        {
+            if (keys[entry] != key)
+            {
+                return put(key, value);
+            }
+            V previous = (V) values[entry];
+            values[entry] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Entry))
+            {
+                return false;
+            }
+            Entry<?, ?> that = (Entry<?, ?>) o;
+            return ObjectUtils.equals(key, that.getKey()) && ObjectUtils.equals(getValue(), that.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            V value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -8,36 +8,49 @@ package org.mule.util;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * Implementation of {@link Map} that provides copy on write semantics while providing the case-insensitivity
- * of {@link CaseInsensitiveHashMap}. <br>
+ * of {@link CaseInsensitiveOpenHashMap}. <br>
  * <b>Note:</b> In this {@link Map} implementation {@link #values()} and {@link #entrySet()} return
  * unmodifiable {@link Collection}'s.<br>
+ * Writes to a map that shares its delegate with a clone are kept in a small overlay map, so a clone that only
+ * changes a few entries never copies the delegate. Once the overlay grows past a threshold, or when the
+ * whole content is needed, it is merged into a private copy of the delegate.<br>
  * This implementation is not thread-safe.
  */
 public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializable
 {
 
     private static final long serialVersionUID = -2753436627413265538L;
+    private static final int MAX_OVERLAY_SIZE = 16;
+    private static final Object REMOVED = new Object();
 
     private Map<K, V> core;
     private transient Map<K, V> view;
     private transient boolean requiresCopy;
     private transient Set<K> keyset = new KeySet();
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Entries written while the delegate is shared, removed delegate entries are mapped to {@link #REMOVED}
+     */
+    private transient Map<K, Object> overlay;
+    private transient int overlaySizeDelta;
+
     public CopyOnWriteCaseInsensitiveMap()
     {
-        updateCore(new CaseInsensitiveHashMap());
+        updateCore(new CaseInsensitiveOpenHashMap<K, V>());
     }
 
     private CopyOnWriteCaseInsensitiveMap(CopyOnWriteCaseInsensitiveMap<K, V> that)
@@ -50,6 +63,7 @@ public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializa
     @Override
     public CopyOnWriteCaseInsensitiveMap<K, V> clone()
     {
+        mergeOverlay();
         try
         {
             return new CopyOnWriteCaseInsensitiveMap(this);
@@ -60,72 +74,177 @@ public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializa
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void copy()
     {
         if (requiresCopy)
         {
-            updateCore(new CaseInsensitiveHashMap(core));
+            updateCore(new CaseInsensitiveOpenHashMap<K, V>(core));
+            requiresCopy = false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mergeOverlay()
+    {
+        if (overlay != null)
+        {
+            Map<K, V> merged = new CaseInsensitiveOpenHashMap<K, V>(core);
+            for (Entry<K, Object> entry : overlay.entrySet())
+            {
+                if (entry.getValue() == REMOVED)
+                {
+                    merged.remove(entry.getKey());
+                }
+                else
+                {
+                    merged.put(entry.getKey(), (V) entry.getValue());
+                }
+            }
+            updateCore(merged);
             requiresCopy = false;
+            overlay = null;
+            overlaySizeDelta = 0;
+        }
+    }
+
+    private Map<K, Object> getOverlay()
+    {
+        if (overlay == null)
+        {
+            overlay = new CaseInsensitiveOpenHashMap<K, Object>();
+        }
+        return overlay;
+    }
+
+    private void checkOverlaySize()
+    {
+        if (overlay.size() > MAX_OVERLAY_SIZE)
+        {
+            mergeOverlay();
         }
     }
 
     @Override
     public int size()
     {
-        return core.size();
+        return core.size() + overlaySizeDelta;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return core.isEmpty();
+        return size() == 0;
     }
 
     @Override
     public boolean containsKey(Object key)
     {
+        if (overlay != null && overlay.containsKey(key))
+        {
+            return overlay.get(key) != REMOVED;
+        }
         return core.containsKey(key);
     }
 
     @Override
     public boolean containsValue(Object value)
     {
+        mergeOverlay();
         return core.containsValue(value);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public V get(Object key)
     {
+        if (overlay != null)
+        {
+            Object value = overlay.get(key);
+            if (value != null || overlay.containsKey(key))
+            {
+                return value == REMOVED ? null : (V) value;
+            }
+        }
         return core.get(key);
     }
 
     @Override
     public V put(K key, V value)
     {
-        copy();
-        return core.put(key, value);
+        if (!requiresCopy)
+        {
+            return core.put(key, value);
+        }
+
+        if (overlay != null && overlay.get(key) == REMOVED)
+        {
+            // Merge so the key is stored with its new case, as it would be after removing it from the delegate
+            mergeOverlay();
+            return core.put(key, value);
+        }
+        boolean present = containsKey(key);
+        V previous = get(key);
+        if (present && previous == value)
+        {
+            return previous;
+        }
+        getOverlay().put(key, value);
+        if (!present)
+        {
+            overlaySizeDelta++;
+        }
+        checkOverlaySize();
+        return previous;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public V remove(Object key)
     {
-        copy();
-        return core.remove(key);
+        if (!requiresCopy)
+        {
+            return core.remove(key);
+        }
+
+        if (!containsKey(key))
+        {
+            return null;
+        }
+        V previous = get(key);
+        if (core.containsKey(key))
+        {
+            getOverlay().put((K) key, REMOVED);
+        }
+        else
+        {
+            overlay.remove(key);
+        }
+        overlaySizeDelta--;
+        checkOverlaySize();
+        return previous;
     }
 
     @Override
     public void putAll(Map<? extends K, ? extends V> t)
     {
-        copy();
-        core.putAll(t);
+        if (requiresCopy && t.size() > MAX_OVERLAY_SIZE)
+        {
+            mergeOverlay();
+            copy();
+        }
+        for (Entry<? extends K, ? extends V> entry : t.entrySet())
+        {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void clear()
     {
-        updateCore(new CaseInsensitiveHashMap());
+        updateCore(new CaseInsensitiveOpenHashMap<K, V>());
+        requiresCopy = false;
+        overlay = null;
+        overlaySizeDelta = 0;
     }
 
     public Set<K> keySet()
@@ -170,7 +289,27 @@ public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializa
         @SuppressWarnings("unchecked")
         public KeyIterator()
         {
-            keyArray = (K[]) core.keySet().toArray();
+            if (overlay == null)
+            {
+                keyArray = (K[]) core.keySet().toArray();
+                return;
+            }
+            List<K> keys = new ArrayList<K>(size());
+            for (K key : core.keySet())
+            {
+                if (overlay.get(key) != REMOVED)
+                {
+                    keys.add(key);
+                }
+            }
+            for (Entry<K, Object> entry : overlay.entrySet())
+            {
+                if (entry.getValue() != REMOVED && !core.containsKey(entry.getKey()))
+                {
+                    keys.add(entry.getKey());
+                }
+            }
+            keyArray = (K[]) keys.toArray();
         }
 
         public boolean hasNext()
@@ -210,18 +349,21 @@ public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializa
     @Override
     public Collection<V> values()
     {
+        mergeOverlay();
         return view.values();
     }
 
     @Override
     public Set<Entry<K, V>> entrySet()
     {
+        mergeOverlay();
         return view.entrySet();
     }
 
     @Override
     public String toString()
     {
+        mergeOverlay();
         return core.toString();
     }
 
@@ -231,6 +373,12 @@ public class CopyOnWriteCaseInsensitiveMap<K, V> implements Map<K, V>, Serializa
         this.view = Collections.unmodifiableMap(core);
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        mergeOverlay();
+        out.defaultWriteObject();
+    }
+
     /**
      * After deserialization we can just use unserialized original map directly.
      */
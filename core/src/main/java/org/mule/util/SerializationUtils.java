@@ -7,24 +7,65 @@
 package org.mule.util;
 
 import org.mule.api.MuleContext;
+import org.mule.api.serialization.ObjectSerializer;
 import org.mule.util.store.DeserializationPostInitialisable;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
 
 import org.apache.commons.io.input.ClassLoaderObjectInputStream;
 import org.apache.commons.lang.SerializationException;
 
 public class SerializationUtils extends org.apache.commons.lang.SerializationUtils
 {
+
+    /**
+     * Serializes the object using the {@link ObjectSerializer} of the given context, or Java serialization
+     * if the context is null or has no serializer.
+     */
+    public static byte[] serialize(Serializable object, MuleContext muleContext)
+    {
+        ObjectSerializer objectSerializer = getObjectSerializer(muleContext);
+        if (objectSerializer == null)
+        {
+            return serialize(object);
+        }
+        return objectSerializer.serialize(object);
+    }
+
+    /**
+     * Serializes the object into the stream using the {@link ObjectSerializer} of the given context, or Java
+     * serialization if the context is null or has no serializer. The stream is closed once the object is
+     * written.
+     */
+    public static void serialize(Serializable object, OutputStream outputStream, MuleContext muleContext)
+    {
+        ObjectSerializer objectSerializer = getObjectSerializer(muleContext);
+        if (objectSerializer == null)
+        {
+            serialize(object, outputStream);
+        }
+        else
+        {
+            objectSerializer.serialize(object, outputStream);
+        }
+    }
+
     public static Object deserialize(InputStream inputStream, MuleContext muleContext)
     {
         if (muleContext == null)
         {
             throw new IllegalArgumentException("The MuleContext must not be null");
         }
+        ObjectSerializer objectSerializer = getObjectSerializer(muleContext);
+        if (objectSerializer != null)
+        {
+            return objectSerializer.deserialize(inputStream, muleContext.getExecutionClassLoader());
+        }
         return deserialize(inputStream, muleContext.getExecutionClassLoader(), muleContext);
     }
 
@@ -34,7 +75,17 @@ public class SerializationUtils extends org.apache.commons.lang.SerializationUti
         {
             throw new IllegalArgumentException("The MuleContext must not be null");
         }
-        return deserialize(objectData, muleContext.getExecutionClassLoader(), muleContext);        
+        ObjectSerializer objectSerializer = getObjectSerializer(muleContext);
+        if (objectSerializer != null)
+        {
+            return objectSerializer.deserialize(objectData, muleContext.getExecutionClassLoader());
+        }
+        return deserialize(objectData, muleContext.getExecutionClassLoader(), muleContext);
+    }
+
+    private static ObjectSerializer getObjectSerializer(MuleContext muleContext)
+    {
+        return muleContext == null ? null : muleContext.getObjectSerializer();
     }
     
     /**
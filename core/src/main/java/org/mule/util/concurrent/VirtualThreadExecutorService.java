@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.concurrent;
+
+import org.mule.api.config.ThreadingProfile;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * An {@link ExecutorService} that runs each task on its own virtual thread when the JVM supports them,
+ * or on a cached pool of platform threads otherwise.
+ * <p/>
+ * Since virtual threads are not pooled, the number of tasks running at the same time is limited by a number
+ * of permits taken by the thread submitting the task. When there are no permits left the
+ * {@link ThreadingProfile} pool exhausted action is applied: the submitting thread waits up to the thread
+ * wait timeout ({@link ThreadingProfile#WHEN_EXHAUSTED_WAIT}), runs the task itself
+ * ({@link ThreadingProfile#WHEN_EXHAUSTED_RUN}), discards it ({@link ThreadingProfile#WHEN_EXHAUSTED_DISCARD}
+ * and {@link ThreadingProfile#WHEN_EXHAUSTED_DISCARD_OLDEST}) or rejects it
+ * ({@link ThreadingProfile#WHEN_EXHAUSTED_ABORT}).
+ */
+public class VirtualThreadExecutorService extends AbstractExecutorService
+{
+
+    private static final Log logger = LogFactory.getLog(VirtualThreadExecutorService.class);
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int poolExhaustedAction;
+    private final long threadWaitTimeout;
+    private final ClassLoader contextClassLoader;
+
+    public VirtualThreadExecutorService(String name, int maxConcurrency, int poolExhaustedAction, long threadWaitTimeout)
+    {
+        if (maxConcurrency <= 0)
+        {
+            throw new IllegalArgumentException("Max concurrency must be greater than zero, but was " + maxConcurrency);
+        }
+        this.permits = new Semaphore(maxConcurrency);
+        this.poolExhaustedAction = poolExhaustedAction;
+        this.threadWaitTimeout = threadWaitTimeout < 0 ? Long.MAX_VALUE : threadWaitTimeout;
+        // Threads must use the MuleApplicationClassLoader related to MuleContext or the
+        // thread context class loader in case of embedding mule.
+        this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+        this.delegate = createDelegate(name);
+    }
+
+    /**
+     * @return true if this JVM supports virtual threads, false if tasks run on platform threads
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        if (command == null)
+        {
+            throw new NullPointerException();
+        }
+        if (isShutdown())
+        {
+            throw new RejectedExecutionException("Executor is already shut down");
+        }
+        if (!acquirePermit())
+        {
+            switch (poolExhaustedAction)
+            {
+                case ThreadingProfile.WHEN_EXHAUSTED_RUN:
+                    command.run();
+                    return;
+                case ThreadingProfile.WHEN_EXHAUSTED_DISCARD:
+                case ThreadingProfile.WHEN_EXHAUSTED_DISCARD_OLDEST:
+                    return;
+                case ThreadingProfile.WHEN_EXHAUSTED_ABORT:
+                    throw new RejectedExecutionException("No permits available to run the task");
+                default:
+                    throw new RejectedExecutionException(String.format(
+                        "Executor did not accept within %1d %2s", threadWaitTimeout, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        try
+        {
+            delegate.execute(new PermitReleasingRunnable(command));
+        }
+        catch (RuntimeException e)
+        {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean acquirePermit()
+    {
+        if (permits.tryAcquire())
+        {
+            return true;
+        }
+        if (poolExhaustedAction != ThreadingProfile.WHEN_EXHAUSTED_WAIT)
+        {
+            return false;
+        }
+        try
+        {
+            return permits.tryAcquire(threadWaitTimeout, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    /**
+     * @return the number of tasks that can still be started without waiting
+     */
+    public int getAvailablePermits()
+    {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow()
+    {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown()
+    {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    private static ExecutorService createDelegate(String name)
+    {
+        if (isVirtualThreadSupported())
+        {
+            try
+            {
+                Object builder = OF_VIRTUAL.invoke(null);
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + ".", 1L);
+                ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+            }
+            catch (Exception e)
+            {
+                logger.warn("Unable to create virtual threads, using platform threads instead", e);
+            }
+        }
+        return Executors.newCachedThreadPool(new NamedThreadFactory(name));
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes)
+    {
+        try
+        {
+            return type.getMethod(name, parameterTypes);
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+    }
+
+    private class PermitReleasingRunnable implements Runnable
+    {
+
+        private final Runnable task;
+
+        PermitReleasingRunnable(Runnable task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                permits.release();
+            }
+        }
+    }
+}
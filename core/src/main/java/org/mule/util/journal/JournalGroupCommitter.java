@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.journal;
+
+import org.mule.util.concurrent.DaemonThreadFactory;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Forces the journal files to disk on behalf of several transactions at once.
+ * <p/>
+ * Each request for durability gets a future which is completed once the journal content written
+ * before the request was forced to the storage device. Pending requests are synced together
+ * once {@code maxBatchSize} requests are waiting or the oldest request waited {@code maxWaitMicros}.
+ */
+class JournalGroupCommitter
+{
+
+    private static final Log logger = LogFactory.getLog(JournalGroupCommitter.class);
+
+    private final TransactionJournal<?, ?> journal;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingRequestsCondition = lock.newCondition();
+    private final Thread committerThread;
+    private List<SettableFuture<Void>> pendingRequests = new ArrayList<SettableFuture<Void>>();
+    private long firstPendingRequestTime;
+    private volatile boolean running = true;
+
+    JournalGroupCommitter(TransactionJournal<?, ?> journal, String name, int maxBatchSize, long maxWaitMicros)
+    {
+        this.journal = journal;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.committerThread = new DaemonThreadFactory(name).newThread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                processRequests();
+            }
+        });
+        committerThread.start();
+    }
+
+    /**
+     * Requests the journal content written so far to be forced to disk.
+     *
+     * @return a future completed once the content is durable
+     */
+    Future<Void> requestSync()
+    {
+        SettableFuture<Void> future = SettableFuture.create();
+        lock.lock();
+        try
+        {
+            if (!running)
+            {
+                future.setException(new IllegalStateException("Transaction journal is closed"));
+                return future;
+            }
+            if (pendingRequests.isEmpty())
+            {
+                firstPendingRequestTime = System.nanoTime();
+            }
+            pendingRequests.add(future);
+            if (pendingRequests.size() == 1 || pendingRequests.size() >= maxBatchSize)
+            {
+                pendingRequestsCondition.signal();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Syncs the pending requests and stops the committer thread.
+     */
+    void stop()
+    {
+        lock.lock();
+        try
+        {
+            running = false;
+            pendingRequestsCondition.signal();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        try
+        {
+            committerThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processRequests()
+    {
+        while (true)
+        {
+            List<SettableFuture<Void>> batch;
+            lock.lock();
+            try
+            {
+                while (running && pendingRequests.isEmpty())
+                {
+                    pendingRequestsCondition.awaitUninterruptibly();
+                }
+                long remainingWait = maxWaitNanos - (System.nanoTime() - firstPendingRequestTime);
+                while (running && pendingRequests.size() < maxBatchSize && remainingWait > 0)
+                {
+                    remainingWait = pendingRequestsCondition.awaitNanos(remainingWait);
+                }
+                if (!running && pendingRequests.isEmpty())
+                {
+                    return;
+                }
+                batch = pendingRequests;
+                pendingRequests = new ArrayList<SettableFuture<Void>>(batch.size());
+            }
+            catch (InterruptedException e)
+            {
+                continue;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            sync(batch);
+        }
+    }
+
+    private void sync(List<SettableFuture<Void>> batch)
+    {
+        try
+        {
+            for (FileChannel channel : journal.getJournalFileChannels())
+            {
+                force(channel);
+            }
+            for (SettableFuture<Void> future : batch)
+            {
+                future.set(null);
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Failure syncing transaction journal", e);
+            for (SettableFuture<Void> future : batch)
+            {
+                future.setException(e);
+            }
+        }
+    }
+
+    private void force(FileChannel channel) throws IOException
+    {
+        try
+        {
+            channel.force(false);
+        }
+        catch (ClosedChannelException e)
+        {
+            // The journal file was cleared, which only happens once all its transactions completed.
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Transaction journal file was closed before being synced");
+            }
+        }
+    }
+}
@@ -10,10 +10,15 @@ import org.mule.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
 
 import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +32,10 @@ import org.apache.commons.logging.LogFactory;
  * Keeps a memory cache of the log entries for performance reasons.
  * Once a transaction finishes the client of this class must manually remove the
  * entries related to such transaction to clear the cache.
+ *
+ * Entries are written to the journal files as soon as they are logged. When group commit is enabled
+ * the journal files are forced to disk by a background thread on behalf of all the transactions that
+ * logged a checkpoint operation since the previous sync.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>>
 {
@@ -45,11 +54,25 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
      * Log file which has old entries and will be cleared as soon as all the transaction in it are resolved.
      */
     private TransactionJournalFile<T, K> notCurrentLogFile;
+    /**
+     * Syncs the journal files on behalf of several transactions. Null if group commit is disabled.
+     */
+    private final JournalGroupCommitter groupCommitter;
 
     /**
      * @param logFilesDirectory directory used to store the journal files.
      */
     public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate, JournalEntrySerializer journalEntrySerializer)
+    {
+        this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, 0, 0);
+    }
+
+    /**
+     * @param logFilesDirectory directory used to store the journal files.
+     * @param groupCommitMaxBatchSize maximum number of checkpoint operations synced together. Group commit is disabled if less than one.
+     * @param groupCommitMaxWaitMicros maximum time in microseconds a checkpoint operation waits for other ones before the journal is synced.
+     */
+    public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate, JournalEntrySerializer journalEntrySerializer, int groupCommitMaxBatchSize, long groupCommitMaxWaitMicros)
     {
         File logFileDirectory = new File(logFilesDirectory);
         if (!logFileDirectory.exists())
@@ -63,6 +86,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
         this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer);
         this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer);
         this.transactionCompletePredicate = transactionCompletePredicate;
+        if (groupCommitMaxBatchSize > 0)
+        {
+            this.groupCommitter = new JournalGroupCommitter(this, "tx-journal-group-commit[" + logFileDirectory.getName() + "]", groupCommitMaxBatchSize, groupCommitMaxWaitMicros);
+        }
+        else
+        {
+            this.groupCommitter = null;
+        }
     }
 
     /**
@@ -82,8 +113,9 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
      * Most likely this is an operation such as COMMIT, ROLLBACK or PREPARE of a TX.
      *
      * @param journalEntry journal entry with the checkpoint operation details
+     * @return a future completed once the operation, and every operation logged before it, is durable
      */
-    public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry)
+    public synchronized Future<Void> logCheckpointOperation(JournalEntry<T> journalEntry)
     {
         TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
         logFile.logOperation(journalEntry);
@@ -91,6 +123,19 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
         {
             logFile.clearEntriesForTransaction(journalEntry.getTxId());
         }
+        if (groupCommitter != null)
+        {
+            return groupCommitter.requestSync();
+        }
+        return Futures.<Void>immediateFuture(null);
+    }
+
+    /**
+     * @return the channels of the journal files so they can be forced to disk
+     */
+    synchronized List<FileChannel> getJournalFileChannels()
+    {
+        return Arrays.asList(currentLogFile.getFileChannel(), notCurrentLogFile.getFileChannel());
     }
 
     /**
@@ -121,10 +166,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
     /**
      * Release the resources used by the transaction journal
      */
-    public synchronized void close()
+    public void close()
     {
-        currentLogFile.close();
-        notCurrentLogFile.close();
+        // The committer needs the journal lock to do the last sync.
+        if (groupCommitter != null)
+        {
+            groupCommitter.stop();
+        }
+        synchronized (this)
+        {
+            currentLogFile.close();
+            notCurrentLogFile.close();
+        }
     }
 
     /**
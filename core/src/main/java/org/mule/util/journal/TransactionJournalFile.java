@@ -12,6 +12,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -20,6 +21,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -50,6 +52,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
 
     private Multimap<T, K> entries = LinkedHashMultimap.create();
 
+    private FileOutputStream logFileStream;
     private DataOutputStream logFileOutputStream;
     private int journalOperations = 0;
 
@@ -69,16 +72,36 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
     }
 
     /**
-     * Adds a journal entry for an operation done over a transactional resource
+     * Adds a journal entry for an operation done over a transactional resource.
+     *
+     * The entry is written to the file before this method returns, so it survives a crash of the JVM
+     * even if the file was not forced to the storage device yet.
+     *
      * @param journalEntry operation details
      */
     public synchronized void logOperation(K journalEntry)
     {
         entries.put(journalEntry.getTxId(), journalEntry);
         journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+        try
+        {
+            logFileOutputStream.flush();
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
         journalOperations++;
     }
 
+    /**
+     * @return the channel of the journal file, to be used to force the written entries to the storage device
+     */
+    public synchronized FileChannel getFileChannel()
+    {
+        return logFileStream.getChannel();
+    }
+
     /**
      * Removes all journal entries for a particular transactions.
      *
@@ -177,7 +200,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
         }
         try
         {
-            this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+            this.logFileStream = new FileOutputStream(journalFile, true);
+            this.logFileOutputStream = new DataOutputStream(new BufferedOutputStream(logFileStream));
         }
         catch (FileNotFoundException e)
         {
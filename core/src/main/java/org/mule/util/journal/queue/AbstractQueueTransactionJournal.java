@@ -6,6 +6,7 @@
  */
 package org.mule.util.journal.queue;
 
+import org.mule.api.MuleRuntimeException;
 import org.mule.util.journal.JournalEntry;
 import org.mule.util.journal.JournalEntrySerializer;
 import org.mule.util.journal.TransactionCompletePredicate;
@@ -16,6 +17,8 @@ import com.google.common.collect.Multimap;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -23,17 +26,38 @@ import org.apache.commons.logging.LogFactory;
 /**
  * Base implementation for a queue transaction journal.
  *
+ * Group commit can be enabled by setting {@link #GROUP_COMMIT_MAX_BATCH_SIZE_PROPERTY_KEY} to a positive value,
+ * in which case commit, rollback and prepare operations of concurrent transactions are forced to disk
+ * together and each one returns once its entries are durable.
+ *
  * @param <T> type of transaction identifier
  * @param <K> type of the actual journal entry which must extend {@link org.mule.util.journal.JournalEntry}
  */
 public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<T>>
 {
 
+    public static final String GROUP_COMMIT_MAX_BATCH_SIZE_PROPERTY_KEY = "mule.queue.journal.groupCommit.maxBatchSize";
+    public static final String GROUP_COMMIT_MAX_WAIT_MICROS_PROPERTY_KEY = "mule.queue.journal.groupCommit.maxWaitMicros";
+
+    private static final long DEFAULT_GROUP_COMMIT_MAX_WAIT_MICROS = 500;
+
     protected transient Log logger = LogFactory.getLog(getClass());
 
     private TransactionJournal<T, K> logFile;
 
     public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer)
+    {
+        this(logFilesDirectory, journalEntrySerializer, Integer.getInteger(GROUP_COMMIT_MAX_BATCH_SIZE_PROPERTY_KEY, 0),
+             Long.getLong(GROUP_COMMIT_MAX_WAIT_MICROS_PROPERTY_KEY, DEFAULT_GROUP_COMMIT_MAX_WAIT_MICROS));
+    }
+
+    /**
+     * @param logFilesDirectory directory used to store the journal files
+     * @param journalEntrySerializer serializer for the journal entries
+     * @param groupCommitMaxBatchSize maximum number of transactions synced together. Group commit is disabled if less than one.
+     * @param groupCommitMaxWaitMicros maximum time in microseconds a transaction waits for other ones before the journal is synced
+     */
+    public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer, int groupCommitMaxBatchSize, long groupCommitMaxWaitMicros)
     {
         this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate()
         {
@@ -43,7 +67,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
                 AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
                 return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
             }
-        }, journalEntrySerializer);
+        }, journalEntrySerializer, groupCommitMaxBatchSize, groupCommitMaxWaitMicros);
     }
 
     public void logAdd(T txId, QueueStore queue, Serializable value)
@@ -79,7 +103,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         {
             logger.debug("Logging queue commit operation for tx " + txId);
         }
-        logFile.logCheckpointOperation(createCheckpointJournalEntry(txId, AbstractQueueTxJournalEntry.Operation.COMMIT.getByteRepresentation()));
+        waitUntilDurable(logFile.logCheckpointOperation(createCheckpointJournalEntry(txId, AbstractQueueTxJournalEntry.Operation.COMMIT.getByteRepresentation())));
     }
 
     /**
@@ -108,7 +132,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         {
             logger.debug("Logging queue rollback operation for tx " + txId);
         }
-        logFile.logCheckpointOperation(createCheckpointJournalEntry(txId, AbstractQueueTxJournalEntry.Operation.ROLLBACK.getByteRepresentation()));
+        waitUntilDurable(logFile.logCheckpointOperation(createCheckpointJournalEntry(txId, AbstractQueueTxJournalEntry.Operation.ROLLBACK.getByteRepresentation())));
     }
 
     public synchronized void close()
@@ -136,4 +160,26 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         return logFile;
     }
 
+    /**
+     * Blocks until a checkpoint operation is durable.
+     *
+     * @param checkpointFuture future returned when the checkpoint operation was logged
+     */
+    protected void waitUntilDurable(Future<Void> checkpointFuture)
+    {
+        try
+        {
+            checkpointFuture.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new MuleRuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new MuleRuntimeException(e.getCause());
+        }
+    }
+
 }
@@ -93,6 +93,15 @@ public abstract class AbstractQueueTxJournalEntry<T> implements JournalEntry<T>
     }
 
     public void write(DataOutputStream outputStream)
+    {
+        write(outputStream, null);
+    }
+
+    /**
+     * Writes the entry serializing the value with the {@link org.mule.api.serialization.ObjectSerializer}
+     * of the given context.
+     */
+    public void write(DataOutputStream outputStream, MuleContext muleContext)
     {
         try
         {
@@ -105,7 +114,7 @@ public abstract class AbstractQueueTxJournalEntry<T> implements JournalEntry<T>
             }
             outputStream.write(queueName.length());
             outputStream.write(queueName.getBytes());
-            byte[] serializedValue = SerializationUtils.serialize(value);
+            byte[] serializedValue = SerializationUtils.serialize(value, muleContext);
             outputStream.writeInt(serializedValue.length);
             outputStream.write(serializedValue);
             outputStream.flush();
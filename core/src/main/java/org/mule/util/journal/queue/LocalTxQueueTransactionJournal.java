@@ -26,6 +26,11 @@ public class LocalTxQueueTransactionJournal extends AbstractQueueTransactionJour
         super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext));
     }
 
+    public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext, int groupCommitMaxBatchSize, long groupCommitMaxWaitMicros)
+    {
+        super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), groupCommitMaxBatchSize, groupCommitMaxWaitMicros);
+    }
+
     public static JournalEntrySerializer<Integer, LocalQueueTxJournalEntry> createLocalTxQueueJournalEntrySerializer(final MuleContext muleContext)
     {
         return new JournalEntrySerializer<Integer, LocalQueueTxJournalEntry>(){
@@ -39,7 +44,7 @@ public class LocalTxQueueTransactionJournal extends AbstractQueueTransactionJour
             @Override
             public void serialize(LocalQueueTxJournalEntry journalEntry, DataOutputStream dataOutputStream)
             {
-                journalEntry.write(dataOutputStream);
+                journalEntry.write(dataOutputStream, muleContext);
             }
         };
     }
@@ -35,7 +35,7 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
             @Override
             public void serialize(XaQueueTxJournalEntry journalEntry, DataOutputStream dataOutputStream)
             {
-                journalEntry.write(dataOutputStream);
+                journalEntry.write(dataOutputStream, muleContext);
             }
         });
     }
@@ -54,7 +54,7 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
 
     public void logPrepare(Xid xid)
     {
-        getJournal().logCheckpointOperation(createCheckpointJournalEntry(xid, AbstractQueueTxJournalEntry.Operation.PREPARE.getByteRepresentation()));
+        waitUntilDurable(getJournal().logCheckpointOperation(createCheckpointJournalEntry(xid, AbstractQueueTxJournalEntry.Operation.PREPARE.getByteRepresentation())));
     }
 
     @Override
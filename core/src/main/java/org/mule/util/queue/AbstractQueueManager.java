@@ -169,6 +169,15 @@ public abstract class AbstractQueueManager implements QueueManager, QueueProvide
         }
     }
 
+    /**
+     * @param queueName name of the queue
+     * @return the configuration explicitly set for the queue, or null if there's none
+     */
+    protected synchronized QueueConfiguration getQueueConfiguration(String queueName)
+    {
+        return queueConfigurations.get(queueName);
+    }
+
     protected void clearQueueConfiguration(String queueName)
     {
         this.queueConfigurations.remove(queueName);
@@ -88,6 +88,39 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate
         }
     }
 
+    @Override
+    public final int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+    {
+        checkInterrupted();
+        if (maxElements <= 0)
+        {
+            return 0;
+        }
+        synchronized (this)
+        {
+            long l1 = timeout > 0L ? System.currentTimeMillis() : 0L;
+            long l2 = timeout;
+            while (isEmpty())
+            {
+                if (l2 <= 0L)
+                {
+                    return 0;
+                }
+                this.wait(l2);
+                l2 = timeout - (System.currentTimeMillis() - l1);
+            }
+
+            int drained = 0;
+            while (drained < maxElements && !isEmpty())
+            {
+                elements.add(removeFirst());
+                drained++;
+            }
+            this.notifyAll();
+            return drained;
+        }
+    }
+
     @Override
     public final Serializable peek() throws InterruptedException
     {
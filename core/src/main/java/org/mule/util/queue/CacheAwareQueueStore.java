@@ -7,6 +7,7 @@
 package org.mule.util.queue;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * Wrapper for QueueStore so the cache in {@link org.mule.util.queue.AbstractQueueManager} gets
@@ -48,6 +49,12 @@ class CacheAwareQueueStore implements QueueStore
         return queueStore.poll(timeout);
     }
 
+    @Override
+    public int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+    {
+        return queueStore.drainTo(elements, maxElements, timeout);
+    }
+
     @Override
     public Serializable peek() throws InterruptedException
     {
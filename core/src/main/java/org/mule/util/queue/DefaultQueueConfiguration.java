@@ -11,6 +11,7 @@ public class DefaultQueueConfiguration implements QueueConfiguration
 
     private final boolean persistent;
     private final int capacity;
+    private final QueueStoreDelegateType storeDelegateType;
 
     public DefaultQueueConfiguration()
     {
@@ -18,9 +19,15 @@ public class DefaultQueueConfiguration implements QueueConfiguration
     }
 
     public DefaultQueueConfiguration(int capacity, boolean isPersistent)
+    {
+        this(capacity, isPersistent, QueueStoreDelegateType.DEFAULT);
+    }
+
+    public DefaultQueueConfiguration(int capacity, boolean isPersistent, QueueStoreDelegateType storeDelegateType)
     {
         this.capacity = capacity;
         this.persistent = isPersistent;
+        this.storeDelegateType = storeDelegateType == null ? QueueStoreDelegateType.DEFAULT : storeDelegateType;
     }
 
     @Override
@@ -35,11 +42,17 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         return capacity;
     }
 
+    @Override
+    public QueueStoreDelegateType getStoreDelegateType()
+    {
+        return storeDelegateType;
+    }
+
     @Override
     public String toString()
     {
         return String.format("DefaultQueueConfiguration{" +
-               "persistent=%s, capacity=%s}", persistent, capacity);
+               "persistent=%s, capacity=%s, storeDelegateType=%s}", persistent, capacity, storeDelegateType);
     }
 
     @Override
@@ -53,6 +66,16 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         {
             return false;
         }
-        return persistent == ((DefaultQueueConfiguration)obj).persistent && capacity == ((DefaultQueueConfiguration)obj).capacity;
+        DefaultQueueConfiguration other = (DefaultQueueConfiguration) obj;
+        return persistent == other.persistent && capacity == other.capacity && storeDelegateType == other.storeDelegateType;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = persistent ? 1 : 0;
+        result = 31 * result + capacity;
+        result = 31 * result + storeDelegateType.hashCode();
+        return result;
     }
 }
@@ -9,6 +9,7 @@ package org.mule.util.queue;
 import org.mule.api.MuleContext;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.apache.commons.lang.NotImplementedException;
 
@@ -48,7 +49,19 @@ public class DefaultQueueStore implements RecoverableQueueStore
         }
         if (this.config.isPersistent())
         {
-            delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(), muleContext, this.config.getCapacity());
+            String workingDirectory = muleContext.getConfiguration().getWorkingDirectory();
+            if (QueueStoreDelegateType.SEGMENTED_LOG.equals(this.config.getStoreDelegateType()))
+            {
+                delegate = new SegmentedLogQueueStoreDelegate(this.name, workingDirectory, muleContext, this.config.getCapacity());
+            }
+            else
+            {
+                delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, workingDirectory, muleContext, this.config.getCapacity());
+            }
+        }
+        else if (QueueStoreDelegateType.RING_BUFFER.equals(this.config.getStoreDelegateType()))
+        {
+            delegate = new RingBufferQueueStoreDelegate(this.config.getCapacity());
         }
         else
         {
@@ -89,6 +102,11 @@ public class DefaultQueueStore implements RecoverableQueueStore
         return delegate.poll(timeout);
     }
 
+    public int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+    {
+        return delegate.drainTo(elements, maxElements, timeout);
+    }
+
     public Serializable peek() throws InterruptedException
     {
         return delegate.peek();
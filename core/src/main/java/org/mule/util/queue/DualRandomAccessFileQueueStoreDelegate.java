@@ -94,7 +94,7 @@ public class DualRandomAccessFileQueueStoreDelegate extends AbstractQueueStoreDe
     protected void addFirst(Serializable item) throws InterruptedException
     {
         switchWriteFileIfFull();
-        byte[] serialiazedObject = SerializationUtils.serialize(item);
+        byte[] serialiazedObject = SerializationUtils.serialize(item, muleContext);
         readFile.addFirst(serialiazedObject);
     }
 
@@ -102,7 +102,7 @@ public class DualRandomAccessFileQueueStoreDelegate extends AbstractQueueStoreDe
     protected void add(Serializable item)
     {
         switchWriteFileIfFull();
-        byte[] serialiazedObject = SerializationUtils.serialize(item);
+        byte[] serialiazedObject = SerializationUtils.serialize(item, muleContext);
         writeFile.addLast(serialiazedObject);
     }
 
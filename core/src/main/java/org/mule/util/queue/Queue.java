@@ -12,6 +12,7 @@ import org.mule.api.NamedObject;
 import org.mule.api.store.ObjectStoreException;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * Interface for mule queues used for SEDA and VM.
@@ -41,6 +42,18 @@ public interface Queue extends NamedObject
 
     Serializable poll(long timeout) throws InterruptedException;
 
+    /**
+     * Removes up to maxElements objects from this queue and adds them to the given collection,
+     * waiting up to timeout milliseconds for the first one to be available.
+     *
+     * @param elements collection where the removed objects are added
+     * @param maxElements the maximum number of objects to remove
+     * @param timeout time to wait for the first object
+     * @return the number of objects added to the collection
+     * @since 3.7.0
+     */
+    int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException;
+
     boolean offer(Serializable object, long timeout) throws InterruptedException, ObjectStoreException;
 
     /**
@@ -18,4 +18,9 @@ public interface QueueConfiguration
 
     public int getCapacity();
 
+    /**
+     * @return the kind of {@link QueueStoreDelegate} used to store the queue elements
+     */
+    public QueueStoreDelegateType getStoreDelegateType();
+
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import org.mule.api.MuleRuntimeException;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A fixed size, memory-mapped file holding a sequence of queue records.
+ * <p/>
+ * Each record is stored as a status byte, the record sequence number, the data length and the
+ * data itself. The status byte is written last so a record that was not fully written is never
+ * considered during recovery. Removing a record only flips its status byte in the mapped buffer.
+ */
+class QueueLogSegment
+{
+
+    static final String SEGMENT_FILE_SUFFIX = ".qlog";
+    static final int HEADER_SIZE = 1 + 8 + 4;
+
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+
+    private static final Log logger = LogFactory.getLog(QueueLogSegment.class);
+
+    private final long id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int writePosition;
+    private int liveRecords;
+    private long liveBytes;
+    private boolean dirty;
+
+    private QueueLogSegment(long id, File file, int capacity)
+    {
+        this.id = id;
+        this.file = file;
+        try
+        {
+            this.randomAccessFile = new RandomAccessFile(file, "rw");
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            this.capacity = capacity;
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a new empty segment
+     *
+     * @param directory directory where the segment file is created
+     * @param id segment identifier, segments are read in id order
+     * @param capacity size in bytes of the segment file
+     * @return the new segment
+     */
+    static QueueLogSegment create(File directory, long id, int capacity)
+    {
+        return new QueueLogSegment(id, new File(directory, fileNameFor(id)), capacity);
+    }
+
+    /**
+     * Opens an existing segment and reports every live record found in it.
+     *
+     * @param file segment file
+     * @param visitor receives each live record stored in the segment
+     * @return the opened segment
+     */
+    static QueueLogSegment open(File file, RecordVisitor visitor)
+    {
+        QueueLogSegment segment = new QueueLogSegment(idFor(file), file, (int) file.length());
+        segment.scan(visitor);
+        return segment;
+    }
+
+    /**
+     * @return true if the given file name corresponds to a segment file
+     */
+    static boolean isSegmentFile(String fileName)
+    {
+        return fileName.endsWith(SEGMENT_FILE_SUFFIX);
+    }
+
+    private static String fileNameFor(long id)
+    {
+        return String.format("%019d%s", id, SEGMENT_FILE_SUFFIX);
+    }
+
+    private static long idFor(File file)
+    {
+        String name = file.getName();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length()));
+    }
+
+    private void scan(RecordVisitor visitor)
+    {
+        int position = 0;
+        while (position + HEADER_SIZE <= capacity)
+        {
+            byte status = buffer.get(position);
+            if (status != LIVE && status != REMOVED)
+            {
+                break;
+            }
+            long sequence = buffer.getLong(position + 1);
+            int length = buffer.getInt(position + 9);
+            if (length < 0 || position + HEADER_SIZE + length > capacity)
+            {
+                logger.warn(String.format("Found a corrupted record at position %d of queue segment %s, ignoring the rest of the segment", position, file.getAbsolutePath()));
+                break;
+            }
+            if (status == LIVE)
+            {
+                liveRecords++;
+                liveBytes += HEADER_SIZE + length;
+                visitor.visit(this, position, sequence);
+            }
+            position += HEADER_SIZE + length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * @param dataLength length of the data to store
+     * @return true if a record with the given data length fits in the remaining space of the segment
+     */
+    boolean hasRoomFor(int dataLength)
+    {
+        return writePosition + HEADER_SIZE + dataLength <= capacity;
+    }
+
+    /**
+     * Appends a record to the segment. Caller must check {@link #hasRoomFor(int)} first.
+     *
+     * @param sequence record sequence number
+     * @param data record content
+     * @return the position of the record within the segment
+     */
+    int append(long sequence, byte[] data)
+    {
+        int position = writePosition;
+        buffer.putLong(position + 1, sequence);
+        buffer.putInt(position + 9, data.length);
+        ByteBuffer dataBuffer = buffer.duplicate();
+        dataBuffer.position(position + HEADER_SIZE);
+        dataBuffer.put(data);
+        buffer.put(position, LIVE);
+        writePosition = position + HEADER_SIZE + data.length;
+        liveRecords++;
+        liveBytes += HEADER_SIZE + data.length;
+        dirty = true;
+        return position;
+    }
+
+    /**
+     * @param position record position within the segment
+     * @return the content of the record
+     */
+    byte[] read(int position)
+    {
+        int length = buffer.getInt(position + 9);
+        byte[] data = new byte[length];
+        ByteBuffer dataBuffer = buffer.duplicate();
+        dataBuffer.position(position + HEADER_SIZE);
+        dataBuffer.get(data);
+        return data;
+    }
+
+    /**
+     * Marks the record at the given position as removed.
+     *
+     * @param position record position within the segment
+     */
+    void markRemoved(int position)
+    {
+        buffer.put(position, REMOVED);
+        liveRecords--;
+        liveBytes -= HEADER_SIZE + buffer.getInt(position + 9);
+        dirty = true;
+    }
+
+    /**
+     * Forces any change done to the segment to the storage device.
+     */
+    void sync()
+    {
+        if (dirty)
+        {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Releases the resources held by the segment without removing its content.
+     */
+    void close()
+    {
+        sync();
+        release();
+    }
+
+    /**
+     * Releases the resources held by the segment and removes its file.
+     */
+    void delete()
+    {
+        release();
+        if (!FileUtils.deleteQuietly(file))
+        {
+            logger.warn("Could not delete queue segment file " + file.getAbsolutePath());
+        }
+    }
+
+    private void release()
+    {
+        try
+        {
+            randomAccessFile.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn(e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(e);
+            }
+        }
+        unmap(buffer);
+    }
+
+    /**
+     * Mapped buffers are only released once garbage collected, which prevents deleting the
+     * segment file on some platforms, so the buffer cleaner is invoked when available.
+     */
+    private static void unmap(MappedByteBuffer buffer)
+    {
+        try
+        {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null)
+            {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        }
+        catch (Exception e)
+        {
+            // Not supported by this JVM, the buffer is released once collected.
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Could not unmap queue segment buffer: " + e.getMessage());
+            }
+        }
+    }
+
+    long getId()
+    {
+        return id;
+    }
+
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    int getLiveRecords()
+    {
+        return liveRecords;
+    }
+
+    long getLiveBytes()
+    {
+        return liveBytes;
+    }
+
+    File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Receives the live records found while opening a segment.
+     */
+    interface RecordVisitor
+    {
+
+        void visit(QueueLogSegment segment, int position, long sequence);
+    }
+}
@@ -7,6 +7,7 @@
 package org.mule.util.queue;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.apache.commons.lang.NotImplementedException;
 
@@ -25,6 +26,8 @@ public interface QueueStore
 
     Serializable poll(long timeout) throws InterruptedException;
 
+    int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException;
+
     Serializable peek() throws InterruptedException;
 
     void untake(Serializable item) throws InterruptedException;
@@ -31,6 +31,14 @@ public interface QueueStoreDelegate
      */
     Serializable poll(long timeout) throws InterruptedException;
 
+    /**
+     * Removes up to maxElements members from the beginning of the queue and adds them to the
+     * collection, waiting up to timeout for the first one
+     *
+     * @return the number of members added to the collection
+     */
+    int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException;
+
     /**
      * return, but do not remove, the first member of the queue
      */
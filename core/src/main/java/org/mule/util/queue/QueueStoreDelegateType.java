@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+/**
+ * Defines which {@link QueueStoreDelegate} implementation a {@link DefaultQueueStore} uses
+ * to hold its elements.
+ * <p/>
+ * Types that only apply to persistent queues are ignored by transient queues and vice versa,
+ * in which case the {@link #DEFAULT} implementation for that kind of queue is used.
+ */
+public enum QueueStoreDelegateType
+{
+    /**
+     * {@link DualRandomAccessFileQueueStoreDelegate} for persistent queues and
+     * {@link DefaultQueueStoreDelegate} for transient queues.
+     */
+    DEFAULT,
+
+    /**
+     * {@link SegmentedLogQueueStoreDelegate} for persistent queues.
+     */
+    SEGMENTED_LOG,
+
+    /**
+     * {@link RingBufferQueueStoreDelegate} for transient queues.
+     */
+    RING_BUFFER
+}
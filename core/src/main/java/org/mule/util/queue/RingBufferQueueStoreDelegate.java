@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A lock free QueueStoreDelegate for transient queues. The members of the queue are kept in a
+ * bounded multi producer / multi consumer ring buffer, so producers and consumers do not contend
+ * on a shared monitor and only the threads waiting for elements or room are woken up.
+ * <p/>
+ * The ring buffer holds the configured capacity of the queue rounded up to a power of two. Unbounded
+ * queues, and queues with a capacity greater than {@link #MAXIMUM_RING_SIZE}, use a ring buffer of
+ * {@link #DEFAULT_RING_SIZE_PROPERTY_KEY} elements. Elements that do not fit in a full ring buffer
+ * spill into an unbounded overflow queue, and keep doing so until it is drained, so the queue never
+ * holds fewer elements than its capacity and {@link #putNow(Serializable)} never blocks. Only
+ * {@link #offer(Serializable, int, long)} waits, while the queue is at its configured capacity.
+ * Producers reserve their room in the queue atomically on a counter of its elements, so concurrent
+ * offers never exceed the capacity. Untaken elements are kept apart from the ring buffer and are
+ * returned first.
+ * <p/>
+ * The way threads wait for elements or room is defined by {@link #WAIT_STRATEGY_PROPERTY_KEY}, see
+ * {@link WaitStrategy}.
+ */
+public class RingBufferQueueStoreDelegate implements QueueStoreDelegate
+{
+
+    public static final String DEFAULT_RING_SIZE_PROPERTY_KEY = "mule.queue.ringBuffer.defaultSize";
+    public static final String WAIT_STRATEGY_PROPERTY_KEY = "mule.queue.ringBuffer.waitStrategy";
+
+    public static final int MAXIMUM_RING_SIZE = 1 << 20;
+
+    private static final int DEFAULT_RING_SIZE = 16 * 1024;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Defines what a thread does while it waits for elements or room in the queue.
+     */
+    public enum WaitStrategy
+    {
+        /**
+         * Busy spins, yielding the processor between attempts. Lowest latency, but every waiting
+         * thread keeps a processor busy.
+         */
+        SPIN,
+
+        /**
+         * Parks the thread for short periods between attempts. Low latency with moderate processor
+         * usage, no signaling cost for producers and consumers.
+         */
+        PARK,
+
+        /**
+         * Blocks the thread until it is signaled. Waiting threads use no processor, producers and
+         * consumers only pay for the signal when there are threads waiting.
+         */
+        BLOCK
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Serializable> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new PaddedAtomicLong();
+    private final AtomicLong tail = new PaddedAtomicLong();
+    private final ConcurrentLinkedDeque<Serializable> untaken = new ConcurrentLinkedDeque<Serializable>();
+    private final ConcurrentLinkedQueue<Serializable> overflow = new ConcurrentLinkedQueue<Serializable>();
+    // counted apart as ConcurrentLinkedQueue.size() traverses the queue
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    // elements in the queue, incremented before adding and decremented after taking so it never falls short
+    private final AtomicInteger size = new AtomicInteger();
+    private final Waiter notEmpty;
+    private final Waiter notFull;
+
+    public RingBufferQueueStoreDelegate(int capacity)
+    {
+        this(capacity, getDefaultWaitStrategy());
+    }
+
+    public RingBufferQueueStoreDelegate(int capacity, WaitStrategy waitStrategy)
+    {
+        this.capacity = capacity;
+        int ringSize = ringSizeFor(capacity);
+        this.mask = ringSize - 1;
+        this.buffer = new AtomicReferenceArray<Serializable>(ringSize);
+        this.sequences = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++)
+        {
+            sequences.set(i, i);
+        }
+        this.notEmpty = createWaiter(waitStrategy);
+        this.notFull = createWaiter(waitStrategy);
+    }
+
+    @Override
+    public void putNow(Serializable o)
+    {
+        size.incrementAndGet();
+        add(o);
+        notEmpty.signal();
+    }
+
+    @Override
+    public boolean offer(Serializable o, int room, long timeout) throws InterruptedException
+    {
+        checkInterrupted();
+        if (capacity > 0 && capacity <= room)
+        {
+            throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0L));
+        while (true)
+        {
+            long ticket = notFull.ticket();
+            if (o == null ? capacity <= 0 || size.get() < capacity - room : tryReserve(room))
+            {
+                if (o != null)
+                {
+                    add(o);
+                    notEmpty.signal();
+                }
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+            {
+                return false;
+            }
+            notFull.await(ticket, remaining);
+            checkInterrupted();
+        }
+    }
+
+    @Override
+    public Serializable poll(long timeout) throws InterruptedException
+    {
+        checkInterrupted();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0L));
+        while (true)
+        {
+            long ticket = notEmpty.ticket();
+            Serializable o = take();
+            if (o != null)
+            {
+                notFull.signal();
+                return o;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+            {
+                return null;
+            }
+            notEmpty.await(ticket, remaining);
+            checkInterrupted();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+    {
+        if (maxElements <= 0)
+        {
+            checkInterrupted();
+            return 0;
+        }
+        Serializable o = poll(timeout);
+        if (o == null)
+        {
+            return 0;
+        }
+        int drained = 0;
+        do
+        {
+            elements.add(o);
+            drained++;
+        }
+        while (drained < maxElements && (o = take()) != null);
+        if (drained > 1)
+        {
+            notFull.signal();
+        }
+        return drained;
+    }
+
+    @Override
+    public Serializable peek() throws InterruptedException
+    {
+        checkInterrupted();
+        Serializable first = untaken.peekFirst();
+        if (first != null)
+        {
+            return first;
+        }
+        while (true)
+        {
+            long position = head.get();
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1)
+            {
+                // the ring buffer is empty, the overflow holds the next elements if any
+                return overflow.peek();
+            }
+            Serializable o = buffer.get(index);
+            if (o != null && head.get() == position)
+            {
+                return o;
+            }
+        }
+    }
+
+    @Override
+    public void untake(Serializable item) throws InterruptedException
+    {
+        checkInterrupted();
+        size.incrementAndGet();
+        untaken.addFirst(item);
+        notEmpty.signal();
+    }
+
+    @Override
+    public int getSize()
+    {
+        return size.get();
+    }
+
+    @Override
+    public void clear() throws InterruptedException
+    {
+        checkInterrupted();
+        doClear();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Serializable> items)
+    {
+        for (Serializable item : items)
+        {
+            putNow(item);
+        }
+        return !items.isEmpty();
+    }
+
+    @Override
+    public void dispose()
+    {
+        doClear();
+    }
+
+    private void doClear()
+    {
+        while (take() != null)
+        {
+            // discard element
+        }
+        notFull.signal();
+    }
+
+    /**
+     * Reserves room for one element, failing if that would leave less than the given room free.
+     */
+    private boolean tryReserve(int room)
+    {
+        while (true)
+        {
+            int current = size.get();
+            if (capacity > 0 && current >= capacity - room)
+            {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1))
+            {
+                return true;
+            }
+        }
+    }
+
+    private Serializable take()
+    {
+        Serializable o = untaken.pollFirst();
+        if (o == null)
+        {
+            o = tryRemove();
+        }
+        if (o == null)
+        {
+            // elements only spill over once the ring buffer is full, so the ones in the ring are older
+            o = pollOverflow();
+        }
+        if (o != null)
+        {
+            size.decrementAndGet();
+        }
+        return o;
+    }
+
+    /**
+     * Adds to the ring buffer, or to the overflow queue if the ring buffer is full or the overflow
+     * queue still has elements, which must be taken before the new one.
+     */
+    private void add(Serializable o)
+    {
+        if (overflowSize.get() > 0 || !tryAdd(o))
+        {
+            // counted before it is added so the elements that follow spill over too
+            overflowSize.incrementAndGet();
+            overflow.add(o);
+        }
+    }
+
+    private Serializable pollOverflow()
+    {
+        if (overflowSize.get() <= 0)
+        {
+            return null;
+        }
+        Serializable o = overflow.poll();
+        if (o != null)
+        {
+            overflowSize.decrementAndGet();
+        }
+        return o;
+    }
+
+    private boolean tryAdd(Serializable o)
+    {
+        long position = tail.get();
+        while (true)
+        {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    buffer.set(index, o);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (difference < 0)
+            {
+                return false;
+            }
+            else
+            {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Serializable tryRemove()
+    {
+        long position = head.get();
+        while (true)
+        {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0)
+            {
+                if (head.compareAndSet(position, position + 1))
+                {
+                    Serializable o = buffer.get(index);
+                    buffer.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return o;
+                }
+                position = head.get();
+            }
+            else if (difference < 0)
+            {
+                return null;
+            }
+            else
+            {
+                position = head.get();
+            }
+        }
+    }
+
+    private void checkInterrupted() throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+    }
+
+    private static int ringSizeFor(int capacity)
+    {
+        int size = capacity > 0 && capacity <= MAXIMUM_RING_SIZE ? capacity : Integer.getInteger(DEFAULT_RING_SIZE_PROPERTY_KEY, DEFAULT_RING_SIZE);
+        if (size <= 0 || size > MAXIMUM_RING_SIZE)
+        {
+            throw new IllegalArgumentException(String.format("Ring buffer size must be between 1 and %d, but was %d", MAXIMUM_RING_SIZE, size));
+        }
+        // a slot sequence must tell apart a full and an empty slot, which needs at least two slots
+        return size <= 2 ? 2 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private static WaitStrategy getDefaultWaitStrategy()
+    {
+        return WaitStrategy.valueOf(System.getProperty(WAIT_STRATEGY_PROPERTY_KEY, WaitStrategy.BLOCK.name()));
+    }
+
+    private static Waiter createWaiter(WaitStrategy waitStrategy)
+    {
+        switch (waitStrategy)
+        {
+            case SPIN:
+                return new SpinWaiter();
+            case PARK:
+                return new ParkWaiter();
+            default:
+                return new BlockingWaiter();
+        }
+    }
+
+    /**
+     * Makes threads wait until they are signaled or the timeout elapses. A thread takes a ticket
+     * before checking the queue and waits with it, so a signal sent in between is not lost.
+     */
+    private abstract static class Waiter
+    {
+
+        long ticket()
+        {
+            return 0L;
+        }
+
+        abstract void await(long ticket, long nanos) throws InterruptedException;
+
+        void signal()
+        {
+        }
+    }
+
+    private static class SpinWaiter extends Waiter
+    {
+
+        @Override
+        void await(long ticket, long nanos)
+        {
+            Thread.yield();
+        }
+    }
+
+    private static class ParkWaiter extends Waiter
+    {
+
+        @Override
+        void await(long ticket, long nanos)
+        {
+            LockSupport.parkNanos(this, Math.min(nanos, PARK_NANOS));
+        }
+    }
+
+    private static class BlockingWaiter extends Waiter
+    {
+
+        private final AtomicLong signals = new AtomicLong();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition signaled = lock.newCondition();
+
+        @Override
+        long ticket()
+        {
+            return signals.get();
+        }
+
+        @Override
+        void await(long ticket, long nanos) throws InterruptedException
+        {
+            lock.lockInterruptibly();
+            try
+            {
+                waiting.incrementAndGet();
+                try
+                {
+                    while (signals.get() == ticket && nanos > 0L)
+                    {
+                        nanos = signaled.awaitNanos(nanos);
+                    }
+                }
+                finally
+                {
+                    waiting.decrementAndGet();
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        void signal()
+        {
+            signals.incrementAndGet();
+            if (waiting.get() > 0)
+            {
+                lock.lock();
+                try
+                {
+                    signaled.signalAll();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the head and tail counters in different cache lines so producers and consumers do not
+     * invalidate each other's.
+     */
+    @SuppressWarnings("unused")
+    private static class PaddedAtomicLong extends AtomicLong
+    {
+
+        private static final long serialVersionUID = 4468370434553283046L;
+
+        private volatile long p1, p2, p3, p4, p5, p6 = 7L;
+    }
+}
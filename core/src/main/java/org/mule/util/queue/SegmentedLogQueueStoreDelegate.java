@@ -0,0 +1,540 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import org.mule.api.MuleContext;
+import org.mule.util.FileUtils;
+import org.mule.util.Preconditions;
+import org.mule.util.SerializationUtils;
+import org.mule.util.concurrent.DaemonThreadFactory;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in an append only
+ * log split in several memory-mapped segment files.
+ * <p/>
+ * New elements are always appended at the end of the current write segment and a new segment is
+ * created once it's full. The position of every live element is kept in memory so reading,
+ * removing and looking up elements never requires scanning the files. Each record carries a
+ * sequence number used to restore the queue order when the queue is opened again. Elements are
+ * looked up by their serialized form, comparing a hash of it before reading the stored bytes.
+ * <p/>
+ * Changes are forced to disk in batches: once {@link #SYNC_BATCH_SIZE_PROPERTY_KEY} writes were done
+ * or {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds elapsed since the last sync. A timer checks the
+ * pending changes every sync interval, so the last writes of a burst are forced even if no other write
+ * follows. The timer thread is shared by the queues of a {@link MuleContext} and stopped when its
+ * {@link TransactionalQueueManager} is disposed. Since the segments are memory-mapped, data not yet forced still survives a JVM crash, but
+ * up to a sync interval of changes can be lost if the operating system or the machine fails.
+ * <p/>
+ * Segments without live elements are deleted. Segments whose live content falls below
+ * {@link #COMPACTION_THRESHOLD_PROPERTY_KEY} percent of their size are compacted by moving their
+ * remaining elements to the write segment.
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate
+{
+
+    public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentedLog.segmentSize";
+    public static final String SYNC_BATCH_SIZE_PROPERTY_KEY = "mule.queue.segmentedLog.syncBatchSize";
+    public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.segmentedLog.syncInterval";
+    public static final String COMPACTION_THRESHOLD_PROPERTY_KEY = "mule.queue.segmentedLog.compactionThreshold";
+
+    private static final int FOUR_MEGABYTES = 4 * 1024 * 1024;
+    private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+    private static final String SEGMENTS_DIRECTORY_SUFFIX = "-log";
+
+    // shared by the queues of each context, forcing the pending changes is short and done under each queue's own lock
+    private static final Map<MuleContext, ScheduledExecutorService> syncSchedulers = new HashMap<MuleContext, ScheduledExecutorService>();
+
+    protected final Log logger = LogFactory.getLog(this.getClass());
+    private final MuleContext muleContext;
+    private final File segmentsDirectory;
+    private final int segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, FOUR_MEGABYTES);
+    private final int syncBatchSize = Integer.getInteger(SYNC_BATCH_SIZE_PROPERTY_KEY, 64);
+    private final long syncInterval = Long.getLong(SYNC_INTERVAL_PROPERTY_KEY, 50L);
+    private final int compactionThreshold = Integer.getInteger(COMPACTION_THRESHOLD_PROPERTY_KEY, 25);
+
+    private final TreeMap<Long, QueueLogSegment> segments = new TreeMap<Long, QueueLogSegment>();
+    private final Deque<RecordPointer> records = new ArrayDeque<RecordPointer>();
+    private final Set<QueueLogSegment> unsyncedSegments = new HashSet<QueueLogSegment>();
+    private QueueLogSegment writeSegment;
+    private long nextSequence;
+    private int unsyncedWrites;
+    private long lastSyncTime = System.currentTimeMillis();
+    private ScheduledFuture<?> syncTask;
+
+    public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity)
+    {
+        super(capacity);
+        this.muleContext = muleContext;
+        this.segmentsDirectory = getSegmentsDirectory(queueName, workingDirectory);
+        if (!segmentsDirectory.exists())
+        {
+            Preconditions.checkState(segmentsDirectory.mkdirs(), "Could not create queue store directory " + segmentsDirectory.getAbsolutePath());
+        }
+        loadSegments();
+        // with no interval every write is forced right away
+        if (syncInterval > 0)
+        {
+            syncTask = scheduleSync(muleContext, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    syncPendingChanges();
+                }
+            }, syncInterval);
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Queue %s has %s messages in %s segments", queueName, records.size(), segments.size()));
+        }
+    }
+
+    /**
+     * @param queueName name of the queue
+     * @param workingDirectory mule working directory
+     * @return true if there's segmented log data stored for the given queue
+     */
+    public static boolean hasStoredData(String queueName, String workingDirectory)
+    {
+        return getSegmentsDirectory(queueName, workingDirectory).exists();
+    }
+
+    private static ScheduledFuture<?> scheduleSync(MuleContext muleContext, Runnable task, long interval)
+    {
+        synchronized (syncSchedulers)
+        {
+            ScheduledExecutorService syncScheduler = syncSchedulers.get(muleContext);
+            if (syncScheduler == null)
+            {
+                syncScheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("queue.segmentedLog.sync"));
+                syncSchedulers.put(muleContext, syncScheduler);
+            }
+            return syncScheduler.scheduleWithFixedDelay(task, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the thread that forces the pending changes of the queues of the given context. Queues
+     * still open after this only force their changes when they are written.
+     *
+     * @param muleContext context owning the queues
+     */
+    static void shutdownSyncScheduler(MuleContext muleContext)
+    {
+        ScheduledExecutorService syncScheduler;
+        synchronized (syncSchedulers)
+        {
+            syncScheduler = syncSchedulers.remove(muleContext);
+        }
+        if (syncScheduler != null)
+        {
+            syncScheduler.shutdownNow();
+        }
+    }
+
+    private static File getSegmentsDirectory(String queueName, String workingDirectory)
+    {
+        File queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+        if (queueName.matches("[\\w.\\-() ]+"))
+        {
+            return new File(queuesDirectory, queueName + SEGMENTS_DIRECTORY_SUFFIX);
+        }
+        return new File(queuesDirectory, QueueFileProvider.toHex(queueName) + SEGMENTS_DIRECTORY_SUFFIX);
+    }
+
+    private void loadSegments()
+    {
+        final List<RecordPointer> recoveredRecords = new ArrayList<RecordPointer>();
+        File[] files = segmentsDirectory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                if (!QueueLogSegment.isSegmentFile(file.getName()))
+                {
+                    continue;
+                }
+                QueueLogSegment segment = QueueLogSegment.open(file, new QueueLogSegment.RecordVisitor()
+                {
+                    @Override
+                    public void visit(QueueLogSegment segment, int position, long sequence)
+                    {
+                        recoveredRecords.add(new RecordPointer(segment, position, sequence, Arrays.hashCode(segment.read(position))));
+                    }
+                });
+                segments.put(segment.getId(), segment);
+            }
+        }
+        Collections.sort(recoveredRecords, new Comparator<RecordPointer>()
+        {
+            @Override
+            public int compare(RecordPointer record1, RecordPointer record2)
+            {
+                return Long.compare(record1.sequence, record2.sequence);
+            }
+        });
+        RecordPointer previous = null;
+        for (RecordPointer record : recoveredRecords)
+        {
+            if (previous != null && previous.sequence == record.sequence)
+            {
+                // A compaction was interrupted after copying the record, discard the duplicate.
+                record.segment.markRemoved(record.position);
+                unsyncedSegments.add(record.segment);
+                continue;
+            }
+            records.addLast(record);
+            previous = record;
+        }
+        nextSequence = previous == null ? 0 : previous.sequence + 1;
+        for (QueueLogSegment segment : new ArrayList<QueueLogSegment>(segments.values()))
+        {
+            if (segment.getLiveRecords() == 0 && segment != segments.lastEntry().getValue())
+            {
+                deleteSegment(segment);
+            }
+        }
+        if (segments.isEmpty())
+        {
+            writeSegment = createSegment(0, segmentSize);
+        }
+        else
+        {
+            writeSegment = segments.lastEntry().getValue();
+        }
+        sync();
+    }
+
+    @Override
+    protected void add(Serializable item)
+    {
+        records.addLast(append(nextSequence++, SerializationUtils.serialize(item, muleContext)));
+        syncIfRequired();
+    }
+
+    @Override
+    protected void addFirst(Serializable item) throws InterruptedException
+    {
+        long sequence = records.isEmpty() ? nextSequence++ : records.getFirst().sequence - 1;
+        records.addFirst(append(sequence, SerializationUtils.serialize(item, muleContext)));
+        syncIfRequired();
+    }
+
+    @Override
+    protected Serializable removeFirst() throws InterruptedException
+    {
+        if (records.isEmpty())
+        {
+            return null;
+        }
+        RecordPointer record = records.removeFirst();
+        Serializable value = deserialize(record.read());
+        removeRecord(record);
+        return value;
+    }
+
+    @Override
+    protected Serializable getFirst() throws InterruptedException
+    {
+        if (records.isEmpty())
+        {
+            return null;
+        }
+        return deserialize(records.getFirst().read());
+    }
+
+    @Override
+    protected int size()
+    {
+        return records.size();
+    }
+
+    @Override
+    protected boolean isEmpty()
+    {
+        return records.isEmpty();
+    }
+
+    @Override
+    protected void doClear()
+    {
+        records.clear();
+        unsyncedSegments.clear();
+        for (QueueLogSegment segment : segments.values())
+        {
+            segment.delete();
+        }
+        segments.clear();
+        writeSegment = createSegment(writeSegment.getId() + 1, segmentSize);
+    }
+
+    @Override
+    protected boolean doAddAll(Collection<? extends Serializable> items)
+    {
+        for (Serializable item : items)
+        {
+            records.addLast(append(nextSequence++, SerializationUtils.serialize(item, muleContext)));
+        }
+        syncIfRequired();
+        return true;
+    }
+
+    @Override
+    public synchronized void remove(Serializable value)
+    {
+        byte[] data = SerializationUtils.serialize(value, muleContext);
+        int dataHash = Arrays.hashCode(data);
+        for (Iterator<RecordPointer> iterator = records.iterator(); iterator.hasNext(); )
+        {
+            RecordPointer record = iterator.next();
+            if (record.isFor(data, dataHash))
+            {
+                iterator.remove();
+                removeRecord(record);
+                sync();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(Serializable value)
+    {
+        byte[] data = SerializationUtils.serialize(value, muleContext);
+        int dataHash = Arrays.hashCode(data);
+        for (RecordPointer record : records)
+        {
+            if (record.isFor(data, dataHash))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (syncTask != null)
+        {
+            syncTask.cancel(false);
+            syncTask = null;
+        }
+        for (QueueLogSegment segment : segments.values())
+        {
+            segment.close();
+        }
+        unsyncedSegments.clear();
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        doClear();
+        close();
+        FileUtils.deleteQuietly(segmentsDirectory);
+    }
+
+    private Serializable deserialize(byte[] valueAsBytes)
+    {
+        return (Serializable) SerializationUtils.deserialize(valueAsBytes, muleContext);
+    }
+
+    private RecordPointer append(long sequence, byte[] data)
+    {
+        if (!writeSegment.hasRoomFor(data.length))
+        {
+            rollWriteSegment(data.length);
+        }
+        int position = writeSegment.append(sequence, data);
+        unsyncedSegments.add(writeSegment);
+        unsyncedWrites++;
+        return new RecordPointer(writeSegment, position, sequence, Arrays.hashCode(data));
+    }
+
+    private void rollWriteSegment(int dataLength)
+    {
+        QueueLogSegment previousSegment = writeSegment;
+        writeSegment = createSegment(previousSegment.getId() + 1, Math.max(segmentSize, QueueLogSegment.HEADER_SIZE + dataLength));
+        previousSegment.sync();
+        if (previousSegment.getLiveRecords() == 0)
+        {
+            deleteSegment(previousSegment);
+        }
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Rolled queue write segment to %s, %s segments in use", writeSegment.getFile().getName(), segments.size()));
+        }
+    }
+
+    private QueueLogSegment createSegment(long id, int capacity)
+    {
+        QueueLogSegment segment = QueueLogSegment.create(segmentsDirectory, id, capacity);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void deleteSegment(QueueLogSegment segment)
+    {
+        segments.remove(segment.getId());
+        unsyncedSegments.remove(segment);
+        segment.delete();
+    }
+
+    private void removeRecord(RecordPointer record)
+    {
+        QueueLogSegment segment = record.segment;
+        segment.markRemoved(record.position);
+        unsyncedSegments.add(segment);
+        unsyncedWrites++;
+        if (segment != writeSegment)
+        {
+            if (segment.getLiveRecords() == 0)
+            {
+                deleteSegment(segment);
+            }
+            else if (shouldCompact(segment))
+            {
+                compact(segment);
+            }
+        }
+        syncIfRequired();
+    }
+
+    private boolean shouldCompact(QueueLogSegment segment)
+    {
+        // The segment holding the head of the queue is being consumed, it will be released soon.
+        return segment.getLiveBytes() * 100 < (long) segment.getCapacity() * compactionThreshold
+               && (records.isEmpty() || records.getFirst().segment != segment);
+    }
+
+    /**
+     * Moves the live records of the given segment to the write segment and deletes it. The copied
+     * records keep their sequence numbers so duplicates left by an interrupted compaction are
+     * discarded when the queue is loaded.
+     */
+    private void compact(QueueLogSegment segment)
+    {
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Compacting queue segment %s with %s live records", segment.getFile().getName(), segment.getLiveRecords()));
+        }
+        for (RecordPointer record : records)
+        {
+            if (record.segment == segment)
+            {
+                RecordPointer copy = append(record.sequence, record.read());
+                record.segment = copy.segment;
+                record.position = copy.position;
+            }
+        }
+        sync();
+        deleteSegment(segment);
+    }
+
+    private void syncIfRequired()
+    {
+        if (unsyncedWrites >= syncBatchSize || System.currentTimeMillis() - lastSyncTime >= syncInterval)
+        {
+            sync();
+        }
+    }
+
+    private synchronized void syncPendingChanges()
+    {
+        try
+        {
+            if (unsyncedWrites > 0 && System.currentTimeMillis() - lastSyncTime >= syncInterval)
+            {
+                sync();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // an exception would cancel the timer, the next write retries anyway
+            logger.warn("Could not force the pending changes of queue store " + segmentsDirectory.getName() + " to disk", e);
+        }
+    }
+
+    private void sync()
+    {
+        for (QueueLogSegment segment : unsyncedSegments)
+        {
+            segment.sync();
+        }
+        unsyncedSegments.clear();
+        unsyncedWrites = 0;
+        lastSyncTime = System.currentTimeMillis();
+    }
+
+    //only for testing.
+    int getNumberOfSegments()
+    {
+        return segments.size();
+    }
+
+    //only for testing.
+    synchronized int getUnsyncedWrites()
+    {
+        return unsyncedWrites;
+    }
+
+    /**
+     * Location of a live record within the log.
+     */
+    private static class RecordPointer
+    {
+
+        private QueueLogSegment segment;
+        private int position;
+        private final long sequence;
+        private final int dataHash;
+
+        RecordPointer(QueueLogSegment segment, int position, long sequence, int dataHash)
+        {
+            this.segment = segment;
+            this.position = position;
+            this.sequence = sequence;
+            this.dataHash = dataHash;
+        }
+
+        byte[] read()
+        {
+            return segment.read(position);
+        }
+
+        boolean isFor(byte[] data, int dataHash)
+        {
+            return this.dataHash == dataHash && Arrays.equals(read(), data);
+        }
+    }
+}
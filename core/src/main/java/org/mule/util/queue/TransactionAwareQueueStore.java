@@ -12,6 +12,9 @@ import org.mule.api.store.ObjectStoreException;
 import org.mule.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -116,6 +119,53 @@ public class TransactionAwareQueueStore implements Queue
         }
     }
 
+    /**
+     * Drains the queue with a single operation on the store. Within a transaction the elements are
+     * polled one by one through the transaction context, so each removal is tracked.
+     */
+    @Override
+    public int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+    {
+        List<Serializable> drained = new ArrayList<Serializable>();
+        try
+        {
+            if (transactionContextProvider.isTransactional())
+            {
+                QueueTransactionContext transactionContext = transactionContextProvider.getTransactionalContext();
+                Serializable item = maxElements > 0 ? transactionContext.poll(queue, timeout) : null;
+                while (item != null)
+                {
+                    drained.add(item);
+                    item = drained.size() < maxElements ? transactionContext.poll(queue, 0) : null;
+                }
+            }
+            else
+            {
+                queue.drainTo(drained, maxElements, timeout);
+            }
+        }
+        catch (InterruptedException iex)
+        {
+            if (!muleContext.isStopping())
+            {
+                throw iex;
+            }
+            // if stopping, ignore
+        }
+
+        int count = 0;
+        for (Serializable item : drained)
+        {
+            item = postProcessIfNeeded(item);
+            if (item != null)
+            {
+                elements.add(item);
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public Serializable peek() throws InterruptedException
     {
@@ -60,6 +60,7 @@ public class TransactionalQueueManager extends AbstractQueueManager
     {
         localTxTransactionJournal.close();
         xaTransactionJournal.close();
+        SegmentedLogQueueStoreDelegate.shutdownSyncScheduler(getMuleContext());
     }
 
     @Override
@@ -79,11 +80,30 @@ public class TransactionalQueueManager extends AbstractQueueManager
         {
             return queuesAccessedForRecovery.get(queueName);
         }
-        DefaultQueueStore queueStore = createQueueStore(queueName, new DefaultQueueConfiguration(0, true));
+        DefaultQueueStore queueStore = createQueueStore(queueName, getRecoveryQueueConfiguration(queueName));
         queuesAccessedForRecovery.put(queueName, queueStore);
         return queueStore;
     }
 
+    /**
+     * The recovery queue must read the data using the same store type used to write it, so the
+     * configured store type is used when available and the stored data is inspected otherwise.
+     */
+    private QueueConfiguration getRecoveryQueueConfiguration(String queueName)
+    {
+        QueueConfiguration queueConfiguration = getQueueConfiguration(queueName);
+        QueueStoreDelegateType storeDelegateType = QueueStoreDelegateType.DEFAULT;
+        if (queueConfiguration != null && queueConfiguration.isPersistent())
+        {
+            storeDelegateType = queueConfiguration.getStoreDelegateType();
+        }
+        else if (SegmentedLogQueueStoreDelegate.hasStoredData(queueName, getMuleContext().getConfiguration().getWorkingDirectory()))
+        {
+            storeDelegateType = QueueStoreDelegateType.SEGMENTED_LOG;
+        }
+        return new DefaultQueueConfiguration(0, true, storeDelegateType);
+    }
+
     @Override
     public void start() throws MuleException
     {
@@ -8,6 +8,7 @@ package org.mule.util.queue.objectstore;
 
 import org.mule.api.MuleContext;
 import org.mule.api.store.QueueStore;
+import org.mule.util.queue.QueueStoreDelegateType;
 
 import java.io.Serializable;
 
@@ -79,4 +80,9 @@ public class QueueConfiguration implements org.mule.util.queue.QueueConfiguratio
     {
         return capacity;
     }
+
+    public QueueStoreDelegateType getStoreDelegateType()
+    {
+        return QueueStoreDelegateType.DEFAULT;
+    }
 }
@@ -15,6 +15,7 @@ import org.mule.util.queue.objectstore.xa.DefaultXASession;
 import org.mule.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -183,6 +184,20 @@ class TransactionalQueueSession extends DefaultXASession implements QueueSession
             }
         }
 
+        @Override
+        public int drainTo(Collection<? super Serializable> elements, int maxElements, long timeout) throws InterruptedException
+        {
+            int drained = 0;
+            Serializable item = maxElements > 0 ? poll(timeout) : null;
+            while (item != null)
+            {
+                elements.add(item);
+                drained++;
+                item = drained < maxElements ? poll(0) : null;
+            }
+            return drained;
+        }
+
         @Override
         public Serializable peek() throws InterruptedException
         {
@@ -0,0 +1,726 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.store.ExpirableObjectStore;
+import org.mule.api.store.ListableObjectStore;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.config.i18n.CoreMessages;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <code>BoundedInMemoryObjectStore</code> implements a concurrent in-memory store with a
+ * hard limit on the total weight of its entries and an optional time to live per entry.
+ * <p/>
+ * When the limit is exceeded the entries to evict are chosen with the W-TinyLFU policy: new
+ * entries go through a small LRU window and then compete to enter the main space against the least
+ * recently used entry of its probation segment, the one accessed the most times recently staying.
+ * Entries accessed while on probation are promoted to a protected segment. Access frequencies are
+ * estimated with a {@link FrequencySketch}.
+ * <p/>
+ * Reads never block, accesses are recorded in a lossy buffer and applied to the policy by the
+ * thread that acquires the eviction lock. Expired entries are discarded when accessed, when
+ * new entries are stored and on {@link #expire(int, int)}.
+ */
+public class BoundedInMemoryObjectStore<T extends Serializable> implements ListableObjectStore<T>, ExpirableObjectStore<T>
+{
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final ConcurrentMap<Serializable, Node<T>> data = new ConcurrentHashMap<Serializable, Node<T>>();
+    private final long maximumWeight;
+    private final long windowMaximumWeight;
+    private final long protectedMaximumWeight;
+    private final long entryTTLNanos;
+    private final Weigher<? super T> weigher;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // @GuardedBy evictionLock
+    private final NodeDeque<T> window = new NodeDeque<T>(false);
+    private final NodeDeque<T> probation = new NodeDeque<T>(false);
+    private final NodeDeque<T> protectedSegment = new NodeDeque<T>(false);
+    private final NodeDeque<T> writeOrder = new NodeDeque<T>(true);
+    private final FrequencySketch sketch;
+    private long weightedSize;
+    private long windowWeight;
+    private long protectedWeight;
+    private int entries;
+
+    private final AtomicReferenceArray<Node<T>> readBuffer = new AtomicReferenceArray<Node<T>>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWrites = new AtomicLong();
+    private volatile long readBufferReads;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+
+    public BoundedInMemoryObjectStore()
+    {
+        this(UNBOUNDED, UNBOUNDED);
+    }
+
+    /**
+     * @param maxEntries maximum number of entries, {@link org.mule.api.store.ObjectStoreManager#UNBOUNDED} for no limit
+     * @param entryTTL time to live in milliseconds of each entry, {@link org.mule.api.store.ObjectStoreManager#UNBOUNDED} for no limit
+     */
+    public BoundedInMemoryObjectStore(int maxEntries, int entryTTL)
+    {
+        this(maxEntries, entryTTL, new Weigher<Serializable>()
+        {
+            @Override
+            public int weigh(Serializable key, Serializable value)
+            {
+                return 1;
+            }
+        });
+    }
+
+    /**
+     * @param maximumWeight maximum total weight of the entries, {@link org.mule.api.store.ObjectStoreManager#UNBOUNDED} for no limit
+     * @param entryTTL time to live in milliseconds of each entry, {@link org.mule.api.store.ObjectStoreManager#UNBOUNDED} for no limit
+     * @param weigher calculates the weight of each entry
+     */
+    public BoundedInMemoryObjectStore(long maximumWeight, int entryTTL, Weigher<? super T> weigher)
+    {
+        this.maximumWeight = maximumWeight;
+        this.windowMaximumWeight = Math.max(1, maximumWeight * WINDOW_PERCENTAGE / 100);
+        this.protectedMaximumWeight = (maximumWeight - windowMaximumWeight) * PROTECTED_PERCENTAGE / 100;
+        this.entryTTLNanos = entryTTL <= UNBOUNDED ? UNBOUNDED : TimeUnit.MILLISECONDS.toNanos(entryTTL);
+        this.weigher = weigher;
+        this.sketch = isBounded() ? new FrequencySketch(maximumWeight) : null;
+    }
+
+    @Override
+    public void open() throws ObjectStoreException
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void close() throws ObjectStoreException
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public boolean isPersistent()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        Node<T> node = data.get(key);
+        return node != null && !node.isExpired(System.nanoTime());
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        checkKey(key);
+        if (value == null)
+        {
+            throw new ObjectStoreException(CoreMessages.objectIsNull("value"));
+        }
+        long now = System.nanoTime();
+        Node<T> node = new Node<T>(key, value, weigher.weigh(key, value), now, entryTTLNanos == UNBOUNDED ? Long.MAX_VALUE : now + entryTTLNanos);
+        Node<T> replaced = null;
+        Node<T> existing = data.putIfAbsent(key, node);
+        while (existing != null)
+        {
+            if (!existing.isExpired(now))
+            {
+                throw new ObjectAlreadyExistsException();
+            }
+            if (data.replace(key, existing, node))
+            {
+                expirationCount.incrementAndGet();
+                replaced = existing;
+                break;
+            }
+            existing = data.putIfAbsent(key, node);
+        }
+
+        evictionLock.lock();
+        try
+        {
+            drainReadBuffer();
+            if (replaced != null)
+            {
+                retire(replaced);
+            }
+            if (!node.retired)
+            {
+                link(node);
+            }
+            expireEntries(now, entryTTLNanos);
+            evict();
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        Node<T> node = data.get(key);
+        if (node == null || expireIfNeeded(node, System.nanoTime()))
+        {
+            missCount.incrementAndGet();
+            throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage("Key does not exist: " + key));
+        }
+        hitCount.incrementAndGet();
+        if (isBounded())
+        {
+            recordRead(node);
+        }
+        return node.value;
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        Node<T> node = data.remove(key);
+        if (node == null)
+        {
+            throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage("Key does not exist: " + key));
+        }
+        retireWithLock(node);
+        if (node.isExpired(System.nanoTime()))
+        {
+            expirationCount.incrementAndGet();
+            throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage("Key does not exist: " + key));
+        }
+        return node.value;
+    }
+
+    @Override
+    public List<Serializable> allKeys() throws ObjectStoreException
+    {
+        long now = System.nanoTime();
+        List<Serializable> keys = new ArrayList<Serializable>(data.size());
+        for (Node<T> node : data.values())
+        {
+            if (!node.isExpired(now))
+            {
+                keys.add(node.key);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void clear() throws ObjectStoreException
+    {
+        evictionLock.lock();
+        try
+        {
+            drainReadBuffer();
+            for (Node<T> node : data.values())
+            {
+                if (data.remove(node.key, node))
+                {
+                    retire(node);
+                }
+            }
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entries stored more than entryTTL milliseconds ago and evicts entries until no more than
+     * maxEntries remain.
+     */
+    @Override
+    public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
+    {
+        evictionLock.lock();
+        try
+        {
+            drainReadBuffer();
+            long now = System.nanoTime();
+            expireEntries(now, entryTTLNanos);
+            if (entryTTL > UNBOUNDED)
+            {
+                expireEntries(now, TimeUnit.MILLISECONDS.toNanos(entryTTL));
+            }
+            if (maxEntries > UNBOUNDED)
+            {
+                while (entries > maxEntries)
+                {
+                    evictEntry(selectVictim());
+                }
+            }
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    public long getExpirationCount()
+    {
+        return expirationCount.get();
+    }
+
+    /**
+     * @return the total weight of the entries currently held by the store
+     */
+    public long getWeightedSize()
+    {
+        evictionLock.lock();
+        try
+        {
+            return weightedSize;
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isBounded()
+    {
+        return maximumWeight > UNBOUNDED;
+    }
+
+    private void checkKey(Serializable key) throws ObjectStoreException
+    {
+        if (key == null)
+        {
+            throw new ObjectStoreException(CoreMessages.objectIsNull("key"));
+        }
+    }
+
+    private boolean expireIfNeeded(Node<T> node, long now)
+    {
+        if (!node.isExpired(now))
+        {
+            return false;
+        }
+        if (data.remove(node.key, node))
+        {
+            expirationCount.incrementAndGet();
+            retireWithLock(node);
+        }
+        return true;
+    }
+
+    private void recordRead(Node<T> node)
+    {
+        long writes = readBufferWrites.get();
+        long pending = writes - readBufferReads;
+        if (pending < READ_BUFFER_SIZE && readBufferWrites.compareAndSet(writes, writes + 1))
+        {
+            readBuffer.lazySet((int) (writes & READ_BUFFER_MASK), node);
+        }
+        if (pending >= READ_BUFFER_DRAIN_THRESHOLD && evictionLock.tryLock())
+        {
+            try
+            {
+                drainReadBuffer();
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void drainReadBuffer()
+    {
+        long reads = readBufferReads;
+        long writes = readBufferWrites.get();
+        while (reads < writes)
+        {
+            int index = (int) (reads & READ_BUFFER_MASK);
+            Node<T> node = readBuffer.get(index);
+            if (node == null)
+            {
+                // Slot claimed by a reader that did not publish the node yet
+                break;
+            }
+            readBuffer.lazySet(index, null);
+            onAccess(node);
+            reads++;
+        }
+        readBufferReads = reads;
+    }
+
+    private void retireWithLock(Node<T> node)
+    {
+        evictionLock.lock();
+        try
+        {
+            retire(node);
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void link(Node<T> node)
+    {
+        node.linked = true;
+        entries++;
+        writeOrder.addLast(node);
+        if (isBounded())
+        {
+            weightedSize += node.weight;
+            windowWeight += node.weight;
+            window.addLast(node);
+            node.queue = window;
+            sketch.increment(node.key);
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void retire(Node<T> node)
+    {
+        if (node.retired)
+        {
+            return;
+        }
+        node.retired = true;
+        if (!node.linked)
+        {
+            return;
+        }
+        entries--;
+        writeOrder.remove(node);
+        if (node.queue != null)
+        {
+            weightedSize -= node.weight;
+            if (node.queue == window)
+            {
+                windowWeight -= node.weight;
+            }
+            else if (node.queue == protectedSegment)
+            {
+                protectedWeight -= node.weight;
+            }
+            node.queue.remove(node);
+            node.queue = null;
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void onAccess(Node<T> node)
+    {
+        if (node.queue == null)
+        {
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == probation)
+        {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            node.queue = protectedSegment;
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMaximumWeight)
+            {
+                Node<T> demoted = protectedSegment.peekFirst();
+                protectedSegment.remove(demoted);
+                protectedWeight -= demoted.weight;
+                probation.addLast(demoted);
+                demoted.queue = probation;
+            }
+        }
+        else
+        {
+            node.queue.moveToBack(node);
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void expireEntries(long now, long ttlNanos)
+    {
+        if (ttlNanos == UNBOUNDED)
+        {
+            return;
+        }
+        Node<T> node;
+        while ((node = writeOrder.peekFirst()) != null && now - node.created >= ttlNanos)
+        {
+            if (data.remove(node.key, node))
+            {
+                expirationCount.incrementAndGet();
+            }
+            retire(node);
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private void evict()
+    {
+        if (!isBounded())
+        {
+            return;
+        }
+
+        // Move the entries exceeding the window to probation, they become candidates to stay in the main space
+        Node<T> candidate = null;
+        while (windowWeight > windowMaximumWeight)
+        {
+            Node<T> node = window.peekFirst();
+            window.remove(node);
+            windowWeight -= node.weight;
+            probation.addLast(node);
+            node.queue = probation;
+            if (candidate == null)
+            {
+                candidate = node;
+            }
+        }
+
+        while (weightedSize > maximumWeight)
+        {
+            Node<T> victim = selectVictim();
+            if (candidate == null)
+            {
+                evictEntry(victim);
+            }
+            else if (candidate == victim)
+            {
+                candidate = candidate.next;
+                evictEntry(victim);
+            }
+            else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key))
+            {
+                evictEntry(victim);
+            }
+            else
+            {
+                Node<T> rejected = candidate;
+                candidate = candidate.next;
+                evictEntry(rejected);
+            }
+        }
+    }
+
+    // @GuardedBy evictionLock
+    private Node<T> selectVictim()
+    {
+        if (!isBounded())
+        {
+            return writeOrder.peekFirst();
+        }
+        Node<T> victim = probation.peekFirst();
+        if (victim == null)
+        {
+            victim = protectedSegment.peekFirst();
+        }
+        if (victim == null)
+        {
+            victim = window.peekFirst();
+        }
+        return victim;
+    }
+
+    // @GuardedBy evictionLock
+    private void evictEntry(Node<T> node)
+    {
+        if (data.remove(node.key, node))
+        {
+            evictionCount.incrementAndGet();
+        }
+        retire(node);
+    }
+
+    /**
+     * Calculates the weight of the entries, the store keeps the total weight under its maximum.
+     */
+    public interface Weigher<T>
+    {
+
+        /**
+         * @return the weight of the entry, must not be negative
+         */
+        int weigh(Serializable key, T value);
+    }
+
+    private static final class Node<T>
+    {
+
+        private final Serializable key;
+        private final T value;
+        private final int weight;
+        private final long created;
+        private final long expirationTime;
+
+        // @GuardedBy evictionLock
+        private Node<T> previous;
+        private Node<T> next;
+        private Node<T> previousInWriteOrder;
+        private Node<T> nextInWriteOrder;
+        private NodeDeque<T> queue;
+        private boolean linked;
+        private boolean retired;
+
+        private Node(Serializable key, T value, int weight, long created, long expirationTime)
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.created = created;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired(long now)
+        {
+            return now - expirationTime >= 0 && expirationTime != Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes, either in access order or in write order.
+     */
+    private static final class NodeDeque<T>
+    {
+
+        private final boolean writeOrder;
+        private Node<T> first;
+        private Node<T> last;
+
+        private NodeDeque(boolean writeOrder)
+        {
+            this.writeOrder = writeOrder;
+        }
+
+        private Node<T> peekFirst()
+        {
+            return first;
+        }
+
+        private void addLast(Node<T> node)
+        {
+            setPrevious(node, last);
+            setNext(node, null);
+            if (last == null)
+            {
+                first = node;
+            }
+            else
+            {
+                setNext(last, node);
+            }
+            last = node;
+        }
+
+        private void remove(Node<T> node)
+        {
+            Node<T> previous = getPrevious(node);
+            Node<T> next = getNext(node);
+            if (previous == null)
+            {
+                first = next;
+            }
+            else
+            {
+                setNext(previous, next);
+            }
+            if (next == null)
+            {
+                last = previous;
+            }
+            else
+            {
+                setPrevious(next, previous);
+            }
+            setPrevious(node, null);
+            setNext(node, null);
+        }
+
+        private void moveToBack(Node<T> node)
+        {
+            if (node != last)
+            {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private Node<T> getPrevious(Node<T> node)
+        {
+            return writeOrder ? node.previousInWriteOrder : node.previous;
+        }
+
+        private Node<T> getNext(Node<T> node)
+        {
+            return writeOrder ? node.nextInWriteOrder : node.next;
+        }
+
+        private void setPrevious(Node<T> node, Node<T> previous)
+        {
+            if (writeOrder)
+            {
+                node.previousInWriteOrder = previous;
+            }
+            else
+            {
+                node.previous = previous;
+            }
+        }
+
+        private void setNext(Node<T> node, Node<T> next)
+        {
+            if (writeOrder)
+            {
+                node.nextInWriteOrder = next;
+            }
+            else
+            {
+                node.next = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+/**
+ * Estimates how often keys were accessed recently, used by {@link BoundedInMemoryObjectStore} to decide
+ * which entry to keep when one must be evicted.
+ * <p/>
+ * This is a count-min sketch of 4-bit counters, four counters per key packed in a table of longs. Once the
+ * number of increments reaches ten times the table size all the counters are halved, so the estimation
+ * favors recent accesses. Not thread safe, callers must hold a lock.
+ */
+class FrequencySketch
+{
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param maximumSize expected maximum number of keys to track
+     */
+    FrequencySketch(long maximumSize)
+    {
+        int capacity = ceilingPowerOfTwo((int) Math.max(Math.min(maximumSize, MAXIMUM_CAPACITY), 8));
+        table = new long[capacity];
+        tableMask = capacity - 1;
+        sampleSize = 10 * capacity;
+    }
+
+    private static int ceilingPowerOfTwo(int value)
+    {
+        return 1 << -Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    /**
+     * @return the estimated number of recent accesses to the key, up to 15
+     */
+    int frequency(Object key)
+    {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++)
+        {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access to the key.
+     */
+    void increment(Object key)
+    {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++)
+        {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize)
+        {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter)
+    {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask)
+        {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset()
+    {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++)
+        {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (oddCounters >>> 2);
+    }
+
+    private int indexOf(int hash, int i)
+    {
+        long value = (hash + SEEDS[i]) * SEEDS[i];
+        value += value >>> 32;
+        return ((int) value) & tableMask;
+    }
+
+    private static int spread(int hash)
+    {
+        int value = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        value = ((value >>> 16) ^ value) * 0x45d9f3b;
+        return (value >>> 16) ^ value;
+    }
+}
@@ -0,0 +1,766 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.MuleContext;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.api.store.ObjectStoreNotAvaliableException;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.util.FileUtils;
+import org.mule.util.SerializationUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A {@link PersistentPartition} that appends its entries to segment files instead of writing a
+ * file per entry.
+ * <p/>
+ * The location of each entry is kept in an in-memory index ordered by store time, so entries
+ * are read with a single positional read and expired in bulk from the oldest one. Removals append a
+ * deletion record and segments mostly holding removed entries are compacted, in the background when
+ * an executor is provided. The index is written to a hint file when the partition is closed and
+ * rebuilt from it on open, only reading the segments written after the hint.
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> implements PersistentPartition<T>
+{
+
+    /**
+     * System property to define the size in bytes from which a new segment file is started.
+     */
+    public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.objectstore.logStructured.segmentSize";
+
+    /**
+     * System property to define the percentage of removed content from which a segment is compacted.
+     */
+    public static final String COMPACTION_THRESHOLD_PROPERTY_KEY = "mule.objectstore.logStructured.compactionThreshold";
+
+    static final String HINT_FILE = "index.hint";
+
+    private static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 50;
+    private static final int HINT_FILE_VERSION = 1;
+    private static final byte STRING_KEY = 0;
+    private static final byte SERIALIZED_KEY = 1;
+    private static final Charset KEY_CHARSET = Charset.forName("UTF-8");
+
+    protected final Log logger = LogFactory.getLog(this.getClass());
+
+    private final MuleContext muleContext;
+    private final File partitionDirectory;
+    private final Executor compactionExecutor;
+    private final long segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+    private final int compactionThreshold = Integer.getInteger(COMPACTION_THRESHOLD_PROPERTY_KEY, DEFAULT_COMPACTION_THRESHOLD);
+    private String partitionName;
+
+    // @GuardedBy this
+    private final TreeMap<Long, ObjectStoreLogSegment> segments = new TreeMap<Long, ObjectStoreLogSegment>();
+    private Map<Serializable, IndexEntry> index = new LinkedHashMap<Serializable, IndexEntry>();
+    private ObjectStoreLogSegment activeSegment;
+    private boolean opened;
+    private boolean compactionScheduled;
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory, Executor compactionExecutor)
+    {
+        this.muleContext = muleContext;
+        this.partitionName = partitionName;
+        this.partitionDirectory = partitionDirectory;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory, Executor compactionExecutor)
+        throws ObjectStoreNotAvaliableException
+    {
+        this(muleContext, readPartitionName(partitionDirectory), partitionDirectory, compactionExecutor);
+    }
+
+    /**
+     * @param partitionDirectory directory of an existing partition
+     * @return true if the partition was stored by a {@link LogStructuredObjectStorePartition}
+     */
+    static boolean isLogStructured(File partitionDirectory)
+    {
+        String[] fileNames = partitionDirectory.list();
+        if (fileNames != null)
+        {
+            for (String fileName : fileNames)
+            {
+                if (ObjectStoreLogSegment.isSegmentFile(fileName))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String readPartitionName(File partitionDirectory) throws ObjectStoreNotAvaliableException
+    {
+        try
+        {
+            return FileUtils.readFileToString(new File(partitionDirectory, PersistentObjectStorePartition.PARTITION_DESCRIPTOR_FILE));
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreNotAvaliableException(e);
+        }
+    }
+
+    @Override
+    public synchronized void open() throws ObjectStoreException
+    {
+        if (opened)
+        {
+            return;
+        }
+        if (!partitionDirectory.exists() && !partitionDirectory.mkdirs())
+        {
+            throw new ObjectStoreException(CoreMessages.failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+        }
+        try
+        {
+            File partitionDescriptorFile = new File(partitionDirectory, PersistentObjectStorePartition.PARTITION_DESCRIPTOR_FILE);
+            if (partitionDescriptorFile.exists())
+            {
+                partitionName = FileUtils.readFileToString(partitionDescriptorFile);
+            }
+            else
+            {
+                FileUtils.writeStringToFile(partitionDescriptorFile, partitionName);
+            }
+            loadSegments();
+        }
+        catch (IOException e)
+        {
+            closeSegments();
+            String message = String.format("Could not restore object store data from %1s", partitionDirectory.getAbsolutePath());
+            throw new ObjectStoreException(CoreMessages.createStaticMessage(message), e);
+        }
+        opened = true;
+        maybeScheduleCompaction();
+    }
+
+    @Override
+    public synchronized void close() throws ObjectStoreException
+    {
+        if (!opened)
+        {
+            return;
+        }
+        opened = false;
+        try
+        {
+            writeHintFile();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Could not write object store index hint file, all the segments will be read on next start: " + e.getMessage());
+            FileUtils.deleteQuietly(new File(partitionDirectory, HINT_FILE));
+        }
+        finally
+        {
+            closeSegments();
+        }
+    }
+
+    @Override
+    public synchronized List<Serializable> allKeys() throws ObjectStoreException
+    {
+        assureOpen();
+        return Collections.unmodifiableList(new ArrayList<Serializable>(index.keySet()));
+    }
+
+    @Override
+    public synchronized boolean contains(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        assureOpen();
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] record = ObjectStoreLogSegment.encode(ObjectStoreLogSegment.PUT, System.currentTimeMillis(), 0, encodeKey(key), serialize(value));
+        synchronized (this)
+        {
+            assureOpen();
+            if (index.containsKey(key))
+            {
+                throw new ObjectAlreadyExistsException();
+            }
+            index.put(key, append(record));
+        }
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] record;
+        synchronized (this)
+        {
+            assureOpen();
+            record = read(key, getIndexEntry(key));
+        }
+        return deserialize(record);
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] record;
+        synchronized (this)
+        {
+            assureOpen();
+            IndexEntry entry = getIndexEntry(key);
+            record = read(key, entry);
+            byte[] deletion = ObjectStoreLogSegment.encode(ObjectStoreLogSegment.DELETE, System.currentTimeMillis(), entry.segmentId, ObjectStoreLogSegment.getKey(record), new byte[0]);
+            IndexEntry deletionEntry = append(deletion);
+            index.remove(key);
+            addDeadBytes(entry.segmentId, entry.length);
+            addDeadBytes(deletionEntry.segmentId, deletionEntry.length);
+            maybeScheduleCompaction();
+        }
+        return deserialize(record);
+    }
+
+    @Override
+    public synchronized void clear() throws ObjectStoreException
+    {
+        assureOpen();
+        for (ObjectStoreLogSegment segment : segments.values())
+        {
+            segment.delete();
+        }
+        segments.clear();
+        index.clear();
+        FileUtils.deleteQuietly(new File(partitionDirectory, HINT_FILE));
+        try
+        {
+            activeSegment = createSegment();
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    @Override
+    public boolean isPersistent()
+    {
+        return true;
+    }
+
+    @Override
+    public synchronized void expire(int entryTTL, int maxEntries) throws ObjectStoreException
+    {
+        assureOpen();
+
+        int excess = maxEntries == UNBOUNDED ? 0 : index.size() - maxEntries;
+        final long now = System.currentTimeMillis();
+        List<Map.Entry<Serializable, IndexEntry>> expired = new ArrayList<Map.Entry<Serializable, IndexEntry>>();
+        for (Map.Entry<Serializable, IndexEntry> entry : index.entrySet())
+        {
+            if (excess > 0)
+            {
+                excess--;
+            }
+            else if (entryTTL == UNBOUNDED || now - entry.getValue().timestamp < entryTTL)
+            {
+                break;
+            }
+            expired.add(entry);
+        }
+        if (expired.isEmpty())
+        {
+            return;
+        }
+
+        ByteArrayOutputStream deletions = new ByteArrayOutputStream();
+        for (Map.Entry<Serializable, IndexEntry> entry : expired)
+        {
+            byte[] deletion = ObjectStoreLogSegment.encode(ObjectStoreLogSegment.DELETE, now, entry.getValue().segmentId, encodeKey(entry.getKey()), new byte[0]);
+            deletions.write(deletion, 0, deletion.length);
+        }
+        IndexEntry deletionsEntry = append(deletions.toByteArray());
+        addDeadBytes(deletionsEntry.segmentId, deletionsEntry.length);
+        for (Map.Entry<Serializable, IndexEntry> entry : expired)
+        {
+            addDeadBytes(entry.getValue().segmentId, entry.getValue().length);
+            index.remove(entry.getKey());
+        }
+        maybeScheduleCompaction();
+    }
+
+    @Override
+    public String getPartitionName()
+    {
+        return partitionName;
+    }
+
+    synchronized int getNumberOfSegments()
+    {
+        return segments.size();
+    }
+
+    private void assureOpen() throws ObjectStoreException
+    {
+        if (!opened)
+        {
+            open();
+        }
+    }
+
+    private void checkKey(Serializable key) throws ObjectStoreException
+    {
+        if (key == null)
+        {
+            throw new ObjectStoreException(CoreMessages.objectIsNull("key"));
+        }
+    }
+
+    private IndexEntry getIndexEntry(Serializable key) throws ObjectDoesNotExistException
+    {
+        IndexEntry entry = index.get(key);
+        if (entry == null)
+        {
+            throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage("Key does not exist: " + key));
+        }
+        return entry;
+    }
+
+    private byte[] read(Serializable key, IndexEntry entry) throws ObjectStoreException
+    {
+        try
+        {
+            return segments.get(entry.segmentId).read(entry.offset, entry.length);
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(CoreMessages.createStaticMessage("Could not read value of key " + key), e);
+        }
+    }
+
+    private IndexEntry append(byte[] records) throws ObjectStoreException
+    {
+        try
+        {
+            return appendToActiveSegment(records);
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    private IndexEntry appendToActiveSegment(byte[] records) throws IOException
+    {
+        if (activeSegment.getSize() > 0 && activeSegment.getSize() + records.length > segmentSize)
+        {
+            activeSegment = createSegment();
+            maybeScheduleCompaction();
+        }
+        long position = activeSegment.append(records);
+        return new IndexEntry(activeSegment.getId(), position, records.length, ObjectStoreLogSegment.getTimestamp(records));
+    }
+
+    private void addDeadBytes(long segmentId, long bytes)
+    {
+        ObjectStoreLogSegment segment = segments.get(segmentId);
+        if (segment != null)
+        {
+            segment.addDeadBytes(bytes);
+        }
+    }
+
+    private ObjectStoreLogSegment createSegment() throws IOException
+    {
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        ObjectStoreLogSegment segment = ObjectStoreLogSegment.create(partitionDirectory, id);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private byte[] encodeKey(Serializable key) throws ObjectStoreException
+    {
+        if (key instanceof String)
+        {
+            byte[] keyBytes = ((String) key).getBytes(KEY_CHARSET);
+            byte[] encodedKey = new byte[keyBytes.length + 1];
+            encodedKey[0] = STRING_KEY;
+            System.arraycopy(keyBytes, 0, encodedKey, 1, keyBytes.length);
+            return encodedKey;
+        }
+        byte[] keyBytes = serialize(key);
+        byte[] encodedKey = new byte[keyBytes.length + 1];
+        encodedKey[0] = SERIALIZED_KEY;
+        System.arraycopy(keyBytes, 0, encodedKey, 1, keyBytes.length);
+        return encodedKey;
+    }
+
+    private Serializable decodeKey(byte[] encodedKey)
+    {
+        if (encodedKey[0] == STRING_KEY)
+        {
+            return new String(encodedKey, 1, encodedKey.length - 1, KEY_CHARSET);
+        }
+        return (Serializable) SerializationUtils.deserialize(Arrays.copyOfRange(encodedKey, 1, encodedKey.length), muleContext);
+    }
+
+    private byte[] serialize(Serializable value) throws ObjectStoreException
+    {
+        try
+        {
+            return SerializationUtils.serialize(value, muleContext);
+        }
+        catch (Exception e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialize(byte[] record) throws ObjectStoreException
+    {
+        try
+        {
+            T value = (T) SerializationUtils.deserialize(ObjectStoreLogSegment.getValue(record), muleContext);
+            if (value instanceof DeserializationPostInitialisable)
+            {
+                DeserializationPostInitialisable.Implementation.init(value, muleContext);
+            }
+            return value;
+        }
+        catch (Exception e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    private void loadSegments() throws IOException
+    {
+        File[] files = partitionDirectory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                if (ObjectStoreLogSegment.isSegmentFile(file.getName()))
+                {
+                    ObjectStoreLogSegment segment = ObjectStoreLogSegment.open(file);
+                    segments.put(segment.getId(), segment);
+                }
+            }
+        }
+
+        long lastHintedSegment = readHintFile();
+        for (ObjectStoreLogSegment segment : segments.tailMap(lastHintedSegment, false).values())
+        {
+            segment.scan(new ObjectStoreLogSegment.RecordVisitor()
+            {
+                @Override
+                public void visit(ObjectStoreLogSegment segment, long position, byte[] record)
+                {
+                    Serializable key = decodeKey(ObjectStoreLogSegment.getKey(record));
+                    if (ObjectStoreLogSegment.getType(record) == ObjectStoreLogSegment.PUT)
+                    {
+                        index.put(key, new IndexEntry(segment.getId(), position, record.length, ObjectStoreLogSegment.getTimestamp(record)));
+                    }
+                    else
+                    {
+                        index.remove(key);
+                    }
+                }
+            });
+        }
+        sortIndexByStoreTime();
+
+        Map<Long, Long> liveBytes = new HashMap<Long, Long>();
+        for (IndexEntry entry : index.values())
+        {
+            Long segmentLiveBytes = liveBytes.get(entry.segmentId);
+            liveBytes.put(entry.segmentId, (segmentLiveBytes == null ? 0 : segmentLiveBytes) + entry.length);
+        }
+        for (ObjectStoreLogSegment segment : segments.values())
+        {
+            Long segmentLiveBytes = liveBytes.get(segment.getId());
+            segment.addDeadBytes(segment.getSize() - (segmentLiveBytes == null ? 0 : segmentLiveBytes));
+        }
+
+        activeSegment = createSegment();
+    }
+
+    private void sortIndexByStoreTime()
+    {
+        List<Map.Entry<Serializable, IndexEntry>> entries = new ArrayList<Map.Entry<Serializable, IndexEntry>>(index.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<Serializable, IndexEntry>>()
+        {
+            @Override
+            public int compare(Map.Entry<Serializable, IndexEntry> e1, Map.Entry<Serializable, IndexEntry> e2)
+            {
+                long t1 = e1.getValue().timestamp;
+                long t2 = e2.getValue().timestamp;
+                return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+            }
+        });
+        Map<Serializable, IndexEntry> sortedIndex = new LinkedHashMap<Serializable, IndexEntry>(entries.size());
+        for (Map.Entry<Serializable, IndexEntry> entry : entries)
+        {
+            sortedIndex.put(entry.getKey(), entry.getValue());
+        }
+        index = sortedIndex;
+    }
+
+    /**
+     * Loads the index entries from the hint file, ignoring the ones that refer to segments that
+     * were compacted after the hint was written.
+     *
+     * @return the id of the last segment covered by the hint file, segments after it must be read
+     */
+    private long readHintFile()
+    {
+        File hintFile = new File(partitionDirectory, HINT_FILE);
+        if (!hintFile.exists())
+        {
+            return 0;
+        }
+        try
+        {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(hintFile)));
+            try
+            {
+                if (input.readInt() != HINT_FILE_VERSION)
+                {
+                    logger.warn("Unknown object store index hint file version, reading all the segments of " + partitionDirectory.getAbsolutePath());
+                    return 0;
+                }
+                long lastHintedSegment = input.readLong();
+                int entries = input.readInt();
+                for (int i = 0; i < entries; i++)
+                {
+                    byte[] encodedKey = new byte[input.readInt()];
+                    input.readFully(encodedKey);
+                    IndexEntry entry = new IndexEntry(input.readLong(), input.readLong(), input.readInt(), input.readLong());
+                    if (segments.containsKey(entry.segmentId))
+                    {
+                        index.put(decodeKey(encodedKey), entry);
+                    }
+                }
+                return lastHintedSegment;
+            }
+            finally
+            {
+                input.close();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.warn("Could not read object store index hint file, reading all the segments of " + partitionDirectory.getAbsolutePath() + ": " + e.getMessage());
+            index.clear();
+            return 0;
+        }
+    }
+
+    private void writeHintFile() throws IOException
+    {
+        File hintFile = new File(partitionDirectory, HINT_FILE);
+        File temporaryHintFile = new File(partitionDirectory, HINT_FILE + ".tmp");
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryHintFile)));
+        try
+        {
+            output.writeInt(HINT_FILE_VERSION);
+            output.writeLong(activeSegment.getId());
+            output.writeInt(index.size());
+            for (Map.Entry<Serializable, IndexEntry> entry : index.entrySet())
+            {
+                byte[] encodedKey = encodeKey(entry.getKey());
+                output.writeInt(encodedKey.length);
+                output.write(encodedKey);
+                output.writeLong(entry.getValue().segmentId);
+                output.writeLong(entry.getValue().offset);
+                output.writeInt(entry.getValue().length);
+                output.writeLong(entry.getValue().timestamp);
+            }
+        }
+        catch (ObjectStoreException e)
+        {
+            throw new IOException(e);
+        }
+        finally
+        {
+            output.close();
+        }
+        FileUtils.deleteQuietly(hintFile);
+        if (!temporaryHintFile.renameTo(hintFile))
+        {
+            throw new IOException("Could not rename " + temporaryHintFile.getAbsolutePath());
+        }
+    }
+
+    private void closeSegments()
+    {
+        for (ObjectStoreLogSegment segment : segments.values())
+        {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        activeSegment = null;
+    }
+
+    private void maybeScheduleCompaction()
+    {
+        if (compactionScheduled || findCompactionCandidate() == null)
+        {
+            return;
+        }
+        compactionScheduled = true;
+        if (compactionExecutor == null)
+        {
+            compactSegments();
+            return;
+        }
+        try
+        {
+            compactionExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    compactSegments();
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            compactionScheduled = false;
+        }
+    }
+
+    private ObjectStoreLogSegment findCompactionCandidate()
+    {
+        for (ObjectStoreLogSegment segment : segments.values())
+        {
+            if (segment != activeSegment && segment.getDeadBytes() * 100 >= segment.getSize() * compactionThreshold)
+            {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private void compactSegments()
+    {
+        while (true)
+        {
+            // Holds the partition lock for each segment only, so operations can make progress in between
+            synchronized (this)
+            {
+                ObjectStoreLogSegment segment = opened ? findCompactionCandidate() : null;
+                if (segment == null)
+                {
+                    compactionScheduled = false;
+                    return;
+                }
+                try
+                {
+                    compact(segment);
+                }
+                catch (Exception e)
+                {
+                    logger.warn("Could not compact object store segment of partition " + partitionName + ": " + e.getMessage());
+                    compactionScheduled = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the entries still referenced by the index to the active segment and removes the segment.
+     * Deletion records are kept while the segment holding the deleted entry exists, otherwise
+     * the entry would be restored when reading all the segments.
+     */
+    private void compact(final ObjectStoreLogSegment segment) throws IOException
+    {
+        segment.scan(new ObjectStoreLogSegment.RecordVisitor()
+        {
+            @Override
+            public void visit(ObjectStoreLogSegment segment, long position, byte[] record) throws IOException
+            {
+                if (ObjectStoreLogSegment.getType(record) == ObjectStoreLogSegment.PUT)
+                {
+                    Serializable key = decodeKey(ObjectStoreLogSegment.getKey(record));
+                    IndexEntry entry = index.get(key);
+                    if (entry != null && entry.segmentId == segment.getId() && entry.offset == position)
+                    {
+                        index.put(key, appendToActiveSegment(record));
+                    }
+                }
+                else
+                {
+                    long targetSegment = ObjectStoreLogSegment.getTargetSegment(record);
+                    if (targetSegment != segment.getId() && segments.containsKey(targetSegment))
+                    {
+                        IndexEntry deletionEntry = appendToActiveSegment(record);
+                        addDeadBytes(deletionEntry.segmentId, deletionEntry.length);
+                    }
+                }
+            }
+        });
+        segments.remove(segment.getId());
+        segment.delete();
+    }
+
+    /**
+     * Location of the last record stored for a key.
+     */
+    private static final class IndexEntry
+    {
+
+        private final long segmentId;
+        private final long offset;
+        private final int length;
+        private final long timestamp;
+
+        private IndexEntry(long segmentId, long offset, int length, long timestamp)
+        {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.mule.api.context.MuleContextAware;
 import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.store.ExpirableObjectStore;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStore;
 import org.mule.api.store.ObjectStoreException;
@@ -23,6 +24,7 @@ import org.mule.api.store.PartitionableObjectStore;
 import org.mule.util.concurrent.DaemonThreadFactory;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
@@ -35,6 +37,15 @@ import org.slf4j.LoggerFactory;
 public class MuleObjectStoreManager
     implements ObjectStoreManager, MuleContextAware, Initialisable, Disposable
 {
+
+    /**
+     * When true, transient stores are created as {@link BoundedInMemoryObjectStore} instead of partitions of
+     * the base in-memory store, so their max entries are enforced on each store operation. Only applies while
+     * the base store is the default {@link PartitionedInMemoryObjectStore}, a custom transient base store
+     * is always used as it is.
+     */
+    public static final String BOUNDED_IN_MEMORY_STORES_PROPERTY_KEY = MuleProperties.SYSTEM_PROPERTY_PREFIX + "objectstore.inMemory.bounded";
+
     private static Logger logger = LoggerFactory.getLogger(MuleObjectStoreManager.class);
     protected ScheduledThreadPoolExecutor scheduler;
     MuleContext muleContext;
@@ -44,6 +55,7 @@ public class MuleObjectStoreManager
     private String basePersistentStoreKey = MuleProperties.OBJECT_STORE_DEFAULT_PERSISTENT_NAME;
     private String baseTransientUserStoreKey = MuleProperties.DEFAULT_USER_TRANSIENT_OBJECT_STORE_NAME;
     private String basePersistentUserStoreKey = MuleProperties.DEFAULT_USER_OBJECT_STORE_NAME;
+    private boolean boundedInMemoryStores = Boolean.getBoolean(BOUNDED_IN_MEMORY_STORES_PROPERTY_KEY);
 
     @Override
     public <T extends ObjectStore<? extends Serializable>> T getObjectStore(String name)
@@ -106,6 +118,11 @@ public class MuleObjectStoreManager
             return (T) stores.get(name);
         }
 
+        if (boundedInMemoryStores && isDefaultInMemoryStore(baseStore))
+        {
+            return createBoundedInMemoryStore(name, maxEntries, entryTTL, expirationInterval);
+        }
+
         T store = null;
         try
         {
@@ -127,6 +144,12 @@ public class MuleObjectStoreManager
         }
     }
 
+    private boolean isDefaultInMemoryStore(ListableObjectStore<? extends Serializable> baseStore)
+    {
+        // subclasses may keep their entries elsewhere, so only the exact class is replaced
+        return baseStore != null && baseStore.getClass() == PartitionedInMemoryObjectStore.class;
+    }
+
     private <T extends ListableObjectStore<? extends Serializable>> T getBaseUserStore(boolean persistent)
     {
         T baseStore;
@@ -180,6 +203,28 @@ public class MuleObjectStoreManager
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T extends ObjectStore<? extends Serializable>> T createBoundedInMemoryStore(String name,
+                                                                                         int maxEntries,
+                                                                                         int entryTTL,
+                                                                                         int expirationInterval)
+    {
+        BoundedInMemoryObjectStore<Serializable> store = new BoundedInMemoryObjectStore<Serializable>(maxEntries, entryTTL);
+        T previous = (T) stores.putIfAbsent(name, store);
+        if (previous != null)
+        {
+            return previous;
+        }
+        // Expired entries are discarded lazily, the monitor releases the ones that are never accessed again
+        if (entryTTL != UNBOUNDED && expirationInterval > 0)
+        {
+            ExpirableStoreMonitor m = new ExpirableStoreMonitor(name, store, entryTTL, maxEntries);
+            ScheduledFuture<?> future = scheduler.scheduleWithFixedDelay(m, 0, expirationInterval, TimeUnit.MILLISECONDS);
+            monitors.put(name, future);
+        }
+        return (T) store;
+    }
+
     private <T extends ObjectStore<? extends Serializable>> T putInStoreMap(String name, T store)
     {
         @SuppressWarnings("unchecked")
@@ -307,7 +352,17 @@ public class MuleObjectStoreManager
             }
             try
             {
-                stores.values().remove(store);
+                for (Map.Entry<String, ObjectStore<?>> entry : stores.entrySet())
+                {
+                    if (entry.getValue() == store && stores.remove(entry.getKey(), store))
+                    {
+                        ScheduledFuture<?> future = monitors.remove(entry.getKey());
+                        if (future != null)
+                        {
+                            future.cancel(false);
+                        }
+                    }
+                }
             }
             catch(Exception e)
             {
@@ -359,6 +414,39 @@ public class MuleObjectStoreManager
 
     }
 
+    class ExpirableStoreMonitor implements Runnable
+    {
+        private final String name;
+        private final ExpirableObjectStore<? extends Serializable> store;
+        private final int entryTTL;
+        private final int maxEntries;
+
+        public ExpirableStoreMonitor(String name,
+                                     ExpirableObjectStore<? extends Serializable> store,
+                                     int entryTTL,
+                                     int maxEntries)
+        {
+            this.name = name;
+            this.store = store;
+            this.entryTTL = entryTTL;
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                store.expire(entryTTL, maxEntries);
+            }
+            catch (Exception e)
+            {
+                MuleObjectStoreManager.logger.warn("Running expiry on store " + name + " threw " + e + ":"
+                                                   + e.getMessage());
+            }
+        }
+    }
+
     int getMonitorsCount()
     {
         return monitors.size();
@@ -383,4 +471,9 @@ public class MuleObjectStoreManager
     {
         this.baseTransientUserStoreKey = baseTransientUserStoreKey;
     }
+
+    public void setBoundedInMemoryStores(boolean boundedInMemoryStores)
+    {
+        this.boundedInMemoryStores = boundedInMemoryStores;
+    }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import org.mule.util.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * An append only file holding the records of a {@link LogStructuredObjectStorePartition}.
+ * <p/>
+ * Each record is stored as a checksum, the record type, the time the entry was stored, the segment
+ * holding the entry a deletion refers to, the key and value lengths, the key and the value. The
+ * checksum covers the rest of the record so a record that was not fully written is detected
+ * and the segment content after it is ignored.
+ */
+class ObjectStoreLogSegment
+{
+
+    static final String SEGMENT_FILE_SUFFIX = ".olog";
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final int HEADER_SIZE = 4 + 1 + 8 + 8 + 4 + 4;
+
+    private static final int TYPE_OFFSET = 4;
+    private static final int TIMESTAMP_OFFSET = 5;
+    private static final int TARGET_SEGMENT_OFFSET = 13;
+    private static final int KEY_LENGTH_OFFSET = 21;
+    private static final int VALUE_LENGTH_OFFSET = 25;
+
+    private static final Log logger = LogFactory.getLog(ObjectStoreLogSegment.class);
+
+    private final long id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long size;
+    private long deadBytes;
+
+    private ObjectStoreLogSegment(long id, File file) throws IOException
+    {
+        this.id = id;
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.channel = randomAccessFile.getChannel();
+        this.size = channel.size();
+    }
+
+    /**
+     * Creates a new empty segment
+     *
+     * @param directory directory where the segment file is created
+     * @param id segment identifier, segments are read in id order
+     * @return the new segment
+     */
+    static ObjectStoreLogSegment create(File directory, long id) throws IOException
+    {
+        return new ObjectStoreLogSegment(id, new File(directory, String.format("%019d%s", id, SEGMENT_FILE_SUFFIX)));
+    }
+
+    /**
+     * Opens an existing segment
+     *
+     * @param file segment file
+     * @return the opened segment
+     */
+    static ObjectStoreLogSegment open(File file) throws IOException
+    {
+        String name = file.getName();
+        long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length()));
+        return new ObjectStoreLogSegment(id, file);
+    }
+
+    /**
+     * @return true if the given file name corresponds to a segment file
+     */
+    static boolean isSegmentFile(String fileName)
+    {
+        return fileName.endsWith(SEGMENT_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates the content of a record
+     *
+     * @param type {@link #PUT} or {@link #DELETE}
+     * @param timestamp time when the entry was stored
+     * @param targetSegment for deletions, id of the segment holding the deleted entry
+     * @param key encoded key
+     * @param value encoded value, empty for deletions
+     * @return the record content
+     */
+    static byte[] encode(byte type, long timestamp, long targetSegment, byte[] key, byte[] value)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + key.length + value.length);
+        buffer.position(TYPE_OFFSET);
+        buffer.put(type);
+        buffer.putLong(timestamp);
+        buffer.putLong(targetSegment);
+        buffer.putInt(key.length);
+        buffer.putInt(value.length);
+        buffer.put(key);
+        buffer.put(value);
+        byte[] record = buffer.array();
+        buffer.putInt(0, checksum(record));
+        return record;
+    }
+
+    private static int checksum(byte[] record)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(record, TYPE_OFFSET, record.length - TYPE_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    static byte getType(byte[] record)
+    {
+        return record[TYPE_OFFSET];
+    }
+
+    static long getTimestamp(byte[] record)
+    {
+        return ByteBuffer.wrap(record).getLong(TIMESTAMP_OFFSET);
+    }
+
+    static long getTargetSegment(byte[] record)
+    {
+        return ByteBuffer.wrap(record).getLong(TARGET_SEGMENT_OFFSET);
+    }
+
+    static byte[] getKey(byte[] record)
+    {
+        int keyLength = ByteBuffer.wrap(record).getInt(KEY_LENGTH_OFFSET);
+        byte[] key = new byte[keyLength];
+        System.arraycopy(record, HEADER_SIZE, key, 0, keyLength);
+        return key;
+    }
+
+    static byte[] getValue(byte[] record)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int keyLength = buffer.getInt(KEY_LENGTH_OFFSET);
+        byte[] value = new byte[buffer.getInt(VALUE_LENGTH_OFFSET)];
+        System.arraycopy(record, HEADER_SIZE + keyLength, value, 0, value.length);
+        return value;
+    }
+
+    /**
+     * Appends records at the end of the segment
+     *
+     * @param records content of one or more records
+     * @return the position of the first record within the segment
+     */
+    long append(byte[] records) throws IOException
+    {
+        long position = size;
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer, position + buffer.position());
+        }
+        size += records.length;
+        return position;
+    }
+
+    /**
+     * @param position record position within the segment
+     * @param length record length
+     * @return the content of the record
+     */
+    byte[] read(long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new EOFException("Unexpected end of object store segment " + file.getAbsolutePath());
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads every record of the segment in order. Content after the last valid record is discarded.
+     *
+     * @param visitor receives each record stored in the segment
+     */
+    void scan(RecordVisitor visitor) throws IOException
+    {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        long position = 0;
+        try
+        {
+            while (position + HEADER_SIZE <= size)
+            {
+                byte[] header = new byte[HEADER_SIZE];
+                input.readFully(header);
+                ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+                int keyLength = headerBuffer.getInt(KEY_LENGTH_OFFSET);
+                int valueLength = headerBuffer.getInt(VALUE_LENGTH_OFFSET);
+                if (keyLength < 0 || valueLength < 0 || position + HEADER_SIZE + keyLength + valueLength > size)
+                {
+                    break;
+                }
+                byte[] record = new byte[HEADER_SIZE + keyLength + valueLength];
+                System.arraycopy(header, 0, record, 0, HEADER_SIZE);
+                input.readFully(record, HEADER_SIZE, keyLength + valueLength);
+                if (headerBuffer.getInt(0) != checksum(record))
+                {
+                    break;
+                }
+                visitor.visit(this, position, record);
+                position += record.length;
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+        if (position < size)
+        {
+            logger.warn(String.format("Found an incomplete record at position %d of object store segment %s, discarding the rest of the segment", position, file.getAbsolutePath()));
+            channel.truncate(position);
+            size = position;
+        }
+    }
+
+    /**
+     * Forces the segment content to the storage device and releases the resources held by the
+     * segment without removing its content.
+     */
+    void close()
+    {
+        try
+        {
+            channel.force(false);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Could not sync object store segment " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+        release();
+    }
+
+    /**
+     * Releases the resources held by the segment and removes its file.
+     */
+    void delete()
+    {
+        release();
+        if (!FileUtils.deleteQuietly(file))
+        {
+            logger.warn("Could not delete object store segment " + file.getAbsolutePath());
+        }
+    }
+
+    private void release()
+    {
+        try
+        {
+            randomAccessFile.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Could not close object store segment " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    void addDeadBytes(long bytes)
+    {
+        deadBytes += bytes;
+    }
+
+    long getId()
+    {
+        return id;
+    }
+
+    long getSize()
+    {
+        return size;
+    }
+
+    long getDeadBytes()
+    {
+        return deadBytes;
+    }
+
+    /**
+     * Receives the records found while scanning a segment.
+     */
+    interface RecordVisitor
+    {
+
+        void visit(ObjectStoreLogSegment segment, long position, byte[] record) throws IOException;
+    }
+}
@@ -9,12 +9,15 @@ package org.mule.util.store;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleRuntimeException;
 import org.mule.api.context.MuleContextAware;
+import org.mule.api.lifecycle.Disposable;
 import org.mule.api.store.ObjectStoreException;
 import org.mule.api.store.PartitionableExpirableObjectStore;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.config.i18n.Message;
 import org.mule.util.FileUtils;
 import org.mule.util.UUID;
+import org.mule.util.concurrent.DaemonThreadFactory;
+import org.mule.util.concurrent.ThreadNameHelper;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -24,17 +27,27 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PartitionedPersistentObjectStore<T extends Serializable> extends
-        AbstractPartitionedObjectStore<T> implements MuleContextAware, PartitionableExpirableObjectStore<T>
+        AbstractPartitionedObjectStore<T> implements MuleContextAware, PartitionableExpirableObjectStore<T>, Disposable
 {
 
     public static final String OBJECT_STORE_DIR = "objectstore";
 
+    /**
+     * System property to store new partitions in append only segment files instead of a file per entry.
+     * Partitions already stored keep the format they were created with.
+     */
+    public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY_KEY = "mule.objectstore.persistent.logStructured";
+
     private MuleContext muleContext;
     private File storeDirectory;
-    private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<String, PersistentObjectStorePartition>();
+    private Map<String, PersistentPartition> partitionsByName = new HashMap<String, PersistentPartition>();
     private boolean initialized = false;
+    private boolean logStructuredPartitions = Boolean.getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY_KEY);
+    private ExecutorService compactionExecutor;
 
     public PartitionedPersistentObjectStore()
     {
@@ -83,11 +96,28 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
 
     private void createPartition(String partitionName) throws ObjectStoreException
     {
-        PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+        PersistentPartition persistentObjectStorePartition;
+        if (logStructuredPartitions)
+        {
+            persistentObjectStorePartition = new LogStructuredObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(), getCompactionExecutor());
+        }
+        else
+        {
+            persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+        }
         persistentObjectStorePartition.open();
         partitionsByName.put(partitionName, persistentObjectStorePartition);
     }
 
+    private synchronized ExecutorService getCompactionExecutor()
+    {
+        if (compactionExecutor == null)
+        {
+            compactionExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(ThreadNameHelper.getPrefix(muleContext) + "objectstore.compaction"));
+        }
+        return compactionExecutor;
+    }
+
     private File getNewPartitionDirectory()
     {
         return new File(storeDirectory, UUID.getUUID());
@@ -135,7 +165,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         this.getPartitionObjectStore(partitionName).clear();
     }
 
-    private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException
+    private PersistentPartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException
     {
         if (!partitionsByName.containsKey(partitionName))
         {
@@ -213,7 +243,15 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         {
             try
             {
-                PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionDirectory);
+                PersistentPartition persistentObjectStorePartition;
+                if (LogStructuredObjectStorePartition.isLogStructured(partitionDirectory))
+                {
+                    persistentObjectStorePartition = new LogStructuredObjectStorePartition(muleContext, partitionDirectory, getCompactionExecutor());
+                }
+                else
+                {
+                    persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionDirectory);
+                }
                 persistentObjectStorePartition.open();
                 partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
             }
@@ -247,4 +285,35 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
     {
         getPartitionObjectStore(partitionName).expire(entryTTL, maxEntries);
     }
+
+    @Override
+    public synchronized void dispose()
+    {
+        for (PersistentPartition partition : partitionsByName.values())
+        {
+            try
+            {
+                partition.close();
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("Could not close partition " + partition.getPartitionName(), e);
+            }
+        }
+        if (compactionExecutor != null)
+        {
+            compactionExecutor.shutdown();
+            compactionExecutor = null;
+        }
+    }
+
+    public boolean isLogStructuredPartitions()
+    {
+        return logStructuredPartitions;
+    }
+
+    public void setLogStructuredPartitions(boolean logStructuredPartitions)
+    {
+        this.logStructuredPartitions = logStructuredPartitions;
+    }
 }
@@ -10,8 +10,6 @@ package org.mule.util.store;
 import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleRuntimeException;
-import org.mule.api.store.ExpirableObjectStore;
-import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectAlreadyExistsException;
 import org.mule.api.store.ObjectDoesNotExistException;
 import org.mule.api.store.ObjectStoreException;
@@ -44,11 +42,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 public class PersistentObjectStorePartition<T extends Serializable>
-    implements ListableObjectStore<T>, ExpirableObjectStore<T>
+    implements PersistentPartition<T>
 {
 
     private static final String OBJECT_FILE_EXTENSION = ".obj";
-    private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+    static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
     protected final Log logger = LogFactory.getLog(this.getClass());
     private final MuleContext muleContext;
 
@@ -367,7 +365,7 @@ public class PersistentObjectStorePartition<T extends Serializable>
         {
             out = new FileOutputStream(outputFile);
             ObjectOutputStream objectOutputStream = new ObjectOutputStream(out);
-            SerializationUtils.serialize(storeValue, objectOutputStream);
+            SerializationUtils.serialize(storeValue, objectOutputStream, muleContext);
         }
         catch (Exception se)
         {
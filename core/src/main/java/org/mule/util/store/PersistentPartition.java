@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import org.mule.api.store.ExpirableObjectStore;
+import org.mule.api.store.ListableObjectStore;
+
+import java.io.Serializable;
+
+/**
+ * A partition of a {@link PartitionedPersistentObjectStore} stored in its own directory.
+ */
+interface PersistentPartition<T extends Serializable> extends ListableObjectStore<T>, ExpirableObjectStore<T>
+{
+
+    String getPartitionName();
+}
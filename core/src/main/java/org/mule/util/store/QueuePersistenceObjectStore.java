@@ -261,7 +261,7 @@ public class QueuePersistenceObjectStore<T extends Serializable> extends Abstrac
         try
         {
             FileOutputStream out = new FileOutputStream(outputFile);
-            SerializationUtils.serialize(value, out);
+            SerializationUtils.serialize(value, out, muleContext);
         }
         catch (SerializationException se)
         {
@@ -92,10 +92,19 @@ public class MuleWorkManager implements WorkManager, MuleContextAware
         
         if (workExecutorService == null)
         {
-            workExecutorService = threadingProfile.createPool(name);
+            workExecutorService = createWorkExecutorService(name);
         }
     }
 
+    /**
+     * Creates the pool of threads used to process the Work instances, using the
+     * {@link ThreadingProfile} of this work manager by default.
+     */
+    protected ExecutorService createWorkExecutorService(String name)
+    {
+        return threadingProfile.createPool(name);
+    }
+
     public synchronized void dispose()
     {
         if (workExecutorService != null)
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.work;
+
+import org.mule.api.config.ThreadingProfile;
+import org.mule.util.concurrent.VirtualThreadExecutorService;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A {@link MuleWorkManager} that runs each Work on its own virtual thread when the JVM supports them.
+ * <p/>
+ * The max threads active of the {@link ThreadingProfile} limits how many Work instances run at the same
+ * time, and its pool exhausted action and thread wait timeout define what happens when that limit is
+ * reached. Work listeners are notified the same way as with pooled threads.
+ *
+ * @see VirtualThreadExecutorService
+ */
+public class VirtualThreadWorkManager extends MuleWorkManager
+{
+
+    public VirtualThreadWorkManager(ThreadingProfile profile, String name, int shutdownTimeout)
+    {
+        super(profile, name, shutdownTimeout);
+    }
+
+    @Override
+    protected ExecutorService createWorkExecutorService(String name)
+    {
+        ThreadingProfile threadingProfile = getThreadingProfile();
+        if (logger.isDebugEnabled() && !VirtualThreadExecutorService.isVirtualThreadSupported())
+        {
+            logger.debug("Virtual threads are not supported by this JVM, work manager " + name + " uses platform threads");
+        }
+        return new VirtualThreadExecutorService(name, threadingProfile.getMaxThreadsActive(),
+            threadingProfile.getPoolExhaustedAction(), threadingProfile.getThreadWaitTimeout());
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.work;
+
+import org.mule.api.MuleContext;
+import org.mule.api.config.ThreadingProfile;
+import org.mule.api.context.MuleContextAware;
+import org.mule.api.context.WorkManager;
+
+/**
+ * Creates {@link VirtualThreadWorkManager}s. Set it as the work manager factory of a
+ * {@link ThreadingProfile} to run its Work on virtual threads.
+ */
+public class VirtualThreadWorkManagerFactory implements ThreadingProfile.WorkManagerFactory, MuleContextAware
+{
+
+    protected MuleContext muleContext;
+
+    @Override
+    public WorkManager createWorkManager(ThreadingProfile profile, String name, int shutdownTimeout)
+    {
+        VirtualThreadWorkManager workManager = new VirtualThreadWorkManager(profile, name, shutdownTimeout);
+        if (muleContext != null)
+        {
+            workManager.setMuleContext(muleContext);
+        }
+        return workManager;
+    }
+
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        this.muleContext = context;
+    }
+}
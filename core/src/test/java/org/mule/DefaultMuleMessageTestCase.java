@@ -315,6 +315,24 @@ public class DefaultMuleMessageTestCase extends AbstractMuleContextTestCase
         assertEquals(handler, message.getOutboundAttachment("attachment"));
     }
 
+    @Test
+    public void testCopiedMessageAttachmentsAreIndependent() throws Exception
+    {
+        MuleMessage original = createMuleMessage();
+        DataHandler handler = new DataHandler("this is the attachment", "text/plain");
+        original.addOutboundAttachment("attachment", handler);
+
+        MuleMessage copy = new DefaultMuleMessage(original);
+        assertEquals(handler, copy.getOutboundAttachment("attachment"));
+
+        copy.addOutboundAttachment("copyAttachment", handler);
+        original.removeOutboundAttachment("attachment");
+
+        assertEquals(0, original.getOutboundAttachmentNames().size());
+        assertEquals(2, copy.getOutboundAttachmentNames().size());
+        assertEquals(handler, copy.getOutboundAttachment("attachment"));
+    }
+
     @Test
     public void testFindPropertiesInAnyScope() throws Exception
     {
@@ -17,7 +17,9 @@ import org.mule.api.MuleEvent;
 import org.mule.api.MuleMessage;
 import org.mule.api.transport.PropertyScope;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.util.IOUtils;
 
+import java.io.InputStream;
 import java.util.Set;
 
 import org.apache.commons.lang.SerializationUtils;
@@ -89,6 +91,21 @@ public class MessagePropertiesContextTestCase extends AbstractMuleContextTestCas
         doTest(mpc);
     }
     
+    @Test
+    public void testDeserializeFromPreviousVersion() throws Exception
+    {
+        // Serialized when the invocation scope of a message without event was backed by a CaseInsensitiveHashMap
+        InputStream serialized = IOUtils.getResourceAsStream("messagePropertiesContext-3.6", getClass());
+        MessagePropertiesContext mpc = (MessagePropertiesContext) SerializationUtils.deserialize(serialized);
+
+        assertEquals("inboundValue", mpc.getProperty("INBOUNDKEY", PropertyScope.INBOUND));
+        assertEquals("outboundValue", mpc.getProperty("OUTBOUNDKEY", PropertyScope.OUTBOUND));
+        assertEquals("flowVarValue", mpc.getOrphanFlowVariables().get("FLOWVARKEY"));
+
+        mpc.setProperty("DOO", "DAR", PropertyScope.INVOCATION);
+        assertEquals("DAR", mpc.getProperty("doo", PropertyScope.INVOCATION));
+    }
+
     @Test
     public void testCopyConstructor() throws Exception
     {
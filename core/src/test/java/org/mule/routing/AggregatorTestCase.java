@@ -6,9 +6,12 @@
  */
 package org.mule.routing;
 
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.mule.DefaultMuleEvent;
 import org.mule.DefaultMuleMessage;
@@ -21,6 +24,9 @@ import org.mule.api.MuleSession;
 import org.mule.api.endpoint.InboundEndpoint;
 import org.mule.api.service.Service;
 import org.mule.api.store.ObjectStoreException;
+import org.mule.construct.Flow;
+import org.mule.management.stats.RouterStatistics;
+import org.mule.routing.correlation.CorrelationTimeoutException;
 import org.mule.routing.correlation.EventCorrelatorCallback;
 import org.mule.tck.MuleTestUtils;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
@@ -71,6 +77,36 @@ public class AggregatorTestCase extends AbstractMuleContextTestCase
         assertTrue(result.getMessageAsString().matches("test event [A,B,C] test event [A,B,C] test event [A,B,C] "));
     }
 
+    @Test
+    public void expiredGroupIsCountedInFlowStatistics() throws Exception
+    {
+        muleContext.getStatistics().setEnabled(true);
+        Flow flow = MuleTestUtils.getTestFlow("aggregatorFlow", muleContext);
+
+        TestEventAggregator router = new TestEventAggregator(3);
+        router.setMuleContext(muleContext);
+        router.setFlowConstruct(flow);
+        router.initialise();
+        MuleEvent event = getTestEvent("test event A", flow);
+        event.getMessage().setCorrelationId(event.getMessage().getUniqueId());
+
+        assertNull(router.process(event));
+        try
+        {
+            router.expireAggregation(event.getMessage().getCorrelationId());
+            fail("Group is expected to time out");
+        }
+        catch (CorrelationTimeoutException e)
+        {
+            // Expected
+        }
+
+        RouterStatistics statistics = flow.getStatistics().getAggregatorStatistics();
+        assertThat(statistics.isEnabled(), is(true));
+        assertThat(statistics.getExpiredGroups(), is(1L));
+        assertThat(statistics.getDispatchedGroups(), is(0L));
+    }
+
     public static class TestEventAggregator extends AbstractAggregator
     {
         protected final int eventThreshold;
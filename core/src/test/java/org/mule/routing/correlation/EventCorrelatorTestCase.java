@@ -6,11 +6,14 @@
  */
 package org.mule.routing.correlation;
 
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,6 +29,7 @@ import org.mule.api.routing.MessageInfoMapping;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStoreException;
 import org.mule.api.store.ObjectStoreManager;
+import org.mule.management.stats.RouterStatistics;
 import org.mule.routing.EventGroup;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.probe.PollingProber;
@@ -93,6 +97,36 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase
         }
     }
 
+    @Test
+    public void doesNotExpireGroupAlreadyRemoved() throws Exception
+    {
+        EventCorrelator eventCorrelator = createEventCorrelator();
+        memoryObjectStore.remove(TEST_GROUP_ID);
+        eventCorrelator.handleGroupExpiry(mockEventGroup);
+        verify(mockEventGroup, never()).clear();
+        verify(mockEventCorrelatorCallback, never()).aggregateEvents(mockEventGroup);
+    }
+
+    @Test
+    public void countsExpiredGroup() throws Exception
+    {
+        RouterStatistics routerStatistics = new RouterStatistics(RouterStatistics.TYPE_INBOUND);
+        routerStatistics.setEnabled(true);
+        EventCorrelator eventCorrelator = createEventCorrelator();
+        eventCorrelator.setRouterStatistics(routerStatistics);
+        try
+        {
+            eventCorrelator.forceGroupExpiry(TEST_GROUP_ID);
+            fail("Group is expected to time out");
+        }
+        catch (CorrelationTimeoutException e)
+        {
+            // Expected
+        }
+        assertThat(routerStatistics.getExpiredGroups(), is(1L));
+        assertThat(routerStatistics.getDispatchedGroups(), is(0L));
+    }
+
     @Test
     public void initAfterDeserializationAfterAddEventGroup() throws Exception
     {
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.routing.correlation;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+@SmallTest
+public class EventGroupExpiryIndexTestCase extends AbstractMuleTestCase
+{
+
+    private final EventGroupExpiryIndex index = new EventGroupExpiryIndex();
+
+    @Test
+    public void returnsGroupsCreatedBeforeLimitOldestFirst()
+    {
+        index.add("c", 30);
+        index.add("a", 10);
+        index.add("b", 20);
+        index.add("d", 40);
+
+        assertThat(index.getGroupsCreatedBefore(31), contains((Serializable) "a", "b", "c"));
+    }
+
+    @Test
+    public void keepsGroupsCreatedAtSameTime()
+    {
+        index.add("a", 10);
+        index.add("b", 10);
+
+        assertThat(index.getGroupsCreatedBefore(11), contains((Serializable) "a", "b"));
+    }
+
+    @Test
+    public void ignoresGroupAlreadyAdded()
+    {
+        index.add("a", 10);
+        index.add("a", 5);
+
+        assertThat(index.size(), is(1));
+        assertThat(index.getGroupsCreatedBefore(10), is(empty()));
+    }
+
+    @Test
+    public void removesGroup()
+    {
+        index.add("a", 10);
+        index.add("b", 20);
+        index.remove("a");
+
+        assertThat(index.contains("a"), is(false));
+        assertThat(index.getGroupsCreatedBefore(Long.MAX_VALUE), contains((Serializable) "b"));
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.SerializationException;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class CompactObjectSerializerTestCase extends AbstractMuleTestCase
+{
+
+    private MuleContext muleContext;
+    private CompactObjectSerializer serializer;
+
+    @Before
+    public void setUp()
+    {
+        muleContext = mock(MuleContext.class);
+        when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        serializer = new CompactObjectSerializer();
+        serializer.setMuleContext(muleContext);
+    }
+
+    @Test
+    public void serializeAndDeserialize()
+    {
+        TestObject object = createTestObject();
+
+        TestObject deserialized = serializer.deserialize(serializer.serialize(object));
+
+        assertTestObject(deserialized);
+    }
+
+    @Test
+    public void serializeAndDeserializeStream()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(createTestObject(), out);
+
+        TestObject deserialized = serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+
+        assertTestObject(deserialized);
+    }
+
+    @Test
+    public void serializeSeveralTimes()
+    {
+        TestObject object = createTestObject();
+        byte[] first = serializer.serialize(object);
+
+        for (int i = 0; i < 10; i++)
+        {
+            byte[] bytes = serializer.serialize(object);
+            assertThat(Arrays.equals(bytes, first), is(true));
+            assertTestObject(serializer.<TestObject>deserialize(bytes));
+        }
+    }
+
+    @Test
+    public void deserializeJavaSerializedObject()
+    {
+        JavaObjectSerializer javaSerializer = new JavaObjectSerializer();
+
+        TestObject deserialized = serializer.deserialize(javaSerializer.serialize(createTestObject()));
+
+        assertTestObject(deserialized);
+    }
+
+    @Test
+    public void writesLessThanJavaSerialization()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("date", new Date(0));
+        map.put("number", 1L);
+
+        assertThat(serializer.serialize(map).length, lessThan(new JavaObjectSerializer().serialize(map).length));
+    }
+
+    @Test
+    public void registeredClassesReduceSize()
+    {
+        int unregisteredSize = serializer.serialize(createTestObject()).length;
+        serializer.setRegisteredClasses(Collections.<Class<?>>singletonList(TestObject.class));
+
+        byte[] bytes = serializer.serialize(createTestObject());
+
+        assertThat(bytes.length, lessThan(unregisteredSize));
+        assertTestObject(serializer.<TestObject>deserialize(bytes));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerNotSerializableClass()
+    {
+        serializer.setRegisteredClasses(Collections.<Class<?>>singletonList(Object.class));
+    }
+
+    @Test
+    public void serializeFromCustomSerializationMethod()
+    {
+        NestedSerializationObject deserialized = serializer.deserialize(serializer.serialize(new NestedSerializationObject(serializer)));
+
+        assertThat(deserialized.nested, is("nested"));
+    }
+
+    @Test
+    public void serializeAfterFailure()
+    {
+        try
+        {
+            serializer.serialize(Collections.singletonList(new Object()));
+        }
+        catch (SerializationException e)
+        {
+            // expected
+        }
+
+        assertTestObject(serializer.<TestObject>deserialize(serializer.serialize(createTestObject())));
+    }
+
+    @Test
+    public void serializationUtilsUsesContextSerializer()
+    {
+        when(muleContext.getObjectSerializer()).thenReturn(serializer);
+
+        byte[] bytes = SerializationUtils.serialize(createTestObject(), muleContext);
+
+        assertThat(bytes[0], is(CompactObjectSerializer.FORMAT_MARKER));
+        assertTestObject((TestObject) SerializationUtils.deserialize(bytes, muleContext));
+    }
+
+    private TestObject createTestObject()
+    {
+        TestObject object = new TestObject();
+        object.name = "test";
+        object.date = new Date(0);
+        object.pattern = MessageExchangePattern.REQUEST_RESPONSE;
+        object.values = new ArrayList<String>(Arrays.asList("a", "b"));
+        return object;
+    }
+
+    private void assertTestObject(TestObject object)
+    {
+        assertThat(object.name, is("test"));
+        assertThat(object.date, is(new Date(0)));
+        assertThat(object.pattern, is(MessageExchangePattern.REQUEST_RESPONSE));
+        assertThat(object.values, is(Arrays.asList("a", "b")));
+    }
+
+    private static class TestObject implements Serializable
+    {
+
+        private String name;
+        private Date date;
+        private MessageExchangePattern pattern;
+        private List<String> values;
+    }
+
+    private static class NestedSerializationObject implements Serializable
+    {
+
+        private transient CompactObjectSerializer serializer;
+        private transient String nested;
+
+        NestedSerializationObject(CompactObjectSerializer serializer)
+        {
+            this.serializer = serializer;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException
+        {
+            out.defaultWriteObject();
+            out.writeObject(serializer.serialize("nested"));
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+        {
+            in.defaultReadObject();
+            nested = new CompactObjectSerializer().deserialize((byte[]) in.readObject());
+        }
+    }
+}
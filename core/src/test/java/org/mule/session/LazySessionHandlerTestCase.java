@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.MuleSession;
+import org.mule.api.config.MuleConfiguration;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.transport.SessionHandler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.SerializationUtils;
+
+import com.google.common.base.Charsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+@SmallTest
+public class LazySessionHandlerTestCase extends AbstractMuleTestCase
+{
+
+    private static String originalEncoding;
+
+    private MuleContext muleContext;
+    private SessionHandler handler = new LazySessionHandler();
+
+    @BeforeClass
+    public static void setUpEncoding()
+    {
+        originalEncoding = System.getProperty(MuleProperties.MULE_ENCODING_SYSTEM_PROPERTY);
+        System.setProperty(MuleProperties.MULE_ENCODING_SYSTEM_PROPERTY, "UTF-8");
+    }
+
+    @AfterClass
+    public static void restoreEncoding()
+    {
+        if (originalEncoding == null)
+        {
+            System.clearProperty(MuleProperties.MULE_ENCODING_SYSTEM_PROPERTY);
+        }
+        else
+        {
+            System.setProperty(MuleProperties.MULE_ENCODING_SYSTEM_PROPERTY, originalEncoding);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        muleContext = mock(MuleContext.class);
+        MuleConfiguration configuration = mock(MuleConfiguration.class);
+        when(configuration.getDefaultEncoding()).thenReturn(Charsets.UTF_8.name());
+        when(muleContext.getConfiguration()).thenReturn(configuration);
+        when(muleContext.getExecutionClassLoader()).thenReturn(Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    public void storeAndRetrieveProperties() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setValid(false);
+        session.setProperty("fooString", "bar");
+        session.setProperty("fooInteger", 1);
+        session.setProperty("fooLong", 2L);
+        session.setProperty("fooBoolean", true);
+        session.setProperty("fooDouble", 3.5d);
+        session.setProperty("fooBytes", new byte[] {1, 2, 3});
+        session.setProperty("fooDate", new Date(0));
+        session.setProperty("fooList", createList());
+
+        MuleSession retrieved = storeAndRetrieve(session);
+
+        assertThat(retrieved.getId(), is(session.getId()));
+        assertThat(retrieved.isValid(), is(false));
+        assertThat(retrieved.getPropertyNamesAsSet().size(), is(8));
+        assertThat(retrieved.<String> getProperty("FOOSTRING"), is("bar"));
+        assertThat(retrieved.<Integer> getProperty("fooInteger"), is(1));
+        assertThat(retrieved.<Long> getProperty("fooLong"), is(2L));
+        assertThat(retrieved.<Boolean> getProperty("fooBoolean"), is(true));
+        assertThat(retrieved.<Double> getProperty("fooDouble"), is(3.5d));
+        assertThat(Arrays.equals(retrieved.<byte[]> getProperty("fooBytes"), new byte[] {1, 2, 3}), is(true));
+        assertThat(retrieved.<Date> getProperty("fooDate"), is(new Date(0)));
+        assertThat(retrieved.<List<String>> getProperty("fooList"), is(createList()));
+    }
+
+    @Test
+    public void dropsNonSerializableProperties() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", new Object());
+        session.setProperty("bar", "value");
+
+        MuleSession retrieved = storeAndRetrieve(session);
+
+        assertThat(retrieved.getProperty("foo"), is(nullValue()));
+        assertThat(retrieved.<String> getProperty("bar"), is("value"));
+    }
+
+    @Test
+    public void propagatesUnmodifiedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        MuleMessage message = store(session);
+        MuleSession retrieved = retrieve(message);
+
+        assertThat(retrieved.<String> getProperty("foo"), is("bar"));
+        MuleMessage propagated = store(retrieved);
+
+        assertThat(propagated.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY),
+                   sameInstance(message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY)));
+    }
+
+    @Test
+    public void propagatesCopyOfUnmodifiedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        MuleMessage message = store(session);
+        MuleSession copy = new DefaultMuleSession(retrieve(message));
+
+        MuleMessage propagated = store(copy);
+
+        assertThat(propagated.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY),
+                   sameInstance(message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY)));
+        assertThat(copy.<String> getProperty("foo"), is("bar"));
+    }
+
+    @Test
+    public void serializesModifiedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        MuleMessage message = store(session);
+        MuleSession retrieved = retrieve(message);
+
+        retrieved.setProperty("foo", "modified");
+        MuleMessage propagated = store(retrieved);
+
+        assertThat(propagated.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY),
+                   not(sameInstance(message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY))));
+        assertThat(retrieve(propagated).<String> getProperty("foo"), is("modified"));
+    }
+
+    @Test
+    public void serializesSessionWhenMutablePropertyIsAccessed() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", createList());
+        DefaultMuleSession retrieved = (DefaultMuleSession) storeAndRetrieve(session);
+
+        retrieved.<List<String>> getProperty("foo").add("modified");
+
+        assertThat(retrieved.getEncodedSession(), is(nullValue()));
+        assertThat(storeAndRetrieve(retrieved).<List<String>> getProperty("foo").contains("modified"), is(true));
+    }
+
+    @Test
+    public void serializesSessionWhenValidFlagChanges() throws Exception
+    {
+        DefaultMuleSession retrieved = (DefaultMuleSession) storeAndRetrieve(new DefaultMuleSession());
+
+        retrieved.setValid(false);
+
+        assertThat(retrieved.getEncodedSession(), is(nullValue()));
+        assertThat(storeAndRetrieve(retrieved).isValid(), is(false));
+    }
+
+    @Test
+    public void retrievesJavaSerializedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        MuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        new SerializeAndEncodeSessionHandler().storeSessionInfoToMessage(session, message);
+
+        MuleSession retrieved = retrieve(message);
+
+        assertThat(retrieved.getId(), is(session.getId()));
+        assertThat(retrieved.<String> getProperty("foo"), is("bar"));
+    }
+
+    @Test
+    public void javaSerializesRetrievedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        MuleSession retrieved = storeAndRetrieve(session);
+
+        MuleSession deserialized = (MuleSession) SerializationUtils.deserialize(SerializationUtils.serialize(retrieved));
+
+        assertThat(deserialized.getId(), is(session.getId()));
+        assertThat(deserialized.<String> getProperty("foo"), is("bar"));
+    }
+
+    private MuleSession storeAndRetrieve(MuleSession session) throws MuleException
+    {
+        return retrieve(store(session));
+    }
+
+    private MuleMessage store(MuleSession session) throws MuleException
+    {
+        MuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        handler.storeSessionInfoToMessage(session, message);
+        return message;
+    }
+
+    private MuleSession retrieve(MuleMessage message) throws MuleException
+    {
+        // Moves the stored session to the inbound scope, as it is received by the next endpoint
+        DefaultMuleMessage inbound = new DefaultMuleMessage("Test Message", muleContext);
+        inbound.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY,
+                                   message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY));
+        return handler.retrieveSessionInfoFromMessage(inbound);
+    }
+
+    private List<String> createList()
+    {
+        List<String> list = new ArrayList<String>();
+        list.add("bar1");
+        list.add("bar2");
+        return list;
+    }
+}
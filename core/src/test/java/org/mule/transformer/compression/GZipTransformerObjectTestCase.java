@@ -26,7 +26,7 @@ public class GZipTransformerObjectTestCase extends GZipTransformerTestCase
     {
         try
         {
-            return strat.compressByteArray(SerializationUtils.serialize(TEST_OBJECT));
+            return strat.compressByteArray(SerializationUtils.serialize(TEST_OBJECT, muleContext));
         }
         catch (Exception e)
         {
@@ -10,8 +10,6 @@ import org.mule.api.transformer.Transformer;
 import org.mule.tck.testmodels.fruit.Orange;
 import org.mule.transformer.AbstractTransformerTestCase;
 
-import org.apache.commons.lang.SerializationUtils;
-
 public class SerialisedObjectTransformersTestCase extends AbstractTransformerTestCase
 {
     private Orange testObject = new Orange(new Integer(4), new Double(14.3), "nice!");
@@ -33,7 +31,7 @@ public class SerialisedObjectTransformersTestCase extends AbstractTransformerTes
 
     public Object getResultData()
     {
-        return SerializationUtils.serialize(testObject);
+        return muleContext.getObjectSerializer().serialize(testObject);
     }
 
 }
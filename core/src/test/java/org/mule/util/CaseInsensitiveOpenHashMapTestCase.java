@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class CaseInsensitiveOpenHashMapTestCase extends AbstractMuleTestCase
+{
+
+    private static final int NUMBER_OF_ENTRIES = 1000;
+
+    protected Map<String, Object> createTestMap()
+    {
+        Map<String, Object> map = new CaseInsensitiveOpenHashMap<String, Object>();
+        map.put("FOO", "BAR");
+        map.put("doo", Integer.valueOf(3));
+        return map;
+    }
+
+    @Test
+    public void keysCaseSensitive() throws Exception
+    {
+        Map<String, Object> map = createTestMap();
+
+        assertEquals(2, map.keySet().size());
+        assertEquals("FOO", map.keySet().toArray()[0]);
+        assertEquals("doo", map.keySet().toArray()[1]);
+    }
+
+    @Test
+    public void testMap() throws Exception
+    {
+        doTestMap(createTestMap());
+    }
+
+    @Test
+    public void testMapSerialization() throws Exception
+    {
+        Map<String, Object> map = createTestMap();
+        doTestMap(map);
+
+        byte[] bytes = SerializationUtils.serialize((Serializable) map);
+        Map<String, Object> resultMap = (Map<String, Object>) SerializationUtils.deserialize(bytes);
+        doTestMap(resultMap);
+    }
+
+    @Test
+    public void putKeepsOriginalKeyCase() throws Exception
+    {
+        Map<String, Object> map = createTestMap();
+        assertEquals("BAR", map.put("foo", "OTHER"));
+
+        assertEquals(2, map.size());
+        assertTrue(map.keySet().contains("FOO"));
+        assertEquals("FOO", map.keySet().iterator().next());
+        assertEquals("OTHER", map.get("Foo"));
+    }
+
+    @Test
+    public void foldsNonAsciiCharacters() throws Exception
+    {
+        Map<String, Object> map = new CaseInsensitiveOpenHashMap<String, Object>();
+        map.put("\u00d1and\u00fa", "value");
+
+        assertEquals("value", map.get("\u00f1AND\u00da"));
+    }
+
+    @Test
+    public void growsAndRemoves() throws Exception
+    {
+        Map<String, Object> map = new CaseInsensitiveOpenHashMap<String, Object>();
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+        {
+            map.put("Key" + i, i);
+        }
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i += 2)
+        {
+            assertEquals(i, map.remove("KEY" + i));
+        }
+
+        assertEquals(NUMBER_OF_ENTRIES / 2, map.size());
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+        {
+            if (i % 2 == 0)
+            {
+                assertNull(map.get("key" + i));
+            }
+            else
+            {
+                assertEquals(i, map.get("key" + i));
+            }
+        }
+    }
+
+    @Test
+    public void iteratorRemove() throws Exception
+    {
+        Map<String, Object> map = createTestMap();
+        Iterator<String> keys = map.keySet().iterator();
+        keys.next();
+        keys.remove();
+
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("foo"));
+        assertEquals(Integer.valueOf(3), map.get("DOO"));
+    }
+
+    @Test
+    public void cloneIsIndependent() throws Exception
+    {
+        CaseInsensitiveOpenHashMap<String, Object> map = (CaseInsensitiveOpenHashMap<String, Object>) createTestMap();
+        CaseInsensitiveOpenHashMap<String, Object> clone = map.clone();
+        clone.put("new", "value");
+        clone.remove("foo");
+
+        doTestMap(map);
+        assertEquals(2, map.size());
+        assertEquals(2, clone.size());
+        assertEquals("value", clone.get("NEW"));
+        assertNull(clone.get("FOO"));
+    }
+
+    public void doTestMap(Map<String, Object> map) throws Exception
+    {
+        assertEquals("BAR", map.get("FOO"));
+        assertEquals("BAR", map.get("foo"));
+        assertEquals("BAR", map.get("Foo"));
+
+        assertEquals(Integer.valueOf(3), map.get("DOO"));
+        assertEquals(Integer.valueOf(3), map.get("doo"));
+        assertEquals(Integer.valueOf(3), map.get("Doo"));
+    }
+}
@@ -248,6 +248,62 @@ public class CopyOnWriteCaseInsensitiveMapTestCase extends AbstractMuleTestCase
         assertFalse(copyOnWriteMap.containsKey("extra2"));
     }
 
+    @Test
+    public void manyWritesOnClone() throws Exception
+    {
+        CopyOnWriteCaseInsensitiveMap<String, Object> original = createTestMap();
+        CopyOnWriteCaseInsensitiveMap<String, Object> copyOnWriteMap = original.clone();
+
+        for (int i = 0; i < 100; i++)
+        {
+            copyOnWriteMap.put("key" + i, "val" + i);
+            assertEquals("val" + i, copyOnWriteMap.get("KEY" + i));
+        }
+        copyOnWriteMap.remove("foo");
+
+        assertEquals(2, original.size());
+        assertMapContents(original);
+        assertEquals(101, copyOnWriteMap.size());
+        assertEquals(101, copyOnWriteMap.entrySet().size());
+        assertFalse(copyOnWriteMap.containsKey("FOO"));
+        assertEquals(Integer.valueOf(3), copyOnWriteMap.get("DOO"));
+    }
+
+    @Test
+    public void removeAndPutOnCloneChangesKeyCase() throws Exception
+    {
+        CopyOnWriteCaseInsensitiveMap<String, Object> original = createTestMap();
+        CopyOnWriteCaseInsensitiveMap<String, Object> copyOnWriteMap = original.clone();
+
+        copyOnWriteMap.remove("foo");
+        assertEquals(1, copyOnWriteMap.keySet().size());
+        copyOnWriteMap.put("foo", "BAR");
+
+        assertMapContents(copyOnWriteMap);
+        assertTrue(copyOnWriteMap.keySet().contains("foo"));
+        Set<String> keys = new HashSet<String>();
+        for (String key : copyOnWriteMap.keySet())
+        {
+            keys.add(key);
+        }
+        assertTrue(keys.contains("foo"));
+        assertFalse(keys.contains(KEY1));
+        assertTrue(original.keySet().toArray()[0].equals(KEY1) || original.keySet().toArray()[1].equals(KEY1));
+    }
+
+    @Test
+    public void serializeCloneWithWrites() throws Exception
+    {
+        CopyOnWriteCaseInsensitiveMap<String, Object> copyOnWriteMap = createTestMap().clone();
+        copyOnWriteMap.put("new", "val");
+        copyOnWriteMap.remove("other");
+
+        Map<String, Object> deserialized = serializeAndDeserialize(copyOnWriteMap);
+        assertMapContents(deserialized);
+        assertEquals(3, deserialized.size());
+        assertEquals("val", deserialized.get("NEW"));
+    }
+
     @Test
     public void clearOrignalClone() throws Exception
     {
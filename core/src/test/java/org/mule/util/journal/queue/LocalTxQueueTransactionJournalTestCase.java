@@ -20,7 +20,10 @@ import org.mule.util.queue.QueueStore;
 
 import com.google.common.collect.Multimap;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.hamcrest.core.IsNot;
 import org.junit.Before;
@@ -159,6 +162,64 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
         assertThat(journalEntry.isAdd(), is(true));
     }
 
+    @Test
+    public void logSeveralAddsThenCommitWithGroupCommitAndRetrieve() throws Exception
+    {
+        MuleEvent muleEvent = getTestEvent(SOME_VALUE);
+        LocalTxQueueTransactionJournal transactionJournal = createGroupCommitTransactionJournal();
+        int numberOfOffers = 1000;
+        for (int i = 0; i < numberOfOffers; i++)
+        {
+            transactionJournal.logAdd(TX_ID, mockQueueInfo, muleEvent);
+        }
+        transactionJournal.logCommit(TX_ID);
+        transactionJournal.close();
+        transactionJournal = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+        Multimap<Integer, LocalQueueTxJournalEntry> allEntries = transactionJournal.getAllLogEntries();
+        assertThat(allEntries.size(), is(1001));
+    }
+
+    @Test
+    public void concurrentCommitsWithGroupCommit() throws Exception
+    {
+        final LocalTxQueueTransactionJournal transactionJournal = createGroupCommitTransactionJournal();
+        final int numberOfTransactions = 20;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> committers = new ArrayList<Thread>(numberOfTransactions);
+        for (int i = 0; i < numberOfTransactions; i++)
+        {
+            final int txId = i;
+            Thread committer = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        startLatch.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    transactionJournal.logAdd(txId, mockQueueInfo, SOME_VALUE);
+                    transactionJournal.logCommit(txId);
+                }
+            };
+            committer.start();
+            committers.add(committer);
+        }
+        startLatch.countDown();
+        for (Thread committer : committers)
+        {
+            committer.join();
+        }
+        transactionJournal.close();
+        LocalTxQueueTransactionJournal reopenedTransactionJournal = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+        Multimap<Integer, LocalQueueTxJournalEntry> allEntries = reopenedTransactionJournal.getAllLogEntries();
+        assertThat(allEntries.size(), is(numberOfTransactions * 2));
+    }
+
     @Test
     public void getTxEntriesReturnsACopy() throws Exception
     {
@@ -172,6 +233,11 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
         assertThat(logEntriesForTx.size(), is(2));
     }
 
+    private LocalTxQueueTransactionJournal createGroupCommitTransactionJournal()
+    {
+        return new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, 8, 1000);
+    }
+
     private void addTransactionJournalEntry(LocalTxQueueTransactionJournal transactionJournal)
     {
         transactionJournal.logAdd(1, mockQueueInfo, "data");
@@ -116,6 +116,27 @@ public class LocalTxQueueTransactionRecovererTestCase extends AbstractMuleContex
         assertThat(muleEvent, nullValue());
     }
 
+    @Test
+    public void failAfterLogRemoveWithGroupCommitThenRecover() throws Exception
+    {
+        txLog.close();
+        txLog = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, 8, 1000);
+        persistentTransactionContext = new PersistentQueueTransactionContext(txLog, createQueueProvider(inQueue));
+        MuleEvent testEvent = getTestEvent(MESSAGE_CONTENT);
+        inQueue.offer(testEvent, 0, TIMEOUT);
+        persistentTransactionContext.poll(inQueue, TIMEOUT);
+
+        // the journal is not closed to simulate a crash right after the remove operation was logged
+        LocalTxQueueTransactionJournal recoveredTxLog = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+        new LocalTxQueueTransactionRecoverer(recoveredTxLog, createQueueProvider(inQueue)).recover();
+        Serializable muleEvent = inQueue.poll(TIMEOUT);
+        assertThat(muleEvent, notNullValue());
+        assertThat(testEvent.equals(muleEvent), is(true));
+        assertThat(inQueue.poll(TIMEOUT), nullValue());
+        recoveredTxLog.close();
+        txLog.close();
+    }
+
     private QueueProvider createQueueProvider(final DefaultQueueStore queue)
     {
         return new QueueProvider()
@@ -19,6 +19,7 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.hamcrest.core.Is;
 import org.junit.Rule;
@@ -144,6 +145,46 @@ public abstract class QueueStoreTestCase extends AbstractMuleContextTestCase
         }
     }
 
+    @Test
+    public void drainToRemovesUpToMaxElements() throws Exception
+    {
+        QueueStore queue = createQueue();
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            queue.putNow(String.valueOf(i));
+        }
+        List<Serializable> elements = new ArrayList<Serializable>();
+        assertThat(queue.drainTo(elements, NUMBER_OF_ITEMS - 1, SHORT_POLL_TIMEOUT), is(NUMBER_OF_ITEMS - 1));
+        for (int i = 0; i < NUMBER_OF_ITEMS - 1; i++)
+        {
+            assertThat((String) elements.get(i), is(String.valueOf(i)));
+        }
+        assertThat((String) queue.poll(SHORT_POLL_TIMEOUT), is(String.valueOf(NUMBER_OF_ITEMS - 1)));
+    }
+
+    @Test
+    public void drainToReturnsUntakenElementsFirst() throws Exception
+    {
+        QueueStore queue = createQueue();
+        queue.putNow(VALUE);
+        queue.untake(ANOTHER_VALUE);
+        List<Serializable> elements = new ArrayList<Serializable>();
+        assertThat(queue.drainTo(elements, NUMBER_OF_ITEMS, SHORT_POLL_TIMEOUT), is(2));
+        assertThat((String) elements.get(0), is(ANOTHER_VALUE));
+        assertThat((String) elements.get(1), is(VALUE));
+    }
+
+    @Test
+    public void drainToDoesNotReturnUntilPollTimeout() throws Exception
+    {
+        QueueStore queue = createQueue();
+        List<Serializable> elements = new ArrayList<Serializable>();
+        long initialTime = System.currentTimeMillis();
+        assertThat(queue.drainTo(elements, NUMBER_OF_ITEMS, LONG_POLL_TIMEOUT), is(0));
+        assertThat(System.currentTimeMillis() - initialTime >= LONG_POLL_TIMEOUT, is(true));
+        assertThat(elements.isEmpty(), is(true));
+    }
+
     protected QueueStore createQueue()
     {
         return createQueueWithCapacity(MAXIMUM_CAPACITY);
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.api.MuleContext;
+import org.mule.util.queue.RingBufferQueueStoreDelegate.WaitStrategy;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class RingBufferQueueStoreTestCase extends QueueStoreTestCase
+{
+
+    private static final int PRODUCERS = 4;
+    private static final int ITEMS_PER_PRODUCER = 10000;
+
+    @Override
+    protected QueueStore createQueueInfoDelegate(int capacity, MuleContext muleContext)
+    {
+        return new DefaultQueueStore("testQueue", muleContext, new DefaultQueueConfiguration(capacity, false, QueueStoreDelegateType.RING_BUFFER));
+    }
+
+    @Test
+    public void offerWrapsAroundTheRing() throws Exception
+    {
+        QueueStore queue = createQueueWithCapacity(3);
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            assertThat(queue.offer(String.valueOf(i), 0, OFFER_TIMEOUT), is(true));
+            assertThat((String) queue.poll(OFFER_TIMEOUT), is(String.valueOf(i)));
+        }
+        assertThat(queue.getSize(), is(0));
+    }
+
+    @Test
+    public void offerHonorsRoom() throws Exception
+    {
+        QueueStore queue = createQueueWithCapacity(3);
+        queue.putNow(VALUE);
+        assertThat(queue.offer(null, 1, OFFER_TIMEOUT), is(true));
+        assertThat(queue.offer(null, 2, OFFER_TIMEOUT), is(false));
+    }
+
+    @Test
+    public void untakeWhenRingIsFull() throws Exception
+    {
+        QueueStore queue = createQueueWithCapacity(2);
+        queue.putNow(VALUE);
+        queue.putNow(VALUE);
+        queue.untake(ANOTHER_VALUE);
+        assertThat(queue.getSize(), is(3));
+        assertThat((String) queue.peek(), is(ANOTHER_VALUE));
+        assertThat((String) queue.poll(OFFER_TIMEOUT), is(ANOTHER_VALUE));
+        assertThat((String) queue.poll(OFFER_TIMEOUT), is(VALUE));
+    }
+
+    @Test
+    public void putNowSpillsOverWhenRingIsFull() throws Exception
+    {
+        QueueStore queue = createQueueWithCapacity(1);
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            queue.putNow(String.valueOf(i));
+        }
+        assertThat(queue.getSize(), is(NUMBER_OF_ITEMS));
+        assertThat((String) queue.peek(), is("0"));
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            assertThat((String) queue.poll(OFFER_TIMEOUT), is(String.valueOf(i)));
+        }
+        assertThat(queue.getSize(), is(0));
+    }
+
+    @Test
+    public void unboundedQueueKeepsOrderPastTheRingSize() throws Exception
+    {
+        String ringSize = System.getProperty(RingBufferQueueStoreDelegate.DEFAULT_RING_SIZE_PROPERTY_KEY);
+        System.setProperty(RingBufferQueueStoreDelegate.DEFAULT_RING_SIZE_PROPERTY_KEY, "4");
+        try
+        {
+            RingBufferQueueStoreDelegate queue = new RingBufferQueueStoreDelegate(0);
+            for (int i = 0; i < 6; i++)
+            {
+                assertThat(queue.offer(String.valueOf(i), 0, OFFER_TIMEOUT), is(true));
+            }
+            // taking from the ring does not let new elements jump ahead of the spilled ones
+            assertThat((String) queue.poll(OFFER_TIMEOUT), is("0"));
+            assertThat(queue.offer("6", 0, OFFER_TIMEOUT), is(true));
+            for (int i = 1; i <= 6; i++)
+            {
+                assertThat((String) queue.poll(OFFER_TIMEOUT), is(String.valueOf(i)));
+            }
+            assertThat(queue.poll(0), nullValue());
+        }
+        finally
+        {
+            if (ringSize == null)
+            {
+                System.clearProperty(RingBufferQueueStoreDelegate.DEFAULT_RING_SIZE_PROPERTY_KEY);
+            }
+            else
+            {
+                System.setProperty(RingBufferQueueStoreDelegate.DEFAULT_RING_SIZE_PROPERTY_KEY, ringSize);
+            }
+        }
+    }
+
+    @Test
+    public void concurrentOffersDoNotExceedCapacity() throws Exception
+    {
+        final int capacity = 16;
+        final RingBufferQueueStoreDelegate queue = new RingBufferQueueStoreDelegate(capacity, WaitStrategy.SPIN);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int i = 0; i < PRODUCERS; i++)
+        {
+            producers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        for (int j = 0; j < capacity; j++)
+                        {
+                            if (queue.offer(VALUE, 0, 0))
+                            {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            producers[i].start();
+        }
+        start.countDown();
+        for (Thread producer : producers)
+        {
+            producer.join();
+        }
+
+        assertThat(failures.get(), is(0L));
+        assertThat(accepted.get(), is((long) capacity));
+        assertThat(queue.getSize(), is(capacity));
+    }
+
+    @Test
+    public void concurrentProducersAndConsumersWithSpinStrategy() throws Exception
+    {
+        assertConcurrentProducersAndConsumers(WaitStrategy.SPIN);
+    }
+
+    @Test
+    public void concurrentProducersAndConsumersWithParkStrategy() throws Exception
+    {
+        assertConcurrentProducersAndConsumers(WaitStrategy.PARK);
+    }
+
+    @Test
+    public void concurrentProducersAndConsumersWithBlockStrategy() throws Exception
+    {
+        assertConcurrentProducersAndConsumers(WaitStrategy.BLOCK);
+    }
+
+    private void assertConcurrentProducersAndConsumers(WaitStrategy waitStrategy) throws Exception
+    {
+        final RingBufferQueueStoreDelegate queue = new RingBufferQueueStoreDelegate(16, waitStrategy);
+        final int[] received = new int[PRODUCERS * ITEMS_PER_PRODUCER];
+        final AtomicLong failures = new AtomicLong();
+        Thread[] threads = new Thread[PRODUCERS * 2];
+        for (int i = 0; i < PRODUCERS; i++)
+        {
+            final int producer = i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int j = 0; j < ITEMS_PER_PRODUCER; j++)
+                        {
+                            if (!queue.offer(producer * ITEMS_PER_PRODUCER + j, 0, RECEIVE_TIMEOUT))
+                            {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            threads[PRODUCERS + i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int j = 0; j < ITEMS_PER_PRODUCER; j++)
+                        {
+                            Serializable item = queue.poll(RECEIVE_TIMEOUT);
+                            if (item == null)
+                            {
+                                failures.incrementAndGet();
+                                return;
+                            }
+                            synchronized (received)
+                            {
+                                received[(Integer) item]++;
+                            }
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        int[] expected = new int[received.length];
+        Arrays.fill(expected, 1);
+        assertThat(failures.get(), is(0L));
+        assertThat(Arrays.equals(received, expected), is(true));
+        assertThat(queue.poll(0), nullValue());
+    }
+}
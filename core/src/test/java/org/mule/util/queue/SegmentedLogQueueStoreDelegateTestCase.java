@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleContext;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase
+{
+
+    private static final int SEGMENT_SIZE = 200;
+    private static final int NUMBER_OF_ITEMS = 50;
+
+    @Rule
+    public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    private final MuleContext mockMuleContext = Mockito.mock(MuleContext.class);
+
+    @After
+    public void shutdownSyncScheduler()
+    {
+        SegmentedLogQueueStoreDelegate.shutdownSyncScheduler(mockMuleContext);
+    }
+
+    @Test
+    public void nameWithInvalidCharacters() throws Exception
+    {
+        String[] testNames = new String[] {
+                "test:/test",
+                "test?test",
+                "seda.queue(post:\\Customer:ApiTest-config.1)"
+        };
+
+        for (String testName : testNames)
+        {
+            SegmentedLogQueueStoreDelegate queueStore = new SegmentedLogQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), null, 0);
+            queueStore.dispose();
+        }
+    }
+
+    @Test
+    public void restoresElementsInOrderAfterReopen() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                {
+                    queueStore.putNow(createTestDataForIndex(i));
+                }
+                queueStore.poll(0);
+                queueStore.untake(createTestDataForIndex(0));
+                queueStore.close();
+
+                queueStore = createTestQueueStore();
+                assertThat(queueStore.getSize(), is(NUMBER_OF_ITEMS));
+                for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                {
+                    assertThat((String) queueStore.poll(0), is(createTestDataForIndex(i)));
+                }
+                assertThat(queueStore.poll(0), nullValue());
+                queueStore.close();
+            }
+        });
+    }
+
+    @Test
+    public void releasesConsumedSegments() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                {
+                    queueStore.putNow(createTestDataForIndex(i));
+                }
+                assertThat(queueStore.getNumberOfSegments() > 1, is(true));
+                for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                {
+                    queueStore.poll(0);
+                }
+                assertThat(queueStore.getNumberOfSegments(), is(1));
+                queueStore.close();
+            }
+        });
+    }
+
+    @Test
+    public void compactsSegmentsWithFewLiveElements() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                {
+                    queueStore.putNow(createTestDataForIndex(i));
+                }
+                int initialNumberOfSegments = queueStore.getNumberOfSegments();
+                for (int i = 1; i < NUMBER_OF_ITEMS - 1; i++)
+                {
+                    queueStore.remove(createTestDataForIndex(i));
+                }
+                assertThat(queueStore.getNumberOfSegments() < initialNumberOfSegments, is(true));
+                queueStore.close();
+
+                queueStore = createTestQueueStore();
+                assertThat((String) queueStore.poll(0), is(createTestDataForIndex(0)));
+                assertThat((String) queueStore.poll(0), is(createTestDataForIndex(NUMBER_OF_ITEMS - 1)));
+                assertThat(queueStore.poll(0), nullValue());
+                queueStore.close();
+            }
+        });
+    }
+
+    @Test
+    public void findsAndRemovesElementsAfterReopen() throws Exception
+    {
+        SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            queueStore.putNow(createTestDataForIndex(i));
+        }
+        queueStore.close();
+
+        queueStore = createTestQueueStore();
+        assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+        assertThat(queueStore.contains(createTestDataForIndex(NUMBER_OF_ITEMS)), is(false));
+        queueStore.remove(createTestDataForIndex(1));
+        assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+        assertThat(queueStore.getSize(), is(NUMBER_OF_ITEMS - 1));
+        queueStore.close();
+    }
+
+    @Test
+    public void forcesLastWritesWithoutFurtherWrites() throws Exception
+    {
+        assertLastWriteIsForced(createTestQueueStore());
+    }
+
+    @Test
+    public void forcesLastWritesOfQueuesOpenedAfterSchedulerShutdown() throws Exception
+    {
+        SegmentedLogQueueStoreDelegate.shutdownSyncScheduler(mockMuleContext);
+        assertLastWriteIsForced(createTestQueueStore());
+    }
+
+    private void assertLastWriteIsForced(final SegmentedLogQueueStoreDelegate queueStore) throws Exception
+    {
+        try
+        {
+            queueStore.putNow(createTestDataForIndex(0));
+
+            new PollingProber().check(new JUnitProbe()
+            {
+                @Override
+                protected boolean test() throws Exception
+                {
+                    assertThat(queueStore.getUnsyncedWrites(), is(0));
+                    return true;
+                }
+
+                @Override
+                public String describeFailure()
+                {
+                    return "Pending write was not forced to disk.";
+                }
+            });
+        }
+        finally
+        {
+            queueStore.close();
+        }
+    }
+
+    private String createTestDataForIndex(int index)
+    {
+        return "some value " + index;
+    }
+
+    private SegmentedLogQueueStoreDelegate createTestQueueStore()
+    {
+        when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        return new SegmentedLogQueueStoreDelegate("test-queue", workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.api.MuleContext;
+
+import org.junit.Test;
+
+public class SegmentedLogQueueStoreTestCase extends QueueStoreTestCase
+{
+
+    @Override
+    protected QueueStore createQueueInfoDelegate(int capacity, MuleContext muleContext)
+    {
+        return new DefaultQueueStore("testQueue", muleContext, new DefaultQueueConfiguration(capacity, true, QueueStoreDelegateType.SEGMENTED_LOG));
+    }
+
+    @Test
+    public void removeAndContainsUseStoredValues() throws Exception
+    {
+        DefaultQueueStore queue = (DefaultQueueStore) createQueue();
+        queue.putNow(VALUE);
+        queue.putNow(ANOTHER_VALUE);
+        assertThat(queue.contains(ANOTHER_VALUE), is(true));
+        queue.remove(ANOTHER_VALUE);
+        assertThat(queue.contains(ANOTHER_VALUE), is(false));
+        assertThat(queue.getSize(), is(1));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+@SmallTest
+public class BoundedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
+{
+
+    private static final int MAX_ENTRIES = 100;
+
+    @Test
+    public void neverExceedsMaxEntries() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>(MAX_ENTRIES, UNBOUNDED);
+        storeEntries(store, 0, 10 * MAX_ENTRIES);
+
+        assertThat(store.allKeys().size(), is(MAX_ENTRIES));
+        assertThat(store.getWeightedSize(), is((long) MAX_ENTRIES));
+        assertThat(store.getEvictionCount(), is((long) 9 * MAX_ENTRIES));
+    }
+
+    @Test
+    public void keepsFrequentlyAccessedEntries() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>(MAX_ENTRIES, UNBOUNDED);
+        storeEntries(store, 0, MAX_ENTRIES);
+        for (int i = 0; i < 10; i++)
+        {
+            for (int j = 0; j < MAX_ENTRIES / 2; j++)
+            {
+                store.retrieve(createKey(j));
+            }
+        }
+
+        // A scan of entries accessed only once must not evict the frequently accessed ones
+        storeEntries(store, MAX_ENTRIES, 5 * MAX_ENTRIES);
+
+        for (int j = 0; j < MAX_ENTRIES / 2; j++)
+        {
+            assertThat(store.contains(createKey(j)), is(true));
+        }
+    }
+
+    @Test
+    public void limitsTotalWeight() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>(1000, UNBOUNDED, new BoundedInMemoryObjectStore.Weigher<String>()
+        {
+            @Override
+            public int weigh(Serializable key, String value)
+            {
+                return value.length();
+            }
+        });
+        for (int i = 0; i < MAX_ENTRIES; i++)
+        {
+            store.store(createKey(i), "0123456789012345678901234567890123456789");
+        }
+
+        assertThat(store.getWeightedSize() <= 1000, is(true));
+        assertThat(store.allKeys().size(), is(1000 / 40));
+    }
+
+    @Test
+    public void expiresEntriesOverTimeToLive() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>(MAX_ENTRIES, 10);
+        store.store("key", "value");
+        Thread.sleep(20);
+
+        assertThat(store.contains("key"), is(false));
+        try
+        {
+            store.retrieve("key");
+            fail("Expired entry must not be retrieved");
+        }
+        catch (ObjectDoesNotExistException e)
+        {
+            // Expected
+        }
+        assertThat(store.getExpirationCount(), is(1L));
+        assertThat(store.getMissCount(), is(1L));
+
+        // The key can be reused once its entry expired
+        store.store("key", "newValue");
+        assertThat(store.retrieve("key"), is("newValue"));
+        assertThat(store.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void expire() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>();
+        storeEntries(store, 0, MAX_ENTRIES);
+        Thread.sleep(10);
+        store.store("newKey", "value");
+
+        store.expire(10, UNBOUNDED);
+        assertThat(store.allKeys().size(), is(1));
+
+        storeEntries(store, 0, MAX_ENTRIES);
+        store.expire(UNBOUNDED, 10);
+        assertThat(store.allKeys().size(), is(10));
+        assertThat(store.contains(createKey(MAX_ENTRIES - 1)), is(true));
+    }
+
+    @Test
+    public void removedEntriesDoNotCountForEviction() throws Exception
+    {
+        BoundedInMemoryObjectStore<String> store = new BoundedInMemoryObjectStore<String>(MAX_ENTRIES, UNBOUNDED);
+        storeEntries(store, 0, MAX_ENTRIES);
+        for (int i = 0; i < MAX_ENTRIES; i++)
+        {
+            assertThat(store.remove(createKey(i)), is(createValue(i)));
+        }
+        storeEntries(store, 0, MAX_ENTRIES);
+
+        assertThat(store.getEvictionCount(), is(0L));
+        assertThat(store.allKeys().size(), is(MAX_ENTRIES));
+    }
+
+    private void storeEntries(BoundedInMemoryObjectStore<String> store, int from, int to) throws ObjectStoreException
+    {
+        for (int i = from; i < to; i++)
+        {
+            store.store(createKey(i), createValue(i));
+        }
+    }
+
+    private String createKey(int index)
+    {
+        return "key" + index;
+    }
+
+    private String createValue(int index)
+    {
+        return "value" + index;
+    }
+}
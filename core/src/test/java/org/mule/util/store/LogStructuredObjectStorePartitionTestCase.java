@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.MuleContext;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase
+{
+
+    private static final int NUMBER_OF_ENTRIES = 100;
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+    @Mock
+    private MuleContext muleContext;
+
+    private LogStructuredObjectStorePartition<Serializable> partition;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        partition = createPartition();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        partition.close();
+    }
+
+    @Test
+    public void storeRetrieveAndRemove() throws Exception
+    {
+        partition.store("key", "value");
+        assertThat(partition.contains("key"), is(true));
+        assertThat((String) partition.retrieve("key"), is("value"));
+        assertThat((String) partition.remove("key"), is("value"));
+        assertThat(partition.contains("key"), is(false));
+    }
+
+    @Test(expected = ObjectAlreadyExistsException.class)
+    public void storeSameKeyThrowsException() throws Exception
+    {
+        partition.store("key", "value");
+        partition.store("key", "value");
+    }
+
+    @Test
+    public void indicatesUnexistentKeyOnRetrieveError() throws Exception
+    {
+        try
+        {
+            partition.retrieve("nonExistentKey");
+            fail("Supposed to thrown an exception as key is not valid");
+        }
+        catch (ObjectDoesNotExistException e)
+        {
+            assertThat(e.getMessage().contains("nonExistentKey"), is(true));
+        }
+    }
+
+    @Test(expected = ObjectStoreException.class)
+    public void storeWithNullKeyThrowsException() throws Exception
+    {
+        partition.store(null, "value");
+    }
+
+    @Test
+    public void restoresEntriesFromHintFile() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        partition.remove(createKey(0));
+        partition.close();
+        assertThat(new File(objectStoreFolder.getRoot(), LogStructuredObjectStorePartition.HINT_FILE).exists(), is(true));
+
+        partition = createPartition();
+        assertEntries(1, NUMBER_OF_ENTRIES);
+    }
+
+    @Test
+    public void restoresEntriesWithoutHintFile() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        partition.remove(createKey(0));
+        partition.close();
+        new File(objectStoreFolder.getRoot(), LogStructuredObjectStorePartition.HINT_FILE).delete();
+
+        partition = createPartition();
+        assertEntries(1, NUMBER_OF_ENTRIES);
+    }
+
+    @Test
+    public void restoresEntriesStoredAfterHintFile() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        partition.close();
+        partition = createPartition();
+        storeEntries(NUMBER_OF_ENTRIES, 2 * NUMBER_OF_ENTRIES);
+        partition.remove(createKey(0));
+
+        // Not closed, so the hint file does not include the last changes
+        partition = createPartition();
+        assertEntries(1, 2 * NUMBER_OF_ENTRIES);
+    }
+
+    @Test
+    public void compactsSegmentsWithRemovedEntries() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(LogStructuredObjectStorePartition.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                partition.close();
+                partition = createPartition();
+                storeEntries(0, NUMBER_OF_ENTRIES);
+                int segmentsBeforeRemoval = partition.getNumberOfSegments();
+                for (int i = 0; i < NUMBER_OF_ENTRIES - 1; i++)
+                {
+                    partition.remove(createKey(i));
+                }
+                assertThat(partition.getNumberOfSegments() < segmentsBeforeRemoval, is(true));
+                assertEntries(NUMBER_OF_ENTRIES - 1, NUMBER_OF_ENTRIES);
+
+                // Removed entries must not be restored when reading all the segments
+                partition.close();
+                new File(objectStoreFolder.getRoot(), LogStructuredObjectStorePartition.HINT_FILE).delete();
+                partition = createPartition();
+                assertEntries(NUMBER_OF_ENTRIES - 1, NUMBER_OF_ENTRIES);
+            }
+        });
+    }
+
+    @Test
+    public void expiresOldestEntriesOverMaxEntries() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        partition.expire(UNBOUNDED, 10);
+        assertEntries(NUMBER_OF_ENTRIES - 10, NUMBER_OF_ENTRIES);
+    }
+
+    @Test
+    public void expiresEntriesOverTimeToLive() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        Thread.sleep(10);
+        partition.store("newKey", "value");
+        partition.expire(10, UNBOUNDED);
+        assertThat(partition.allKeys().size(), is(1));
+        assertThat(partition.contains("newKey"), is(true));
+    }
+
+    @Test
+    public void clear() throws Exception
+    {
+        storeEntries(0, NUMBER_OF_ENTRIES);
+        partition.clear();
+        assertThat(partition.allKeys().isEmpty(), is(true));
+
+        partition.store("key", "value");
+        assertThat((String) partition.retrieve("key"), is("value"));
+    }
+
+    @Test
+    public void detectsLogStructuredPartitionDirectory() throws Exception
+    {
+        assertThat(LogStructuredObjectStorePartition.isLogStructured(objectStoreFolder.getRoot()), is(true));
+        assertThat(LogStructuredObjectStorePartition.isLogStructured(objectStoreFolder.newFolder()), is(false));
+    }
+
+    private LogStructuredObjectStorePartition<Serializable> createPartition() throws ObjectStoreException
+    {
+        LogStructuredObjectStorePartition<Serializable> partition = new LogStructuredObjectStorePartition<Serializable>(muleContext, "test", objectStoreFolder.getRoot(), null);
+        partition.open();
+        return partition;
+    }
+
+    private void storeEntries(int from, int to) throws ObjectStoreException
+    {
+        for (int i = from; i < to; i++)
+        {
+            partition.store(createKey(i), createValue(i));
+        }
+    }
+
+    private void assertEntries(int from, int to) throws ObjectStoreException
+    {
+        assertThat(partition.allKeys().size(), is(to - from));
+        for (int i = from; i < to; i++)
+        {
+            assertThat((String) partition.retrieve(createKey(i)), is(createValue(i)));
+        }
+    }
+
+    private String createKey(int index)
+    {
+        return "key" + index;
+    }
+
+    private String createValue(int index)
+    {
+        return "value" + index;
+    }
+}
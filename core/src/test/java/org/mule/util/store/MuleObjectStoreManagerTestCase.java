@@ -150,6 +150,57 @@ public class MuleObjectStoreManagerTestCase extends AbstractMuleTestCase
         }
     }
 
+    @Test
+    public void removeBoundedInMemoryStoreAndMonitor() throws ObjectStoreException, InitialisationException
+    {
+        try
+        {
+            MuleContext muleContext = mock(MuleContext.class);
+            createRegistryAndBaseStore(muleContext, false);
+            storeManager.setMuleContext(muleContext);
+            storeManager.setBoundedInMemoryStores(true);
+            storeManager.initialise();
+
+            ObjectStore<Serializable> store = storeManager.getObjectStore(TEST_PARTITION_NAME, false, 10, 10000, 50);
+            assertThat(store instanceof BoundedInMemoryObjectStore, is(true));
+            assertMonitorsCount(1);
+
+            storeManager.disposeStore(store);
+
+            assertThat(storeManager.stores.keySet(), not(hasItem(TEST_PARTITION_NAME)));
+            assertMonitorsCount(0);
+        }
+        finally
+        {
+            storeManager.dispose();
+        }
+    }
+
+    @Test
+    public void boundedInMemoryStoresKeepCustomBaseStore() throws ObjectStoreException, InitialisationException
+    {
+        try
+        {
+            MuleContext muleContext = mock(MuleContext.class);
+            MuleRegistry muleRegistry = mock(MuleRegistry.class);
+            PartitionableObjectStore<?> customStore = new PartitionedInMemoryObjectStore<Serializable>()
+            {
+            };
+            when(muleRegistry.lookupObject(MuleProperties.OBJECT_STORE_DEFAULT_IN_MEMORY_NAME)).thenReturn(customStore);
+            when(muleContext.getRegistry()).thenReturn(muleRegistry);
+            storeManager.setMuleContext(muleContext);
+            storeManager.setBoundedInMemoryStores(true);
+            storeManager.initialise();
+
+            ObjectStore<Serializable> store = storeManager.getObjectStore(TEST_PARTITION_NAME, false, 10, 10000, 50);
+            assertThat(store instanceof ObjectStorePartition, is(true));
+        }
+        finally
+        {
+            storeManager.dispose();
+        }
+    }
+
     private void assertMonitorsCount(final int expectedValue)
     {
         new PollingProber(POLLING_TIMEOUT, POLLING_DELAY).check(new Probe()
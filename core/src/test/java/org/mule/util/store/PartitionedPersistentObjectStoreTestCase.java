@@ -103,6 +103,20 @@ public class PartitionedPersistentObjectStoreTestCase extends AbstractMuleTestCa
         this.assertAllValuesExistsInPartitionAreUnique(OBJECT_KEY, OBJECT_BASE_VALUE);
     }
 
+    @Test
+    public void logStructuredPartitionsPersistDataAfterDispose() throws ObjectStoreException
+    {
+        os.setLogStructuredPartitions(true);
+        openPartitions();
+        storeInPartitions(OBJECT_KEY, OBJECT_BASE_VALUE);
+        os.dispose();
+
+        os = new PartitionedPersistentObjectStore<Serializable>(mockMuleContext);
+        openPartitions();
+        assertAllValuesExistsInPartitionAreUnique(OBJECT_KEY, OBJECT_BASE_VALUE);
+        os.dispose();
+    }
+
     @Test
     public void allowsAnyPartitionName() throws Exception
     {
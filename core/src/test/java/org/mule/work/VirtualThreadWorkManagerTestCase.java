@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.work;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.api.config.ThreadingProfile;
+import org.mule.config.ChainedThreadingProfile;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.resource.spi.work.Work;
+import javax.resource.spi.work.WorkAdapter;
+import javax.resource.spi.work.WorkEvent;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class VirtualThreadWorkManagerTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private MuleWorkManager workManager;
+
+    @After
+    public void disposeWorkManager()
+    {
+        if (workManager != null)
+        {
+            workManager.dispose();
+        }
+    }
+
+    @Test
+    public void scheduledWorkNotifiesListener() throws Exception
+    {
+        createWorkManager(1, ThreadingProfile.WHEN_EXHAUSTED_WAIT);
+        final Thread callerThread = Thread.currentThread();
+        final AtomicReference<Thread> workThread = new AtomicReference<Thread>();
+        final CountDownLatch accepted = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        workManager.scheduleWork(new TestWork()
+        {
+            @Override
+            public void run()
+            {
+                workThread.set(Thread.currentThread());
+            }
+        }, TIMEOUT, null, new WorkAdapter()
+        {
+            @Override
+            public void workAccepted(WorkEvent event)
+            {
+                accepted.countDown();
+            }
+
+            @Override
+            public void workStarted(WorkEvent event)
+            {
+                started.countDown();
+            }
+
+            @Override
+            public void workCompleted(WorkEvent event)
+            {
+                completed.countDown();
+            }
+        });
+
+        assertThat(accepted.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(started.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(completed.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(workThread.get(), not(sameInstance(callerThread)));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejectsWorkWhenNoPermitsLeftAndAbort() throws Exception
+    {
+        createWorkManager(1, ThreadingProfile.WHEN_EXHAUSTED_ABORT);
+        CountDownLatch release = scheduleBlockingWork();
+        try
+        {
+            workManager.scheduleWork(new TestWork());
+        }
+        finally
+        {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void runsWorkInCallerThreadWhenNoPermitsLeftAndRun() throws Exception
+    {
+        createWorkManager(1, ThreadingProfile.WHEN_EXHAUSTED_RUN);
+        CountDownLatch release = scheduleBlockingWork();
+        final AtomicReference<Thread> workThread = new AtomicReference<Thread>();
+        try
+        {
+            workManager.scheduleWork(new TestWork()
+            {
+                @Override
+                public void run()
+                {
+                    workThread.set(Thread.currentThread());
+                }
+            });
+        }
+        finally
+        {
+            release.countDown();
+        }
+
+        assertThat(workThread.get(), is(Thread.currentThread()));
+    }
+
+    @Test
+    public void waitsForPermitWhenNoPermitsLeftAndWait() throws Exception
+    {
+        createWorkManager(1, ThreadingProfile.WHEN_EXHAUSTED_WAIT);
+        final CountDownLatch release = scheduleBlockingWork();
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e)
+                {
+                    // ignore
+                }
+                release.countDown();
+            }
+        }.start();
+
+        workManager.scheduleWork(new TestWork()
+        {
+            @Override
+            public void run()
+            {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    }
+
+    private void createWorkManager(int maxConcurrency, int poolExhaustedAction) throws Exception
+    {
+        ThreadingProfile threadingProfile = new ChainedThreadingProfile();
+        threadingProfile.setMaxThreadsActive(maxConcurrency);
+        threadingProfile.setPoolExhaustedAction(poolExhaustedAction);
+        threadingProfile.setThreadWaitTimeout(TIMEOUT);
+        threadingProfile.setWorkManagerFactory(new VirtualThreadWorkManagerFactory());
+        threadingProfile.setMuleContext(muleContext);
+        workManager = (MuleWorkManager) threadingProfile.createWorkManager("virtual", 5000);
+        workManager.start();
+    }
+
+    private CountDownLatch scheduleBlockingWork() throws Exception
+    {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        workManager.scheduleWork(new TestWork()
+        {
+            @Override
+            public void run()
+            {
+                running.countDown();
+                try
+                {
+                    release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertThat(running.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        return release;
+    }
+
+    private static class TestWork implements Work
+    {
+
+        @Override
+        public void release()
+        {
+            // no-op
+        }
+
+        @Override
+        public void run()
+        {
+            // no-op
+        }
+    }
+}
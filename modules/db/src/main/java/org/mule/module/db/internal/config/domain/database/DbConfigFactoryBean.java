@@ -50,6 +50,7 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
     private Map<String, String> connectionProperties;
     private List<DbType> customDataTypes;
     private RetryPolicyTemplate retryPolicyTemplate;
+    private int queryTemplateCacheSize = GenericDbConfig.DEFAULT_QUERY_TEMPLATE_CACHE_SIZE;
 
     @Override
     public Class<?> getObjectType()
@@ -74,6 +75,7 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
         dbConfig.setDriverClassName(driverClassName);
         dbConfig.setMuleContext(muleContext);
         dbConfig.setRetryPolicyTemplate(retryPolicyTemplate);
+        dbConfig.setQueryTemplateCacheSize(queryTemplateCacheSize);
 
         return dbConfig;
     }
@@ -234,4 +236,14 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
     {
         this.retryPolicyTemplate = retryPolicyTemplate;
     }
+
+    public int getQueryTemplateCacheSize()
+    {
+        return queryTemplateCacheSize;
+    }
+
+    public void setQueryTemplateCacheSize(int queryTemplateCacheSize)
+    {
+        this.queryTemplateCacheSize = queryTemplateCacheSize;
+    }
 }
@@ -33,6 +33,8 @@ public class BulkQueryResolverFactoryBean implements FactoryBean<BulkQueryResolv
     {
         if (context.getExpressionManager().isExpression(bulkQuery))
         {
+            // Bulk scripts are not parsed with the caching parser of the config, as cached templates
+            // get prepared statements and scripts must be added to a plain statement batch
             return new DynamicBulkQueryResolver(bulkQuery, new SimpleQueryTemplateParser(), context.getExpressionManager());
         }
         else
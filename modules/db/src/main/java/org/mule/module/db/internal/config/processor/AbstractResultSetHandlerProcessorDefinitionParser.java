@@ -7,7 +7,10 @@
 
 package org.mule.module.db.internal.config.processor;
 
+import org.mule.module.db.internal.result.row.ColumnarRowHandlerFactory;
 import org.mule.module.db.internal.result.row.InsensitiveMapRowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
 import org.mule.module.db.internal.result.resultset.IteratorResultSetHandler;
 import org.mule.module.db.internal.result.resultset.ListResultSetHandler;
 import org.mule.module.db.internal.result.resultset.ResultSetHandler;
@@ -19,11 +22,19 @@ import org.w3c.dom.Element;
 public abstract class AbstractResultSetHandlerProcessorDefinitionParser extends AbstractSingleQueryProcessorDefinitionParser
 {
 
+    public static final String COLUMNAR_ROWS_ATTRIBUTE = "columnarRows";
+    public static final String CHUNK_SIZE_ATTRIBUTE = "chunkSize";
+
     protected ResultSetHandler resultSetHandler;
+    private boolean columnarRows;
+    private int chunkSize;
 
     @Override
     protected void doParseElement(Element element, ParserContext context, BeanDefinitionBuilder builder)
     {
+        columnarRows = Boolean.parseBoolean(element.getAttribute(COLUMNAR_ROWS_ATTRIBUTE));
+        chunkSize = element.hasAttribute(CHUNK_SIZE_ATTRIBUTE) ? Integer.parseInt(element.getAttribute(CHUNK_SIZE_ATTRIBUTE)) : 0;
+
         super.doParseElement(element, context, builder);
         builder.addConstructorArgValue(streaming);
     }
@@ -33,15 +44,27 @@ public abstract class AbstractResultSetHandlerProcessorDefinitionParser extends
     {
         super.processStreamingAttribute(builder, streamingValue);
 
-        InsensitiveMapRowHandler recordHandler = new InsensitiveMapRowHandler();
+        RowHandlerFactory rowHandlerFactory;
+        if (columnarRows)
+        {
+            rowHandlerFactory = new ColumnarRowHandlerFactory();
+        }
+        else
+        {
+            rowHandlerFactory = new SharedRowHandlerFactory(new InsensitiveMapRowHandler());
+        }
 
         if (Boolean.parseBoolean(streamingValue))
         {
-            resultSetHandler = new IteratorResultSetHandler(recordHandler);
+            resultSetHandler = new IteratorResultSetHandler(rowHandlerFactory, chunkSize);
         }
         else
         {
-            resultSetHandler = new ListResultSetHandler(recordHandler);
+            if (chunkSize > 0)
+            {
+                logger.warn("Attribute " + CHUNK_SIZE_ATTRIBUTE + " is only used in streaming mode");
+            }
+            resultSetHandler = new ListResultSetHandler(rowHandlerFactory);
         }
     }
 }
@@ -7,6 +7,7 @@
 
 package org.mule.module.db.internal.config.processor;
 
+import org.mule.module.db.internal.domain.executor.BulkUpdateExecutorFactory;
 import org.mule.module.db.internal.domain.executor.UpdateExecutorFactory;
 import org.mule.module.db.internal.domain.query.QueryType;
 import org.mule.module.db.internal.metadata.UpdateMetadataProvider;
@@ -21,6 +22,9 @@ import org.w3c.dom.Element;
 public class SingleUpdateProcessorDefinitionParser extends AbstractSingleQueryProcessorDefinitionParser
 {
 
+    public static final String BATCH_SIZE_ATTRIBUTE = "batchSize";
+    public static final String BATCH_TIMEOUT_ATTRIBUTE = "batchTimeout";
+
     private final List<QueryType> validQueryTypes;
 
     public SingleUpdateProcessorDefinitionParser(List<QueryType> validQueryTypes)
@@ -52,6 +56,25 @@ public class SingleUpdateProcessorDefinitionParser extends AbstractSingleQueryPr
         super.doParse(element, context, builder);
 
         builder.addConstructorArgValue(validQueryTypes);
+
+        parseBatchAttributes(element, builder);
+    }
+
+    protected void parseBatchAttributes(Element element, BeanDefinitionBuilder builder)
+    {
+        if (element.hasAttribute(BATCH_SIZE_ATTRIBUTE))
+        {
+            builder.addPropertyValue(BATCH_SIZE_ATTRIBUTE, Integer.parseInt(element.getAttribute(BATCH_SIZE_ATTRIBUTE)));
+
+            BeanDefinitionBuilder bulkExecutorFactoryBean = BeanDefinitionBuilder.genericBeanDefinition(BulkUpdateExecutorFactory.class);
+            bulkExecutorFactoryBean.addConstructorArgValue(parseStatementFactory(element));
+            builder.addPropertyValue("bulkQueryExecutorFactory", bulkExecutorFactoryBean.getBeanDefinition());
+        }
+
+        if (element.hasAttribute(BATCH_TIMEOUT_ATTRIBUTE))
+        {
+            builder.addPropertyValue(BATCH_TIMEOUT_ATTRIBUTE, Long.parseLong(element.getAttribute(BATCH_TIMEOUT_ATTRIBUTE)));
+        }
     }
 
     @Override
@@ -10,7 +10,6 @@ package org.mule.module.db.internal.config.resolver.query;
 import org.mule.api.MuleContext;
 import org.mule.api.context.MuleContextAware;
 import org.mule.module.db.internal.domain.query.Query;
-import org.mule.module.db.internal.parser.SimpleQueryTemplateParser;
 import org.mule.module.db.internal.resolver.database.DbConfigResolver;
 import org.mule.module.db.internal.resolver.param.ParamValueResolver;
 import org.mule.module.db.internal.resolver.query.DynamicQueryResolver;
@@ -40,7 +39,7 @@ public class QueryResolverFactoryBean implements FactoryBean<QueryResolver>, Mul
     {
         if (isDynamic(query))
         {
-            return new DynamicQueryResolver(query, new SimpleQueryTemplateParser(), muleContext.getExpressionManager());
+            return new DynamicQueryResolver(query, dbConfigResolver, muleContext.getExpressionManager());
         }
         else if (hasParameters(query))
         {
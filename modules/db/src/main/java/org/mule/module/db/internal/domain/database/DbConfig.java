@@ -10,6 +10,7 @@ package org.mule.module.db.internal.domain.database;
 import org.mule.common.Testable;
 import org.mule.common.metadata.ConnectorMetaDataEnabled;
 import org.mule.module.db.internal.domain.connection.DbConnectionFactory;
+import org.mule.module.db.internal.parser.QueryTemplateParser;
 
 import javax.sql.DataSource;
 
@@ -33,4 +34,10 @@ public interface DbConfig extends Testable, ConnectorMetaDataEnabled
      * @return a non null {@link DbConnectionFactory} used to create connections for the database
      */
     DbConnectionFactory getConnectionFactory();
+
+    /**
+     * @return a non null {@link QueryTemplateParser} used to parse the dynamic queries
+     * executed on the database, shared by all of them
+     */
+    QueryTemplateParser getQueryTemplateParser();
 }
@@ -10,6 +10,7 @@ package org.mule.module.db.internal.domain.database;
 import org.mule.api.MuleContext;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
 import org.mule.api.retry.RetryPolicyTemplate;
 import org.mule.common.DefaultResult;
 import org.mule.common.DefaultTestResult;
@@ -25,6 +26,10 @@ import org.mule.module.db.internal.domain.connection.TransactionalDbConnectionFa
 import org.mule.module.db.internal.domain.transaction.TransactionCoordinationDbTransactionManager;
 import org.mule.module.db.internal.domain.type.DbTypeManager;
 import org.mule.module.db.internal.domain.xa.CompositeDataSourceDecorator;
+import org.mule.module.db.internal.parser.CachedQueryTemplateParser;
+import org.mule.module.db.internal.parser.QueryTemplateCacheStatisticsMBean;
+import org.mule.module.db.internal.parser.QueryTemplateParser;
+import org.mule.module.db.internal.parser.SimpleQueryTemplateParser;
 import org.mule.retry.policies.NoRetryPolicyTemplate;
 
 import com.mchange.v2.c3p0.DataSources;
@@ -46,9 +51,11 @@ import org.enhydra.jdbc.standard.StandardXADataSource;
  * Defines a database configuration that is not customized for any particular
  * database vendor
  */
-public class GenericDbConfig implements DbConfig, Initialisable
+public class GenericDbConfig implements DbConfig, Initialisable, StatisticsMBeanProvider<QueryTemplateCacheStatisticsMBean>
 {
 
+    public static final int DEFAULT_QUERY_TEMPLATE_CACHE_SIZE = 256;
+
     private DataSource dataSource;
     private final String name;
     private TransactionalDbConnectionFactory dbConnectionFactory;
@@ -65,6 +72,8 @@ public class GenericDbConfig implements DbConfig, Initialisable
     private MuleContext muleContext;
     private String url;
     private RetryPolicyTemplate retryPolicyTemplate;
+    private int queryTemplateCacheSize = DEFAULT_QUERY_TEMPLATE_CACHE_SIZE;
+    private QueryTemplateParser queryTemplateParser;
 
     public GenericDbConfig(DataSource dataSource, String name, DbTypeManager dbTypeManager)
     {
@@ -91,6 +100,35 @@ public class GenericDbConfig implements DbConfig, Initialisable
         return dbConnectionFactory;
     }
 
+    @Override
+    public QueryTemplateParser getQueryTemplateParser()
+    {
+        if (queryTemplateParser == null)
+        {
+            synchronized (this)
+            {
+                if (queryTemplateParser == null)
+                {
+                    queryTemplateParser = createQueryTemplateParser();
+                }
+            }
+        }
+
+        return queryTemplateParser;
+    }
+
+    protected QueryTemplateParser createQueryTemplateParser()
+    {
+        if (queryTemplateCacheSize > 0)
+        {
+            return new CachedQueryTemplateParser(new SimpleQueryTemplateParser(), queryTemplateCacheSize);
+        }
+        else
+        {
+            return new SimpleQueryTemplateParser();
+        }
+    }
+
     public DbTypeManager getDbTypeManager()
     {
         return dbTypeManager;
@@ -286,4 +324,37 @@ public class GenericDbConfig implements DbConfig, Initialisable
     {
         this.retryPolicyTemplate = retryPolicyTemplate;
     }
+
+    public void setQueryTemplateCacheSize(int queryTemplateCacheSize)
+    {
+        this.queryTemplateCacheSize = queryTemplateCacheSize;
+    }
+
+    @Override
+    public String getStatisticsName()
+    {
+        return getName();
+    }
+
+    @Override
+    public String getStatisticsType()
+    {
+        return QueryTemplateCacheStatisticsMBean.DEFAULT_JMX_TYPE;
+    }
+
+    @Override
+    public Class<QueryTemplateCacheStatisticsMBean> getStatisticsInterface()
+    {
+        return QueryTemplateCacheStatisticsMBean.class;
+    }
+
+    /**
+     * @return the statistics of the query template cache, or null if dynamic queries are not cached
+     */
+    @Override
+    public QueryTemplateCacheStatisticsMBean getStatistics()
+    {
+        QueryTemplateParser parser = getQueryTemplateParser();
+        return parser instanceof CachedQueryTemplateParser ? (CachedQueryTemplateParser) parser : null;
+    }
 }
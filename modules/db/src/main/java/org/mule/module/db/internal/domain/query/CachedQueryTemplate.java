@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.domain.query;
+
+/**
+ * Defines a query template shared by all the executions of dynamic queries that
+ * resolve to the same SQL text.
+ * <p/>
+ * As the same SQL text is expected to be executed again, statements for these
+ * templates are always prepared, even when there are no parameters, so the
+ * prepared statements can be reused by the statement cache of the connection pool.
+ */
+public class CachedQueryTemplate extends QueryTemplate
+{
+
+    public CachedQueryTemplate(QueryTemplate source)
+    {
+        super(source);
+    }
+}
@@ -10,6 +10,7 @@ package org.mule.module.db.internal.domain.statement;
 import org.mule.module.db.internal.domain.autogeneratedkey.AutoGeneratedKeyStrategy;
 import org.mule.module.db.internal.domain.autogeneratedkey.NoAutoGeneratedKeyStrategy;
 import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.query.CachedQueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryType;
 
@@ -54,7 +55,8 @@ public class QueryStatementFactory implements ConfigurableStatementFactory
         {
             boolean hasInputParams = queryTemplate.getInputParams().size() > 0;
 
-            if (hasInputParams)
+            // cached templates are prepared so the statement cache can reuse them
+            if (hasInputParams || queryTemplate instanceof CachedQueryTemplate)
             {
                 result = autoGeneratedKeyStrategy.prepareStatement(connection, queryTemplate);
             }
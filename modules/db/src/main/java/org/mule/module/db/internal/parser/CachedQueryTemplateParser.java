@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.parser;
+
+import org.mule.module.db.internal.domain.query.CachedQueryTemplate;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Parses SQL queries using a delegate parser, keeping the parsed templates in a bounded
+ * cache keyed by the SQL text, so dynamic queries resolving to the same SQL text are
+ * parsed only once.
+ * <p/>
+ * Returned templates are {@link CachedQueryTemplate}s, so their statements are prepared
+ * and can be reused by the prepared statement cache.
+ */
+public class CachedQueryTemplateParser implements QueryTemplateParser, QueryTemplateCacheStatisticsMBean
+{
+
+    private final LoadingCache<String, QueryTemplate> cache;
+    private final int maxSize;
+    private volatile CacheStats clearedStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    public CachedQueryTemplateParser(final QueryTemplateParser delegate, int maxSize)
+    {
+        this.maxSize = maxSize;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(new CacheLoader<String, QueryTemplate>()
+                {
+                    @Override
+                    public QueryTemplate load(String sql) throws Exception
+                    {
+                        return new CachedQueryTemplate(delegate.parse(sql));
+                    }
+                });
+    }
+
+    @Override
+    public QueryTemplate parse(String sql) throws QueryTemplateParsingException
+    {
+        try
+        {
+            return cache.getUnchecked(sql);
+        }
+        catch (UncheckedExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private CacheStats getStats()
+    {
+        return cache.stats().minus(clearedStats);
+    }
+
+    @Override
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Override
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return getStats().hitCount();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return getStats().missCount();
+    }
+
+    @Override
+    public double getHitRate()
+    {
+        return getStats().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount()
+    {
+        return getStats().evictionCount();
+    }
+
+    @Override
+    public void clear()
+    {
+        clearedStats = cache.stats();
+    }
+}
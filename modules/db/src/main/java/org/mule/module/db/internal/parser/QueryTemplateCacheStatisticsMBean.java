@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.parser;
+
+/**
+ * Management interface of the statistics of a {@link CachedQueryTemplateParser}
+ */
+public interface QueryTemplateCacheStatisticsMBean
+{
+
+    String DEFAULT_JMX_TYPE = "DbQueryTemplateCache";
+
+    /**
+     * @return the number of parsed query templates currently cached
+     */
+    long getSize();
+
+    /**
+     * @return the maximum number of parsed query templates cached
+     */
+    long getMaxSize();
+
+    /**
+     * @return the number of queries whose template was found in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of queries that had to be parsed
+     */
+    long getMissCount();
+
+    /**
+     * @return the ratio of queries whose template was found in the cache, 1.0 when there were no queries
+     */
+    double getHitRate();
+
+    /**
+     * @return the number of templates removed from the cache to make room for new ones
+     */
+    long getEvictionCount();
+
+    /**
+     * Resets all the counters
+     */
+    void clear();
+}
@@ -77,14 +77,7 @@ public abstract class AbstractDbMessageProcessor extends AbstractInterceptingMes
                 }
             }
 
-            if (target == null || "".equals(target) || "#[payload]".equals(target))
-            {
-                muleEvent.getMessage().setPayload(result);
-            }
-            else
-            {
-                muleContext.getExpressionManager().enrich(target, muleEvent, result);
-            }
+            setResult(muleEvent, result);
 
             return processNext(muleEvent);
         }
@@ -101,6 +94,18 @@ public abstract class AbstractDbMessageProcessor extends AbstractInterceptingMes
         }
     }
 
+    protected void setResult(MuleEvent muleEvent, Object result)
+    {
+        if (target == null || "".equals(target) || "#[payload]".equals(target))
+        {
+            muleEvent.getMessage().setPayload(result);
+        }
+        else
+        {
+            muleContext.getExpressionManager().enrich(target, muleEvent, result);
+        }
+    }
+
     protected boolean mustCloseConnection()
     {
         return true;
@@ -178,4 +183,9 @@ public abstract class AbstractDbMessageProcessor extends AbstractInterceptingMes
     }
 
     protected abstract List<QueryType> getValidQueryTypes();
+
+    protected TransactionalAction getTransactionalAction()
+    {
+        return transactionalAction;
+    }
 }
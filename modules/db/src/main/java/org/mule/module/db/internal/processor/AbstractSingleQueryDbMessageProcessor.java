@@ -35,11 +35,18 @@ public abstract class AbstractSingleQueryDbMessageProcessor extends AbstractDbMe
     {
         MuleEvent eventToUse = resolveSource(muleEvent);
 
-        Query resolvedQuery = queryResolver.resolve(connection, eventToUse);
+        Query resolvedQuery = resolveQuery(connection, eventToUse);
+
+        return doExecuteQuery(connection, resolvedQuery);
+    }
+
+    protected Query resolveQuery(DbConnection connection, MuleEvent muleEvent)
+    {
+        Query resolvedQuery = queryResolver.resolve(connection, muleEvent);
 
         validateQueryType(resolvedQuery.getQueryTemplate());
 
-        return doExecuteQuery(connection, resolvedQuery);
+        return resolvedQuery;
     }
 
     protected abstract Object doExecuteQuery(DbConnection connection, Query query) throws SQLException;
@@ -7,20 +7,37 @@
 
 package org.mule.module.db.internal.processor;
 
+import org.mule.api.MessagingException;
 import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.lifecycle.Disposable;
+import org.mule.api.lifecycle.InitialisationException;
+import org.mule.config.i18n.MessageFactory;
 import org.mule.module.db.internal.domain.autogeneratedkey.AutoGeneratedKeyStrategy;
 import org.mule.module.db.internal.domain.autogeneratedkey.NoAutoGeneratedKeyStrategy;
 import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.database.DbConfig;
+import org.mule.module.db.internal.domain.executor.BulkExecutor;
+import org.mule.module.db.internal.domain.executor.BulkQueryExecutorFactory;
 import org.mule.module.db.internal.domain.executor.QueryExecutor;
 import org.mule.module.db.internal.domain.executor.QueryExecutorFactory;
 import org.mule.module.db.internal.domain.query.Query;
+import org.mule.module.db.internal.domain.query.QueryParamValue;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryType;
 import org.mule.module.db.internal.domain.transaction.TransactionalAction;
+import org.mule.module.db.internal.processor.UpdateMicroBatcher.PendingUpdate;
 import org.mule.module.db.internal.resolver.database.DbConfigResolver;
 import org.mule.module.db.internal.resolver.query.QueryResolver;
+import org.mule.transaction.TransactionCoordination;
 
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Executes an update query on a database.
@@ -30,13 +47,28 @@ import java.util.List;
  * <p/>
  * Both database and queries are resolved, if required, using the {@link MuleEvent}
  * being processed.
+ * <p/>
+ * When a batch size greater than one is configured, the updates of events processed
+ * concurrently outside a transaction are gathered and executed together as a JDBC
+ * batch, one per query, once the batch is full or the batch timeout elapses. Each
+ * event gets the update count of its own update, or {@link Statement#SUCCESS_NO_INFO}
+ * when the driver executes the update without reporting its count. When a row of a
+ * batch fails, only the event of that row fails, and the rows the driver did not get
+ * to execute are executed one by one. Events processed inside a transaction, or
+ * returning auto generated keys, are always updated on their own.
  */
-public class UpdateMessageProcessor extends AbstractSingleQueryDbMessageProcessor
+public class UpdateMessageProcessor extends AbstractSingleQueryDbMessageProcessor implements Disposable
 {
 
+    public static final long DEFAULT_BATCH_TIMEOUT = 10;
+
     private AutoGeneratedKeyStrategy autoGeneratedKeyStrategy;
     private final QueryExecutorFactory queryExecutorFactory;
     private final List<QueryType> validQueryTypes;
+    private int batchSize;
+    private long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+    private BulkQueryExecutorFactory bulkQueryExecutorFactory;
+    private UpdateMicroBatcher microBatcher;
 
     public UpdateMessageProcessor(DbConfigResolver dbConfigResolver, QueryResolver queryResolver, QueryExecutorFactory queryExecutorFactory, TransactionalAction transactionalAction, List<QueryType> validQueryTypes)
     {
@@ -46,6 +78,201 @@ public class UpdateMessageProcessor extends AbstractSingleQueryDbMessageProcesso
         this.autoGeneratedKeyStrategy = new NoAutoGeneratedKeyStrategy();
     }
 
+    @Override
+    public void initialise() throws InitialisationException
+    {
+        super.initialise();
+
+        if (batchSize > 1)
+        {
+            if (bulkQueryExecutorFactory == null)
+            {
+                throw new InitialisationException(MessageFactory.createStaticMessage("Batch updates require a bulk query executor factory"), this);
+            }
+            microBatcher = new UpdateMicroBatcher(this, "db.update.batch", batchSize, batchTimeout);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (microBatcher != null)
+        {
+            microBatcher.dispose();
+            microBatcher = null;
+        }
+    }
+
+    @Override
+    public MuleEvent process(MuleEvent muleEvent) throws MuleException
+    {
+        if (microBatcher == null || !canBatch())
+        {
+            return super.process(muleEvent);
+        }
+
+        DbConfig dbConfig = dbConfigResolver.resolve(muleEvent);
+
+        try
+        {
+            Object result = microBatcher.execute(dbConfig, resolveSource(muleEvent));
+
+            setResult(muleEvent, result);
+
+            return processNext(muleEvent);
+        }
+        catch (SQLException e)
+        {
+            throw new MessagingException(muleEvent, e);
+        }
+    }
+
+    private boolean canBatch()
+    {
+        return getTransactionalAction() != TransactionalAction.ALWAYS_JOIN
+               && TransactionCoordination.getInstance().getTransaction() == null
+               && !autoGeneratedKeyStrategy.returnsAutoGeneratedKeys();
+    }
+
+    /**
+     * Executes a batch of updates using a single connection. Updates using the same
+     * parameterized query are executed as a JDBC batch, the rest are executed one by one.
+     */
+    void executeBatch(DbConfig dbConfig, List<PendingUpdate> updates) throws SQLException
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(getTransactionalAction());
+
+        try
+        {
+            Map<String, List<PendingUpdate>> updatesBySql = new LinkedHashMap<String, List<PendingUpdate>>();
+            for (PendingUpdate update : updates)
+            {
+                try
+                {
+                    Query query = resolveQuery(connection, update.getMuleEvent());
+                    update.setQuery(query);
+
+                    String sql = query.getQueryTemplate().getSqlText();
+                    List<PendingUpdate> sqlUpdates = updatesBySql.get(sql);
+                    if (sqlUpdates == null)
+                    {
+                        sqlUpdates = new ArrayList<PendingUpdate>();
+                        updatesBySql.put(sql, sqlUpdates);
+                    }
+                    sqlUpdates.add(update);
+                }
+                catch (RuntimeException e)
+                {
+                    update.fail(e);
+                }
+            }
+
+            for (List<PendingUpdate> sqlUpdates : updatesBySql.values())
+            {
+                if (sqlUpdates.size() > 1 && isBatchable(sqlUpdates.get(0).getQuery().getQueryTemplate()))
+                {
+                    executeBulkUpdate(connection, sqlUpdates);
+                }
+                else
+                {
+                    for (PendingUpdate update : sqlUpdates)
+                    {
+                        executeSingleUpdate(connection, update);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            dbConfig.getConnectionFactory().releaseConnection(connection);
+        }
+    }
+
+    private boolean isBatchable(QueryTemplate queryTemplate)
+    {
+        return !queryTemplate.getInputParams().isEmpty() && queryTemplate.getOutputParams().isEmpty();
+    }
+
+    private void executeBulkUpdate(DbConnection connection, List<PendingUpdate> updates)
+    {
+        List<List<QueryParamValue>> paramValues = new ArrayList<List<QueryParamValue>>(updates.size());
+        for (PendingUpdate update : updates)
+        {
+            paramValues.add(update.getQuery().getParamValues());
+        }
+
+        try
+        {
+            BulkExecutor bulkExecutor = bulkQueryExecutorFactory.create();
+            int[] updateCounts = (int[]) bulkExecutor.execute(connection, updates.get(0).getQuery(), paramValues);
+
+            for (int i = 0; i < updates.size(); i++)
+            {
+                // SUCCESS_NO_INFO is a successful update too
+                updates.get(i).complete(updateCounts[i]);
+            }
+        }
+        catch (BatchUpdateException e)
+        {
+            // Depending on the driver, the batch either goes on after a failed row, reporting it as
+            // EXECUTE_FAILED, or stops at the first failed row, which is the one after the reported counts
+            int[] updateCounts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+            for (int i = 0; i < updates.size(); i++)
+            {
+                if (i < updateCounts.length)
+                {
+                    if (updateCounts[i] == Statement.EXECUTE_FAILED)
+                    {
+                        updates.get(i).fail(e);
+                    }
+                    else
+                    {
+                        updates.get(i).complete(updateCounts[i]);
+                    }
+                }
+                else if (i == updateCounts.length)
+                {
+                    updates.get(i).fail(e);
+                }
+                else
+                {
+                    // Never executed, it must not fail because of another row
+                    executeSingleUpdate(connection, updates.get(i));
+                }
+            }
+        }
+        catch (SQLException e)
+        {
+            for (PendingUpdate update : updates)
+            {
+                update.fail(e);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            for (PendingUpdate update : updates)
+            {
+                update.fail(e);
+            }
+        }
+    }
+
+    private void executeSingleUpdate(DbConnection connection, PendingUpdate update)
+    {
+        try
+        {
+            update.complete(doExecuteQuery(connection, update.getQuery()));
+        }
+        catch (SQLException e)
+        {
+            update.fail(e);
+        }
+        catch (RuntimeException e)
+        {
+            update.fail(e);
+        }
+    }
+
     @Override
     protected List<QueryType> getValidQueryTypes()
     {
@@ -68,4 +295,29 @@ public class UpdateMessageProcessor extends AbstractSingleQueryDbMessageProcesso
     {
         this.autoGeneratedKeyStrategy = autoGeneratedKeyStrategy;
     }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout()
+    {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout)
+    {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public void setBulkQueryExecutorFactory(BulkQueryExecutorFactory bulkQueryExecutorFactory)
+    {
+        this.bulkQueryExecutorFactory = bulkQueryExecutorFactory;
+    }
 }
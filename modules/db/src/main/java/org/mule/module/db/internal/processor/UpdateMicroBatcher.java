@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.processor;
+
+import org.mule.api.MuleEvent;
+import org.mule.module.db.internal.domain.database.DbConfig;
+import org.mule.module.db.internal.domain.query.Query;
+import org.mule.util.concurrent.NamedThreadFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers the updates of concurrent events processed by an {@link UpdateMessageProcessor}
+ * so they are executed together, using a single connection, instead of one at a time.
+ * <p/>
+ * Updates are grouped per database config. A group is executed by the thread that
+ * completes it once it reaches the batch size, or by a timer thread once the batch
+ * timeout elapses since its first update was added. In both cases the threads that
+ * submitted the updates wait for their own result.
+ */
+class UpdateMicroBatcher
+{
+
+    private final UpdateMessageProcessor processor;
+    private final int batchSize;
+    private final long batchTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final Map<DbConfig, Batch> batches = new HashMap<DbConfig, Batch>();
+    private boolean disposed;
+
+    UpdateMicroBatcher(UpdateMessageProcessor processor, String name, int batchSize, long batchTimeout)
+    {
+        this.processor = processor;
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name, Thread.currentThread().getContextClassLoader()));
+    }
+
+    /**
+     * Adds an update to the current batch of a database and waits until it is executed
+     *
+     * @param dbConfig database where the update must be executed
+     * @param muleEvent event used to resolve the update query
+     * @return the update count of the event's update
+     * @throws SQLException if the update cannot be executed
+     */
+    Object execute(DbConfig dbConfig, MuleEvent muleEvent) throws SQLException
+    {
+        PendingUpdate update = new PendingUpdate(muleEvent);
+        Batch completedBatch = null;
+
+        synchronized (this)
+        {
+            if (disposed)
+            {
+                throw new IllegalStateException("Update batcher is already disposed");
+            }
+
+            Batch batch = batches.get(dbConfig);
+            if (batch == null)
+            {
+                batch = new Batch(dbConfig);
+                batches.put(dbConfig, batch);
+                batch.timeout = scheduler.schedule(new FlushTask(batch), batchTimeout, TimeUnit.MILLISECONDS);
+            }
+
+            batch.updates.add(update);
+
+            if (batch.updates.size() >= batchSize)
+            {
+                batches.remove(dbConfig);
+                batch.timeout.cancel(false);
+                completedBatch = batch;
+            }
+        }
+
+        if (completedBatch != null)
+        {
+            flush(completedBatch);
+        }
+
+        return update.getResult();
+    }
+
+    /**
+     * Executes the pending batches and stops the timer thread
+     */
+    void dispose()
+    {
+        List<Batch> pendingBatches;
+        synchronized (this)
+        {
+            disposed = true;
+            pendingBatches = new ArrayList<Batch>(batches.values());
+            batches.clear();
+        }
+
+        for (Batch batch : pendingBatches)
+        {
+            batch.timeout.cancel(false);
+            flush(batch);
+        }
+
+        scheduler.shutdownNow();
+    }
+
+    private void flush(Batch batch)
+    {
+        try
+        {
+            processor.executeBatch(batch.dbConfig, batch.updates);
+        }
+        catch (SQLException e)
+        {
+            failAll(batch.updates, e);
+        }
+        catch (RuntimeException e)
+        {
+            failAll(batch.updates, e);
+        }
+        finally
+        {
+            failAll(batch.updates, new IllegalStateException("Update was not executed"));
+        }
+    }
+
+    private void failAll(List<PendingUpdate> updates, Exception e)
+    {
+        for (PendingUpdate update : updates)
+        {
+            update.fail(e);
+        }
+    }
+
+    private class FlushTask implements Runnable
+    {
+
+        private final Batch batch;
+
+        FlushTask(Batch batch)
+        {
+            this.batch = batch;
+        }
+
+        @Override
+        public void run()
+        {
+            synchronized (UpdateMicroBatcher.this)
+            {
+                if (batches.get(batch.dbConfig) != batch)
+                {
+                    // Already executed because it got full
+                    return;
+                }
+                batches.remove(batch.dbConfig);
+            }
+
+            flush(batch);
+        }
+    }
+
+    private static class Batch
+    {
+
+        private final DbConfig dbConfig;
+        private final List<PendingUpdate> updates = new ArrayList<PendingUpdate>();
+        private ScheduledFuture<?> timeout;
+
+        Batch(DbConfig dbConfig)
+        {
+            this.dbConfig = dbConfig;
+        }
+    }
+
+    /**
+     * An update waiting to be executed as part of a batch
+     */
+    static class PendingUpdate
+    {
+
+        private final MuleEvent muleEvent;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Query query;
+        private Object result;
+        private Exception exception;
+
+        PendingUpdate(MuleEvent muleEvent)
+        {
+            this.muleEvent = muleEvent;
+        }
+
+        MuleEvent getMuleEvent()
+        {
+            return muleEvent;
+        }
+
+        Query getQuery()
+        {
+            return query;
+        }
+
+        void setQuery(Query query)
+        {
+            this.query = query;
+        }
+
+        boolean isDone()
+        {
+            return done.getCount() == 0;
+        }
+
+        synchronized void complete(Object result)
+        {
+            if (!isDone())
+            {
+                this.result = result;
+                done.countDown();
+            }
+        }
+
+        synchronized void fail(Exception exception)
+        {
+            if (!isDone())
+            {
+                this.exception = exception;
+                done.countDown();
+            }
+        }
+
+        Object getResult() throws SQLException
+        {
+            try
+            {
+                done.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the batch update to complete", e);
+            }
+
+            synchronized (this)
+            {
+                if (exception instanceof SQLException)
+                {
+                    throw (SQLException) exception;
+                }
+                else if (exception instanceof RuntimeException)
+                {
+                    throw (RuntimeException) exception;
+                }
+
+                return result;
+            }
+        }
+    }
+}
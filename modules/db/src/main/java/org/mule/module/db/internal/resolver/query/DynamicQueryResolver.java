@@ -14,23 +14,38 @@ import org.mule.module.db.internal.domain.query.Query;
 import org.mule.module.db.internal.domain.query.QueryParamValue;
 import org.mule.module.db.internal.domain.query.QueryTemplate;
 import org.mule.module.db.internal.parser.QueryTemplateParser;
+import org.mule.module.db.internal.resolver.database.DbConfigResolver;
 
 import java.util.Collections;
 
 /**
- * Resolves a dynamic query evaluating expressions using a given event
+ * Resolves a dynamic query evaluating expressions using a given event.
+ * <p/>
+ * When created with a {@link DbConfigResolver}, the resolved SQL text is parsed with
+ * the parser of the database config, which caches the templates of the queries
+ * already parsed.
  */
 public class DynamicQueryResolver implements QueryResolver
 {
 
     private final Query query;
     private final QueryTemplateParser queryTemplateParser;
+    private final DbConfigResolver dbConfigResolver;
     private final ExpressionManager expressionManager;
 
     public DynamicQueryResolver(Query query, QueryTemplateParser queryTemplateParser, ExpressionManager expressionManager)
     {
         this.query = query;
         this.queryTemplateParser = queryTemplateParser;
+        this.dbConfigResolver = null;
+        this.expressionManager = expressionManager;
+    }
+
+    public DynamicQueryResolver(Query query, DbConfigResolver dbConfigResolver, ExpressionManager expressionManager)
+    {
+        this.query = query;
+        this.queryTemplateParser = null;
+        this.dbConfigResolver = dbConfigResolver;
         this.expressionManager = expressionManager;
     }
 
@@ -41,7 +56,7 @@ public class DynamicQueryResolver implements QueryResolver
         {
             QueryTemplate queryTemplate = query.getQueryTemplate();
             String resolvedSqlText = expressionManager.parse(queryTemplate.getSqlText(), muleEvent);
-            queryTemplate = queryTemplateParser.parse(resolvedSqlText);
+            queryTemplate = getQueryTemplateParser(muleEvent).parse(resolvedSqlText);
 
             return new Query(queryTemplate, Collections.<QueryParamValue>emptyList());
         }
@@ -50,4 +65,14 @@ public class DynamicQueryResolver implements QueryResolver
             throw new QueryResolutionException("Error parsing query", e);
         }
     }
+
+    private QueryTemplateParser getQueryTemplateParser(MuleEvent muleEvent)
+    {
+        if (dbConfigResolver != null)
+        {
+            return dbConfigResolver.resolve(muleEvent).getQueryTemplateParser();
+        }
+
+        return queryTemplateParser;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.resultset;
+
+import org.mule.api.Closeable;
+import org.mule.api.MuleException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates a {@link ResultSetIterator} returning its rows in chunks, so downstream
+ * processing (foreach, batch) can handle a group of rows at a time while the
+ * resultSet is still streamed. Every chunk contains <code>chunkSize</code> rows except
+ * the last one, which may contain less.
+ */
+public class ChunkedResultSetIterator implements Iterator<List<Map<String, Object>>>, Closeable
+{
+
+    private final ResultSetIterator rows;
+    private final int chunkSize;
+
+    public ChunkedResultSetIterator(ResultSetIterator rows, int chunkSize)
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("Chunk size must be greater than zero, but was " + chunkSize);
+        }
+        this.rows = rows;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return rows.hasNext();
+    }
+
+    @Override
+    public List<Map<String, Object>> next()
+    {
+        if (!rows.hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+
+        List<Map<String, Object>> chunk = new ArrayList<Map<String, Object>>(chunkSize);
+        while (chunk.size() < chunkSize && rows.hasNext())
+        {
+            chunk.add(rows.next());
+        }
+
+        return chunk;
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws MuleException
+    {
+        rows.close();
+    }
+}
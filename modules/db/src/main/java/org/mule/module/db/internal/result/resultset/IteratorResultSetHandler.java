@@ -9,23 +9,42 @@ package org.mule.module.db.internal.result.resultset;
 
 import org.mule.module.db.internal.domain.connection.DbConnection;
 import org.mule.module.db.internal.result.row.RowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
 import org.mule.module.db.internal.result.statement.StatementStreamingResultSetCloser;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
- * Processes a {@link ResultSet} returning an iterator of maps
+ * Processes a {@link ResultSet} returning an iterator of maps, or an iterator of
+ * lists of maps when a chunk size is configured
  */
 public class IteratorResultSetHandler implements ResultSetHandler
 {
 
-    private final RowHandler rowHandler;
+    private final RowHandlerFactory rowHandlerFactory;
+    private final int chunkSize;
     private StatementStreamingResultSetCloser streamingResultSetCloser = new StatementStreamingResultSetCloser();
 
     public IteratorResultSetHandler(RowHandler rowHandler)
     {
-        this.rowHandler = rowHandler;
+        this(new SharedRowHandlerFactory(rowHandler), 0);
+    }
+
+    /**
+     * @param rowHandlerFactory creates the row handler used for each resultSet
+     * @param chunkSize number of rows returned on each iteration. When zero rows are
+     * returned one at a time instead of in lists
+     */
+    public IteratorResultSetHandler(RowHandlerFactory rowHandlerFactory, int chunkSize)
+    {
+        if (chunkSize < 0)
+        {
+            throw new IllegalArgumentException("Chunk size cannot be negative, but was " + chunkSize);
+        }
+        this.rowHandlerFactory = rowHandlerFactory;
+        this.chunkSize = chunkSize;
     }
 
     @Override
@@ -33,6 +52,8 @@ public class IteratorResultSetHandler implements ResultSetHandler
     {
         streamingResultSetCloser.trackResultSet(connection, resultSet);
 
-        return new ResultSetIterator(connection, resultSet, rowHandler, streamingResultSetCloser);
+        ResultSetIterator iterator = new ResultSetIterator(connection, resultSet, rowHandlerFactory.create(), streamingResultSetCloser);
+
+        return chunkSize == 0 ? iterator : new ChunkedResultSetIterator(iterator, chunkSize);
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.io.Serializable;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable mapping between the column labels of a result set and their indexes,
+ * resolved once from the result set metadata and shared by all the
+ * {@link ColumnarRow}s read from it. Labels are matched ignoring case.
+ */
+public class ColumnDictionary implements Serializable
+{
+
+    private static final long serialVersionUID = 3407856412931735312L;
+
+    private final String[] labels;
+    private final Map<String, Integer> indexes;
+    private final Map<String, Integer> insensitiveIndexes;
+
+    private ColumnDictionary(String[] labels)
+    {
+        this.labels = labels;
+        this.indexes = new HashMap<String, Integer>(labels.length * 2);
+        this.insensitiveIndexes = new HashMap<String, Integer>(labels.length * 2);
+
+        for (int i = 0; i < labels.length; i++)
+        {
+            indexes.put(labels[i], i);
+            if (insensitiveIndexes.put(toInsensitiveKey(labels[i]), i) != null)
+            {
+                throw new IllegalArgumentException("Record cannot be mapped as it contains multiple columns with the same label. Define column aliases to solve this problem");
+            }
+        }
+    }
+
+    /**
+     * Creates a dictionary with the column labels of a result set
+     *
+     * @param metaData metadata of the result set. Non null
+     * @return a non null dictionary
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if two columns have the same label
+     */
+    public static ColumnDictionary create(ResultSetMetaData metaData) throws SQLException
+    {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++)
+        {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+
+        return new ColumnDictionary(labels);
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int size()
+    {
+        return labels.length;
+    }
+
+    /**
+     * @param index zero based index of the column
+     * @return the label of the column
+     */
+    public String getLabel(int index)
+    {
+        return labels[index];
+    }
+
+    /**
+     * @param label label of the column, in any case
+     * @return the zero based index of the column, or -1 if there is no column with that label
+     */
+    public int indexOf(Object label)
+    {
+        if (!(label instanceof String))
+        {
+            return -1;
+        }
+
+        Integer index = indexes.get(label);
+        if (index == null)
+        {
+            index = insensitiveIndexes.get(toInsensitiveKey((String) label));
+        }
+
+        return index == null ? -1 : index;
+    }
+
+    private static String toInsensitiveKey(String label)
+    {
+        return label.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of a result set stored as an array with the value of each column, seen as a
+ * map keyed by the column labels of a shared {@link ColumnDictionary}.
+ * <p/>
+ * Keys are matched ignoring case and iterated in the column order. Values of existing
+ * columns can be replaced but columns cannot be added or removed.
+ */
+public class ColumnarRow extends AbstractMap<String, Object> implements Serializable
+{
+
+    private static final long serialVersionUID = -5381573029853412476L;
+
+    private final ColumnDictionary columns;
+    private final Object[] values;
+
+    public ColumnarRow(ColumnDictionary columns, Object[] values)
+    {
+        if (columns.size() != values.length)
+        {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but got " + values.length);
+        }
+        this.columns = columns;
+        this.values = values;
+    }
+
+    @Override
+    public int size()
+    {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return columns.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        int index = columns.indexOf(key);
+
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+        int index = columns.indexOf(key);
+        if (index < 0)
+        {
+            throw new UnsupportedOperationException("Cannot add column '" + key + "' to a columnar row");
+        }
+
+        Object previous = values[index];
+        values[index] = value;
+
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet()
+    {
+        return new AbstractSet<Entry<String, Object>>()
+        {
+            @Override
+            public Iterator<Entry<String, Object>> iterator()
+            {
+                return new Iterator<Entry<String, Object>>()
+                {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next()
+                    {
+                        if (!hasNext())
+                        {
+                            throw new NoSuchElementException();
+                        }
+
+                        return new ColumnEntry(index++);
+                    }
+
+                    @Override
+                    public void remove()
+                    {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return values.length;
+            }
+        };
+    }
+
+    private class ColumnEntry implements Entry<String, Object>
+    {
+
+        private final int index;
+
+        ColumnEntry(int index)
+        {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return columns.getLabel(index);
+        }
+
+        @Override
+        public Object getValue()
+        {
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(Object value)
+        {
+            Object previous = values[index];
+            values[index] = value;
+
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Entry))
+            {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+
+            return eq(getKey(), other.getKey()) && eq(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (getKey() == null ? 0 : getKey().hashCode()) ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+
+        private boolean eq(Object o1, Object o2)
+        {
+            return o1 == null ? o2 == null : o1.equals(o2);
+        }
+    }
+}
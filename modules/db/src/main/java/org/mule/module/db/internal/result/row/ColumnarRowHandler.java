@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.util.Map;
+
+/**
+ * Maps the rows of a single resultSet as {@link ColumnarRow}s. Column metadata is
+ * resolved when the first row is processed and the resulting {@link ColumnDictionary}
+ * is shared by all the rows, so each row only holds its values.
+ * <p/>
+ * Instances are bound to the first resultSet they process, use a
+ * {@link ColumnarRowHandlerFactory} to get a new one for each resultSet.
+ */
+public class ColumnarRowHandler implements RowHandler
+{
+
+    private ColumnDictionary columns;
+
+    @Override
+    public Map<String, Object> process(ResultSet resultSet) throws SQLException
+    {
+        if (columns == null)
+        {
+            columns = ColumnDictionary.create(resultSet.getMetaData());
+        }
+
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++)
+        {
+            Object value = resultSet.getObject(i + 1);
+
+            if (value instanceof SQLXML)
+            {
+                value = ((SQLXML) value).getString();
+            }
+
+            values[i] = value;
+        }
+
+        return new ColumnarRow(columns, values);
+    }
+}
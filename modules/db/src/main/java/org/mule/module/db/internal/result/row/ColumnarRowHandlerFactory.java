@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+/**
+ * Creates a new {@link ColumnarRowHandler} for each resultSet
+ */
+public class ColumnarRowHandlerFactory implements RowHandlerFactory
+{
+
+    @Override
+    public RowHandler create()
+    {
+        return new ColumnarRowHandler();
+    }
+}
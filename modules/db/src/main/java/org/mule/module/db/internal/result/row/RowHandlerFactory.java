@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.sql.ResultSet;
+
+/**
+ * Creates the {@link RowHandler} used to process the rows of a given {@link ResultSet}
+ */
+public interface RowHandlerFactory
+{
+
+    /**
+     * Creates a row handler
+     *
+     * @return a non null row handler to process all the rows of a single resultSet
+     */
+    RowHandler create();
+}
@@ -46,4 +46,15 @@ public class BulkExecuteSourceTestCase extends AbstractBulkExecuteTestCase
 
         assertBulkModeResult(response.getPayload());
     }
+
+    @Test
+    public void executesSameDynamicBulkQueryRepeatedly() throws Exception
+    {
+        LocalMuleClient client = muleContext.getClient();
+
+        client.send("vm://bulkUpdateCustomSource", TEST_MESSAGE, null);
+        MuleMessage response = client.send("vm://bulkUpdateCustomSource", TEST_MESSAGE, null);
+
+        assertBulkModeResult(response.getPayload());
+    }
 }
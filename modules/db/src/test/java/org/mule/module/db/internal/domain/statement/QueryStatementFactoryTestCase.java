@@ -13,12 +13,14 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.mule.module.db.internal.domain.connection.DbConnection;
 import org.mule.module.db.internal.domain.param.QueryParam;
+import org.mule.module.db.internal.domain.query.CachedQueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryType;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
 import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.Collections;
 
@@ -43,4 +45,19 @@ public class QueryStatementFactoryTestCase extends AbstractMuleTestCase
 
         assertThat(statement, is(createdStatement));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void preparesCachedTemplatesWithoutParameters() throws Exception
+    {
+        String sqlText = "select * from PLANET where name = 'Mars'";
+        PreparedStatement createdStatement = mock(PreparedStatement.class);
+        DbConnection connection = mock(DbConnection.class);
+        when(connection.prepareStatement(sqlText)).thenReturn(createdStatement);
+
+        QueryStatementFactory factory = new QueryStatementFactory();
+        QueryTemplate queryTemplate = new CachedQueryTemplate(new QueryTemplate(sqlText, QueryType.SELECT, Collections.<QueryParam>emptyList()));
+        PreparedStatement statement = (PreparedStatement) factory.create(connection, queryTemplate);
+
+        assertThat(statement, is(createdStatement));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.parser;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.module.db.internal.domain.param.QueryParam;
+import org.mule.module.db.internal.domain.query.CachedQueryTemplate;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
+import org.mule.module.db.internal.domain.query.QueryType;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+@SmallTest
+public class CachedQueryTemplateParserTestCase extends AbstractMuleTestCase
+{
+
+    private static final String SQL_TEXT = "select * from PLANET where name = 'Mars'";
+    private static final String OTHER_SQL_TEXT = "select * from PLANET where name = 'Venus'";
+
+    private final QueryTemplateParser delegate = mock(QueryTemplateParser.class);
+
+    @Test
+    public void parsesEachSqlTextOnce() throws Exception
+    {
+        when(delegate.parse(SQL_TEXT)).thenReturn(createQueryTemplate(SQL_TEXT));
+        CachedQueryTemplateParser parser = new CachedQueryTemplateParser(delegate, 10);
+
+        QueryTemplate queryTemplate = parser.parse(SQL_TEXT);
+
+        assertThat(queryTemplate, instanceOf(CachedQueryTemplate.class));
+        assertThat(queryTemplate.getSqlText(), equalTo(SQL_TEXT));
+        assertThat(parser.parse(SQL_TEXT), sameInstance(queryTemplate));
+        verify(delegate, times(1)).parse(SQL_TEXT);
+        assertThat(parser.getHitCount(), equalTo(1L));
+        assertThat(parser.getMissCount(), equalTo(1L));
+        assertThat(parser.getHitRate(), equalTo(0.5));
+    }
+
+    @Test
+    public void evictsTemplatesWhenFull() throws Exception
+    {
+        when(delegate.parse(SQL_TEXT)).thenReturn(createQueryTemplate(SQL_TEXT));
+        when(delegate.parse(OTHER_SQL_TEXT)).thenReturn(createQueryTemplate(OTHER_SQL_TEXT));
+        CachedQueryTemplateParser parser = new CachedQueryTemplateParser(delegate, 1);
+
+        parser.parse(SQL_TEXT);
+        parser.parse(OTHER_SQL_TEXT);
+        parser.parse(SQL_TEXT);
+
+        verify(delegate, times(2)).parse(SQL_TEXT);
+        assertThat(parser.getSize(), equalTo(1L));
+        assertThat(parser.getEvictionCount(), equalTo(2L));
+    }
+
+    @Test(expected = QueryTemplateParsingException.class)
+    public void propagatesParsingErrors() throws Exception
+    {
+        when(delegate.parse(SQL_TEXT)).thenThrow(new QueryTemplateParsingException("Parse error"));
+        CachedQueryTemplateParser parser = new CachedQueryTemplateParser(delegate, 10);
+
+        parser.parse(SQL_TEXT);
+    }
+
+    @Test
+    public void clearsCounters() throws Exception
+    {
+        when(delegate.parse(SQL_TEXT)).thenReturn(createQueryTemplate(SQL_TEXT));
+        CachedQueryTemplateParser parser = new CachedQueryTemplateParser(delegate, 10);
+        parser.parse(SQL_TEXT);
+        parser.parse(SQL_TEXT);
+
+        parser.clear();
+
+        assertThat(parser.getHitCount(), equalTo(0L));
+        assertThat(parser.getMissCount(), equalTo(0L));
+        assertThat(parser.getSize(), equalTo(1L));
+    }
+
+    private QueryTemplate createQueryTemplate(String sqlText)
+    {
+        return new QueryTemplate(sqlText, QueryType.SELECT, Collections.<QueryParam>emptyList());
+    }
+}
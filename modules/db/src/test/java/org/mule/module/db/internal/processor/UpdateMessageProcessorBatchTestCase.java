@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.processor;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.api.MessagingException;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleMessage;
+import org.mule.module.db.internal.domain.autogeneratedkey.AutoGeneratedKeyStrategy;
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.connection.DbConnectionFactory;
+import org.mule.module.db.internal.domain.database.DbConfig;
+import org.mule.module.db.internal.domain.executor.BulkExecutor;
+import org.mule.module.db.internal.domain.executor.BulkQueryExecutorFactory;
+import org.mule.module.db.internal.domain.executor.QueryExecutor;
+import org.mule.module.db.internal.domain.executor.QueryExecutorFactory;
+import org.mule.module.db.internal.domain.param.DefaultInputQueryParam;
+import org.mule.module.db.internal.domain.param.QueryParam;
+import org.mule.module.db.internal.domain.query.Query;
+import org.mule.module.db.internal.domain.query.QueryParamValue;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
+import org.mule.module.db.internal.domain.query.QueryType;
+import org.mule.module.db.internal.domain.transaction.TransactionalAction;
+import org.mule.module.db.internal.domain.type.UnknownDbType;
+import org.mule.module.db.internal.resolver.database.DbConfigResolver;
+import org.mule.module.db.internal.resolver.query.QueryResolver;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+@SmallTest
+public class UpdateMessageProcessorBatchTestCase extends AbstractMuleTestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private final DbConnection connection = mock(DbConnection.class);
+    private final DbConnectionFactory connectionFactory = mock(DbConnectionFactory.class);
+    private final DbConfigResolver dbConfigResolver = mock(DbConfigResolver.class);
+    private final QueryResolver queryResolver = mock(QueryResolver.class);
+    private final QueryExecutor queryExecutor = mock(QueryExecutor.class);
+    private final BulkExecutor bulkExecutor = mock(BulkExecutor.class);
+    private final QueryTemplate queryTemplate = new QueryTemplate("UPDATE PLANET SET POSITION = 0 WHERE ID = ?", QueryType.UPDATE,
+                                                                  Collections.<QueryParam>singletonList(new DefaultInputQueryParam(1, UnknownDbType.getInstance(), null)));
+    private UpdateMessageProcessor processor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        DbConfig dbConfig = mock(DbConfig.class);
+        when(dbConfig.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.createConnection(TransactionalAction.JOIN_IF_POSSIBLE)).thenReturn(connection);
+        when(dbConfigResolver.resolve(any(MuleEvent.class))).thenReturn(dbConfig);
+
+        when(queryResolver.resolve(eq(connection), any(MuleEvent.class))).thenAnswer(new Answer<Query>()
+        {
+            @Override
+            public Query answer(InvocationOnMock invocation) throws Throwable
+            {
+                MuleEvent event = (MuleEvent) invocation.getArguments()[1];
+                Object id = event.getMessage().getPayload();
+
+                return new Query(queryTemplate, Collections.singletonList(new QueryParamValue(null, id)));
+            }
+        });
+
+        QueryExecutorFactory queryExecutorFactory = mock(QueryExecutorFactory.class);
+        when(queryExecutorFactory.create()).thenReturn(queryExecutor);
+        BulkQueryExecutorFactory bulkQueryExecutorFactory = mock(BulkQueryExecutorFactory.class);
+        when(bulkQueryExecutorFactory.create()).thenReturn(bulkExecutor);
+
+        processor = new UpdateMessageProcessor(dbConfigResolver, queryResolver, queryExecutorFactory, TransactionalAction.JOIN_IF_POSSIBLE, Collections.singletonList(QueryType.UPDATE));
+        processor.setBulkQueryExecutorFactory(bulkQueryExecutorFactory);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        processor.dispose();
+    }
+
+    @Test
+    public void executesConcurrentUpdatesInBatch() throws Exception
+    {
+        processor.setBatchSize(3);
+        processor.setBatchTimeout(TIMEOUT);
+        processor.initialise();
+
+        when(bulkExecutor.execute(eq(connection), any(Query.class), anyList())).thenAnswer(new Answer<int[]>()
+        {
+            @Override
+            public int[] answer(InvocationOnMock invocation) throws Throwable
+            {
+                // Each row updates as many records as its id
+                List<List<QueryParamValue>> paramValues = (List<List<QueryParamValue>>) invocation.getArguments()[2];
+                int[] updateCounts = new int[paramValues.size()];
+                for (int i = 0; i < updateCounts.length; i++)
+                {
+                    updateCounts[i] = (Integer) paramValues.get(i).get(0).getValue();
+                }
+
+                return updateCounts;
+            }
+        });
+
+        List<MuleMessage> messages = new ArrayList<MuleMessage>();
+        final CountDownLatch processed = new CountDownLatch(3);
+        for (int i = 1; i <= 3; i++)
+        {
+            final MuleEvent event = createEvent(i);
+            messages.add(event.getMessage());
+
+            new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        processor.process(event);
+                        processed.countDown();
+                    }
+                    catch (Exception e)
+                    {
+                        // Detected as the latch is not released
+                    }
+                }
+            }.start();
+        }
+
+        assertThat(processed.await(TIMEOUT, TimeUnit.MILLISECONDS), equalTo(true));
+        for (int i = 0; i < messages.size(); i++)
+        {
+            verify(messages.get(i)).setPayload(i + 1);
+        }
+        verify(bulkExecutor, times(1)).execute(eq(connection), any(Query.class), anyList());
+        verify(connectionFactory, times(1)).releaseConnection(connection);
+        verify(queryExecutor, never()).execute(any(DbConnection.class), any(Query.class), any(AutoGeneratedKeyStrategy.class));
+    }
+
+    @Test
+    public void executesRowsNotReachedByFailedBatchOneByOne() throws Exception
+    {
+        processor.setBatchSize(3);
+        processor.setBatchTimeout(TIMEOUT);
+        processor.initialise();
+
+        // The driver stops at the second row, so the third one is never executed
+        FailingBatchAnswer failingBatch = new FailingBatchAnswer(1);
+        when(bulkExecutor.execute(eq(connection), any(Query.class), anyList())).thenAnswer(failingBatch);
+        when(queryExecutor.execute(eq(connection), any(Query.class), any(AutoGeneratedKeyStrategy.class))).thenReturn(1);
+
+        List<MuleEvent> events = createEvents(3);
+        Exception[] failures = processConcurrently(events);
+
+        int executed = failingBatch.getRowEvent(0);
+        int failed = failingBatch.getRowEvent(1);
+        int notReached = failingBatch.getRowEvent(2);
+        assertThat(failures[executed], nullValue());
+        assertThat(failures[failed], instanceOf(MessagingException.class));
+        assertThat(failures[failed].getCause(), instanceOf(BatchUpdateException.class));
+        assertThat(failures[notReached], nullValue());
+        verify(events.get(executed).getMessage()).setPayload(1);
+        verify(events.get(failed).getMessage(), never()).setPayload(any());
+        verify(events.get(notReached).getMessage()).setPayload(1);
+        verify(queryExecutor, times(1)).execute(eq(connection), any(Query.class), any(AutoGeneratedKeyStrategy.class));
+    }
+
+    @Test
+    public void failsOnlyRowsReportedAsFailed() throws Exception
+    {
+        processor.setBatchSize(3);
+        processor.setBatchTimeout(TIMEOUT);
+        processor.initialise();
+
+        FailingBatchAnswer failingBatch = new FailingBatchAnswer(Statement.EXECUTE_FAILED, Statement.SUCCESS_NO_INFO, 1);
+        when(bulkExecutor.execute(eq(connection), any(Query.class), anyList())).thenAnswer(failingBatch);
+
+        List<MuleEvent> events = createEvents(3);
+        Exception[] failures = processConcurrently(events);
+
+        int failed = failingBatch.getRowEvent(0);
+        int noInfo = failingBatch.getRowEvent(1);
+        int updated = failingBatch.getRowEvent(2);
+        assertThat(failures[failed], instanceOf(MessagingException.class));
+        assertThat(failures[noInfo], nullValue());
+        assertThat(failures[updated], nullValue());
+        verify(events.get(noInfo).getMessage()).setPayload(Statement.SUCCESS_NO_INFO);
+        verify(events.get(updated).getMessage()).setPayload(1);
+        verify(queryExecutor, never()).execute(any(DbConnection.class), any(Query.class), any(AutoGeneratedKeyStrategy.class));
+    }
+
+    @Test
+    public void executesPartialBatchOnTimeout() throws Exception
+    {
+        processor.setBatchSize(10);
+        processor.setBatchTimeout(10);
+        processor.initialise();
+
+        when(queryExecutor.execute(eq(connection), any(Query.class), any(AutoGeneratedKeyStrategy.class))).thenReturn(1);
+        MuleEvent event = createEvent(1);
+
+        processor.process(event);
+
+        verify(event.getMessage()).setPayload(1);
+        verify(connectionFactory, times(1)).releaseConnection(connection);
+        verify(bulkExecutor, never()).execute(any(DbConnection.class), any(Query.class), anyList());
+    }
+
+    @Test
+    public void executesUpdateDirectlyWhenBatchingDisabled() throws Exception
+    {
+        processor.initialise();
+
+        when(queryExecutor.execute(eq(connection), any(Query.class), any(AutoGeneratedKeyStrategy.class))).thenReturn(1);
+        MuleEvent event = createEvent(1);
+
+        processor.process(event);
+
+        verify(event.getMessage()).setPayload(1);
+        verify(bulkExecutor, never()).execute(any(DbConnection.class), any(Query.class), anyList());
+    }
+
+    private List<MuleEvent> createEvents(int count)
+    {
+        List<MuleEvent> events = new ArrayList<MuleEvent>();
+        for (int i = 1; i <= count; i++)
+        {
+            events.add(createEvent(i));
+        }
+
+        return events;
+    }
+
+    /**
+     * Processes each event on its own thread and waits for all of them
+     *
+     * @return the exception thrown processing each event, null if it was processed
+     */
+    private Exception[] processConcurrently(List<MuleEvent> events) throws InterruptedException
+    {
+        final Exception[] failures = new Exception[events.size()];
+        final CountDownLatch processed = new CountDownLatch(events.size());
+        for (int i = 0; i < events.size(); i++)
+        {
+            final int index = i;
+            final MuleEvent event = events.get(i);
+
+            new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        processor.process(event);
+                    }
+                    catch (Exception e)
+                    {
+                        failures[index] = e;
+                    }
+                    finally
+                    {
+                        processed.countDown();
+                    }
+                }
+            }.start();
+        }
+
+        assertThat(processed.await(TIMEOUT, TimeUnit.MILLISECONDS), equalTo(true));
+
+        return failures;
+    }
+
+    /**
+     * Fails the batch with the given update counts, recording the order in which the events were batched
+     */
+    private static class FailingBatchAnswer implements Answer<int[]>
+    {
+
+        private final int[] updateCounts;
+        private final List<Integer> rowEvents = new ArrayList<Integer>();
+
+        FailingBatchAnswer(int... updateCounts)
+        {
+            this.updateCounts = updateCounts;
+        }
+
+        @Override
+        public int[] answer(InvocationOnMock invocation) throws Throwable
+        {
+            List<List<QueryParamValue>> paramValues = (List<List<QueryParamValue>>) invocation.getArguments()[2];
+            for (List<QueryParamValue> rowParamValues : paramValues)
+            {
+                rowEvents.add((Integer) rowParamValues.get(0).getValue() - 1);
+            }
+
+            throw new BatchUpdateException(updateCounts);
+        }
+
+        /**
+         * @return the index of the event batched in the given row
+         */
+        int getRowEvent(int row)
+        {
+            return rowEvents.get(row);
+        }
+    }
+
+    private MuleEvent createEvent(int id)
+    {
+        MuleEvent event = mock(MuleEvent.class);
+        MuleMessage message = mock(MuleMessage.class);
+        when(message.getPayload()).thenReturn(id);
+        when(event.getMessage()).thenReturn(message);
+
+        return event;
+    }
+}
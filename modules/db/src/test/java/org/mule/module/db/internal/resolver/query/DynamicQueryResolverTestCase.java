@@ -67,7 +67,7 @@ public class DynamicQueryResolverTestCase extends AbstractQueryResolverTestCase
         ExpressionManager expressionManager = mock(ExpressionManager.class);
         when(expressionManager.parse(DYNAMIC_SQL_TEXT, muleEvent)).thenThrow(new ExpressionRuntimeException(CoreMessages.createStaticMessage("Error")));
 
-        DynamicQueryResolver queryResolver = new DynamicQueryResolver(query, null, expressionManager);
+        DynamicQueryResolver queryResolver = new DynamicQueryResolver(query, (QueryTemplateParser) null, expressionManager);
 
         queryResolver.resolve(null, muleEvent);
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.result.resultset.ChunkedResultSetIterator;
+import org.mule.module.db.internal.result.resultset.ResultSetIterator;
+import org.mule.module.db.internal.result.resultset.StreamingResultSetCloser;
+import org.mule.module.db.internal.result.row.RowHandler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+@SmallTest
+public class ChunkedResultSetIteratorTestCase extends AbstractMuleTestCase
+{
+
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final RowHandler rowHandler = mock(RowHandler.class);
+    private final StreamingResultSetCloser streamingResultSetCloser = mock(StreamingResultSetCloser.class);
+    private final DbConnection connection = mock(DbConnection.class);
+    private final ChunkedResultSetIterator iterator = new ChunkedResultSetIterator(new ResultSetIterator(connection, resultSet, rowHandler, streamingResultSetCloser), 2);
+
+    @Test
+    public void returnsRowsInChunks() throws Exception
+    {
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(rowHandler.process(resultSet)).thenReturn(Collections.<String, Object>singletonMap("id", 1));
+
+        List<Map<String, Object>> first = iterator.next();
+        List<Map<String, Object>> last = iterator.next();
+
+        assertThat(first.size(), equalTo(2));
+        assertThat(last.size(), equalTo(1));
+        assertThat(iterator.hasNext(), equalTo(false));
+        verify(streamingResultSetCloser).close(connection, resultSet);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void failsWhenNoMoreRows() throws Exception
+    {
+        when(resultSet.next()).thenReturn(false);
+
+        iterator.next();
+    }
+
+    @Test
+    public void closesResultSet() throws Exception
+    {
+        iterator.close();
+
+        verify(streamingResultSetCloser).close(connection, resultSet);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidChunkSize() throws Exception
+    {
+        new ChunkedResultSetIterator(new ResultSetIterator(connection, resultSet, rowHandler, streamingResultSetCloser), 0);
+    }
+}
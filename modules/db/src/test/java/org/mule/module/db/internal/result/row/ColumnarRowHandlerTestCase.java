@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.module.db.test.util.ColumnMetadata;
+import org.mule.module.db.test.util.ResultSetBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+@SmallTest
+public class ColumnarRowHandlerTestCase extends AbstractMuleTestCase
+{
+
+    public static final String ID_COLUMN = "id";
+    public static final String NAME_COLUMN = "name";
+    public static final String NAME_LABEL = "planetName";
+
+    @Test
+    public void mapsRowsUsingColumnLabels() throws Exception
+    {
+        ResultSet resultSet = createResultSet(createRecord(1, "Venus"), createRecord(2, "Mars"));
+        ColumnarRowHandler rowHandler = new ColumnarRowHandler();
+
+        resultSet.next();
+        Map<String, Object> first = rowHandler.process(resultSet);
+        resultSet.next();
+        Map<String, Object> second = rowHandler.process(resultSet);
+
+        assertThat(first, equalTo(expectedRow(1, "Venus")));
+        assertThat(second, equalTo(expectedRow(2, "Mars")));
+        assertThat(new ArrayList<String>(second.keySet()), equalTo(Arrays.asList(ID_COLUMN, NAME_LABEL)));
+    }
+
+    @Test
+    public void sharesColumnDictionaryBetweenRows() throws Exception
+    {
+        ResultSet resultSet = createResultSet(createRecord(1, "Venus"), createRecord(2, "Mars"));
+        ColumnarRowHandler rowHandler = new ColumnarRowHandler();
+
+        resultSet.next();
+        Map<String, Object> first = rowHandler.process(resultSet);
+        resultSet.next();
+        Map<String, Object> second = rowHandler.process(resultSet);
+
+        assertThat(first.keySet().iterator().next(), sameInstance(second.keySet().iterator().next()));
+    }
+
+    @Test
+    public void looksUpColumnsIgnoringCase() throws Exception
+    {
+        ResultSet resultSet = createResultSet(createRecord(1, "Venus"));
+        resultSet.next();
+
+        Map<String, Object> row = new ColumnarRowHandler().process(resultSet);
+
+        assertThat(row.get("PLANETNAME"), equalTo((Object) "Venus"));
+        assertThat(row.containsKey("Id"), equalTo(true));
+        assertThat(row.get(NAME_COLUMN), nullValue());
+    }
+
+    @Test
+    public void replacesValueOfExistingColumn() throws Exception
+    {
+        ResultSet resultSet = createResultSet(createRecord(1, "Venus"));
+        resultSet.next();
+        Map<String, Object> row = new ColumnarRowHandler().process(resultSet);
+
+        Object previous = row.put("PLANETNAME", "Earth");
+
+        assertThat(previous, equalTo((Object) "Venus"));
+        assertThat(row.get(NAME_LABEL), equalTo((Object) "Earth"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void doesNotAddColumns() throws Exception
+    {
+        ResultSet resultSet = createResultSet(createRecord(1, "Venus"));
+        resultSet.next();
+        Map<String, Object> row = new ColumnarRowHandler().process(resultSet);
+
+        row.put("position", 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void detectColumnLabelDuplication() throws Exception
+    {
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>();
+        columns.add(new ColumnMetadata(ID_COLUMN, NAME_LABEL, 1));
+        columns.add(new ColumnMetadata(NAME_COLUMN, NAME_LABEL.toUpperCase(), 2));
+
+        ResultSet resultSet = new ResultSetBuilder(columns).with(createRecord(1, "Venus")).build();
+        resultSet.next();
+
+        new ColumnarRowHandler().process(resultSet);
+    }
+
+    private ResultSet createResultSet(Map<String, Object>... records)
+    {
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>();
+        columns.add(new ColumnMetadata(ID_COLUMN, ID_COLUMN, 1));
+        columns.add(new ColumnMetadata(NAME_COLUMN, NAME_LABEL, 2));
+
+        return new ResultSetBuilder(columns).with(Arrays.asList(records)).build();
+    }
+
+    private Map<String, Object> createRecord(int id, String name)
+    {
+        Map<String, Object> record = new HashMap<String, Object>();
+        record.put(ID_COLUMN, id);
+        record.put(NAME_COLUMN, name);
+
+        return record;
+    }
+
+    private Map<String, Object> expectedRow(int id, String name)
+    {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put(ID_COLUMN, id);
+        row.put(NAME_LABEL, name);
+
+        return row;
+    }
+}
@@ -221,26 +221,53 @@ public class HttpParser
     public static ParameterMap decodeUriParams(String pathWithUriParams, String requestPath)
     {
         ParameterMap uriParams = new ParameterMap();
-        if (pathWithUriParams.contains("{"))
+        if (pathWithUriParams.indexOf('{') != -1)
         {
-            final String[] requestPathParts = requestPath.split("/");
-            final String[] listenerPathParts = pathWithUriParams.split("/");
-            int longerPathSize = Math.min(requestPathParts.length, listenerPathParts.length);
-            //split will return an empty string as first path before /
-            for (int i = 1; i < longerPathSize; i++)
+            // trailing slashes do not add empty segments
+            final int listenerPathEnd = lengthWithoutTrailingSlashes(pathWithUriParams);
+            final int requestPathEnd = lengthWithoutTrailingSlashes(requestPath);
+            // the first segment is the one before the leading slash, so it's skipped
+            int listenerPartStart = nextPathPartStart(pathWithUriParams, 0, listenerPathEnd);
+            int requestPartStart = nextPathPartStart(requestPath, 0, requestPathEnd);
+            while (listenerPartStart != -1 && requestPartStart != -1)
             {
-                final String listenerPart = listenerPathParts[i];
-                if (listenerPart.startsWith("{") && listenerPart.endsWith("}"))
+                final int listenerPartEnd = pathPartEnd(pathWithUriParams, listenerPartStart, listenerPathEnd);
+                final int requestPartEnd = pathPartEnd(requestPath, requestPartStart, requestPathEnd);
+                if (listenerPartEnd - listenerPartStart >= 2 && pathWithUriParams.charAt(listenerPartStart) == '{' && pathWithUriParams.charAt(listenerPartEnd - 1) == '}')
                 {
-                    String parameterName = listenerPart.substring(1, listenerPart.length() - 1);
-                    String parameterValue = requestPathParts[i];
+                    String parameterName = pathWithUriParams.substring(listenerPartStart + 1, listenerPartEnd - 1);
+                    String parameterValue = requestPath.substring(requestPartStart, requestPartEnd);
                     uriParams.put(parameterName, decode(parameterValue, Charsets.UTF_8.displayName()));
                 }
+                listenerPartStart = nextPathPartStart(pathWithUriParams, listenerPartEnd, listenerPathEnd);
+                requestPartStart = nextPathPartStart(requestPath, requestPartEnd, requestPathEnd);
             }
         }
         return uriParams;
     }
 
+    private static int lengthWithoutTrailingSlashes(String path)
+    {
+        int length = path.length();
+        while (length > 0 && path.charAt(length - 1) == '/')
+        {
+            length--;
+        }
+        return length;
+    }
+
+    private static int nextPathPartStart(String path, int from, int pathEnd)
+    {
+        int slashIndex = path.indexOf('/', from);
+        return slashIndex == -1 || slashIndex >= pathEnd ? -1 : slashIndex + 1;
+    }
+
+    private static int pathPartEnd(String path, int partStart, int pathEnd)
+    {
+        int slashIndex = path.indexOf('/', partStart);
+        return slashIndex == -1 || slashIndex > pathEnd ? pathEnd : slashIndex;
+    }
+
     private static String decode(String text, String encoding)
     {
         if(text == null)
@@ -285,6 +312,10 @@ public class HttpParser
      */
     public static String normalizePathWithSpacesOrEncodedSpaces(String path)
     {
+        if (path.indexOf('%') == -1 && path.indexOf('+') == -1)
+        {
+            return path;
+        }
         return path.replaceAll(SPACE_ENTITY, WHITE_SPACE).replaceAll(PLUS_SIGN, WHITE_SPACE);
     }
 
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link InputStream} that compresses the content of another stream as it is read, so the content never
+ * needs to be fully buffered. Produces a gzip stream (RFC 1952) or a zlib stream (RFC 1950, the format of the
+ * deflate HTTP content coding).
+ */
+public class CompressingInputStream extends InputStream
+{
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] GZIP_HEADER = new byte[] {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final InputStream inputStream;
+    private final boolean gzip;
+    private final CompressionStatistics statistics;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] inputBuffer = new byte[BUFFER_SIZE];
+    private final byte[] singleByte = new byte[1];
+
+    private byte[] pending;
+    private int pendingOffset;
+    private boolean headerWritten;
+    private boolean trailerWritten;
+    private boolean closed;
+    private long compressedSize;
+    private long compressionNanos;
+
+    public CompressingInputStream(InputStream inputStream, boolean gzip, CompressionStatistics statistics)
+    {
+        this.inputStream = inputStream;
+        this.gzip = gzip;
+        this.statistics = statistics;
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (closed)
+        {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0)
+        {
+            return 0;
+        }
+        if (gzip && !headerWritten)
+        {
+            headerWritten = true;
+            setPending(GZIP_HEADER);
+        }
+        while (true)
+        {
+            if (pending != null)
+            {
+                return readPending(b, off, len);
+            }
+            if (!deflater.finished())
+            {
+                int read = deflate(b, off, len);
+                if (read > 0)
+                {
+                    return read;
+                }
+                if (!deflater.finished() && deflater.needsInput())
+                {
+                    fill();
+                }
+            }
+            else if (gzip && !trailerWritten)
+            {
+                trailerWritten = true;
+                setPending(createGzipTrailer());
+            }
+            else
+            {
+                return -1;
+            }
+        }
+    }
+
+    private int deflate(byte[] b, int off, int len)
+    {
+        long start = System.nanoTime();
+        int read = deflater.deflate(b, off, len);
+        compressionNanos += System.nanoTime() - start;
+        compressedSize += read;
+        if (deflater.finished())
+        {
+            finish();
+        }
+        return read;
+    }
+
+    private void fill() throws IOException
+    {
+        int read = inputStream.read(inputBuffer, 0, inputBuffer.length);
+        if (read == -1)
+        {
+            deflater.finish();
+        }
+        else if (read > 0)
+        {
+            crc.update(inputBuffer, 0, read);
+            deflater.setInput(inputBuffer, 0, read);
+        }
+    }
+
+    private void finish()
+    {
+        if (statistics != null)
+        {
+            long overhead = gzip ? GZIP_HEADER.length + GZIP_TRAILER_SIZE : 0;
+            statistics.record(deflater.getBytesRead(), compressedSize + overhead, compressionNanos);
+        }
+    }
+
+    private byte[] createGzipTrailer()
+    {
+        byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+        writeInt(trailer, 0, (int) crc.getValue());
+        writeInt(trailer, 4, (int) deflater.getBytesRead());
+        return trailer;
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value)
+    {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+        buffer[offset + 3] = (byte) (value >> 24);
+    }
+
+    private void setPending(byte[] bytes)
+    {
+        pending = bytes;
+        pendingOffset = 0;
+    }
+
+    private int readPending(byte[] b, int off, int len)
+    {
+        int read = Math.min(len, pending.length - pendingOffset);
+        System.arraycopy(pending, pendingOffset, b, off, read);
+        pendingOffset += read;
+        if (pendingOffset == pending.length)
+        {
+            pending = null;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!closed)
+        {
+            closed = true;
+            deflater.end();
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the amount of compressed content and the time spent compressing it.
+ */
+public class CompressionStatistics implements HttpCompressionStatisticsMBean
+{
+
+    private final AtomicLong compressedMessages = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong compressionTimeNanos = new AtomicLong();
+
+    void record(long uncompressedSize, long compressedSize, long nanos)
+    {
+        compressedMessages.incrementAndGet();
+        uncompressedBytes.addAndGet(uncompressedSize);
+        compressedBytes.addAndGet(compressedSize);
+        compressionTimeNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public long getCompressedMessages()
+    {
+        return compressedMessages.get();
+    }
+
+    @Override
+    public long getUncompressedBytes()
+    {
+        return uncompressedBytes.get();
+    }
+
+    @Override
+    public long getCompressedBytes()
+    {
+        return compressedBytes.get();
+    }
+
+    @Override
+    public double getCompressionRatio()
+    {
+        long uncompressed = uncompressedBytes.get();
+        return uncompressed == 0 ? 1 : (double) compressedBytes.get() / uncompressed;
+    }
+
+    @Override
+    public long getCompressionTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(compressionTimeNanos.get());
+    }
+
+    @Override
+    public long getAverageCompressionTime()
+    {
+        long messages = compressedMessages.get();
+        return messages == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(compressionTimeNanos.get() / messages);
+    }
+
+    @Override
+    public void clear()
+    {
+        compressedMessages.set(0);
+        uncompressedBytes.set(0);
+        compressedBytes.set(0);
+        compressionTimeNanos.set(0);
+    }
+}
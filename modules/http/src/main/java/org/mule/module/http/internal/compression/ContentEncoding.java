@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import org.mule.module.http.api.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content codings supported for compressing and decompressing HTTP message bodies.
+ */
+public enum ContentEncoding
+{
+    GZIP(HttpHeaders.Values.GZIP)
+    {
+        @Override
+        protected InputStream createDecompressingStream(InputStream inputStream) throws IOException
+        {
+            return new GZIPInputStream(inputStream);
+        }
+    },
+
+    DEFLATE(HttpHeaders.Values.DEFLATE)
+    {
+        @Override
+        protected InputStream createDecompressingStream(InputStream inputStream) throws IOException
+        {
+            return new InflaterInputStream(inputStream);
+        }
+    };
+
+    private static final String ANY_ENCODING = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+
+    private final String name;
+
+    ContentEncoding(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of this encoding, as used in the Content-Encoding and Accept-Encoding headers
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return a stream that compresses the content of the given stream as it is read
+     */
+    public CompressingInputStream compress(InputStream inputStream, CompressionStatistics statistics)
+    {
+        return new CompressingInputStream(inputStream, this == GZIP, statistics);
+    }
+
+    /**
+     * @return a stream that decompresses the content of the given stream as it is read. Empty content, as in
+     * responses to HEAD requests, is returned as it is.
+     */
+    public InputStream decompress(InputStream inputStream) throws IOException
+    {
+        PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream);
+        int first = pushbackInputStream.read();
+        if (first == -1)
+        {
+            return pushbackInputStream;
+        }
+        pushbackInputStream.unread(first);
+        return createDecompressingStream(pushbackInputStream);
+    }
+
+    protected abstract InputStream createDecompressingStream(InputStream inputStream) throws IOException;
+
+    /**
+     * @param name value of a Content-Encoding header
+     * @return the encoding with that name, or null if it is not supported
+     */
+    public static ContentEncoding fromName(String name)
+    {
+        if (name != null)
+        {
+            String trimmedName = name.trim();
+            for (ContentEncoding encoding : values())
+            {
+                if (encoding.name.equalsIgnoreCase(trimmedName))
+                {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Selects the encoding to use for a response given the Accept-Encoding header of the request. GZIP is preferred
+     * when both encodings are accepted.
+     *
+     * @param acceptEncoding value of the Accept-Encoding header of the request, may be null
+     * @return the selected encoding, or null if the client does not accept any of the supported encodings
+     */
+    public static ContentEncoding negotiate(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return null;
+        }
+
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String coding : acceptEncoding.split(","))
+        {
+            String[] parts = coding.split(";");
+            String codingName = parts[0].trim();
+            if (parts.length > 1 && isZeroQuality(parts[1]))
+            {
+                continue;
+            }
+            if (GZIP.name.equalsIgnoreCase(codingName) || ANY_ENCODING.equals(codingName))
+            {
+                gzip = true;
+            }
+            else if (DEFLATE.name.equalsIgnoreCase(codingName))
+            {
+                deflate = true;
+            }
+        }
+        return gzip ? GZIP : deflate ? DEFLATE : null;
+    }
+
+    private static boolean isZeroQuality(String parameter)
+    {
+        String trimmedParameter = parameter.trim();
+        if (!trimmedParameter.startsWith(QUALITY_PARAMETER))
+        {
+            return false;
+        }
+        try
+        {
+            return Float.parseFloat(trimmedParameter.substring(QUALITY_PARAMETER.length())) == 0;
+        }
+        catch (NumberFormatException e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+/**
+ * Management interface of the response compression statistics of an HTTP listener config.
+ */
+public interface HttpCompressionStatisticsMBean
+{
+
+    String DEFAULT_JMX_TYPE = "HttpListenerCompression";
+
+    /**
+     * @return the number of message bodies that were compressed
+     */
+    long getCompressedMessages();
+
+    /**
+     * @return the size in bytes of the compressed message bodies before compression
+     */
+    long getUncompressedBytes();
+
+    /**
+     * @return the size in bytes of the compressed message bodies after compression
+     */
+    long getCompressedBytes();
+
+    /**
+     * @return the compressed size divided by the uncompressed size, or 1 if nothing was compressed yet
+     */
+    double getCompressionRatio();
+
+    /**
+     * @return the total time spent compressing message bodies, in milliseconds
+     */
+    long getCompressionTime();
+
+    /**
+     * @return the average time spent compressing a message body, in microseconds
+     */
+    long getAverageCompressionTime();
+
+    /**
+     * Resets all the counters
+     */
+    void clear();
+}
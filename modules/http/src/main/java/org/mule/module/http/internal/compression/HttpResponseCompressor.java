@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.module.http.api.HttpHeaders.Names.TRANSFER_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.VARY;
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Values.CHUNKED;
+import org.mule.module.http.internal.domain.ByteArrayHttpEntity;
+import org.mule.module.http.internal.domain.EmptyHttpEntity;
+import org.mule.module.http.internal.domain.HttpEntity;
+import org.mule.module.http.internal.domain.InputStreamHttpEntity;
+import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.domain.response.HttpResponseBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compresses the body of HTTP responses using the encoding negotiated with the client through the
+ * Accept-Encoding request header.
+ * <p/>
+ * Only bodies with one of the configured MIME types are compressed. Byte array bodies smaller than the minimum
+ * size are sent as they are, the rest are compressed and sent with a new Content-Length. Stream bodies are
+ * compressed while they are written, so they are sent chunked.
+ */
+public class HttpResponseCompressor
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpResponseCompressor.class);
+
+    private static final String WILDCARD_SUBTYPE = "/*";
+
+    private final int minSize;
+    private final List<String> mimeTypes = new ArrayList<>();
+    private final CompressionStatistics statistics;
+
+    public HttpResponseCompressor(int minSize, Collection<String> mimeTypes, CompressionStatistics statistics)
+    {
+        this.minSize = minSize;
+        for (String mimeType : mimeTypes)
+        {
+            this.mimeTypes.add(mimeType.trim().toLowerCase());
+        }
+        this.statistics = statistics;
+    }
+
+    /**
+     * @param response the response to compress
+     * @param acceptEncoding value of the Accept-Encoding header of the request, may be null
+     * @return a response with a compressed body, or the same response if it should not be compressed
+     */
+    public HttpResponse compress(HttpResponse response, String acceptEncoding)
+    {
+        ContentEncoding encoding = ContentEncoding.negotiate(acceptEncoding);
+        HttpEntity entity = response.getEntity();
+        if (encoding == null || entity == null || entity instanceof EmptyHttpEntity
+            || getHeaderValue(response, CONTENT_ENCODING) != null || !isCompressible(getHeaderValue(response, CONTENT_TYPE)))
+        {
+            return response;
+        }
+
+        if (entity instanceof ByteArrayHttpEntity)
+        {
+            byte[] content = ((ByteArrayHttpEntity) entity).getContent();
+            if (content.length < minSize)
+            {
+                return response;
+            }
+            byte[] compressed;
+            long start = System.nanoTime();
+            try
+            {
+                compressed = compress(content, encoding);
+            }
+            catch (IOException e)
+            {
+                logger.warn("Could not compress response, it will be sent uncompressed", e);
+                return response;
+            }
+            if (compressed.length >= content.length)
+            {
+                return response;
+            }
+            // Only compressions that are actually sent are counted
+            statistics.record(content.length, compressed.length, System.nanoTime() - start);
+            return copyResponse(response, encoding, new ByteArrayHttpEntity(compressed), Integer.toString(compressed.length));
+        }
+        else if (entity instanceof InputStreamHttpEntity)
+        {
+            InputStream compressed = encoding.compress(((InputStreamHttpEntity) entity).getInputStream(), statistics);
+            return copyResponse(response, encoding, new InputStreamHttpEntity(compressed), null);
+        }
+        return response;
+    }
+
+    private byte[] compress(byte[] content, ContentEncoding encoding) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 2);
+        try (InputStream inputStream = encoding.compress(new ByteArrayInputStream(content), null))
+        {
+            byte[] buffer = new byte[Math.min(content.length + 64, 8 * 1024)];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1)
+            {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    private HttpResponse copyResponse(HttpResponse response, ContentEncoding encoding, HttpEntity entity, String contentLength)
+    {
+        HttpResponseBuilder builder = new HttpResponseBuilder();
+        builder.setStatusCode(response.getStatusCode());
+        builder.setReasonPhrase(response.getReasonPhrase());
+        for (String name : response.getHeaderNames())
+        {
+            if (CONTENT_LENGTH.equalsIgnoreCase(name) || TRANSFER_ENCODING.equalsIgnoreCase(name))
+            {
+                continue;
+            }
+            for (String value : response.getHeaderValues(name))
+            {
+                builder.addHeader(name, value);
+            }
+        }
+        builder.addHeader(CONTENT_ENCODING, encoding.getName());
+        builder.addHeader(VARY, ACCEPT_ENCODING);
+        if (contentLength != null)
+        {
+            builder.addHeader(CONTENT_LENGTH, contentLength);
+        }
+        else
+        {
+            builder.addHeader(TRANSFER_ENCODING, CHUNKED);
+        }
+        builder.setEntity(entity);
+        return builder.build();
+    }
+
+    private boolean isCompressible(String contentType)
+    {
+        if (contentType == null)
+        {
+            return false;
+        }
+        String mimeType = contentType.split(";")[0].trim().toLowerCase();
+        for (String compressibleMimeType : mimeTypes)
+        {
+            if (compressibleMimeType.equals(mimeType))
+            {
+                return true;
+            }
+            if (compressibleMimeType.endsWith(WILDCARD_SUBTYPE)
+                && mimeType.startsWith(compressibleMimeType.substring(0, compressibleMimeType.length() - 1)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getHeaderValue(HttpResponse response, String name)
+    {
+        for (String headerName : response.getHeaderNames())
+        {
+            if (headerName.equalsIgnoreCase(name))
+            {
+                return response.getHeaderValue(headerName);
+            }
+        }
+        return null;
+    }
+
+    public CompressionStatistics getStatistics()
+    {
+        return statistics;
+    }
+}
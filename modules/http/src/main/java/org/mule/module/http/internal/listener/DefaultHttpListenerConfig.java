@@ -19,12 +19,16 @@ import org.mule.api.context.WorkManager;
 import org.mule.api.context.WorkManagerSource;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
 import org.mule.api.registry.RegistrationException;
 import org.mule.config.MutableThreadingProfile;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.http.api.HttpConstants;
 import org.mule.module.http.api.listener.HttpListenerConfig;
 import org.mule.module.http.internal.HttpParser;
+import org.mule.module.http.internal.compression.CompressionStatistics;
+import org.mule.module.http.internal.compression.HttpCompressionStatisticsMBean;
+import org.mule.module.http.internal.compression.HttpResponseCompressor;
 import org.mule.module.http.internal.listener.async.RequestHandler;
 import org.mule.module.http.internal.listener.matcher.ListenerRequestMatcher;
 import org.mule.transport.ssl.api.TlsContextFactory;
@@ -37,17 +41,22 @@ import org.mule.util.concurrent.ThreadNameHelper;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisable, MuleContextAware
+public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisable, MuleContextAware, StatisticsMBeanProvider<HttpConnectionStatisticsMBean>
 {
 
     public static final int DEFAULT_MAX_THREADS = 128;
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     public static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 30 * 1000;
+    public static final int UNLIMITED_REQUESTS_PER_CONNECTION = -1;
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+    public static final String DEFAULT_COMPRESSIBLE_MIME_TYPES = "text/html,text/xml,text/plain,text/css,text/javascript,application/javascript,application/json,application/xml";
+    private static final String COMPRESSION_STATISTICS_KEY_PREFIX = "_httpListenerCompressionStatistics.";
 
     private HttpConstants.Protocols protocol = HttpConstants.Protocols.HTTP;
     private String name;
@@ -67,6 +76,13 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
 
     private boolean usePersistentConnections = true;
     private int connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+    private int maxRequestsPerConnection = UNLIMITED_REQUESTS_PER_CONNECTION;
+
+    private boolean compressResponses = false;
+    private int compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+    private String compressibleMimeTypes = DEFAULT_COMPRESSIBLE_MIME_TYPES;
+    private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+    private HttpResponseCompressor responseCompressor;
 
     public void setWorkerThreadingProfile(ThreadingProfile workerThreadingProfile)
     {
@@ -162,6 +178,19 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
 
         verifyConnectionsParameters();
 
+        if (compressResponses)
+        {
+            responseCompressor = new HttpResponseCompressor(compressionMinSize, Arrays.asList(compressibleMimeTypes.split(",")), compressionStatistics);
+            try
+            {
+                // A second provider is needed as this config already provides its connection statistics
+                muleContext.getRegistry().registerObject(COMPRESSION_STATISTICS_KEY_PREFIX + name, new CompressionStatisticsMBeanProvider());
+            }
+            catch (RegistrationException e)
+            {
+                throw new InitialisationException(e, this);
+            }
+        }
 
         ServerAddress serverAddress;
 
@@ -176,11 +205,11 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
 
         if (tlsContext == null)
         {
-            server = connectionManager.createServer(serverAddress, createWorkManagerSource(), usePersistentConnections, connectionIdleTimeout);
+            server = connectionManager.createServer(serverAddress, createWorkManagerSource(), usePersistentConnections, connectionIdleTimeout, maxRequestsPerConnection);
         }
         else
         {
-            server = connectionManager.createSslServer(serverAddress, createWorkManagerSource(), tlsContext, usePersistentConnections, connectionIdleTimeout);
+            server = connectionManager.createSslServer(serverAddress, createWorkManagerSource(), tlsContext, usePersistentConnections, connectionIdleTimeout, maxRequestsPerConnection);
         }
         initialised = true;
     }
@@ -204,6 +233,10 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
         {
             connectionIdleTimeout = 0;
         }
+        if (maxRequestsPerConnection != UNLIMITED_REQUESTS_PER_CONNECTION && maxRequestsPerConnection <= 0)
+        {
+            throw new InitialisationException(CoreMessages.createStaticMessage(format("maxRequestsPerConnection must be greater than zero or %d for unlimited requests, but was %d", UNLIMITED_REQUESTS_PER_CONNECTION, maxRequestsPerConnection)), this);
+        }
     }
 
     private WorkManager createWorkManager()
@@ -334,4 +367,98 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
         this.connectionIdleTimeout = connectionIdleTimeout;
     }
 
+    public void setMaxRequestsPerConnection(int maxRequestsPerConnection)
+    {
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+    }
+
+    public void setCompressResponses(boolean compressResponses)
+    {
+        this.compressResponses = compressResponses;
+    }
+
+    public void setCompressionMinSize(int compressionMinSize)
+    {
+        this.compressionMinSize = compressionMinSize;
+    }
+
+    public void setCompressibleMimeTypes(String compressibleMimeTypes)
+    {
+        this.compressibleMimeTypes = compressibleMimeTypes;
+    }
+
+    /**
+     * @return the compressor for the responses of the listeners using this config, or null if responses are not compressed
+     */
+    HttpResponseCompressor getResponseCompressor()
+    {
+        return responseCompressor;
+    }
+
+    /**
+     * @return statistics about the compression of the responses of the listeners using this config
+     */
+    public CompressionStatistics getCompressionStatistics()
+    {
+        return compressionStatistics;
+    }
+
+    @Override
+    public String getStatisticsName()
+    {
+        return name;
+    }
+
+    @Override
+    public String getStatisticsType()
+    {
+        return HttpConnectionStatisticsMBean.DEFAULT_JMX_TYPE;
+    }
+
+    @Override
+    public Class<HttpConnectionStatisticsMBean> getStatisticsInterface()
+    {
+        return HttpConnectionStatisticsMBean.class;
+    }
+
+    /**
+     * @return statistics about the connections accepted by the server of this config, or null if it's not initialised
+     */
+    @Override
+    public HttpConnectionStatisticsMBean getStatistics()
+    {
+        return server == null ? null : server.getConnectionStatistics();
+    }
+
+    /**
+     * Publishes the response compression statistics of this config.
+     */
+    private class CompressionStatisticsMBeanProvider implements StatisticsMBeanProvider<HttpCompressionStatisticsMBean>
+    {
+
+        @Override
+        public String getStatisticsName()
+        {
+            return name;
+        }
+
+        @Override
+        public String getStatisticsType()
+        {
+            return HttpCompressionStatisticsMBean.DEFAULT_JMX_TYPE;
+        }
+
+        @Override
+        public Class<HttpCompressionStatisticsMBean> getStatisticsInterface()
+        {
+            return HttpCompressionStatisticsMBean.class;
+        }
+
+        @Override
+        public HttpCompressionStatisticsMBean getStatistics()
+        {
+            return compressionStatistics;
+        }
+    }
+
 }
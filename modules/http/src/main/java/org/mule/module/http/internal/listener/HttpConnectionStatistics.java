@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the connections of an HTTP server and how they are reused across requests.
+ */
+public class HttpConnectionStatistics implements HttpConnectionStatisticsMBean
+{
+
+    private final AtomicLong openConnections = new AtomicLong();
+    private final AtomicLong totalConnections = new AtomicLong();
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong reusedConnectionRequests = new AtomicLong();
+    private final AtomicLong maxRequestsPerConnection = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    public void connectionOpened()
+    {
+        openConnections.incrementAndGet();
+        totalConnections.incrementAndGet();
+    }
+
+    public void connectionClosed()
+    {
+        openConnections.decrementAndGet();
+    }
+
+    /**
+     * @param connectionRequestNumber the number of the request in its connection, starting at 1
+     */
+    public void requestReceived(long connectionRequestNumber)
+    {
+        totalRequests.incrementAndGet();
+        if (connectionRequestNumber > 1)
+        {
+            reusedConnectionRequests.incrementAndGet();
+        }
+        long max = maxRequestsPerConnection.get();
+        while (connectionRequestNumber > max && !maxRequestsPerConnection.compareAndSet(max, connectionRequestNumber))
+        {
+            max = maxRequestsPerConnection.get();
+        }
+    }
+
+    public void bytesRead(long bytes)
+    {
+        bytesIn.addAndGet(bytes);
+    }
+
+    public void bytesWritten(long bytes)
+    {
+        bytesOut.addAndGet(bytes);
+    }
+
+    @Override
+    public long getOpenConnections()
+    {
+        return openConnections.get();
+    }
+
+    @Override
+    public long getTotalConnections()
+    {
+        return totalConnections.get();
+    }
+
+    @Override
+    public long getTotalRequests()
+    {
+        return totalRequests.get();
+    }
+
+    @Override
+    public long getReusedConnectionRequests()
+    {
+        return reusedConnectionRequests.get();
+    }
+
+    @Override
+    public double getKeepAliveReuseRatio()
+    {
+        long requests = totalRequests.get();
+        return requests == 0 ? 0 : (double) reusedConnectionRequests.get() / requests;
+    }
+
+    @Override
+    public double getAverageRequestsPerConnection()
+    {
+        long connections = totalConnections.get();
+        return connections == 0 ? 0 : (double) totalRequests.get() / connections;
+    }
+
+    @Override
+    public long getMaxRequestsPerConnection()
+    {
+        return maxRequestsPerConnection.get();
+    }
+
+    @Override
+    public long getBytesIn()
+    {
+        return bytesIn.get();
+    }
+
+    @Override
+    public long getBytesOut()
+    {
+        return bytesOut.get();
+    }
+
+    @Override
+    public void clear()
+    {
+        totalConnections.set(0);
+        totalRequests.set(0);
+        reusedConnectionRequests.set(0);
+        maxRequestsPerConnection.set(0);
+        bytesIn.set(0);
+        bytesOut.set(0);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+/**
+ * Management interface of the connection statistics of an HTTP listener config.
+ */
+public interface HttpConnectionStatisticsMBean
+{
+
+    String DEFAULT_JMX_TYPE = "HttpListenerConnections";
+
+    /**
+     * @return the number of connections currently open
+     */
+    long getOpenConnections();
+
+    /**
+     * @return the number of connections accepted
+     */
+    long getTotalConnections();
+
+    /**
+     * @return the number of requests received
+     */
+    long getTotalRequests();
+
+    /**
+     * @return the number of requests received on a connection that already served a previous request
+     */
+    long getReusedConnectionRequests();
+
+    /**
+     * @return the ratio of requests received on a connection that already served a previous request, between 0 and 1
+     */
+    double getKeepAliveReuseRatio();
+
+    /**
+     * @return the average number of requests received per connection
+     */
+    double getAverageRequestsPerConnection();
+
+    /**
+     * @return the maximum number of requests received on a single connection
+     */
+    long getMaxRequestsPerConnection();
+
+    /**
+     * @return the number of bytes read from the connections
+     */
+    long getBytesIn();
+
+    /**
+     * @return the number of bytes written to the connections
+     */
+    long getBytesOut();
+
+    /**
+     * Resets all the counters but the open connections
+     */
+    void clear();
+}
@@ -16,17 +16,14 @@ import org.mule.util.Preconditions;
 import org.mule.util.StringUtils;
 
 import com.google.common.base.Joiner;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +33,7 @@ public class HttpListenerRegistry implements RequestHandlerProvider
 
     private static final String WILDCARD_CHARACTER = "*";
     private static final String SLASH = "/";
+    private static final char SLASH_CHARACTER = '/';
     private Logger logger = LoggerFactory.getLogger(getClass());
 
     private final ServerAddressMap<Server> serverAddressToServerMap = new ServerAddressMap<>();
@@ -76,6 +74,14 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         return NoListenerRequestHandler.getInstance();
     }
 
+    /**
+     * Keeps the request handlers of a server in a trie with a node per path segment. Literal segments are
+     * children of a node, while uri params and wildcards share a single child that matches any segment.
+     * <p/>
+     * A request path is matched in a single pass over its characters without creating intermediate objects,
+     * falling back to the catch all handlers (paths ending with /*) of the traversed nodes, from the deepest
+     * to the shallowest, when there's no handler for the exact path and method.
+     */
     public class ServerAddressRequestHandlerRegistry
     {
 
@@ -83,15 +89,9 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         private PathMap rootPathMap = new PathMap();
         private PathMap catchAllPathMap = new PathMap();
         private Set<String> paths = new HashSet<>();
-        private LoadingCache<String, Stack<PathMap>> pathMapSearchCache = CacheBuilder.newBuilder().maximumSize(1000).build(new CacheLoader<String, Stack<PathMap>>() {
-            public Stack<PathMap> load(String path) {
-                return findPossibleRequestHandlers(path);
-            }
-        });
 
         public synchronized RequestHandlerManager addRequestHandler(final ListenerRequestMatcher requestMatcher, final RequestHandler requestHandler)
         {
-            pathMapSearchCache.invalidateAll();
             String requestMatcherPath = normalizePathWithSpacesOrEncodedSpaces(requestMatcher.getPath());
             Preconditions.checkArgument(requestMatcherPath.startsWith(SLASH) || requestMatcherPath.equals(WILDCARD_CHARACTER), "path parameter must start with /");
             validateCollision(requestMatcher);
@@ -163,7 +163,7 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         private void validateCollision(ListenerRequestMatcher newListenerRequestMatcher)
         {
             final String newListenerRequestMatcherPath = newListenerRequestMatcher.getPath();
-            final Stack<PathMap> possibleRequestHandlers = findPossibleRequestHandlersFromCache(newListenerRequestMatcherPath);
+            final Stack<PathMap> possibleRequestHandlers = findPossibleRequestHandlers(newListenerRequestMatcherPath);
             for (PathMap possibleRequestHandler : possibleRequestHandlers)
             {
                 final List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = possibleRequestHandler.getRequestHandlerMatcherPairs();
@@ -195,17 +195,21 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         {
             final String path = normalizePathWithSpacesOrEncodedSpaces(request.getPath());
             Preconditions.checkArgument(path.startsWith(SLASH), "path parameter must start with /");
-            Stack<PathMap> foundPaths = findPossibleRequestHandlersFromCache(path);
 
-            RequestHandlerMatcherPair requestHandlerMatcherPair = null;
-            while (!foundPaths.empty())
+            RequestHandlerMatcherPair requestHandlerMatcherPair;
+            if (path.equals(SLASH))
             {
-                final PathMap pathMap = foundPaths.pop();
-                requestHandlerMatcherPair = findRequestHandlerMatcherPair(pathMap.getRequestHandlerMatcherPairs(), request);
-                if (requestHandlerMatcherPair != null)
-                {
-                    break;
-                }
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(rootPathMap, request);
+            }
+            else
+            {
+                // a trailing slash does not add an empty segment
+                final int pathEnd = path.charAt(path.length() - 1) == SLASH_CHARACTER ? path.length() - 1 : path.length();
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(rootPathMap, path, 1, pathEnd, request);
+            }
+            if (requestHandlerMatcherPair == null)
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(catchAllPathMap, request);
             }
             if (requestHandlerMatcherPair == null)
             {
@@ -228,9 +232,56 @@ public class HttpListenerRegistry implements RequestHandlerProvider
             return "(" + method + ")" + path;
         }
 
-        private Stack<PathMap> findPossibleRequestHandlersFromCache(String path)
+        /**
+         * Looks for the handler of the request in the sub tree of a node.
+         *
+         * @param pathMap the node matching the previous segments of the path
+         * @param path the request path
+         * @param segmentStart index of the first character of the segment to match
+         * @param pathEnd index after the last character of the last segment
+         * @param request the request
+         * @return the handler for the request, or null if there's none in the sub tree
+         */
+        private RequestHandlerMatcherPair findRequestHandlerMatcherPair(PathMap pathMap, String path, int segmentStart, int pathEnd, HttpRequest request)
         {
-            return findPossibleRequestHandlers(path);
+            int segmentEnd = path.indexOf(SLASH_CHARACTER, segmentStart);
+            if (segmentEnd == -1 || segmentEnd > pathEnd)
+            {
+                segmentEnd = pathEnd;
+            }
+            PathMap childPathMap = pathMap.getChildPathMap(path, segmentStart, segmentEnd);
+            final boolean noLiteralMatch = childPathMap == null;
+            if (noLiteralMatch)
+            {
+                childPathMap = pathMap.getCatchAllCurrentPathMap();
+            }
+
+            RequestHandlerMatcherPair requestHandlerMatcherPair = null;
+            if (segmentEnd == pathEnd)
+            {
+                if (childPathMap != null)
+                {
+                    requestHandlerMatcherPair = findRequestHandlerMatcherPair(childPathMap, request);
+                    if (requestHandlerMatcherPair == null)
+                    {
+                        requestHandlerMatcherPair = findRequestHandlerMatcherPair(childPathMap.getCatchAllPathMap(), request);
+                    }
+                }
+            }
+            else if (childPathMap != null)
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(childPathMap, path, segmentEnd + 1, pathEnd, request);
+            }
+            if (requestHandlerMatcherPair == null && noLiteralMatch)
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(pathMap.getCatchAllPathMap(), request);
+            }
+            return requestHandlerMatcherPair;
+        }
+
+        private RequestHandlerMatcherPair findRequestHandlerMatcherPair(PathMap pathMap, HttpRequest request)
+        {
+            return pathMap == null ? null : findRequestHandlerMatcherPair(pathMap.getRequestHandlerMatcherPairs(), request);
         }
 
         private Stack<PathMap> findPossibleRequestHandlers(String path)
@@ -286,8 +337,10 @@ public class HttpListenerRegistry implements RequestHandlerProvider
 
         private RequestHandlerMatcherPair findRequestHandlerMatcherPair(List<RequestHandlerMatcherPair> requestHandlerMatcherPairs, HttpRequest request)
         {
-            for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
+            // indexed loop, the iterator would be the only allocation when matching a request
+            for (int i = 0; i < requestHandlerMatcherPairs.size(); i++)
             {
+                final RequestHandlerMatcherPair requestHandlerMatcherPair = requestHandlerMatcherPairs.get(i);
                 if (requestHandlerMatcherPair.getRequestMatcher().matches(request))
                 {
                     return requestHandlerMatcherPair;
@@ -337,9 +390,9 @@ public class HttpListenerRegistry implements RequestHandlerProvider
     public class PathMap
     {
 
-        List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = new ArrayList<>();
+        List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = new CopyOnWriteArrayList<>();
 
-        private Map<String, PathMap> subPaths = new HashMap<>();
+        private PathSegmentMap<PathMap> subPaths = new PathSegmentMap<>();
         private PathMap catchAllPathMap;
         private PathMap catchAllCurrentPathMap;
 
@@ -367,6 +420,21 @@ public class HttpListenerRegistry implements RequestHandlerProvider
             return pathMap;
         }
 
+        /**
+         * @param path the path containing the sub part
+         * @param start index of the first character of the sub part
+         * @param end index after the last character of the sub part
+         * @return the node with the existent mappings. null if there's no such node.
+         */
+        public PathMap getChildPathMap(final String path, final int start, final int end)
+        {
+            if (isCatchAllPath(path, start, end) || isUriParameter(path, start, end))
+            {
+                return getCatchAllCurrentPathMap();
+            }
+            return subPaths.get(path, start, end);
+        }
+
         /**
          * @param subPath a sub part of the path
          * @return the node with the existent mappings. null if there's no such node.
@@ -435,6 +503,16 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         return WILDCARD_CHARACTER.equals(path);
     }
 
+    private boolean isCatchAllPath(String path, int start, int end)
+    {
+        return end - start == 1 && path.charAt(start) == '*';
+    }
+
+    private boolean isUriParameter(String path, int start, int end)
+    {
+        return end > start && path.charAt(start) == '{' && path.charAt(end - 1) == '}';
+    }
+
     public class RequestHandlerMatcherPair
     {
 
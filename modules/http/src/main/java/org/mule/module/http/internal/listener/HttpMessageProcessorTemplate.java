@@ -17,6 +17,7 @@ import org.mule.config.ExceptionHelper;
 import org.mule.execution.AsyncResponseFlowProcessingPhaseTemplate;
 import org.mule.execution.ResponseCompletionCallback;
 import org.mule.execution.ThrottlingPhaseTemplate;
+import org.mule.module.http.internal.compression.HttpResponseCompressor;
 import org.mule.module.http.internal.domain.InputStreamHttpEntity;
 import org.mule.module.http.internal.domain.response.HttpResponse;
 import org.mule.module.http.internal.listener.async.HttpResponseReadyCallback;
@@ -46,18 +47,37 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
     private HttpResponseBuilder responseBuilder;
     private HttpResponseBuilder errorResponseBuilder;
     private HttpThrottlingHeadersMapBuilder httpThrottlingHeadersMapBuilder = new HttpThrottlingHeadersMapBuilder();
+    private HttpResponseCompressor responseCompressor;
+    private String acceptEncoding;
 
     public HttpMessageProcessorTemplate(MuleEvent sourceMuleEvent,
                                         MessageProcessor messageProcessor,
                                         HttpResponseReadyCallback responseReadyCallback,
                                         HttpResponseBuilder responseBuilder,
                                         HttpResponseBuilder errorResponseBuilder)
+    {
+        this(sourceMuleEvent, messageProcessor, responseReadyCallback, responseBuilder, errorResponseBuilder, null, null);
+    }
+
+    /**
+     * @param responseCompressor compresses the responses sent to the client, null if responses must not be compressed
+     * @param acceptEncoding value of the Accept-Encoding header of the request, may be null
+     */
+    public HttpMessageProcessorTemplate(MuleEvent sourceMuleEvent,
+                                        MessageProcessor messageProcessor,
+                                        HttpResponseReadyCallback responseReadyCallback,
+                                        HttpResponseBuilder responseBuilder,
+                                        HttpResponseBuilder errorResponseBuilder,
+                                        HttpResponseCompressor responseCompressor,
+                                        String acceptEncoding)
     {
         this.sourceMuleEvent = sourceMuleEvent;
         this.messageProcessor = messageProcessor;
         this.responseBuilder = responseBuilder;
         this.errorResponseBuilder = errorResponseBuilder;
         this.responseReadyCallback = responseReadyCallback;
+        this.responseCompressor = responseCompressor;
+        this.acceptEncoding = acceptEncoding;
     }
 
     @Override
@@ -94,7 +114,7 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
             }
             else
             {
-                httpResponse = this.responseBuilder.build(responseBuilder, muleEvent);
+                httpResponse = compress(this.responseBuilder.build(responseBuilder, muleEvent));
             }
             responseReadyCallback.responseReady(httpResponse, getResponseFailureCallback(responseCompletationCallback, muleEvent));
         }
@@ -104,6 +124,11 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
         }
     }
 
+    private HttpResponse compress(HttpResponse httpResponse)
+    {
+        return responseCompressor == null ? httpResponse : responseCompressor.compress(httpResponse, acceptEncoding);
+    }
+
     private ResponseStatusCallback getResponseFailureCallback(final ResponseCompletionCallback responseCompletationCallback, final MuleEvent muleEvent)
     {
         return new ResponseStatusCallback()
@@ -143,7 +168,7 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
         addThrottlingHeaders(failureResponseBuilder);
         MuleEvent event = messagingException.getEvent();
         event.getMessage().setPayload(messagingException.getMessage());
-        final HttpResponse response = errorResponseBuilder.build(failureResponseBuilder, event);
+        final HttpResponse response = compress(errorResponseBuilder.build(failureResponseBuilder, event));
         responseReadyCallback.responseReady(response, getResponseFailureCallback(responseCompletationCallback, messagingException.getEvent()));
     }
 
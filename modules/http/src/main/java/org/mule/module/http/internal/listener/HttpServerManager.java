@@ -29,10 +29,12 @@ public interface HttpServerManager
      * @param serverAddress address of the server
      * @param workManagerSource work manager source to use for retrieving a {@link org.mule.api.context.WorkManager} for processing this server requests
      * @param usePersistentConnections if true, the connections will be kept open for subsequent requests
-     * @param connectionIdleTimeout the amount of milliseconds to keep open an idle connection   @return the create Server handler
+     * @param connectionIdleTimeout the amount of milliseconds to keep open an idle connection
+     * @param maxRequestsPerConnection the maximum number of requests served by a persistent connection before closing it, -1 for unlimited
+     * @return the create Server handler
      * @throws IOException if it was not possible to create the Server. Most likely because the host and port is already in use.
      */
-    Server createServerFor(ServerAddress serverAddress, WorkManagerSource workManagerSource, boolean usePersistentConnections, int connectionIdleTimeout) throws IOException;
+    Server createServerFor(ServerAddress serverAddress, WorkManagerSource workManagerSource, boolean usePersistentConnections, int connectionIdleTimeout, int maxRequestsPerConnection) throws IOException;
 
     /**
      *
@@ -41,10 +43,11 @@ public interface HttpServerManager
      * @param workManagerSource work manager source to use for retrieving a {@link org.mule.api.context.WorkManager} for processing this server requests
      * @param usePersistentConnections if true, the connections will be kept open for subsequent requests
      * @param connectionIdleTimeout the amount of milliseconds to keep open an idle connection
+     * @param maxRequestsPerConnection the maximum number of requests served by a persistent connection before closing it, -1 for unlimited
      * @return the create Server handler
      * @throws IOException if it was not possible to create the Server. Most likely because the host and port is already in use.
      */
-    Server createSslServerFor(TlsContextFactory tlsContextFactory, WorkManagerSource workManagerSource, ServerAddress serverAddress, boolean usePersistentConnections, int connectionIdleTimeout) throws IOException;
+    Server createSslServerFor(TlsContextFactory tlsContextFactory, WorkManagerSource workManagerSource, ServerAddress serverAddress, boolean usePersistentConnections, int connectionIdleTimeout, int maxRequestsPerConnection) throws IOException;
 
     /**
      *
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+/**
+ * Map from path segments to values that can be queried with a region of a request path, so matching a
+ * path does not require creating a string for each of its segments.
+ * <p/>
+ * Entries are kept in an open addressing table that is copied on each addition, so lookups need no
+ * synchronization and never see a partially updated table. Additions are expected to be rare (when
+ * listeners are registered) and must be synchronized by the caller.
+ *
+ * @param <T> the type of the mapped values
+ */
+class PathSegmentMap<T>
+{
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    /**
+     * @param segment the path segment
+     * @return the value mapped to the segment, or null if there's no such mapping
+     */
+    public T get(String segment)
+    {
+        return get(segment, 0, segment.length());
+    }
+
+    /**
+     * @param path the path containing the segment
+     * @param start index of the first character of the segment
+     * @param end index after the last character of the segment
+     * @return the value mapped to the segment, or null if there's no such mapping
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String path, int start, int end)
+    {
+        final Table currentTable = this.table;
+        final int mask = currentTable.keys.length - 1;
+        final int length = end - start;
+        int index = hash(path, start, end) & mask;
+        String key;
+        while ((key = currentTable.keys[index]) != null)
+        {
+            if (key.length() == length && path.regionMatches(start, key, 0, length))
+            {
+                return (T) currentTable.values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps the segment to the value, replacing the previous mapping of the segment if any.
+     */
+    public void put(String segment, T value)
+    {
+        final Table currentTable = this.table;
+        int size = currentTable.size;
+        if (get(segment) == null)
+        {
+            size++;
+        }
+        // keeps the load factor at or below 0.5
+        int capacity = currentTable.keys.length;
+        while (size * 2 > capacity)
+        {
+            capacity <<= 1;
+        }
+        final Table newTable = new Table(capacity);
+        for (int i = 0; i < currentTable.keys.length; i++)
+        {
+            if (currentTable.keys[i] != null && !currentTable.keys[i].equals(segment))
+            {
+                newTable.add(currentTable.keys[i], currentTable.values[i]);
+            }
+        }
+        newTable.add(segment, value);
+        this.table = newTable;
+    }
+
+    /**
+     * @return the number of mapped segments
+     */
+    public int size()
+    {
+        return table.size;
+    }
+
+    private static int hash(String path, int start, int end)
+    {
+        int hash = 0;
+        for (int i = start; i < end; i++)
+        {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Table
+    {
+
+        private final String[] keys;
+        private final Object[] values;
+        private int size;
+
+        private Table(int capacity)
+        {
+            keys = new String[capacity];
+            values = new Object[capacity];
+        }
+
+        private void add(String key, Object value)
+        {
+            final int mask = keys.length - 1;
+            int index = hash(key, 0, key.length()) & mask;
+            while (keys[index] != null)
+            {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+            size++;
+        }
+    }
+}
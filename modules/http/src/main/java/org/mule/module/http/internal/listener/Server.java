@@ -45,4 +45,9 @@ public interface Server
 
 
     RequestHandlerManager addRequestHandler(final ListenerRequestMatcher listenerRequestMatcher, final RequestHandler requestHandler);
+
+    /**
+     * @return the statistics of the connections accepted by this server
+     */
+    HttpConnectionStatistics getConnectionStatistics();
 }
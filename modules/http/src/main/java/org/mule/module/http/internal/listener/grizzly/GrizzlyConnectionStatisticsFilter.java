@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener.grizzly;
+
+import org.mule.module.http.internal.listener.HttpConnectionStatistics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.grizzly.Buffer;
+import org.glassfish.grizzly.Connection;
+import org.glassfish.grizzly.Grizzly;
+import org.glassfish.grizzly.attributes.Attribute;
+import org.glassfish.grizzly.filterchain.BaseFilter;
+import org.glassfish.grizzly.filterchain.FilterChainContext;
+import org.glassfish.grizzly.filterchain.NextAction;
+
+/**
+ * Grizzly filter that updates the {@link HttpConnectionStatistics} of a server with the connections it accepts
+ * and the bytes read and written through them. It must be placed right after the transport filter, so the
+ * bytes are counted as they are sent through the network.
+ * <p/>
+ * The requests received on each connection are counted by {@link #requestReceived(Connection)}, since they
+ * are only known after the HTTP filter.
+ */
+public class GrizzlyConnectionStatisticsFilter extends BaseFilter
+{
+
+    private static final Attribute<ConnectionRequests> CONNECTION_REQUESTS = Grizzly.DEFAULT_ATTRIBUTE_BUILDER.createAttribute(GrizzlyConnectionStatisticsFilter.class.getName() + ".requests");
+
+    private final HttpConnectionStatistics statistics;
+
+    public GrizzlyConnectionStatisticsFilter(HttpConnectionStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public NextAction handleAccept(FilterChainContext ctx) throws IOException
+    {
+        CONNECTION_REQUESTS.set(ctx.getConnection(), new ConnectionRequests(statistics));
+        statistics.connectionOpened();
+        return ctx.getInvokeAction();
+    }
+
+    @Override
+    public NextAction handleRead(FilterChainContext ctx) throws IOException
+    {
+        final Object message = ctx.getMessage();
+        if (message instanceof Buffer)
+        {
+            statistics.bytesRead(((Buffer) message).remaining());
+        }
+        return ctx.getInvokeAction();
+    }
+
+    @Override
+    public NextAction handleWrite(FilterChainContext ctx) throws IOException
+    {
+        final Object message = ctx.getMessage();
+        if (message instanceof Buffer)
+        {
+            statistics.bytesWritten(((Buffer) message).remaining());
+        }
+        return ctx.getInvokeAction();
+    }
+
+    @Override
+    public NextAction handleClose(FilterChainContext ctx) throws IOException
+    {
+        if (CONNECTION_REQUESTS.remove(ctx.getConnection()) != null)
+        {
+            statistics.connectionClosed();
+        }
+        return ctx.getInvokeAction();
+    }
+
+    /**
+     * Counts a request received on a connection accepted by a server with statistics.
+     *
+     * @param connection the connection the request was received on
+     */
+    public static void requestReceived(Connection connection)
+    {
+        final ConnectionRequests connectionRequests = CONNECTION_REQUESTS.get(connection);
+        if (connectionRequests != null)
+        {
+            connectionRequests.statistics.requestReceived(connectionRequests.count.incrementAndGet());
+        }
+    }
+
+    private static class ConnectionRequests
+    {
+
+        private final HttpConnectionStatistics statistics;
+        private final AtomicLong count = new AtomicLong();
+
+        private ConnectionRequests(HttpConnectionStatistics statistics)
+        {
+            this.statistics = statistics;
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.module.http.internal.listener.grizzly;
 
+import org.mule.module.http.internal.listener.HttpConnectionStatistics;
 import org.mule.module.http.internal.listener.HttpListenerRegistry;
 import org.mule.module.http.internal.listener.RequestHandlerManager;
 import org.mule.module.http.internal.listener.Server;
@@ -24,15 +25,17 @@ public class GrizzlyServer implements Server
     private final TCPNIOTransport transport;
     private final ServerAddress serverAddress;
     private final HttpListenerRegistry listenerRegistry;
+    private final HttpConnectionStatistics connectionStatistics;
     private TCPNIOServerConnection serverConnection;
     private boolean stopped = true;
     private boolean stopping;
 
-    public GrizzlyServer(ServerAddress serverAddress, TCPNIOTransport transport, HttpListenerRegistry listenerRegistry)
+    public GrizzlyServer(ServerAddress serverAddress, TCPNIOTransport transport, HttpListenerRegistry listenerRegistry, HttpConnectionStatistics connectionStatistics)
     {
         this.serverAddress = serverAddress;
         this.transport = transport;
         this.listenerRegistry = listenerRegistry;
+        this.connectionStatistics = connectionStatistics;
     }
 
     @Override
@@ -79,4 +82,10 @@ public class GrizzlyServer implements Server
     {
         return this.listenerRegistry.addRequestHandler(this, requestHandler, listenerRequestMatcher);
     }
+
+    @Override
+    public HttpConnectionStatistics getConnectionStatistics()
+    {
+        return connectionStatistics;
+    }
 }
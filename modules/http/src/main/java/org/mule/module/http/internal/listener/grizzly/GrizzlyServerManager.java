@@ -11,6 +11,7 @@ import static org.mule.module.http.api.HttpConstants.Protocols.HTTPS;
 import org.mule.api.MuleRuntimeException;
 import org.mule.api.context.WorkManagerSource;
 import org.mule.module.http.api.HttpConstants;
+import org.mule.module.http.internal.listener.HttpConnectionStatistics;
 import org.mule.module.http.internal.listener.HttpListenerRegistry;
 import org.mule.module.http.internal.listener.HttpServerManager;
 import org.mule.module.http.internal.listener.Server;
@@ -45,9 +46,9 @@ import org.slf4j.LoggerFactory;
 public class GrizzlyServerManager implements HttpServerManager
 {
 
-    private static final int MAX_KEEP_ALIVE_REQUESTS = -1;
     private static final String IDLE_TIMEOUT_THREADS_PREFIX_NAME = ".HttpIdleConnectionCloser";
     private static final String LISTENER_WORKER_THREAD_NAME_SUFFIX = ".worker";
+    private final GrizzlyAddressDelegateFilter<GrizzlyConnectionStatisticsFilter> connectionStatisticsFilterDelegate;
     private final GrizzlyAddressDelegateFilter<SSLFilter> sslFilterDelegate;
     private final GrizzlyAddressDelegateFilter<HttpServerFilter> httpServerFilterDelegate;
     private final TCPNIOTransport transport;
@@ -64,11 +65,13 @@ public class GrizzlyServerManager implements HttpServerManager
     {
         this.httpListenerRegistry = httpListenerRegistry;
         requestHandlerFilter = new GrizzlyRequestDispatcherFilter(httpListenerRegistry);
+        connectionStatisticsFilterDelegate = new GrizzlyAddressDelegateFilter<>();
         sslFilterDelegate = new GrizzlyAddressDelegateFilter<>();
         httpServerFilterDelegate = new GrizzlyAddressDelegateFilter<>();
 
         FilterChainBuilder serverFilterChainBuilder = FilterChainBuilder.stateless();
         serverFilterChainBuilder.add(new TransportFilter());
+        serverFilterChainBuilder.add(connectionStatisticsFilterDelegate);
         serverFilterChainBuilder.add(sslFilterDelegate);
         serverFilterChainBuilder.add(httpServerFilterDelegate);
         serverFilterChainBuilder.add(requestHandlerFilter);
@@ -174,7 +177,7 @@ public class GrizzlyServerManager implements HttpServerManager
         return false;
     }
 
-    public Server createSslServerFor(TlsContextFactory tlsContextFactory, WorkManagerSource workManagerSource, final ServerAddress serverAddress, boolean usePersistentConnections, int connectionIdleTimeout) throws IOException
+    public Server createSslServerFor(TlsContextFactory tlsContextFactory, WorkManagerSource workManagerSource, final ServerAddress serverAddress, boolean usePersistentConnections, int connectionIdleTimeout, int maxRequestsPerConnection) throws IOException
     {
         if (logger.isDebugEnabled())
         {
@@ -186,14 +189,14 @@ public class GrizzlyServerManager implements HttpServerManager
         }
         startTransportIfNotStarted();
         sslFilterDelegate.addFilterForAddress(serverAddress, createSslFilter(tlsContextFactory));
-        httpServerFilterDelegate.addFilterForAddress(serverAddress, createHttpServerFilter(usePersistentConnections, connectionIdleTimeout));
+        httpServerFilterDelegate.addFilterForAddress(serverAddress, createHttpServerFilter(usePersistentConnections, connectionIdleTimeout, maxRequestsPerConnection));
         executorProvider.addExecutor(serverAddress, workManagerSource);
-        final GrizzlyServer grizzlyServer = new GrizzlyServer(serverAddress, transport, httpListenerRegistry);
+        final GrizzlyServer grizzlyServer = new GrizzlyServer(serverAddress, transport, httpListenerRegistry, createConnectionStatistics(serverAddress));
         servers.put(serverAddress, grizzlyServer);
         return grizzlyServer;
     }
 
-    public Server createServerFor(ServerAddress serverAddress, WorkManagerSource workManagerSource, boolean usePersistentConnections, int connectionIdleTimeout) throws IOException
+    public Server createServerFor(ServerAddress serverAddress, WorkManagerSource workManagerSource, boolean usePersistentConnections, int connectionIdleTimeout, int maxRequestsPerConnection) throws IOException
     {
         if (logger.isDebugEnabled())
         {
@@ -204,9 +207,9 @@ public class GrizzlyServerManager implements HttpServerManager
             throw new IllegalStateException(String.format("Could not create a server for %s since there's already one.", serverAddress));
         }
         startTransportIfNotStarted();
-        httpServerFilterDelegate.addFilterForAddress(serverAddress, createHttpServerFilter(usePersistentConnections, connectionIdleTimeout));
+        httpServerFilterDelegate.addFilterForAddress(serverAddress, createHttpServerFilter(usePersistentConnections, connectionIdleTimeout, maxRequestsPerConnection));
         executorProvider.addExecutor(serverAddress, workManagerSource);
-        final GrizzlyServer grizzlyServer = new GrizzlyServer(serverAddress, transport, httpListenerRegistry);
+        final GrizzlyServer grizzlyServer = new GrizzlyServer(serverAddress, transport, httpListenerRegistry, createConnectionStatistics(serverAddress));
         servers.put(serverAddress, grizzlyServer);
         return grizzlyServer;
     }
@@ -255,13 +258,20 @@ public class GrizzlyServerManager implements HttpServerManager
         }
     }
 
-    private HttpServerFilter createHttpServerFilter(boolean usePersistentConnections, int connectionIdleTimeout)
+    private HttpConnectionStatistics createConnectionStatistics(ServerAddress serverAddress)
+    {
+        final HttpConnectionStatistics connectionStatistics = new HttpConnectionStatistics();
+        connectionStatisticsFilterDelegate.addFilterForAddress(serverAddress, new GrizzlyConnectionStatisticsFilter(connectionStatistics));
+        return connectionStatistics;
+    }
+
+    private HttpServerFilter createHttpServerFilter(boolean usePersistentConnections, int connectionIdleTimeout, int maxRequestsPerConnection)
     {
         KeepAlive ka = null;
         if (usePersistentConnections)
         {
             ka = new KeepAlive();
-            ka.setMaxRequestsCount(MAX_KEEP_ALIVE_REQUESTS);
+            ka.setMaxRequestsCount(maxRequestsPerConnection);
             ka.setIdleTimeoutInSeconds(convertToSeconds(connectionIdleTimeout));
         }
         return new HttpServerFilter(true, HttpCodecFilter.DEFAULT_MAX_HTTP_PACKET_HEADER_SIZE, ka, idleTimeoutDelayedExecutor);
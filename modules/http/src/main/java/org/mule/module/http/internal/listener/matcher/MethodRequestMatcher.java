@@ -64,7 +64,16 @@ public class MethodRequestMatcher implements RequestMatcher
     @Override
     public boolean matches(final HttpRequest httpRequest)
     {
-        return this.methods.contains(httpRequest.getMethod().toLowerCase());
+        final String method = httpRequest.getMethod();
+        // avoids creating a lower case copy of the method for each request
+        for (int i = 0; i < methods.size(); i++)
+        {
+            if (methods.get(i).equalsIgnoreCase(method))
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -6,21 +6,36 @@
  */
 package org.mule.module.http.internal.request;
 
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Values.DEFLATE;
+import static org.mule.module.http.api.HttpHeaders.Values.GZIP;
+
+import org.mule.VoidMuleEvent;
 import org.mule.api.MessagingException;
-import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.MuleRuntimeException;
-import org.mule.api.context.MuleContextAware;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.construct.FlowConstructAware;
+import org.mule.api.construct.Pipeline;
+import org.mule.api.exception.MessagingExceptionHandler;
+import org.mule.api.exception.MessagingExceptionHandlerAware;
+import org.mule.api.execution.ExecutionCallback;
+import org.mule.api.execution.ExecutionTemplate;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.config.i18n.CoreMessages;
+import org.mule.execution.TransactionalErrorHandlingExecutionTemplate;
 import org.mule.module.http.api.HttpAuthentication;
 import org.mule.module.http.internal.HttpParser;
 import org.mule.module.http.internal.domain.request.HttpRequestBuilder;
 import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.processor.AbstractInterceptingMessageProcessor;
+import org.mule.processor.AbstractResponseMessageProcessor;
+import org.mule.transaction.MuleTransactionConfig;
 import org.mule.util.AttributeEvaluator;
+import org.mule.work.AbstractMuleEventWork;
 
 import com.google.common.collect.Lists;
 
@@ -28,13 +43,27 @@ import java.io.InputStream;
 import java.util.List;
 
 
-public class DefaultHttpRequester implements MessageProcessor, Initialisable, MuleContextAware
+/**
+ * Sends an HTTP request built from the current event and maps the response back to it.
+ * <p/>
+ * When the request config is non blocking, asynchronous events are sent without waiting for the response:
+ * the flow thread is released and the rest of the flow is processed in a worker thread of the request config
+ * once the response is received. Synchronous and transacted events are always processed in the calling thread.
+ * <p/>
+ * Only the processors chained after the requester are resumed once the response is received, so non blocking
+ * mode is only used when the requester is a processor of the flow itself and no response phase precedes it.
+ * Requesters nested in a scope, a router or a sub-flow always block, as the enclosing chain needs their result.
+ */
+public class DefaultHttpRequester extends AbstractInterceptingMessageProcessor implements Initialisable, MessagingExceptionHandlerAware, FlowConstructAware
 {
 
     public static final List<String> DEFAULT_EMPTY_BODY_METHODS = Lists.newArrayList("GET", "HEAD", "OPTIONS");
     public static final String DEFAULT_PAYLOAD_EXPRESSION = "#[payload]";
     public static final String DEFAULT_FOLLOW_REDIRECTS = "true";
 
+    private static final String SEND_ERROR_MESSAGE = "Error sending HTTP request";
+    private static final String ACCEPTED_ENCODINGS = GZIP + ", " + DEFLATE;
+
     private DefaultHttpRequesterConfig requestConfig;
     private HttpRequesterRequestBuilder requestBuilder;
     private ResponseValidator responseValidator = new SuccessStatusCodeValidator("0..399");
@@ -56,7 +85,9 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
     private String source;
     private String target;
 
-    private MuleContext muleContext;
+    private MessagingExceptionHandler messagingExceptionHandler;
+    private FlowConstruct flowConstruct;
+    private volatile Boolean flowProcessor;
 
     private MuleEventToHttpRequest muleEventToHttpRequest;
     private HttpResponseToMuleEvent httpResponseToMuleEvent;
@@ -163,20 +194,52 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
     @Override
     public MuleEvent process(final MuleEvent muleEvent) throws MuleException
     {
-        return innerProcess(muleEvent, true);
+        if (isNonBlocking(muleEvent))
+        {
+            sendNonBlocking(muleEvent);
+            return VoidMuleEvent.getInstance();
+        }
+        return processNext(innerProcess(muleEvent, true));
     }
 
-    private MuleEvent innerProcess(MuleEvent muleEvent, boolean checkRetry) throws MuleException
+    private boolean isNonBlocking(MuleEvent muleEvent)
     {
-        HttpRequestBuilder builder = muleEventToHttpRequest.create(muleEvent, method.resolveStringValue(muleEvent), resolveURI(muleEvent));
-
-        HttpAuthentication authentication = requestConfig.getAuthentication();
+        return requestConfig.isNonBlocking() && !muleEvent.isSynchronous() && !muleEvent.isTransacted() && isFlowProcessor();
+    }
 
-        if (authentication != null)
+    /**
+     * @return true if this requester is a processor of its flow and no response phase is processed around it, so
+     * nothing waits for the result of the processors chained after it
+     */
+    private boolean isFlowProcessor()
+    {
+        if (flowProcessor == null)
         {
-            authentication.authenticate(muleEvent, builder);
+            boolean result = false;
+            if (flowConstruct instanceof Pipeline)
+            {
+                for (MessageProcessor processor : ((Pipeline) flowConstruct).getMessageProcessors())
+                {
+                    if (processor == this)
+                    {
+                        result = true;
+                        break;
+                    }
+                    if (processor instanceof AbstractResponseMessageProcessor)
+                    {
+                        break;
+                    }
+                }
+            }
+            flowProcessor = result;
         }
+        return flowProcessor;
+    }
 
+    private MuleEvent innerProcess(MuleEvent muleEvent, boolean checkRetry) throws MuleException
+    {
+        HttpRequestBuilder builder = createRequestBuilder(muleEvent);
+        HttpAuthentication authentication = requestConfig.getAuthentication();
         HttpClient httpClient = requestConfig.getHttpClient();
         HttpResponse response;
 
@@ -187,9 +250,95 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
         }
         catch (Exception e)
         {
-            throw new MessagingException(CoreMessages.createStaticMessage("Error sending HTTP request"), muleEvent, e);
+            throw new MessagingException(CoreMessages.createStaticMessage(SEND_ERROR_MESSAGE), muleEvent, e);
+        }
+
+        return handleResponse(muleEvent, response, checkRetry);
+    }
+
+    private void sendNonBlocking(final MuleEvent muleEvent) throws MuleException
+    {
+        HttpRequestBuilder builder = createRequestBuilder(muleEvent);
+        HttpClient httpClient = requestConfig.getHttpClient();
+
+        httpClient.send(builder.build(), resolveResponseTimeout(muleEvent), followRedirects.resolveBooleanValue(muleEvent),
+                        requestConfig.getAuthentication(), new HttpResponseCallback()
+        {
+            @Override
+            public void onResponse(HttpResponse response)
+            {
+                resume(muleEvent, response, null);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable)
+            {
+                resume(muleEvent, null, throwable);
+            }
+        });
+    }
+
+    /**
+     * Schedules the rest of the flow in a worker thread, as the response callback is invoked from an I/O thread.
+     */
+    private void resume(MuleEvent muleEvent, HttpResponse response, Throwable failure)
+    {
+        try
+        {
+            requestConfig.getWorkManager().scheduleWork(new NonBlockingResponseWork(muleEvent, response, failure));
+        }
+        catch (Exception e)
+        {
+            handleException(new MessagingException(CoreMessages.errorSchedulingMessageProcessorForAsyncInvocation(next), muleEvent, e, this));
+        }
+    }
+
+    private void handleException(MessagingException exception)
+    {
+        if (messagingExceptionHandler != null)
+        {
+            messagingExceptionHandler.handleException(exception, exception.getEvent());
+        }
+        else
+        {
+            muleContext.getExceptionListener().handleException(exception);
+        }
+    }
+
+    private HttpRequestBuilder createRequestBuilder(MuleEvent muleEvent) throws MuleException
+    {
+        HttpRequestBuilder builder = muleEventToHttpRequest.create(muleEvent, method.resolveStringValue(muleEvent), resolveURI(muleEvent));
+
+        if (requestConfig.isDecompressResponses() && !containsHeader(builder, ACCEPT_ENCODING))
+        {
+            builder.addHeader(ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
         }
 
+        HttpAuthentication authentication = requestConfig.getAuthentication();
+
+        if (authentication != null)
+        {
+            authentication.authenticate(muleEvent, builder);
+        }
+        return builder;
+    }
+
+    private boolean containsHeader(HttpRequestBuilder builder, String headerName)
+    {
+        for (String name : builder.getHeaders().keySet())
+        {
+            if (name.equalsIgnoreCase(headerName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MuleEvent handleResponse(MuleEvent muleEvent, HttpResponse response, boolean checkRetry) throws MuleException
+    {
+        HttpAuthentication authentication = requestConfig.getAuthentication();
+
         httpResponseToMuleEvent.convert(muleEvent, response);
 
         if (checkRetry && authentication != null && authentication.shouldRetry(muleEvent))
@@ -415,9 +564,67 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
     }
 
     @Override
-    public void setMuleContext(MuleContext muleContext)
+    public void setFlowConstruct(FlowConstruct flowConstruct)
     {
-        this.muleContext = muleContext;
+        this.flowConstruct = flowConstruct;
+    }
+
+    @Override
+    public void setMessagingExceptionHandler(MessagingExceptionHandler messagingExceptionHandler)
+    {
+        if (this.messagingExceptionHandler == null)
+        {
+            this.messagingExceptionHandler = messagingExceptionHandler;
+        }
+    }
+
+    /**
+     * Maps the response of a non blocking request to the event and processes the rest of the flow.
+     */
+    private class NonBlockingResponseWork extends AbstractMuleEventWork
+    {
+
+        private final HttpResponse response;
+        private final Throwable failure;
+
+        NonBlockingResponseWork(MuleEvent event, HttpResponse response, Throwable failure)
+        {
+            super(event);
+            this.response = response;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void doRun()
+        {
+            ExecutionTemplate<MuleEvent> executionTemplate = TransactionalErrorHandlingExecutionTemplate.createMainExecutionTemplate(
+                    muleContext, new MuleTransactionConfig(), messagingExceptionHandler);
+
+            try
+            {
+                executionTemplate.execute(new ExecutionCallback<MuleEvent>()
+                {
+                    @Override
+                    public MuleEvent process() throws Exception
+                    {
+                        if (failure != null)
+                        {
+                            throw new MessagingException(CoreMessages.createStaticMessage(SEND_ERROR_MESSAGE), event, failure, DefaultHttpRequester.this);
+                        }
+                        processNext(handleResponse(event, response, true));
+                        return VoidMuleEvent.getInstance();
+                    }
+                });
+            }
+            catch (MessagingException e)
+            {
+                // Already handled by TransactionTemplate
+            }
+            catch (Exception e)
+            {
+                muleContext.getExceptionListener().handleException(e);
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import static org.mule.module.http.api.HttpConstants.Protocols.HTTPS;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
 import org.mule.api.context.MuleContextAware;
+import org.mule.api.context.WorkManager;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.lifecycle.Startable;
@@ -36,6 +37,7 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
     private static final int UNLIMITED_CONNECTIONS = -1;
     private static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 30 * 1000;
     private static final String THREAD_NAME_PREFIX_PATTERN = "%shttp.requester.%s";
+    private static final String WORKER_THREAD_NAME_SUFFIX = ".worker";
 
     private HttpConstants.Protocols protocol = HTTP;
     private String name;
@@ -59,6 +61,10 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
     private int maxConnections = UNLIMITED_CONNECTIONS;
     private boolean usePersistentConnections = true;
     private int connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+    private boolean nonBlocking = false;
+    private boolean decompressResponses = false;
+
+    private WorkManager workManager;
 
     private MuleContext muleContext;
 
@@ -117,6 +123,11 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
     public void stop() throws MuleException
     {
         httpClient.stop();
+        if (workManager != null)
+        {
+            workManager.dispose();
+            workManager = null;
+        }
         if (this.authentication instanceof Stoppable)
         {
             ((Stoppable) this.authentication).stop();
@@ -292,6 +303,14 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
     @Override
     public void start() throws MuleException
     {
+        if (nonBlocking)
+        {
+            // A disposed work manager cannot be restarted, so a new one is created on every start
+            String threadNamePrefix = format(THREAD_NAME_PREFIX_PATTERN, ThreadNameHelper.getPrefix(muleContext), name);
+            workManager = muleContext.getDefaultThreadingProfile().createWorkManager(threadNamePrefix + WORKER_THREAD_NAME_SUFFIX,
+                                                                                      muleContext.getConfiguration().getShutdownTimeout());
+            workManager.start();
+        }
         if (this.authentication instanceof Startable)
         {
             ((Startable) this.authentication).start();
@@ -313,6 +332,35 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
         this.connectionIdleTimeout = connectionIdleTimeout;
     }
 
+    public boolean isNonBlocking()
+    {
+        return nonBlocking;
+    }
+
+    public void setNonBlocking(boolean nonBlocking)
+    {
+        this.nonBlocking = nonBlocking;
+    }
+
+    public boolean isDecompressResponses()
+    {
+        return decompressResponses;
+    }
+
+    public void setDecompressResponses(boolean decompressResponses)
+    {
+        this.decompressResponses = decompressResponses;
+    }
+
+    /**
+     * @return the work manager used to resume the processing of the flow once the response of a non blocking
+     * request is received, or null if non blocking requests are disabled.
+     */
+    public WorkManager getWorkManager()
+    {
+        return workManager;
+    }
+
     @Override
     public void setMuleContext(MuleContext muleContext)
     {
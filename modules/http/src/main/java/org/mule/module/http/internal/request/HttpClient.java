@@ -23,4 +23,10 @@ public interface HttpClient extends Initialisable, Stoppable
 
     public HttpResponse send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication) throws IOException, TimeoutException;
 
+    /**
+     * Sends the request without waiting for the response. The callback is notified once the response is
+     * received, or when the request fails or the response timeout is exceeded.
+     */
+    public void send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication, HttpResponseCallback callback);
+
 }
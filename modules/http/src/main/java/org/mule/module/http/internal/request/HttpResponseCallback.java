@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.request;
+
+import org.mule.module.http.internal.domain.response.HttpResponse;
+
+/**
+ * Receives the outcome of a request sent without blocking the calling thread. Methods of this callback
+ * may be invoked from an I/O thread, so implementations must not block.
+ */
+public interface HttpResponseCallback
+{
+
+    /**
+     * notifies that the response for the request was received.
+     *
+     * @param response the received response
+     */
+    void onResponse(HttpResponse response);
+
+    /**
+     * method to process a failure while sending the request or receiving the response.
+     *
+     * @param throwable exception thrown while sending the request or receiving the response
+     */
+    void onFailure(Throwable throwable);
+
+}
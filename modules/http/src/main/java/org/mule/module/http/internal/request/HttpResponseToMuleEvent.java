@@ -8,6 +8,8 @@ package org.mule.module.http.internal.request;
 
 import static org.mule.module.http.api.HttpConstants.ResponseProperties.HTTP_STATUS_PROPERTY;
 import static org.mule.module.http.api.HttpConstants.ResponseProperties.HTTP_REASON_PROPERTY;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
 import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
 import static org.mule.module.http.api.HttpHeaders.Values.APPLICATION_X_WWW_FORM_URLENCODED;
 import static org.mule.module.http.internal.request.DefaultHttpRequester.DEFAULT_PAYLOAD_EXPRESSION;
@@ -17,6 +19,7 @@ import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleMessage;
 import org.mule.module.http.internal.HttpParser;
+import org.mule.module.http.internal.compression.ContentEncoding;
 import org.mule.module.http.internal.domain.InputStreamHttpEntity;
 import org.mule.module.http.internal.domain.response.HttpResponse;
 import org.mule.module.http.internal.multipart.HttpPartDataSource;
@@ -65,6 +68,26 @@ public class HttpResponseToMuleEvent
         String encoding = getEncoding(responseContentType);
 
         Map<String, Object> inboundProperties = getInboundProperties(response);
+
+        ContentEncoding contentEncoding = null;
+        if (requester.getConfig().isDecompressResponses())
+        {
+            contentEncoding = ContentEncoding.fromName(response.getHeaderValue(CONTENT_ENCODING.toLowerCase()));
+        }
+        if (contentEncoding != null)
+        {
+            try
+            {
+                responseInputStream = contentEncoding.decompress(responseInputStream);
+            }
+            catch (IOException e)
+            {
+                throw new MessagingException(muleEvent, e);
+            }
+            // The headers describe the compressed body, which is not the one that is exposed
+            inboundProperties.remove(CONTENT_ENCODING.toLowerCase());
+            inboundProperties.remove(CONTENT_LENGTH.toLowerCase());
+        }
         Map<String, DataHandler> inboundAttachments = null;
         Object payload = responseInputStream;
 
@@ -19,18 +19,21 @@ import org.mule.module.http.internal.domain.response.HttpResponseBuilder;
 import org.mule.module.http.internal.request.DefaultHttpAuthentication;
 import org.mule.module.http.internal.request.HttpAuthenticationType;
 import org.mule.module.http.internal.request.HttpClient;
+import org.mule.module.http.internal.request.HttpResponseCallback;
 import org.mule.module.http.internal.request.NtlmProxyConfig;
 import org.mule.module.http.internal.request.ProxyConfig;
 import org.mule.transport.ssl.api.TlsContextFactory;
 import org.mule.transport.tcp.TcpClientSocketProperties;
 import org.mule.util.StringUtils;
 
+import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.ListenableFuture;
 import com.ning.http.client.PerRequestConfig;
 import com.ning.http.client.ProxyServer;
 import com.ning.http.client.Realm;
+import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.Response;
 import com.ning.http.client.SSLEngineFactory;
@@ -194,7 +197,54 @@ public class GrizzlyHttpClient implements HttpClient
     @Override
     public HttpResponse send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication) throws IOException, TimeoutException
     {
+        ListenableFuture<Response> future = asyncHttpClient.executeRequest(createGrizzlyRequest(request, responseTimeout, followRedirects, authentication));
+        Response response = null;
+
+        try
+        {
+            response = future.get(responseTimeout, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(e);
+        }
+
+        return createMuleResponse(response);
+    }
+
+    @Override
+    public void send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication, final HttpResponseCallback callback)
+    {
+        try
+        {
+            asyncHttpClient.executeRequest(createGrizzlyRequest(request, responseTimeout, followRedirects, authentication), new AsyncCompletionHandler<Response>()
+            {
+                @Override
+                public Response onCompleted(Response response) throws Exception
+                {
+                    callback.onResponse(createMuleResponse(response));
+                    return response;
+                }
+
+                @Override
+                public void onThrowable(Throwable t)
+                {
+                    callback.onFailure(t);
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            callback.onFailure(e);
+        }
+    }
 
+    private Request createGrizzlyRequest(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication)
+    {
         RequestBuilder builder = new RequestBuilder();
 
         builder.setMethod(request.getMethod());
@@ -266,22 +316,11 @@ public class GrizzlyHttpClient implements HttpClient
         // if the maxConnections attribute is configured in the requester.
         builder.setPerRequestConfig(new PerRequestConfig(null, responseTimeout));
 
-        ListenableFuture<Response> future = asyncHttpClient.executeRequest(builder.build());
-        Response response = null;
-
-        try
-        {
-            response = future.get(responseTimeout, TimeUnit.MILLISECONDS);
-        }
-        catch (InterruptedException e)
-        {
-            throw new IOException(e);
-        }
-        catch (ExecutionException e)
-        {
-            throw new IOException(e);
-        }
+        return builder.build();
+    }
 
+    private HttpResponse createMuleResponse(Response response) throws IOException
+    {
         HttpResponseBuilder responseBuilder = new HttpResponseBuilder();
         responseBuilder.setStatusCode(response.getStatusCode());
         responseBuilder.setReasonPhrase(response.getStatusText());
@@ -296,7 +335,6 @@ public class GrizzlyHttpClient implements HttpClient
         }
 
         return responseBuilder.build();
-
     }
 
     /**
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.listener;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.mule.api.MuleEvent;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
+import org.mule.module.http.internal.compression.HttpCompressionStatisticsMBean;
+import org.mule.module.http.internal.listener.DefaultHttpListenerConfig;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.util.IOUtils;
+import org.mule.util.StringUtils;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HttpListenerCompressionTestCase extends FunctionalTestCase
+{
+
+    public static final String TEST_BODY = StringUtils.repeat("compressible text ", 100);
+
+    @Rule
+    public DynamicPort listenPort = new DynamicPort("port");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-listener-compression-config.xml";
+    }
+
+    @Test
+    public void responseIsCompressedWhenAccepted() throws Exception
+    {
+        HttpURLConnection connection = openConnection();
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        try
+        {
+            assertThat(connection.getResponseCode(), is(200));
+            assertThat(connection.getHeaderField("Content-Encoding"), equalTo("gzip"));
+            assertThat(connection.getHeaderField("Vary"), equalTo("Accept-Encoding"));
+            try (InputStream body = new GZIPInputStream(connection.getInputStream()))
+            {
+                assertThat(IOUtils.toString(body), equalTo(TEST_BODY));
+            }
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+
+        HttpCompressionStatisticsMBean statistics = getConfig().getCompressionStatistics();
+        assertThat(statistics.getCompressedMessages(), is(1L));
+        assertThat(statistics.getUncompressedBytes(), is((long) TEST_BODY.length()));
+        assertThat(statistics.getCompressedBytes(), lessThan(statistics.getUncompressedBytes()));
+    }
+
+    @Test
+    public void responseIsNotCompressedWhenNotAccepted() throws Exception
+    {
+        HttpURLConnection connection = openConnection();
+        try
+        {
+            assertThat(connection.getResponseCode(), is(200));
+            assertThat(connection.getHeaderField("Content-Encoding"), nullValue());
+            assertThat(IOUtils.toString(connection.getInputStream()), equalTo(TEST_BODY));
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+
+        assertThat(getConfig().getCompressionStatistics().getCompressedMessages(), is(0L));
+    }
+
+    @Test
+    public void requesterDecompressesResponse() throws Exception
+    {
+        MuleEvent event = runFlow("requestFlow");
+
+        assertThat(event.getMessage().getPayloadAsString(), equalTo(TEST_BODY));
+        assertThat(event.getMessage().getInboundProperty("content-encoding"), nullValue());
+        assertThat(getConfig().getCompressionStatistics().getCompressedMessages(), is(1L));
+    }
+
+    @Test
+    public void compressionStatisticsAreProvided() throws Exception
+    {
+        for (StatisticsMBeanProvider provider : muleContext.getRegistry().lookupObjects(StatisticsMBeanProvider.class))
+        {
+            if (HttpCompressionStatisticsMBean.DEFAULT_JMX_TYPE.equals(provider.getStatisticsType()))
+            {
+                assertThat(provider.getStatisticsName(), equalTo("compressingConfig"));
+                assertThat(provider.getStatistics(), is((Object) getConfig().getCompressionStatistics()));
+                return;
+            }
+        }
+        fail("Compression statistics were not registered");
+    }
+
+    private DefaultHttpListenerConfig getConfig()
+    {
+        return muleContext.getRegistry().lookupObject("compressingConfig");
+    }
+
+    private HttpURLConnection openConnection() throws Exception
+    {
+        URL url = new URL(String.format("http://localhost:%s/text", listenPort.getNumber()));
+        return (HttpURLConnection) url.openConnection();
+    }
+}
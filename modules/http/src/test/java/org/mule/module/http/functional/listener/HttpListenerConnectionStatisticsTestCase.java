@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.listener;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import org.mule.module.http.internal.listener.DefaultHttpListenerConfig;
+import org.mule.module.http.internal.listener.HttpConnectionStatisticsMBean;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HttpListenerConnectionStatisticsTestCase extends FunctionalTestCase
+{
+
+    private static final String CONTENT_LENGTH_HEADER = "content-length:";
+
+    @Rule
+    public DynamicPort unlimitedPort = new DynamicPort("unlimitedPort");
+
+    @Rule
+    public DynamicPort limitedPort = new DynamicPort("limitedPort");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-listener-connection-statistics-config.xml";
+    }
+
+    @Test
+    public void pipelinedRequestsAreRespondedInOrder() throws Exception
+    {
+        try (Socket socket = new Socket("localhost", unlimitedPort.getNumber()))
+        {
+            sendRequests(socket, "/first", "/second", "/first");
+
+            assertThat(readResponse(socket.getInputStream()), endsWith("first"));
+            assertThat(readResponse(socket.getInputStream()), endsWith("second"));
+            assertThat(readResponse(socket.getInputStream()), endsWith("first"));
+        }
+
+        final HttpConnectionStatisticsMBean statistics = getStatistics("unlimitedConfig");
+        assertThat(statistics.getTotalConnections(), is(1L));
+        assertThat(statistics.getTotalRequests(), is(3L));
+        assertThat(statistics.getReusedConnectionRequests(), is(2L));
+        assertThat(statistics.getMaxRequestsPerConnection(), is(3L));
+        assertThat(statistics.getBytesIn(), greaterThan(0L));
+        assertThat(statistics.getBytesOut(), greaterThan(0L));
+        assertConnectionsClosed(statistics);
+    }
+
+    @Test
+    public void connectionIsClosedAfterMaxRequests() throws Exception
+    {
+        try (Socket socket = new Socket("localhost", limitedPort.getNumber()))
+        {
+            sendRequests(socket, "/");
+            assertThat(readResponse(socket.getInputStream()), not(containsString("Connection: close")));
+
+            sendRequests(socket, "/");
+            assertThat(readResponse(socket.getInputStream()), containsString("Connection: close"));
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+
+        final HttpConnectionStatisticsMBean statistics = getStatistics("limitedConfig");
+        assertThat(statistics.getTotalRequests(), is(2L));
+        assertThat(statistics.getKeepAliveReuseRatio(), is(0.5));
+        assertConnectionsClosed(statistics);
+    }
+
+    private HttpConnectionStatisticsMBean getStatistics(String configName)
+    {
+        DefaultHttpListenerConfig config = muleContext.getRegistry().lookupObject(configName);
+        return config.getStatistics();
+    }
+
+    private void assertConnectionsClosed(final HttpConnectionStatisticsMBean statistics)
+    {
+        new PollingProber().check(new JUnitProbe()
+        {
+            @Override
+            protected boolean test() throws Exception
+            {
+                assertThat(statistics.getOpenConnections(), is(0L));
+                return true;
+            }
+
+            @Override
+            public String describeFailure()
+            {
+                return "Connections should be closed.";
+            }
+        });
+    }
+
+    private void sendRequests(Socket socket, String... paths) throws IOException
+    {
+        StringBuilder requests = new StringBuilder();
+        for (String path : paths)
+        {
+            requests.append("GET ").append(path).append(" HTTP/1.1\r\n");
+            requests.append("Host: localhost\r\n\r\n");
+        }
+        OutputStream outputStream = socket.getOutputStream();
+        outputStream.write(requests.toString().getBytes());
+        outputStream.flush();
+    }
+
+    private String readResponse(InputStream inputStream) throws IOException
+    {
+        StringBuilder response = new StringBuilder();
+        int contentLength = 0;
+        String line;
+        while (!(line = readLine(inputStream)).isEmpty())
+        {
+            response.append(line).append("\r\n");
+            if (line.toLowerCase().startsWith(CONTENT_LENGTH_HEADER))
+            {
+                contentLength = Integer.parseInt(line.substring(CONTENT_LENGTH_HEADER.length()).trim());
+            }
+        }
+        response.append("\r\n");
+        for (int i = 0; i < contentLength; i++)
+        {
+            response.append((char) inputStream.read());
+        }
+        return response.toString();
+    }
+
+    private String readLine(InputStream inputStream) throws IOException
+    {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != -1 && b != '\n')
+        {
+            if (b != '\r')
+            {
+                line.write(b);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.requester;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import org.mule.MessageExchangePattern;
+import org.mule.VoidMuleEvent;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.construct.Flow;
+import org.mule.util.concurrent.Latch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpRequestNonBlockingTestCase extends AbstractHttpRequestTestCase
+{
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-request-non-blocking-config.xml";
+    }
+
+    @Before
+    public void resetCapture()
+    {
+        CaptureMessageProcessor.latch = new Latch();
+    }
+
+    @Test
+    public void asynchronousEventReleasesFlowThread() throws Exception
+    {
+        Flow flow = (Flow) getFlowConstruct("nonBlockingRequest");
+
+        MuleEvent result = flow.process(getTestEvent(TEST_MESSAGE, MessageExchangePattern.ONE_WAY));
+
+        assertThat(result, is((MuleEvent) VoidMuleEvent.getInstance()));
+        assertThat(CaptureMessageProcessor.latch.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(CaptureMessageProcessor.payload, is(DEFAULT_RESPONSE));
+        assertThat(CaptureMessageProcessor.thread, not(is(Thread.currentThread())));
+    }
+
+    @Test
+    public void synchronousEventBlocksFlowThread() throws Exception
+    {
+        Flow flow = (Flow) getFlowConstruct("nonBlockingRequest");
+
+        MuleEvent result = flow.process(getTestEvent(TEST_MESSAGE, MessageExchangePattern.REQUEST_RESPONSE));
+
+        assertThat(result.getMessageAsString(), is(DEFAULT_RESPONSE));
+        assertThat(CaptureMessageProcessor.thread, is(Thread.currentThread()));
+    }
+
+    @Test
+    public void requestInScopeBlocksFlowThread() throws Exception
+    {
+        assertRequestBlocks("nonBlockingRequestInScope");
+    }
+
+    @Test
+    public void requestInSubFlowBlocksFlowThread() throws Exception
+    {
+        assertRequestBlocks("nonBlockingRequestInSubFlow");
+    }
+
+    private void assertRequestBlocks(String flowName) throws Exception
+    {
+        Flow flow = (Flow) getFlowConstruct(flowName);
+
+        flow.process(getTestEvent(TEST_MESSAGE, MessageExchangePattern.ONE_WAY));
+
+        assertThat(CaptureMessageProcessor.latch.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(CaptureMessageProcessor.payload, is(DEFAULT_RESPONSE));
+        assertThat(CaptureMessageProcessor.thread, is(Thread.currentThread()));
+    }
+
+    public static class CaptureMessageProcessor implements MessageProcessor
+    {
+
+        public static Latch latch = new Latch();
+        public static volatile String payload;
+        public static volatile Thread thread;
+
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            try
+            {
+                payload = event.getMessageAsString();
+            }
+            finally
+            {
+                thread = Thread.currentThread();
+                latch.release();
+            }
+            return event;
+        }
+    }
+}
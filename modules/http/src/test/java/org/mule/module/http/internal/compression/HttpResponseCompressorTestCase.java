@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.module.http.api.HttpHeaders.Names.TRANSFER_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.VARY;
+import static org.mule.module.http.api.HttpHeaders.Values.CHUNKED;
+import org.mule.module.http.internal.domain.ByteArrayHttpEntity;
+import org.mule.module.http.internal.domain.HttpEntity;
+import org.mule.module.http.internal.domain.InputStreamHttpEntity;
+import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.domain.response.HttpResponseBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SmallTest
+public class HttpResponseCompressorTestCase extends AbstractMuleTestCase
+{
+
+    private static final int MIN_SIZE = 100;
+    private static final String CONTENT = createContent();
+
+    private final CompressionStatistics statistics = new CompressionStatistics();
+    private final HttpResponseCompressor compressor = new HttpResponseCompressor(MIN_SIZE, Arrays.asList("text/plain", "application/*"), statistics);
+
+    @Test
+    public void negotiatesPreferredEncoding()
+    {
+        assertThat(ContentEncoding.negotiate("deflate, gzip"), is(ContentEncoding.GZIP));
+        assertThat(ContentEncoding.negotiate("deflate"), is(ContentEncoding.DEFLATE));
+        assertThat(ContentEncoding.negotiate("gzip;q=0, deflate;q=0.5"), is(ContentEncoding.DEFLATE));
+        assertThat(ContentEncoding.negotiate("*"), is(ContentEncoding.GZIP));
+        assertThat(ContentEncoding.negotiate("identity"), is(nullValue()));
+        assertThat(ContentEncoding.negotiate(null), is(nullValue()));
+    }
+
+    @Test
+    public void compressesByteArrayWithGzip() throws Exception
+    {
+        HttpResponse response = compressor.compress(createResponse("text/plain; charset=UTF-8", new ByteArrayHttpEntity(CONTENT.getBytes())), "gzip");
+
+        assertThat(response.getHeaderValue(CONTENT_ENCODING), is("gzip"));
+        assertThat(response.getHeaderValue(VARY), is(ACCEPT_ENCODING));
+        byte[] compressed = ((ByteArrayHttpEntity) response.getEntity()).getContent();
+        assertThat(response.getHeaderValue(CONTENT_LENGTH), is(Integer.toString(compressed.length)));
+        assertThat(compressed.length, lessThan(CONTENT.length()));
+        assertThat(decompress(ContentEncoding.GZIP, new ByteArrayInputStream(compressed)), is(CONTENT));
+        assertThat(statistics.getCompressedMessages(), is(1L));
+        assertThat(statistics.getUncompressedBytes(), is((long) CONTENT.length()));
+        assertThat(statistics.getCompressedBytes(), is((long) compressed.length));
+    }
+
+    @Test
+    public void compressesStreamWithDeflate() throws Exception
+    {
+        InputStreamHttpEntity entity = new InputStreamHttpEntity(new ByteArrayInputStream(CONTENT.getBytes()));
+        HttpResponse response = compressor.compress(createResponse("application/json", entity), "deflate");
+
+        assertThat(response.getHeaderValue(CONTENT_ENCODING), is("deflate"));
+        assertThat(response.getHeaderValue(TRANSFER_ENCODING), is(CHUNKED));
+        assertThat(response.getHeaderValue(CONTENT_LENGTH), is(nullValue()));
+        InputStream compressed = ((InputStreamHttpEntity) response.getEntity()).getInputStream();
+        assertThat(decompress(ContentEncoding.DEFLATE, compressed), is(CONTENT));
+        assertThat(statistics.getCompressedMessages(), is(1L));
+        assertThat(statistics.getCompressionRatio() < 1, is(true));
+    }
+
+    @Test
+    public void doesNotCompressSmallContent()
+    {
+        HttpResponse response = createResponse("text/plain", new ByteArrayHttpEntity("small".getBytes()));
+
+        assertThat(compressor.compress(response, "gzip"), is(sameInstance(response)));
+    }
+
+    @Test
+    public void doesNotCountDiscardedCompression()
+    {
+        byte[] content = new byte[MIN_SIZE];
+        new Random(0).nextBytes(content);
+        HttpResponse response = createResponse("text/plain", new ByteArrayHttpEntity(content));
+
+        assertThat(compressor.compress(response, "gzip"), is(sameInstance(response)));
+        assertThat(statistics.getCompressedMessages(), is(0L));
+        assertThat(statistics.getUncompressedBytes(), is(0L));
+    }
+
+    @Test
+    public void doesNotCompressOtherMimeTypes()
+    {
+        HttpResponse response = createResponse("image/png", new ByteArrayHttpEntity(CONTENT.getBytes()));
+
+        assertThat(compressor.compress(response, "gzip"), is(sameInstance(response)));
+    }
+
+    @Test
+    public void doesNotCompressWhenNotAccepted()
+    {
+        HttpResponse response = createResponse("text/plain", new ByteArrayHttpEntity(CONTENT.getBytes()));
+
+        assertThat(compressor.compress(response, "identity"), is(sameInstance(response)));
+        assertThat(compressor.compress(response, null), is(sameInstance(response)));
+    }
+
+    @Test
+    public void doesNotCompressEncodedContent()
+    {
+        HttpResponse response = new HttpResponseBuilder().setStatusCode(200)
+                .addHeader(CONTENT_TYPE, "text/plain")
+                .addHeader(CONTENT_ENCODING, "br")
+                .setEntity(new ByteArrayHttpEntity(CONTENT.getBytes()))
+                .build();
+
+        assertThat(compressor.compress(response, "gzip"), is(sameInstance(response)));
+    }
+
+    @Test
+    public void decompressesEmptyContent() throws Exception
+    {
+        assertThat(decompress(ContentEncoding.GZIP, new ByteArrayInputStream(new byte[0])), is(""));
+    }
+
+    private HttpResponse createResponse(String contentType, HttpEntity entity)
+    {
+        return new HttpResponseBuilder().setStatusCode(200).addHeader(CONTENT_TYPE, contentType).setEntity(entity).build();
+    }
+
+    private String decompress(ContentEncoding encoding, InputStream inputStream) throws Exception
+    {
+        return IOUtils.toString(encoding.decompress(inputStream));
+    }
+
+    private static String createContent()
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            builder.append("line ").append(i).append(" of some compressible content\n");
+        }
+        return builder.toString();
+    }
+}
@@ -58,13 +58,13 @@ public class HttpListenerConnectionManagerTestCase extends AbstractMuleTestCase
         when(mockMuleContext.getRegistry().lookupObject(TcpServerSocketProperties.class)).thenReturn(mock(TcpServerSocketProperties.class));
 
         connectionManager.initialise();
-        connectionManager.createServer(new ServerAddress(firstIp, PORT), mockWorkManagerSource, false, CONNECTION_IDLE_TIMEOUT);
+        connectionManager.createServer(new ServerAddress(firstIp, PORT), mockWorkManagerSource, false, CONNECTION_IDLE_TIMEOUT, DefaultHttpListenerConfig.UNLIMITED_REQUESTS_PER_CONNECTION);
         expectedException.expect(MuleRuntimeException.class);
         expectedException.expectMessage(String.format(HttpListenerConnectionManager.SERVER_ALREADY_EXISTS_FORMAT, PORT, secondIp));
 
         try
         {
-            connectionManager.createServer(new ServerAddress(secondIp, PORT), mockWorkManagerSource, false, CONNECTION_IDLE_TIMEOUT);
+            connectionManager.createServer(new ServerAddress(secondIp, PORT), mockWorkManagerSource, false, CONNECTION_IDLE_TIMEOUT, DefaultHttpListenerConfig.UNLIMITED_REQUESTS_PER_CONNECTION);
         }
         finally
         {
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class PathSegmentMapTestCase extends AbstractMuleTestCase
+{
+
+    private final PathSegmentMap<String> map = new PathSegmentMap<>();
+
+    @Test
+    public void getsSegmentFromPathRegion()
+    {
+        map.put("orders", "ordersValue");
+        map.put("items", "itemsValue");
+        String path = "/api/orders/123/items";
+
+        assertThat(map.get(path, 5, 11), is("ordersValue"));
+        assertThat(map.get(path, 16, 21), is("itemsValue"));
+        assertThat(map.get(path, 1, 4), is(nullValue()));
+        assertThat(map.get(path, 5, 10), is(nullValue()));
+    }
+
+    @Test
+    public void getsEmptySegment()
+    {
+        map.put("", "emptyValue");
+
+        assertThat(map.get("/a//b", 3, 3), is("emptyValue"));
+    }
+
+    @Test
+    public void replacesExistingSegment()
+    {
+        map.put("orders", "first");
+        map.put("orders", "second");
+
+        assertThat(map.get("orders"), is("second"));
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    public void keepsAllSegmentsWhenGrowing()
+    {
+        for (int i = 0; i < 500; i++)
+        {
+            map.put("segment" + i, "value" + i);
+        }
+
+        assertThat(map.size(), is(500));
+        for (int i = 0; i < 500; i++)
+        {
+            String path = "/segment" + i + "/";
+            assertThat(map.get(path, 1, path.length() - 1), is("value" + i));
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.mule.api.MuleException;
 import org.mule.api.MuleRuntimeException;
 import org.mule.api.context.notification.MuleContextNotificationListener;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
 import org.mule.api.model.Model;
 import org.mule.api.service.Service;
 import org.mule.api.transport.Connector;
@@ -457,6 +458,34 @@ public abstract class AbstractJmxAgent extends AbstractAgent
         }
     }
 
+    /**
+     * Registers the statistics of the objects in the registry implementing {@link StatisticsMBeanProvider}.
+     */
+    protected void registerStatisticsMBeanProviders() throws NotCompliantMBeanException, MBeanRegistrationException,
+        InstanceAlreadyExistsException, MalformedObjectNameException
+    {
+        for (StatisticsMBeanProvider<?> provider : muleContext.getRegistry().lookupLocalObjects(StatisticsMBeanProvider.class))
+        {
+            registerStatisticsMBeanProvider(provider);
+        }
+    }
+
+    private <T> void registerStatisticsMBeanProvider(StatisticsMBeanProvider<T> provider) throws NotCompliantMBeanException,
+        MBeanRegistrationException, InstanceAlreadyExistsException, MalformedObjectNameException
+    {
+        T statistics = provider.getStatistics();
+        if (statistics == null)
+        {
+            return;
+        }
+        final String name = jmxSupport.escape(provider.getStatisticsName());
+        final String jmxName = String.format("%s:type=%s,name=%s", jmxSupport.getDomainName(muleContext, !containerMode), provider.getStatisticsType(), name);
+        ObjectName on = jmxSupport.getObjectName(jmxName);
+        ClassloaderSwitchingMBeanWrapper wrapper = new ClassloaderSwitchingMBeanWrapper(statistics, provider.getStatisticsInterface(), muleContext.getExecutionClassLoader());
+        logger.debug("Registering statistics with name: " + on);
+        mBeanServer.registerMBean(wrapper, on);
+    }
+
     protected void registerEndpointServices() throws NotCompliantMBeanException, MBeanRegistrationException,
         InstanceAlreadyExistsException, MalformedObjectNameException
     {
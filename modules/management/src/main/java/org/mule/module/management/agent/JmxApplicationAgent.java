@@ -31,6 +31,7 @@ public class JmxApplicationAgent extends AbstractJmxAgent
         registerEndpointServices();
         registerConnectorServices();
         registerApplicationServices();
+        registerStatisticsMBeanProviders();
     }
 
 }
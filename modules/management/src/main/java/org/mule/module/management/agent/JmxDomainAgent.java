@@ -25,6 +25,7 @@ public class JmxDomainAgent extends AbstractJmxAgent
         registerMuleService();
         registerConnectorServices();
         registerConfigurationService();
+        registerStatisticsMBeanProviders();
     }
 
 }
@@ -9,6 +9,7 @@ package org.mule.module.management.mbean;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.mule.management.stats.FlowConstructStatistics;
+import org.mule.management.stats.RouterStatistics;
 
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
@@ -26,6 +27,8 @@ public class FlowConstructStats implements FlowConstructStatsMBean, MBeanRegistr
 
     protected ObjectName name;
 
+    private ObjectName aggregatorName;
+
     /**
      * logger used by this class
      */
@@ -100,7 +103,25 @@ public class FlowConstructStats implements FlowConstructStatsMBean, MBeanRegistr
 
     public void postRegister(Boolean registrationDone)
     {
-        // nothing to do
+        try
+        {
+            RouterStatistics aggregatorStatistics = statistics.getAggregatorStatistics();
+            if (aggregatorStatistics != null)
+            {
+                aggregatorName = new ObjectName(name.toString() + ",router=aggregator");
+
+                // unregister old version if exists
+                if (server.isRegistered(aggregatorName))
+                {
+                    server.unregisterMBean(aggregatorName);
+                }
+                server.registerMBean(new RouterStats(aggregatorStatistics), aggregatorName);
+            }
+        }
+        catch (Exception e)
+        {
+            LOGGER.error("Error post-registering MBean", e);
+        }
     }
 
     public void preDeregister() throws Exception
@@ -110,6 +131,16 @@ public class FlowConstructStats implements FlowConstructStatsMBean, MBeanRegistr
 
     public void postDeregister()
     {
-        // nothing to do
+        try
+        {
+            if (aggregatorName != null && server.isRegistered(aggregatorName))
+            {
+                server.unregisterMBean(aggregatorName);
+            }
+        }
+        catch (Exception e)
+        {
+            LOGGER.error("Error unregistering FlowConstructStats child " + aggregatorName.getCanonicalName(), e);
+        }
     }
 }
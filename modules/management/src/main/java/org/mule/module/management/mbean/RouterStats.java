@@ -43,6 +43,16 @@ public class RouterStats implements RouterStatsMBean
         return statistics.getTotalRouted();
     }
 
+    public long getExpiredGroups()
+    {
+        return statistics.getExpiredGroups();
+    }
+
+    public long getDispatchedGroups()
+    {
+        return statistics.getDispatchedGroups();
+    }
+
     public Map getRouted()
     {
         return statistics.getRouted();
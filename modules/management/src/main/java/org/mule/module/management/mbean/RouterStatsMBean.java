@@ -22,5 +22,9 @@ public interface RouterStatsMBean
 
     long getTotalRouted();
 
+    long getExpiredGroups();
+
+    long getDispatchedGroups();
+
     Map getRouted();
 }
@@ -11,6 +11,7 @@ import org.mule.api.config.MuleProperties;
 import org.mule.api.context.MuleContextAware;
 import org.mule.api.store.QueueStore;
 import org.mule.config.QueueProfile;
+import org.mule.util.queue.QueueStoreDelegateType;
 
 import java.io.Serializable;
 
@@ -21,6 +22,7 @@ public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> i
     private int maxOutstandingMessages;
     private MuleContext muleContext;
     private QueueStore<Serializable> queueStore;
+    private QueueStoreDelegateType storeDelegateType = QueueStoreDelegateType.DEFAULT;
 
     @Override
     public Class<?> getObjectType()
@@ -37,7 +39,9 @@ public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> i
             objectStore = muleContext.getRegistry().lookupObject(MuleProperties.QUEUE_STORE_DEFAULT_IN_MEMORY_NAME);
         }
 
-        return new QueueProfile(getMaxOutstandingMessages(), objectStore);
+        QueueProfile queueProfile = new QueueProfile(getMaxOutstandingMessages(), objectStore);
+        queueProfile.setStoreDelegateType(storeDelegateType);
+        return queueProfile;
     }
 
     @Override
@@ -65,6 +69,14 @@ public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> i
     {
         return queueStore;
     }
-}
 
+    public QueueStoreDelegateType getStoreDelegateType()
+    {
+        return storeDelegateType;
+    }
 
+    public void setStoreDelegateType(QueueStoreDelegateType storeDelegateType)
+    {
+        this.storeDelegateType = storeDelegateType;
+    }
+}
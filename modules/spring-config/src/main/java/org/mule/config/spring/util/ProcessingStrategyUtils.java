@@ -12,6 +12,7 @@ import org.mule.processor.strategy.QueuedAsynchronousProcessingStrategy;
 import org.mule.processor.strategy.QueuedThreadPerProcessorProcessingStrategy;
 import org.mule.processor.strategy.SynchronousProcessingStrategy;
 import org.mule.processor.strategy.ThreadPerProcessorProcessingStrategy;
+import org.mule.processor.strategy.VirtualThreadProcessingStrategy;
 
 import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
@@ -28,6 +29,7 @@ public class ProcessingStrategyUtils
     public static String QUEUED_ASYNC_PROCESSING_STRATEGY = "queued-asynchronous";
     public static String THREAD_PER_PROCESSOR_PROCESSING_STRATEGY = "thread-per-processor";
     public static String QUEUED_THREAD_PER_PROCESSOR_PROCESSING_STRATEGY = "queued-thread-per-processor";
+    public static String VIRTUAL_THREAD_PROCESSING_STRATEGY = "virtual-thread";
 
     public static void configureProcessingStrategy(Element element,
                                                    BeanDefinitionBuilder builder,
@@ -61,6 +63,11 @@ public class ProcessingStrategyUtils
             builder.addPropertyValue(PROCESSING_STRATEGY_ATTRIBUTE_NAME,
                 new QueuedThreadPerProcessorProcessingStrategy());
         }
+        else if (VIRTUAL_THREAD_PROCESSING_STRATEGY.equals(processingStrategy))
+        {
+            builder.addPropertyValue(PROCESSING_STRATEGY_ATTRIBUTE_NAME,
+                new VirtualThreadProcessingStrategy());
+        }
         else if (null != processingStrategy && !processingStrategy.isEmpty())
         {
             builder.addPropertyValue(PROCESSING_STRATEGY_ATTRIBUTE_NAME, new RuntimeBeanReference(
@@ -23,7 +23,6 @@ import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.junit.Test;
 import org.junit.runners.Parameterized.Parameters;
 
@@ -78,7 +77,7 @@ public class MessageChunkingTestCase extends AbstractServiceAndFlowTestCase
             true, 99);
 
         // find number of chunks
-        final int parts = (int) Math.ceil((SerializationUtils.serialize(simpleSerializableObject).length / (double) 2));
+        final int parts = (int) Math.ceil((muleContext.getObjectSerializer().serialize(simpleSerializableObject).length / (double) 2));
 
         // Listen to events fired by the ChunkingReceiver service
         muleContext.registerListener(new FunctionalTestNotificationListener()
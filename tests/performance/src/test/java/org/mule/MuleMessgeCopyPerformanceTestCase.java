@@ -14,6 +14,8 @@ import org.mule.util.IOUtils;
 
 import java.io.IOException;
 
+import javax.activation.DataHandler;
+
 import org.databene.contiperf.PerfTest;
 import org.databene.contiperf.junit.ContiPerfRule;
 import org.junit.Before;
@@ -58,6 +60,17 @@ public class MuleMessgeCopyPerformanceTestCase extends AbstractMuleTestCase
         }
     }
 
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyWith10Properties()
+    {
+        MuleMessage original = createMuleMessageWithProperties(5);
+        for (int i = 0; i < 1000; i++)
+        {
+            message = new DefaultMuleMessage(original);
+        }
+    }
+
     @Test
     @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
     public void copyWith20Poperties()
@@ -80,6 +93,29 @@ public class MuleMessgeCopyPerformanceTestCase extends AbstractMuleTestCase
         }
     }
 
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyWith1000Properties()
+    {
+        MuleMessage original = createMuleMessageWithProperties(500);
+        for (int i = 0; i < 1000; i++)
+        {
+            message = new DefaultMuleMessage(original);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyWith10PropertiesWrite1Outbound()
+    {
+        MuleMessage original = createMuleMessageWithProperties(5);
+        for (int i = 0; i < 1000; i++)
+        {
+            message = new DefaultMuleMessage(original);
+            message.setProperty("newKey", "val", PropertyScope.OUTBOUND);
+        }
+    }
+
     @Test
     @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
     public void copyWith20PopertiesWrite1Outbound()
@@ -134,6 +170,33 @@ public class MuleMessgeCopyPerformanceTestCase extends AbstractMuleTestCase
         }
     }
 
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyWith1000PropertiesWrite1Outbound()
+    {
+        MuleMessage original = createMuleMessageWithProperties(500);
+        for (int i = 0; i < 1000; i++)
+        {
+            message = new DefaultMuleMessage(original);
+            message.setProperty("newKey", "val", PropertyScope.OUTBOUND);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyWith1000PropertiesAndAttachments() throws Exception
+    {
+        MuleMessage original = createMuleMessageWithProperties(500);
+        for (int i = 1; i <= 10; i++)
+        {
+            original.addOutboundAttachment("attachment" + i, new DataHandler("val", "text/plain"));
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            message = new DefaultMuleMessage(original);
+        }
+    }
+
     protected MuleMessage createMuleMessage()
     {
         return new DefaultMuleMessage(payload, muleContext);
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.construct.Flow;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.util.IOUtils;
+
+import java.io.IOException;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SerializationPerformanceTestCase extends AbstractMuleContextTestCase
+{
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Mock
+    private Flow flow;
+
+    private String payload;
+    private JavaObjectSerializer javaSerializer;
+    private Object result;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws IOException
+    {
+        payload = IOUtils.getResourceAsString("test-data.json", getClass());
+        javaSerializer = new JavaObjectSerializer();
+        javaSerializer.setMuleContext(muleContext);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeMessage() throws Exception
+    {
+        serialize(muleContext.getObjectSerializer(), createMuleEvent(10).getMessage());
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeMessageJava() throws Exception
+    {
+        serialize(javaSerializer, createMuleEvent(10).getMessage());
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeEvent() throws Exception
+    {
+        serialize(muleContext.getObjectSerializer(), createMuleEvent(10));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeEventJava() throws Exception
+    {
+        serialize(javaSerializer, createMuleEvent(10));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeAndDeserializeEvent() throws Exception
+    {
+        serializeAndDeserialize(muleContext.getObjectSerializer(), createMuleEvent(10));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeAndDeserializeEventJava() throws Exception
+    {
+        serializeAndDeserialize(javaSerializer, createMuleEvent(10));
+    }
+
+    private void serialize(ObjectSerializer serializer, Object object)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = serializer.serialize(object);
+        }
+    }
+
+    private void serializeAndDeserialize(ObjectSerializer serializer, Object object)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = serializer.deserialize(serializer.serialize(object));
+        }
+    }
+
+    protected DefaultMuleEvent createMuleEvent(int numProperties) throws Exception
+    {
+        DefaultMuleEvent event = new DefaultMuleEvent(new DefaultMuleMessage(payload, muleContext),
+            MessageExchangePattern.ONE_WAY, flow);
+        for (int i = 1; i <= numProperties; i++)
+        {
+            event.setFlowVariable("InBoUnDpRoPeRtYkEy" + i, "val");
+            event.getMessage().setOutboundProperty("InBoUnDpRoPeRtYkEy" + i, "val");
+            event.getSession().setProperty("SeSsIoNpRoPeRtYkEy" + i, "val");
+        }
+        return event;
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.module.http.internal.domain.HttpEntity;
+import org.mule.module.http.internal.domain.HttpProtocol;
+import org.mule.module.http.internal.domain.InputStreamHttpEntity;
+import org.mule.module.http.internal.domain.request.HttpRequest;
+import org.mule.module.http.internal.listener.async.RequestHandler;
+import org.mule.module.http.internal.listener.matcher.ListenerRequestMatcher;
+import org.mule.module.http.internal.listener.matcher.MethodRequestMatcher;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the time to find the listener of a request in a {@link HttpListenerRegistry} with 500 registered
+ * listeners, using literal paths, paths with uri params and catch all paths. Requests use distinct uri param
+ * values, as an API receiving requests for different resources would.
+ */
+public class HttpListenerRegistryPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final String IP = "127.0.0.1";
+    private static final int PORT = 8081;
+    private static final int RESOURCES = 100;
+    private static final int REQUESTS = 10000;
+    private static final int REQUESTS_PER_INVOCATION = 100;
+    private static final String[] METHODS = {"GET", "POST"};
+
+    private static final HttpListenerRegistry registry = new HttpListenerRegistry();
+    private static final HttpRequest[] requests = new HttpRequest[REQUESTS];
+    private static final AtomicInteger nextRequest = new AtomicInteger();
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @BeforeClass
+    public static void registerListeners()
+    {
+        Server server = mock(Server.class);
+        when(server.getServerAddress()).thenReturn(new ServerAddress(IP, PORT));
+        // 5 listeners per resource
+        for (int i = 0; i < RESOURCES; i++)
+        {
+            String resourcePath = "/api/resource" + i;
+            addListener(server, resourcePath, "GET", "POST");
+            addListener(server, resourcePath + "/{id}", "GET", "PUT", "DELETE");
+            addListener(server, resourcePath + "/{id}/items", "GET", "POST");
+            addListener(server, resourcePath + "/{id}/items/{itemId}", "GET");
+            addListener(server, resourcePath + "/search/*", "GET");
+        }
+
+        for (int i = 0; i < REQUESTS; i++)
+        {
+            String resourcePath = "/api/resource" + (i % RESOURCES);
+            String path;
+            String method = METHODS[i % 2];
+            switch (i % 5)
+            {
+                case 0:
+                    path = resourcePath;
+                    break;
+                case 1:
+                    path = resourcePath + "/" + i;
+                    method = "PUT";
+                    break;
+                case 2:
+                    path = resourcePath + "/" + i + "/items";
+                    break;
+                case 3:
+                    path = resourcePath + "/" + i + "/items/" + (i * 31);
+                    method = "GET";
+                    break;
+                default:
+                    path = resourcePath + "/search/by-name/" + i;
+                    method = "GET";
+            }
+            requests[i] = new TestHttpRequest(method, path);
+        }
+    }
+
+    private static void addListener(Server server, String path, String... methods)
+    {
+        registry.addRequestHandler(server, mock(RequestHandler.class), new ListenerRequestMatcher(new MethodRequestMatcher(methods), path));
+    }
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void findRequestHandlerOneThread()
+    {
+        findRequestHandlers();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void findRequestHandlerSixteenThreads()
+    {
+        findRequestHandlers();
+    }
+
+    private void findRequestHandlers()
+    {
+        for (int i = 0; i < REQUESTS_PER_INVOCATION; i++)
+        {
+            HttpRequest request = requests[(nextRequest.getAndIncrement() & Integer.MAX_VALUE) % REQUESTS];
+            if (registry.getRequestHandler(IP, PORT, request) instanceof NoListenerRequestHandler)
+            {
+                throw new IllegalStateException("No listener found for " + request.getPath());
+            }
+        }
+    }
+
+    private static class TestHttpRequest implements HttpRequest
+    {
+
+        private final String method;
+        private final String path;
+
+        private TestHttpRequest(String method, String path)
+        {
+            this.method = method;
+            this.path = path;
+        }
+
+        @Override
+        public HttpProtocol getProtocol()
+        {
+            return HttpProtocol.HTTP_1_1;
+        }
+
+        @Override
+        public String getPath()
+        {
+            return path;
+        }
+
+        @Override
+        public String getMethod()
+        {
+            return method;
+        }
+
+        @Override
+        public String getUri()
+        {
+            return path;
+        }
+
+        @Override
+        public InputStreamHttpEntity getInputStreamEntity()
+        {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getHeaderNames()
+        {
+            return null;
+        }
+
+        @Override
+        public String getHeaderValue(String headerName)
+        {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getHeaderValues(String headerName)
+        {
+            return null;
+        }
+
+        @Override
+        public HttpEntity getEntity()
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import org.mule.api.endpoint.OutboundEndpoint;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.transport.jms.activemq.ActiveMQJmsConnector;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the one-way sends per second through a JMS outbound endpoint against an embedded ActiveMQ
+ * broker, creating a session and producer for every send, caching them in the connection factory
+ * (the default) and taking them from the connector producer pool with cached destinations.
+ */
+public class JmsOutboundPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final String BROKER_URL = "vm://localhost?broker.persistent=false&broker.useJmx=false";
+    private static final String QUEUE = "performance";
+    private static final int PRODUCER_POOL_SIZE = 16;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private Connection drainConnection;
+    private OutboundEndpoint uncachedEndpoint;
+    private OutboundEndpoint cachingFactoryEndpoint;
+    private OutboundEndpoint pooledEndpoint;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void setUpConnectors() throws Exception
+    {
+        // Keep the queue empty so the broker doesn't block the producers
+        drainConnection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+        Session session = drainConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        session.createConsumer(session.createQueue(QUEUE)).setMessageListener(new MessageListener()
+        {
+            @Override
+            public void onMessage(Message message)
+            {
+                // discard
+            }
+        });
+        drainConnection.start();
+
+        ActiveMQJmsConnector uncached = createConnector("uncached");
+        uncached.setCacheJmsSessions(false);
+        ActiveMQJmsConnector cachingFactory = createConnector("cachingFactory");
+        ActiveMQJmsConnector pooled = createConnector("pooled");
+        pooled.setCacheJmsSessions(false);
+        pooled.setProducerPoolSize(PRODUCER_POOL_SIZE);
+        pooled.setCacheDestinations(true);
+
+        muleContext.getRegistry().registerConnector(uncached);
+        muleContext.getRegistry().registerConnector(cachingFactory);
+        muleContext.getRegistry().registerConnector(pooled);
+        muleContext.start();
+
+        uncachedEndpoint = getOutboundEndpoint("uncached");
+        cachingFactoryEndpoint = getOutboundEndpoint("cachingFactory");
+        pooledEndpoint = getOutboundEndpoint("pooled");
+    }
+
+    @After
+    public void closeDrainConnection() throws Exception
+    {
+        if (drainConnection != null)
+        {
+            drainConnection.close();
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void uncached() throws Exception
+    {
+        uncachedEndpoint.process(getTestEvent(TEST_MESSAGE));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void cachingConnectionFactory() throws Exception
+    {
+        cachingFactoryEndpoint.process(getTestEvent(TEST_MESSAGE));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void producerPool() throws Exception
+    {
+        pooledEndpoint.process(getTestEvent(TEST_MESSAGE));
+    }
+
+    private ActiveMQJmsConnector createConnector(String name)
+    {
+        ActiveMQJmsConnector connector = new ActiveMQJmsConnector(muleContext);
+        connector.setName(name);
+        connector.setConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL));
+        return connector;
+    }
+
+    private OutboundEndpoint getOutboundEndpoint(String connectorName) throws Exception
+    {
+        return muleContext.getEndpointFactory().getOutboundEndpoint(String.format("jms://%s?connector=%s", QUEUE, connectorName));
+    }
+}
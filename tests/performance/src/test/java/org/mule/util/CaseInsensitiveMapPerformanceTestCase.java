@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.Map;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares {@link CaseInsensitiveHashMap} and {@link CaseInsensitiveOpenHashMap} with the number of
+ * entries of a message carrying the headers of a typical HTTP request.
+ */
+public class CaseInsensitiveMapPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int NUMBER_OF_ENTRIES = 40;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private String[] keys;
+    private String[] lookupKeys;
+    private Map<String, Object> hashMap;
+    private Map<String, Object> openHashMap;
+    private Object result;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before()
+    {
+        keys = new String[NUMBER_OF_ENTRIES];
+        lookupKeys = new String[NUMBER_OF_ENTRIES];
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+        {
+            keys[i] = "X-Custom-Header-" + i;
+            lookupKeys[i] = keys[i].toLowerCase();
+        }
+        hashMap = fill(new CaseInsensitiveHashMap());
+        openHashMap = fill(new CaseInsensitiveOpenHashMap<String, Object>());
+    }
+
+    private Map<String, Object> fill(Map<String, Object> map)
+    {
+        for (String key : keys)
+        {
+            map.put(key, "value");
+        }
+        return map;
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void getCaseInsensitiveHashMap()
+    {
+        get(hashMap);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void getCaseInsensitiveOpenHashMap()
+    {
+        get(openHashMap);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void putCaseInsensitiveHashMap()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = fill(new CaseInsensitiveHashMap());
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void putCaseInsensitiveOpenHashMap()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = fill(new CaseInsensitiveOpenHashMap<String, Object>());
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyCaseInsensitiveHashMap()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = new CaseInsensitiveHashMap(hashMap);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyCaseInsensitiveOpenHashMap()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            result = new CaseInsensitiveOpenHashMap<String, Object>(openHashMap);
+        }
+    }
+
+    private void get(Map<String, Object> map)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            for (String key : lookupKeys)
+            {
+                result = map.get(key);
+            }
+        }
+    }
+}
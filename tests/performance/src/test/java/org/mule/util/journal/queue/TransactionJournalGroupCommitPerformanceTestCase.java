@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.journal.queue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.util.queue.QueueStore;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the commits per second of a queue transaction journal writing each transaction on its own
+ * against one using group commit, with 1, 16 and 64 concurrent committers.
+ */
+public class TransactionJournalGroupCommitPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int TRANSACTIONS_PER_INVOCATION = 100;
+    private static final String VALUE = "some value";
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final AtomicInteger txIdGenerator = new AtomicInteger();
+    private static LocalTxQueueTransactionJournal singleCommitJournal;
+    private static LocalTxQueueTransactionJournal groupCommitJournal;
+    private static QueueStore queueStore;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @BeforeClass
+    public static void createJournals() throws IOException
+    {
+        MuleContext muleContext = mock(MuleContext.class);
+        when(muleContext.getExecutionClassLoader()).thenReturn(TransactionJournalGroupCommitPerformanceTestCase.class.getClassLoader());
+        queueStore = mock(QueueStore.class);
+        when(queueStore.getName()).thenReturn("queue");
+        singleCommitJournal = new LocalTxQueueTransactionJournal(temporaryFolder.newFolder().getAbsolutePath(), muleContext);
+        groupCommitJournal = new LocalTxQueueTransactionJournal(temporaryFolder.newFolder().getAbsolutePath(), muleContext, 64, 500);
+    }
+
+    @AfterClass
+    public static void closeJournals()
+    {
+        singleCommitJournal.close();
+        groupCommitJournal.close();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void singleCommitOneCommitter()
+    {
+        commitTransactions(singleCommitJournal);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void singleCommitSixteenCommitters()
+    {
+        commitTransactions(singleCommitJournal);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 64, warmUp = 5000)
+    public void singleCommitSixtyFourCommitters()
+    {
+        commitTransactions(singleCommitJournal);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void groupCommitOneCommitter()
+    {
+        commitTransactions(groupCommitJournal);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void groupCommitSixteenCommitters()
+    {
+        commitTransactions(groupCommitJournal);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 64, warmUp = 5000)
+    public void groupCommitSixtyFourCommitters()
+    {
+        commitTransactions(groupCommitJournal);
+    }
+
+    private void commitTransactions(LocalTxQueueTransactionJournal journal)
+    {
+        for (int i = 0; i < TRANSACTIONS_PER_INVOCATION; i++)
+        {
+            int txId = txIdGenerator.incrementAndGet();
+            journal.logAdd(txId, queueStore, VALUE);
+            journal.logCommit(txId);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.util.queue.RingBufferQueueStoreDelegate.WaitStrategy;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares the throughput and latency of the transient {@link DefaultQueueStoreDelegate} against the
+ * {@link RingBufferQueueStoreDelegate} with each wait strategy, with 1 and 16 threads that add and remove
+ * elements concurrently.
+ */
+public class QueueStoreDelegatePerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int CAPACITY = 1024;
+    private static final int ELEMENTS_PER_INVOCATION = 100;
+    private static final long TIMEOUT = 1000;
+    private static final String VALUE = "some value";
+
+    private static final QueueStoreDelegate defaultDelegate = new DefaultQueueStoreDelegate(CAPACITY);
+    private static final QueueStoreDelegate spinDelegate = new RingBufferQueueStoreDelegate(CAPACITY, WaitStrategy.SPIN);
+    private static final QueueStoreDelegate parkDelegate = new RingBufferQueueStoreDelegate(CAPACITY, WaitStrategy.PARK);
+    private static final QueueStoreDelegate blockDelegate = new RingBufferQueueStoreDelegate(CAPACITY, WaitStrategy.BLOCK);
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void defaultDelegateOneThread() throws InterruptedException
+    {
+        offerAndPoll(defaultDelegate);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void defaultDelegateSixteenThreads() throws InterruptedException
+    {
+        offerAndPoll(defaultDelegate);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void ringBufferOneThread() throws InterruptedException
+    {
+        offerAndPoll(blockDelegate);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void ringBufferSpinSixteenThreads() throws InterruptedException
+    {
+        offerAndPoll(spinDelegate);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void ringBufferParkSixteenThreads() throws InterruptedException
+    {
+        offerAndPoll(parkDelegate);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 16, warmUp = 5000)
+    public void ringBufferBlockSixteenThreads() throws InterruptedException
+    {
+        offerAndPoll(blockDelegate);
+    }
+
+    private void offerAndPoll(QueueStoreDelegate delegate) throws InterruptedException
+    {
+        for (int i = 0; i < ELEMENTS_PER_INVOCATION; i++)
+        {
+            delegate.offer(VALUE, 0, TIMEOUT);
+            delegate.poll(TIMEOUT);
+        }
+    }
+}
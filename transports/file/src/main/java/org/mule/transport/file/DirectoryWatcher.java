@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.file;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Keeps an incremental view of the files pending to be processed in a directory, driven by the
+ * events of a {@link WatchService}, so a {@link FileMessageReceiver} in watch mode only has to
+ * consider the files created or modified since the previous poll instead of listing the whole directory.
+ * <p/>
+ * Watch services may lose events (they report an overflow when they do), so a full rescan is
+ * required after an overflow and every <code>fullRescanFrequency</code> milliseconds. Files already
+ * handed over for processing are only considered again once their last modification time changes.
+ * <p/>
+ * Instances are not thread safe, they are meant to be used from the polling thread of the receiver.
+ */
+class DirectoryWatcher
+{
+
+    private static final Log logger = LogFactory.getLog(DirectoryWatcher.class);
+
+    private final File directory;
+    private final boolean recursive;
+    private final FileFilter fileFilter;
+    private final long fullRescanFrequency;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+    private final Map<File, FileObservation> pendingFiles = new LinkedHashMap<File, FileObservation>();
+    private final Map<File, Long> processedFiles = new HashMap<File, Long>();
+
+    private WatchService watchService;
+    private long lastFullRescan;
+    private boolean rescanRequired;
+
+    /**
+     * @param directory the directory to watch
+     * @param recursive whether the subdirectories must be watched as well
+     * @param fileFilter accepts the files that must be processed
+     * @param fullRescanFrequency milliseconds between full rescans of the directory, 0 or less to
+     *            rescan only after events are lost
+     */
+    DirectoryWatcher(File directory, boolean recursive, FileFilter fileFilter, long fullRescanFrequency)
+    {
+        this.directory = directory;
+        this.recursive = recursive;
+        this.fileFilter = fileFilter;
+        this.fullRescanFrequency = fullRescanFrequency;
+    }
+
+    /**
+     * Starts watching the directory. The first call to {@link #isRescanRequired()} afterwards
+     * returns <code>true</code> so the files that already exist are picked up.
+     */
+    void start() throws IOException
+    {
+        watchService = directory.toPath().getFileSystem().newWatchService();
+        register(directory);
+        rescanRequired = true;
+    }
+
+    /**
+     * Stops watching the directory and forgets about the pending and processed files.
+     */
+    void close()
+    {
+        if (watchService != null)
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to close the watch service for " + directory, e);
+            }
+            watchService = null;
+        }
+        watchedDirectories.clear();
+        pendingFiles.clear();
+        processedFiles.clear();
+    }
+
+    /**
+     * Updates the pending files with the events received since the last call, without blocking.
+     */
+    void processEvents()
+    {
+        if (watchService == null)
+        {
+            return;
+        }
+
+        try
+        {
+            WatchKey key;
+            while ((key = watchService.poll()) != null)
+            {
+                Path watchedDirectory = watchedDirectories.get(key);
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if (event.kind() == OVERFLOW)
+                    {
+                        rescanRequired = true;
+                    }
+                    else if (watchedDirectory != null)
+                    {
+                        processEvent(event.kind(), watchedDirectory.resolve((Path) event.context()).toFile());
+                    }
+                }
+                if (!key.reset())
+                {
+                    watchedDirectories.remove(key);
+                }
+            }
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            // the receiver is being disconnected
+        }
+    }
+
+    private void processEvent(WatchEvent.Kind<?> kind, File file)
+    {
+        if (kind == ENTRY_DELETE)
+        {
+            pendingFiles.remove(file);
+            processedFiles.remove(file);
+        }
+        else if (file.isDirectory())
+        {
+            if (recursive && kind == ENTRY_CREATE)
+            {
+                try
+                {
+                    register(file);
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Failed to watch directory " + file, e);
+                }
+                // files may have been created before the directory was registered
+                rescanRequired = true;
+            }
+        }
+        else if (kind == ENTRY_CREATE || kind == ENTRY_MODIFY)
+        {
+            if (pendingFiles.containsKey(file))
+            {
+                // the file is still being written, start checking its size again
+                pendingFiles.put(file, null);
+            }
+            else if (fileFilter.accept(file))
+            {
+                offer(file);
+            }
+        }
+    }
+
+    /**
+     * @return true if the directory has to be listed and passed on to {@link #rescan(List)}
+     */
+    boolean isRescanRequired()
+    {
+        return rescanRequired || (fullRescanFrequency > 0 && System.currentTimeMillis() - lastFullRescan >= fullRescanFrequency);
+    }
+
+    /**
+     * Replaces the view of the directory with a full listing of it, picking up the files whose
+     * events were lost.
+     *
+     * @param files all the files in the directory accepted by the filter
+     */
+    void rescan(List<File> files)
+    {
+        Set<File> existingFiles = new HashSet<File>(files);
+        pendingFiles.keySet().retainAll(existingFiles);
+        processedFiles.keySet().retainAll(existingFiles);
+        for (File file : files)
+        {
+            if (!pendingFiles.containsKey(file))
+            {
+                offer(file);
+            }
+        }
+        lastFullRescan = System.currentTimeMillis();
+        rescanRequired = false;
+    }
+
+    private void offer(File file)
+    {
+        Long processedLastModified = processedFiles.get(file);
+        if (processedLastModified == null || processedLastModified != file.lastModified())
+        {
+            processedFiles.remove(file);
+            pendingFiles.put(file, null);
+        }
+    }
+
+    /**
+     * @return the files pending to be processed, in the order they were discovered
+     */
+    List<File> getPendingFiles()
+    {
+        for (Iterator<File> it = pendingFiles.keySet().iterator(); it.hasNext();)
+        {
+            if (!it.next().exists())
+            {
+                it.remove();
+            }
+        }
+        return new ArrayList<File>(pendingFiles.keySet());
+    }
+
+    /**
+     * Checks whether a pending file is no longer being written, that is, its size and last
+     * modification time did not change since it was checked on the previous poll. A file is never
+     * stable the first time it is checked.
+     */
+    boolean isStable(File file)
+    {
+        FileObservation current = new FileObservation(file.length(), file.lastModified());
+        FileObservation previous = pendingFiles.put(file, current);
+        return current.equals(previous);
+    }
+
+    /**
+     * Removes a file from the pending ones once it was handed over for processing. If the file
+     * stays in the directory it will only be processed again after it is modified.
+     */
+    void fileProcessed(File file)
+    {
+        pendingFiles.remove(file);
+        if (file.exists())
+        {
+            processedFiles.put(file, file.lastModified());
+        }
+    }
+
+    private void register(File directoryToWatch) throws IOException
+    {
+        Path path = directoryToWatch.toPath();
+        watchedDirectories.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), path);
+
+        if (recursive)
+        {
+            File[] children = directoryToWatch.listFiles();
+            if (children != null)
+            {
+                for (File child : children)
+                {
+                    if (child.isDirectory())
+                    {
+                        register(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class FileObservation
+    {
+
+        private final long length;
+        private final long lastModified;
+
+        FileObservation(long length, long lastModified)
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof FileObservation))
+            {
+                return false;
+            }
+            FileObservation other = (FileObservation) o;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * (int) (length ^ (length >>> 32)) + (int) (lastModified ^ (lastModified >>> 32));
+        }
+    }
+}
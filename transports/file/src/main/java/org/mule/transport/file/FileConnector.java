@@ -73,6 +73,7 @@ public class FileConnector extends AbstractConnector
     public static final String PROPERTY_FILE_TIMESTAMP = "timestamp";
 
     public static final long DEFAULT_POLLING_FREQUENCY = 1000;
+    public static final long DEFAULT_FULL_RESCAN_FREQUENCY = 60000;
 
     /**
      * Time in milliseconds to poll. On each poll the poll() method is called
@@ -111,6 +112,12 @@ public class FileConnector extends AbstractConnector
 
     private boolean recursive = false;
 
+    private boolean watchDirectory = false;
+
+    private long fullRescanFrequency = DEFAULT_FULL_RESCAN_FREQUENCY;
+
+    private boolean checkFileSizeStability = false;
+
     public FileConnector(MuleContext context)
     {
         super(context);
@@ -628,4 +635,47 @@ public class FileConnector extends AbstractConnector
     {
         this.recursive = recursive;
     }
+
+    public boolean isWatchDirectory()
+    {
+        return watchDirectory;
+    }
+
+    /**
+     * Makes the receivers keep track of the files created or modified in the read directory
+     * using a {@link java.nio.file.WatchService} instead of listing the directory on every poll.
+     */
+    public void setWatchDirectory(boolean watchDirectory)
+    {
+        this.watchDirectory = watchDirectory;
+    }
+
+    public long getFullRescanFrequency()
+    {
+        return fullRescanFrequency;
+    }
+
+    /**
+     * Milliseconds between full listings of the read directory in watch mode, to pick up the
+     * files whose events were lost. Zero or less only lists the directory when the watch service
+     * reports lost events.
+     */
+    public void setFullRescanFrequency(long fullRescanFrequency)
+    {
+        this.fullRescanFrequency = fullRescanFrequency;
+    }
+
+    public boolean isCheckFileSizeStability()
+    {
+        return checkFileSizeStability;
+    }
+
+    /**
+     * In watch mode, waits until the size and last modification time of a file do not change
+     * between two polls before processing it, instead of trying to lock the file.
+     */
+    public void setCheckFileSizeStability(boolean checkFileSizeStability)
+    {
+        this.checkFileSizeStability = checkFileSizeStability;
+    }
 }
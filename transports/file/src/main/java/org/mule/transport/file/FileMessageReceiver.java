@@ -53,6 +53,11 @@ import org.apache.commons.collections.comparators.ReverseComparator;
 /**
  * <code>FileMessageReceiver</code> is a polling listener that reads files from a
  * directory.
+ * <p/>
+ * When the connector is in watch mode the directory is not listed on every poll. A
+ * {@link DirectoryWatcher} keeps the files created or modified since the last poll and the
+ * directory is only listed every <code>fullRescanFrequency</code> milliseconds to catch lost
+ * events.
  */
 
 public class FileMessageReceiver extends AbstractPollingMessageReceiver
@@ -77,6 +82,7 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
     private LockFactory lockFactory;
     private boolean poolOnPrimaryInstanceOnly;
     private ObjectStore<String> filesBeingProcessingObjectStore;
+    private DirectoryWatcher directoryWatcher;
 
     public FileMessageReceiver(Connector connector,
                                FlowConstruct flowConstruct,
@@ -159,6 +165,19 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
             {
                 logger.debug("Listening on endpointUri: " + readDirectory.getAbsolutePath());
             }
+
+            if (fileConnector.isWatchDirectory())
+            {
+                directoryWatcher = new DirectoryWatcher(readDirectory, fileConnector.isRecursive(), new FileFilter()
+                {
+                    @Override
+                    public boolean accept(File file)
+                    {
+                        return acceptFile(file.getParentFile(), file);
+                    }
+                }, fileConnector.getFullRescanFrequency());
+                directoryWatcher.start();
+            }
         }
 
         if (moveDir != null)
@@ -174,7 +193,11 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
     @Override
     protected void doDisconnect() throws Exception
     {
-        // template method
+        if (directoryWatcher != null)
+        {
+            directoryWatcher.close();
+            directoryWatcher = null;
+        }
     }
 
     @Override
@@ -188,7 +211,7 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
     {
         try
         {
-            List<File> files = this.listFiles();
+            List<File> files = directoryWatcher != null ? this.listPendingFiles() : this.listFiles();
             if (logger.isDebugEnabled())
             {
                 logger.debug("Files: " + files.toString());
@@ -207,6 +230,11 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
                 // don't process directories
                 if (file.isFile())
                 {
+                    if (directoryWatcher != null && !isReadyForProcessing(file))
+                    {
+                        continue;
+                    }
+
                     Lock fileLock = lockFactory.createLock(file.getName());
                     if (fileLock.tryLock())
                     {
@@ -234,6 +262,10 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
                             {
                                 processFile(file);
                             }
+                            if (directoryWatcher != null)
+                            {
+                                directoryWatcher.fileProcessed(file);
+                            }
                         }
                         finally
                         {
@@ -273,8 +305,9 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
             throw new DefaultMuleException(FileMessages.fileDoesNotExist(file.getName()));
         }
 
-        // don't process a file that is locked by another process (probably still being written)
-        if (!attemptFileLock(file))
+        // don't process a file that is locked by another process (probably still being written),
+        // in watch mode this was already checked while the file was pending
+        if (directoryWatcher == null && !attemptFileLock(file))
         {
             return;
         }
@@ -383,6 +416,32 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
         }
     }
 
+    /**
+     * Checks the conditions a pending file must meet in watch mode before it is processed, so
+     * the file stays pending instead of being handed over to {@link #processFile(File)}. The file
+     * size stability check replaces the file lock probe when it is enabled.
+     */
+    private boolean isReadyForProcessing(File file) throws MuleException
+    {
+        if (fileConnector.getCheckFileAge() && !isAgedFile(file, fileConnector.getFileAge()))
+        {
+            return false;
+        }
+        if (fileConnector.isCheckFileSizeStability())
+        {
+            if (!directoryWatcher.isStable(file))
+            {
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("The file size is not stable yet, will check it again on next poll: " + file);
+                }
+                return false;
+            }
+            return true;
+        }
+        return attemptFileLock(file);
+    }
+
     /**
      * Indicates whether or not file is older than the specified age
      *
@@ -686,6 +745,20 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
         }
     }
 
+    /**
+     * Get the list of files to be processed in watch mode, listing the whole directory only when
+     * a full rescan is required.
+     */
+    private List<File> listPendingFiles() throws MuleException
+    {
+        directoryWatcher.processEvents();
+        if (directoryWatcher.isRescanRequired())
+        {
+            directoryWatcher.rescan(listFiles());
+        }
+        return directoryWatcher.getPendingFiles();
+    }
+
     protected void basicListFiles(File currentDirectory, List<File> discoveredFiles)
     {
         File[] files = currentDirectory.listFiles();
@@ -705,27 +778,26 @@ public class FileMessageReceiver extends AbstractPollingMessageReceiver
                     basicListFiles(file, discoveredFiles);
                 }
             }
-            else
+            else if (acceptFile(currentDirectory, file))
             {
-                boolean addFile = true;
-
-                if (fileFilter != null)
-                {
-                    addFile = fileFilter.accept(file);
-                }
-                else if (filenameFilter != null)
-                {
-                    addFile = filenameFilter.accept(currentDirectory, file.getName());
-                }
-
-                if (addFile)
-                {
-                    discoveredFiles.add(file);
-                }
+                discoveredFiles.add(file);
             }
         }
     }
 
+    private boolean acceptFile(File currentDirectory, File file)
+    {
+        if (fileFilter != null)
+        {
+            return fileFilter.accept(file);
+        }
+        else if (filenameFilter != null)
+        {
+            return filenameFilter.accept(currentDirectory, file.getName());
+        }
+        return true;
+    }
+
     /**
      * Exception tolerant roll back method
      *
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.file;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class DirectoryWatcherTestCase extends AbstractMuleTestCase
+{
+
+    private static final long TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private DirectoryWatcher watcher;
+
+    @Before
+    public void startWatcher() throws Exception
+    {
+        watcher = new DirectoryWatcher(temporaryFolder.getRoot(), false, new FileFilter()
+        {
+            @Override
+            public boolean accept(File file)
+            {
+                return file.getName().endsWith(".txt");
+            }
+        }, 0);
+        watcher.start();
+    }
+
+    @After
+    public void closeWatcher()
+    {
+        watcher.close();
+    }
+
+    @Test
+    public void requiresRescanOnStart() throws Exception
+    {
+        File existingFile = temporaryFolder.newFile("existing.txt");
+
+        assertThat(watcher.isRescanRequired(), is(true));
+        watcher.rescan(Arrays.asList(existingFile));
+
+        assertThat(watcher.isRescanRequired(), is(false));
+        assertThat(watcher.getPendingFiles(), contains(existingFile));
+    }
+
+    @Test
+    public void createdFileIsPending() throws Exception
+    {
+        watcher.rescan(Arrays.<File>asList());
+        final File createdFile = temporaryFolder.newFile("created.txt");
+        temporaryFolder.newFile("ignored.dat");
+
+        new PollingProber(TIMEOUT, 50).check(new JUnitProbe()
+        {
+            @Override
+            protected boolean test() throws Exception
+            {
+                watcher.processEvents();
+                assertThat(watcher.getPendingFiles(), contains(createdFile));
+                return true;
+            }
+
+            @Override
+            public String describeFailure()
+            {
+                return "Created file was not pending";
+            }
+        });
+    }
+
+    @Test
+    public void fileIsStableWhenUnchangedSincePreviousCheck() throws Exception
+    {
+        File file = temporaryFolder.newFile("growing.txt");
+        watcher.rescan(Arrays.asList(file));
+
+        assertThat(watcher.isStable(file), is(false));
+        FileUtils.writeStringToFile(file, "some content");
+        file.setLastModified(file.lastModified() + 1000);
+        assertThat(watcher.isStable(file), is(false));
+        assertThat(watcher.isStable(file), is(true));
+    }
+
+    @Test
+    public void processedFileIsPendingAgainOnlyWhenModified() throws Exception
+    {
+        File file = temporaryFolder.newFile("kept.txt");
+        watcher.rescan(Arrays.asList(file));
+        watcher.fileProcessed(file);
+
+        watcher.rescan(Arrays.asList(file));
+        assertThat(watcher.getPendingFiles(), is(empty()));
+
+        file.setLastModified(file.lastModified() + 1000);
+        watcher.rescan(Arrays.asList(file));
+        assertThat(watcher.getPendingFiles(), contains(file));
+    }
+}
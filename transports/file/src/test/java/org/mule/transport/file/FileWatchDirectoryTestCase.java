@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mule.transport.file.FileTestUtils.createDataFile;
+
+import org.mule.api.MuleMessage;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class FileWatchDirectoryTestCase extends FunctionalTestCase
+{
+
+    public FileWatchDirectoryTestCase()
+    {
+        setStartContext(false);
+    }
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "file-watch-directory-config.xml";
+    }
+
+    @Test
+    public void processesExistingAndCreatedFiles() throws Exception
+    {
+        File inDir = FileUtils.openDirectory(getFileInsideWorkingDirectory("in").getAbsolutePath());
+        createDataFile(inDir, TEST_MESSAGE, "UTF-8");
+
+        muleContext.start();
+
+        MuleMessage response = muleContext.getClient().request("vm://testOut", RECEIVE_TIMEOUT);
+        assertNotNull("Existing file was not processed", response);
+        assertEquals(TEST_MESSAGE, response.getPayloadAsString());
+
+        createDataFile(inDir, TEST_MESSAGE, "UTF-8");
+
+        response = muleContext.getClient().request("vm://testOut", RECEIVE_TIMEOUT);
+        assertNotNull("Created file was not processed", response);
+        assertEquals(TEST_MESSAGE, response.getPayloadAsString());
+    }
+}
@@ -19,6 +19,7 @@ import org.mule.api.endpoint.InboundEndpoint;
 import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.lifecycle.StartException;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.api.transaction.Transaction;
 import org.mule.api.transaction.TransactionException;
@@ -44,10 +45,13 @@ import org.mule.util.BeanUtils;
 
 import java.text.MessageFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
@@ -66,7 +70,7 @@ import javax.naming.NamingException;
  * From 3.6, JMS Sessions and Producers are reused by default when an {@link javax.jms.XAConnectionFactory} isn't being
  * used and when the (default) JMS 1.1 spec is being used.
  */
-public class JmsConnector extends AbstractConnector implements ExceptionListener
+public class JmsConnector extends AbstractConnector implements ExceptionListener, StatisticsMBeanProvider<JmsReplyToStatisticsMBean>
 {
 
     public static final String JMS = "jms";
@@ -78,6 +82,12 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
 
     public static final int REDELIVERY_IGNORE = -1;
 
+    /**
+     * Maximum number of destinations kept when {@link #isCacheDestinations()} is true, so dynamic endpoints can't
+     * make the cache grow without bounds.
+     */
+    public static final int MAX_CACHED_DESTINATIONS = 1024;
+
     private AtomicInteger receiverReportedExceptionCount = new AtomicInteger();
 
     ////////////////////////////////////////////////////////////////////////
@@ -100,6 +110,21 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
 
     private boolean cacheJmsSessions = true;
 
+    /**
+     * Maximum number of idle non transacted sessions and producers kept for each destination to be reused by
+     * the dispatchers. 0 (the default) disables the pool.
+     */
+    private int producerPoolSize = 0;
+
+    private JmsProducerPool producerPool;
+
+    /**
+     * Whether to reuse the destinations resolved for an endpoint instead of resolving them on every send.
+     */
+    private boolean cacheDestinations = false;
+
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<String, Destination>();
+
     /**
      * Whether to create a consumer on connect.
      */
@@ -167,6 +192,16 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
      */
     private boolean returnOriginalMessageAsReply = false;
 
+    /**
+     * determines whether request-response calls share a long lived JMSReplyTo destination per endpoint instead of
+     * creating a temporary one for each call
+     */
+    private boolean useSharedReplyToDestinations = false;
+
+    private final ConcurrentMap<String, JmsSharedReplyToDestination> sharedReplyToDestinations = new ConcurrentHashMap<String, JmsSharedReplyToDestination>();
+
+    private final JmsReplyToStatistics replyToStatistics = new JmsReplyToStatistics();
+
     /**
      * In-container embedded mode disables some features for strict Java EE compliance.
      */
@@ -224,6 +259,10 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         {
             redeliveryHandlerFactory = new AutoDiscoveryRedeliveryHandlerFactory(this);
         }
+        if (producerPoolSize > 0)
+        {
+            producerPool = new JmsProducerPool(this, producerPoolSize);
+        }
 
         try
         {
@@ -358,6 +397,9 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
     @Override
     protected void doDispose()
     {
+        closeSharedReplyToDestinations();
+        clearSendResources();
+
         if (connection != null)
         {
             try
@@ -550,6 +592,8 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
     @Override
     protected void doDisconnect() throws Exception
     {
+        closeSharedReplyToDestinations();
+        clearSendResources();
         try
         {
             if (connection != null)
@@ -723,6 +767,95 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         }
     }
 
+    /**
+     * Returns the shared JMSReplyTo destination of an endpoint, creating it if it doesn't exist yet.
+     *
+     * @param endpoint the endpoint the requests are sent through
+     * @param topic whether the reply destination must be a topic
+     * @return the shared reply destination of the endpoint
+     * @throws JMSException if the destination can't be created
+     */
+    public JmsSharedReplyToDestination getSharedReplyToDestination(ImmutableEndpoint endpoint, boolean topic) throws JMSException
+    {
+        final String key = endpoint.getEndpointURI().getAddress() + "~" + topic;
+        JmsSharedReplyToDestination replyToDestination = sharedReplyToDestinations.get(key);
+        if (replyToDestination == null)
+        {
+            synchronized (sharedReplyToDestinations)
+            {
+                replyToDestination = sharedReplyToDestinations.get(key);
+                if (replyToDestination == null)
+                {
+                    replyToDestination = new JmsSharedReplyToDestination(this, endpoint, topic, replyToStatistics);
+                    sharedReplyToDestinations.put(key, replyToDestination);
+                }
+            }
+        }
+        return replyToDestination;
+    }
+
+    /**
+     * Resolves the destination of an endpoint, reusing the one resolved before for the same endpoint address
+     * if destinations are cached.
+     *
+     * @param session the session to create the destination with
+     * @param endpoint the endpoint to resolve the destination of
+     * @return the destination of the endpoint
+     * @throws JMSException if the destination can't be resolved
+     */
+    public Destination getDestination(Session session, ImmutableEndpoint endpoint) throws JMSException
+    {
+        if (!cacheDestinations)
+        {
+            return jmsSupport.createDestination(session, endpoint);
+        }
+        final String key = getDestinationKey(endpoint, getTopicResolver().isTopic(endpoint));
+        Destination destination = destinations.get(key);
+        if (destination == null)
+        {
+            destination = jmsSupport.createDestination(session, endpoint);
+            if (destinations.size() < MAX_CACHED_DESTINATIONS)
+            {
+                destinations.putIfAbsent(key, destination);
+            }
+        }
+        return destination;
+    }
+
+    String getDestinationKey(ImmutableEndpoint endpoint, boolean topic)
+    {
+        return endpoint.getEndpointURI().toString() + "~" + topic;
+    }
+
+    /**
+     * @return the pool of producers to use for non transacted sends, or null if producers are not pooled
+     */
+    public JmsProducerPool getProducerPool()
+    {
+        return producerPool;
+    }
+
+    private void clearSendResources()
+    {
+        if (producerPool != null)
+        {
+            producerPool.clear();
+        }
+        destinations.clear();
+    }
+
+    protected void closeSharedReplyToDestinations()
+    {
+        synchronized (sharedReplyToDestinations)
+        {
+            for (JmsSharedReplyToDestination replyToDestination : sharedReplyToDestinations.values())
+            {
+                replyToDestination.close();
+            }
+            sharedReplyToDestinations.clear();
+        }
+    }
+
     @Override
     public ReplyToHandler getReplyToHandler(ImmutableEndpoint endpoint)
     {
@@ -1192,6 +1325,30 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         this.cacheJmsSessions = cacheJmsSessions;
     }
 
+    public int getProducerPoolSize()
+    {
+        return producerPoolSize;
+    }
+
+    /**
+     * @param producerPoolSize the maximum number of idle sessions and producers kept for each destination, 0 to
+     *                         disable the pool
+     */
+    public void setProducerPoolSize(int producerPoolSize)
+    {
+        this.producerPoolSize = producerPoolSize;
+    }
+
+    public boolean isCacheDestinations()
+    {
+        return cacheDestinations;
+    }
+
+    public void setCacheDestinations(boolean cacheDestinations)
+    {
+        this.cacheDestinations = cacheDestinations;
+    }
+
     public ConnectionFactory getConnectionFactory()
     {
         return connectionFactory;
@@ -1354,6 +1511,48 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         this.returnOriginalMessageAsReply = returnOriginalMessageAsReply;
     }
 
+    public boolean isUseSharedReplyToDestinations()
+    {
+        return useSharedReplyToDestinations;
+    }
+
+    public void setUseSharedReplyToDestinations(boolean useSharedReplyToDestinations)
+    {
+        this.useSharedReplyToDestinations = useSharedReplyToDestinations;
+    }
+
+    public JmsReplyToStatistics getReplyToStatistics()
+    {
+        return replyToStatistics;
+    }
+
+    @Override
+    public String getStatisticsName()
+    {
+        return getName();
+    }
+
+    @Override
+    public String getStatisticsType()
+    {
+        return JmsReplyToStatisticsMBean.DEFAULT_JMX_TYPE;
+    }
+
+    @Override
+    public Class<JmsReplyToStatisticsMBean> getStatisticsInterface()
+    {
+        return JmsReplyToStatisticsMBean.class;
+    }
+
+    /**
+     * @return the statistics of the shared reply destinations, or null if they are not used
+     */
+    @Override
+    public JmsReplyToStatisticsMBean getStatistics()
+    {
+        return useSharedReplyToDestinations ? replyToStatistics : null;
+    }
+
     /**
      * @return Returns underlying connection factory properties.
      */
@@ -23,6 +23,7 @@ import org.mule.transport.AbstractMessageDispatcher;
 import org.mule.transport.jms.i18n.JmsMessages;
 import org.mule.util.ClassUtils;
 import org.mule.util.NumberUtils;
+import org.mule.util.UUID;
 import org.mule.util.concurrent.Latch;
 import org.mule.util.concurrent.WaitableBoolean;
 
@@ -51,6 +52,7 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
     private JmsConnector connector;
     private boolean disableTemporaryDestinations = false;
     private boolean returnOriginalMessageAsReply = false;
+    private boolean useSharedReplyToDestinations = false;
 
     public JmsMessageDispatcher(OutboundEndpoint endpoint)
     {
@@ -64,6 +66,7 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
         {
             logger.warn("The returnOriginalMessageAsReply property will be ignored because disableTemporaryReplyToDestinations=false.  You need to disable temporary ReplyTo destinations in order for this propery to take effect.");
         }
+        useSharedReplyToDestinations = connector.isUseSharedReplyToDestinations() && !disableTemporaryDestinations;
         logger.warn("Starting patched JmsMessageReceiver");
     }
 
@@ -100,6 +103,9 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
         MessageProducer producer = null;
         MessageConsumer consumer = null;
         Destination replyTo = null;
+        boolean sharedReplyToDestination = false;
+        JmsSharedReplyToDestination.PendingReply pendingReply = null;
+        JmsProducerPool.PooledProducer pooledProducer = null;
         boolean transacted = false;
         boolean cached = false;
         boolean useReplyToDestination;
@@ -115,7 +121,21 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
 
         try
         {
-            session = connector.getTransactionalResource(endpoint);
+            boolean topic = connector.getTopicResolver().isTopic(endpoint, true);
+
+            // Pooled sessions are not transacted, so they can only be used when there is no transaction
+            // the session should be bound to
+            if (connector.getProducerPool() != null && muleTx == null && !endpoint.getTransactionConfig().isTransacted())
+            {
+                pooledProducer = connector.getProducerPool().borrow(endpoint, topic);
+                cached = true;
+                session = pooledProducer.getSession();
+                producer = pooledProducer.getProducer();
+            }
+            else
+            {
+                session = connector.getTransactionalResource(endpoint);
+            }
 
             transacted = (muleTx != null && muleTx.hasResource(connector.getConnection()) || endpoint.getTransactionConfig().isTransacted());
 
@@ -123,10 +143,11 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             // in the same transaction using a replyTo destination
             useReplyToDestination = returnResponse(event, doSend) && !transacted;
 
-            boolean topic = connector.getTopicResolver().isTopic(endpoint, true);
-
-            Destination dest = connector.getJmsSupport().createDestination(session, endpoint);
-            producer = connector.getJmsSupport().createProducer(session, dest, topic);
+            if (pooledProducer == null)
+            {
+                Destination dest = connector.getDestination(session, endpoint);
+                producer = connector.getJmsSupport().createProducer(session, dest, topic);
+            }
 
             Object message = event.getMessage().getPayload();
             if (!(message instanceof Message))
@@ -140,7 +161,14 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
 
             MuleMessage eventMsg = event.getMessage();
 
-            replyTo = getReplyToDestination(msg, session, event, useReplyToDestination, topic);
+            replyTo = getReplyToDestination(msg, session, event, useReplyToDestination && !useSharedReplyToDestinations, topic);
+            JmsSharedReplyToDestination sharedReplyTo = null;
+            if (useReplyToDestination && useSharedReplyToDestinations && replyTo == null && isHandleReplyTo(msg, event))
+            {
+                sharedReplyTo = connector.getSharedReplyToDestination(endpoint, topic);
+                replyTo = sharedReplyTo.getDestination();
+                sharedReplyToDestination = true;
+            }
 
             // Set the replyTo property
             if (replyTo != null)
@@ -151,6 +179,29 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             //Allow overrides to alter the message if necessary
             processMessage(msg, event);
 
+            if (sharedReplyTo != null)
+            {
+                // Replies are matched by correlation ID, so it must be known before the message is sent
+                if (msg.getJMSCorrelationID() == null)
+                {
+                    msg.setJMSCorrelationID(UUID.getUUID());
+                }
+                pendingReply = sharedReplyTo.expectReply(msg.getJMSCorrelationID());
+                if (pendingReply == null)
+                {
+                    // Another call is waiting for a reply with the same correlation ID, so this one
+                    // waits on a temporary destination of its own
+                    if (logger.isDebugEnabled())
+                    {
+                        logger.debug("JMSCorrelationID " + msg.getJMSCorrelationID()
+                                     + " is already waiting for a reply on the shared replyTo destination, using a temporary one");
+                    }
+                    replyTo = connector.getJmsSupport().createTemporaryDestination(session, topic);
+                    sharedReplyToDestination = false;
+                    msg.setJMSReplyTo(replyTo);
+                }
+            }
+
             // QoS support
             long ttl = eventMsg.getOutboundProperty(JmsConstants.TIME_TO_LIVE_PROPERTY, Message.DEFAULT_TIME_TO_LIVE);
             int priority = eventMsg.getOutboundProperty(JmsConstants.PRIORITY_PROPERTY, Message.DEFAULT_PRIORITY);
@@ -184,7 +235,27 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             }
             connector.getJmsSupport().send(producer, msg, persistent, priority, ttl, topic, endpoint);
 
-            if (useReplyToDestination && replyTo != null)
+            if (pendingReply != null)
+            {
+                int timeout = event.getTimeout();
+
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Waiting for return event for: " + timeout + " ms on shared " + replyTo);
+                }
+
+                Message result = pendingReply.await(timeout);
+                if (result == null)
+                {
+                    logger.debug("No message was returned via shared replyTo destination " + replyTo);
+                    return createNullMuleMessage();
+                }
+                else
+                {
+                    return createMessageWithJmsMessagePayload(result);
+                }
+            }
+            else if (useReplyToDestination && replyTo != null)
             {
                 consumer = createReplyToConsumer(msg, event, session, replyTo, topic);
 
@@ -247,13 +318,32 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
                 return returnOriginalMessageAsReply ? createMuleMessage(msg) : null;
             }
         }
+        catch (Exception e)
+        {
+            if (pooledProducer != null)
+            {
+                // the session may be unusable after the failure, so it must not be reused
+                connector.getProducerPool().invalidate(pooledProducer);
+                pooledProducer = null;
+            }
+            throw e;
+        }
         finally
         {
-            connector.closeQuietly(producer);
+            if (!cached)
+            {
+                connector.closeQuietly(producer);
+            }
             connector.closeQuietly(consumer);
 
+            if (pendingReply != null)
+            {
+                // the shared reply destination is kept open, just stop waiting for the reply
+                pendingReply.cancel();
+            }
             // TODO AP check if TopicResolver is to be utilized for temp destinations as well
-            if (replyTo != null && (replyTo instanceof TemporaryQueue || replyTo instanceof TemporaryTopic))
+            // the shared reply destination is cached by the connector, so only the ones created for this call are closed
+            else if (!sharedReplyToDestination && (replyTo instanceof TemporaryQueue || replyTo instanceof TemporaryTopic))
             {
                 if (replyTo instanceof TemporaryQueue)
                 {
@@ -273,6 +363,12 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             {
                 connector.closeQuietly(session);
             }
+
+            // Give the pooled session back once nothing else uses it
+            if (pooledProducer != null)
+            {
+                connector.getProducerPool().release(pooledProducer);
+            }
         }
     }
 
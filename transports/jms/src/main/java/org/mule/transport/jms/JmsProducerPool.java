@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import org.mule.api.endpoint.ImmutableEndpoint;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * Keeps idle non transacted sessions, each one with a producer for a destination, so they can be reused by
+ * the dispatchers of a {@link JmsConnector} instead of creating and closing them on every send. Sends that are
+ * part of a transaction must not use the pool, since they have to use the session bound to the transaction.
+ * <p/>
+ * Pooled producers are discarded when the pool is cleared, which happens when the connector disconnects,
+ * including the ones being used at that moment.
+ */
+public class JmsProducerPool
+{
+
+    private final JmsConnector connector;
+    private final int maxIdlePerDestination;
+    private final ConcurrentMap<String, BlockingQueue<PooledProducer>> idleProducers = new ConcurrentHashMap<String, BlockingQueue<PooledProducer>>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param connector the connector to create the sessions and producers with
+     * @param maxIdlePerDestination the maximum number of idle producers kept for each destination
+     */
+    public JmsProducerPool(JmsConnector connector, int maxIdlePerDestination)
+    {
+        this.connector = connector;
+        this.maxIdlePerDestination = maxIdlePerDestination;
+    }
+
+    /**
+     * Takes an idle producer for the destination of an endpoint, or creates a new one if there is none.
+     *
+     * @param endpoint the endpoint to send to
+     * @param topic whether the destination of the endpoint is a topic
+     * @return a producer that must be given back with {@link #release(PooledProducer)} or
+     *         {@link #invalidate(PooledProducer)}
+     * @throws JMSException if a new session or producer can't be created
+     */
+    public PooledProducer borrow(ImmutableEndpoint endpoint, boolean topic) throws JMSException
+    {
+        final String key = connector.getDestinationKey(endpoint, topic);
+        final BlockingQueue<PooledProducer> producers = idleProducers.get(key);
+        if (producers != null)
+        {
+            final PooledProducer producer = producers.poll();
+            if (producer != null)
+            {
+                return producer;
+            }
+        }
+        return createProducer(key, endpoint, topic);
+    }
+
+    /**
+     * Gives back a producer after a successful send, so it can be reused.
+     */
+    public void release(PooledProducer producer)
+    {
+        if (producer.generation == generation.get() && getIdleProducers(producer.key).offer(producer))
+        {
+            return;
+        }
+        producer.close();
+    }
+
+    /**
+     * Discards a producer that failed, closing its session.
+     */
+    public void invalidate(PooledProducer producer)
+    {
+        producer.close();
+    }
+
+    /**
+     * Closes all the idle producers. Producers being used are closed when they are given back.
+     */
+    public void clear()
+    {
+        generation.incrementAndGet();
+        for (BlockingQueue<PooledProducer> producers : idleProducers.values())
+        {
+            PooledProducer producer;
+            while ((producer = producers.poll()) != null)
+            {
+                producer.close();
+            }
+        }
+    }
+
+    private BlockingQueue<PooledProducer> getIdleProducers(String key)
+    {
+        BlockingQueue<PooledProducer> producers = idleProducers.get(key);
+        if (producers == null)
+        {
+            producers = new LinkedBlockingQueue<PooledProducer>(maxIdlePerDestination);
+            final BlockingQueue<PooledProducer> existing = idleProducers.putIfAbsent(key, producers);
+            if (existing != null)
+            {
+                producers = existing;
+            }
+        }
+        return producers;
+    }
+
+    private PooledProducer createProducer(String key, ImmutableEndpoint endpoint, boolean topic) throws JMSException
+    {
+        final int currentGeneration = generation.get();
+        final JmsSupport jmsSupport = connector.getJmsSupport();
+        final Session session = jmsSupport.createSession(connector.getConnection(), topic, false, connector.getAcknowledgementMode(), connector.isNoLocal());
+        try
+        {
+            final Destination destination = connector.getDestination(session, endpoint);
+            final MessageProducer producer = jmsSupport.createProducer(session, destination, topic);
+            return new PooledProducer(key, currentGeneration, session, destination, producer);
+        }
+        catch (JMSException e)
+        {
+            connector.closeQuietly(session);
+            throw e;
+        }
+    }
+
+    /**
+     * A session with a producer for a destination, taken from the pool.
+     */
+    public class PooledProducer
+    {
+
+        private final String key;
+        private final int generation;
+        private final Session session;
+        private final Destination destination;
+        private final MessageProducer producer;
+
+        private PooledProducer(String key, int generation, Session session, Destination destination, MessageProducer producer)
+        {
+            this.key = key;
+            this.generation = generation;
+            this.session = session;
+            this.destination = destination;
+            this.producer = producer;
+        }
+
+        public Session getSession()
+        {
+            return session;
+        }
+
+        public Destination getDestination()
+        {
+            return destination;
+        }
+
+        public MessageProducer getProducer()
+        {
+            return producer;
+        }
+
+        private void close()
+        {
+            connector.closeQuietly(producer);
+            connector.closeQuietly(session);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the requests and replies going through the shared reply destinations of a {@link JmsConnector}.
+ */
+public class JmsReplyToStatistics implements JmsReplyToStatisticsMBean
+{
+
+    private final AtomicLong pendingReplies = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong replies = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong orphanedReplies = new AtomicLong();
+
+    public void requestSent()
+    {
+        requests.incrementAndGet();
+        pendingReplies.incrementAndGet();
+    }
+
+    public void replyReceived()
+    {
+        replies.incrementAndGet();
+    }
+
+    public void requestTimedOut()
+    {
+        timeouts.incrementAndGet();
+    }
+
+    public void requestCompleted()
+    {
+        pendingReplies.decrementAndGet();
+    }
+
+    public void orphanedReplyReceived()
+    {
+        orphanedReplies.incrementAndGet();
+    }
+
+    @Override
+    public long getPendingReplies()
+    {
+        return pendingReplies.get();
+    }
+
+    @Override
+    public long getRequests()
+    {
+        return requests.get();
+    }
+
+    @Override
+    public long getReplies()
+    {
+        return replies.get();
+    }
+
+    @Override
+    public long getTimeouts()
+    {
+        return timeouts.get();
+    }
+
+    @Override
+    public long getOrphanedReplies()
+    {
+        return orphanedReplies.get();
+    }
+
+    @Override
+    public void clear()
+    {
+        requests.set(0);
+        replies.set(0);
+        timeouts.set(0);
+        orphanedReplies.set(0);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+/**
+ * Management interface of the statistics of the shared reply destinations of a {@link JmsConnector}.
+ */
+public interface JmsReplyToStatisticsMBean
+{
+
+    String DEFAULT_JMX_TYPE = "JmsReplyTo";
+
+    /**
+     * @return the number of requests currently waiting for a reply
+     */
+    long getPendingReplies();
+
+    /**
+     * @return the number of requests sent expecting a reply
+     */
+    long getRequests();
+
+    /**
+     * @return the number of replies delivered to a waiting request
+     */
+    long getReplies();
+
+    /**
+     * @return the number of requests that didn't get a reply within their timeout
+     */
+    long getTimeouts();
+
+    /**
+     * @return the number of replies received with no request waiting for them, most likely because it timed out
+     */
+    long getOrphanedReplies();
+
+    /**
+     * Resets all the counters but the pending replies
+     */
+    void clear();
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.util.concurrent.Latch;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.jms.TemporaryTopic;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A temporary destination, with its own session and consumer, that receives the replies of all the
+ * request-response calls made through an endpoint, instead of creating a temporary destination and a consumer
+ * for each call. Replies are handed to the waiting request with the same JMSCorrelationID, replies that
+ * nobody is waiting for anymore are discarded.
+ */
+public class JmsSharedReplyToDestination implements MessageListener
+{
+
+    protected final transient Log logger = LogFactory.getLog(getClass());
+
+    private final JmsConnector connector;
+    private final JmsReplyToStatistics statistics;
+    private final Session session;
+    private final Destination destination;
+    private final MessageConsumer consumer;
+    private final ConcurrentMap<String, PendingReply> pendingReplies = new ConcurrentHashMap<String, PendingReply>();
+
+    public JmsSharedReplyToDestination(JmsConnector connector, ImmutableEndpoint endpoint, boolean topic, JmsReplyToStatistics statistics) throws JMSException
+    {
+        this.connector = connector;
+        this.statistics = statistics;
+        JmsSupport jmsSupport = connector.getJmsSupport();
+        session = jmsSupport.createSession(connector.getConnection(), topic, false, Session.AUTO_ACKNOWLEDGE, connector.isNoLocal());
+        try
+        {
+            destination = jmsSupport.createTemporaryDestination(session, topic);
+            consumer = jmsSupport.createConsumer(session, destination, null, connector.isNoLocal(), null, topic, endpoint);
+            consumer.setMessageListener(this);
+        }
+        catch (JMSException e)
+        {
+            connector.closeQuietly(session);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the destination to set as the JMSReplyTo of the requests
+     */
+    public Destination getDestination()
+    {
+        return destination;
+    }
+
+    /**
+     * Registers a request that expects a reply. It must be called before sending the request, so the reply
+     * can't arrive before anybody waits for it.
+     *
+     * @param correlationId the JMSCorrelationID the reply will have
+     * @return the pending reply to wait on, or null if another request is already waiting for a reply with
+     *         the same JMSCorrelationID, as their replies could not be told apart
+     */
+    public PendingReply expectReply(String correlationId)
+    {
+        PendingReply pendingReply = new PendingReply(correlationId);
+        if (pendingReplies.putIfAbsent(correlationId, pendingReply) != null)
+        {
+            return null;
+        }
+        statistics.requestSent();
+        return pendingReply;
+    }
+
+    @Override
+    public void onMessage(Message message)
+    {
+        String correlationId = null;
+        try
+        {
+            correlationId = message.getJMSCorrelationID();
+        }
+        catch (JMSException e)
+        {
+            logger.warn("Unable to read the JMSCorrelationID of a reply, discarding it", e);
+        }
+
+        PendingReply pendingReply = correlationId == null ? null : pendingReplies.remove(correlationId);
+        if (pendingReply == null)
+        {
+            statistics.orphanedReplyReceived();
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Discarding reply with JMSCorrelationID " + correlationId + " received on " + destination
+                             + " since no request is waiting for it");
+            }
+        }
+        else
+        {
+            statistics.replyReceived();
+            pendingReply.complete(message);
+        }
+    }
+
+    /**
+     * Closes the consumer, the destination and the session. Requests still waiting for a reply are released
+     * without one.
+     */
+    public void close()
+    {
+        connector.closeQuietly(consumer);
+        if (destination instanceof TemporaryQueue)
+        {
+            connector.closeQuietly((TemporaryQueue) destination);
+        }
+        else if (destination instanceof TemporaryTopic)
+        {
+            connector.closeQuietly((TemporaryTopic) destination);
+        }
+        connector.closeQuietly(session);
+
+        for (PendingReply pendingReply : pendingReplies.values())
+        {
+            pendingReply.cancel();
+        }
+    }
+
+    /**
+     * A request waiting for its reply.
+     */
+    public class PendingReply
+    {
+
+        private final String correlationId;
+        private final Latch latch = new Latch();
+        private volatile Message reply;
+        private boolean completed;
+
+        private PendingReply(String correlationId)
+        {
+            this.correlationId = correlationId;
+        }
+
+        /**
+         * Waits for the reply of the request.
+         *
+         * @param timeout the number of milliseconds to wait
+         * @return the reply, or null if it didn't arrive in time
+         */
+        public Message await(long timeout) throws InterruptedException
+        {
+            try
+            {
+                if (!latch.await(timeout, TimeUnit.MILLISECONDS))
+                {
+                    statistics.requestTimedOut();
+                }
+                return reply;
+            }
+            finally
+            {
+                cancel();
+            }
+        }
+
+        /**
+         * Stops waiting for the reply of the request. A reply arriving afterwards is discarded.
+         */
+        public void cancel()
+        {
+            pendingReplies.remove(correlationId, this);
+            release();
+        }
+
+        private void complete(Message reply)
+        {
+            this.reply = reply;
+            release();
+        }
+
+        private synchronized void release()
+        {
+            if (!completed)
+            {
+                completed = true;
+                statistics.requestCompleted();
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class JmsProducerPoolTestCase extends AbstractMuleTestCase
+{
+
+    private static final int MAX_IDLE = 1;
+
+    private JmsConnector connector = mock(JmsConnector.class);
+    private JmsSupport jmsSupport = mock(JmsSupport.class);
+    private ImmutableEndpoint endpoint = mock(ImmutableEndpoint.class);
+    private JmsProducerPool pool;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(connector.getJmsSupport()).thenReturn(jmsSupport);
+        when(connector.getDestinationKey(endpoint, false)).thenReturn("queue");
+        when(jmsSupport.createSession(any(Connection.class), anyBoolean(), anyBoolean(), anyInt(), anyBoolean())).thenAnswer(new Answer<Session>()
+        {
+            @Override
+            public Session answer(InvocationOnMock invocation) throws Throwable
+            {
+                return mock(Session.class);
+            }
+        });
+        when(jmsSupport.createProducer(any(Session.class), any(Destination.class), anyBoolean())).thenAnswer(new Answer<MessageProducer>()
+        {
+            @Override
+            public MessageProducer answer(InvocationOnMock invocation) throws Throwable
+            {
+                return mock(MessageProducer.class);
+            }
+        });
+        pool = new JmsProducerPool(connector, MAX_IDLE);
+    }
+
+    @Test
+    public void releasedProducerIsReused() throws Exception
+    {
+        JmsProducerPool.PooledProducer producer = pool.borrow(endpoint, false);
+        pool.release(producer);
+
+        assertThat(pool.borrow(endpoint, false), sameInstance(producer));
+        verify(jmsSupport, times(1)).createSession(any(Connection.class), anyBoolean(), anyBoolean(), anyInt(), anyBoolean());
+        verify(connector, never()).closeQuietly(producer.getSession());
+    }
+
+    @Test
+    public void borrowedProducersAreNotShared() throws Exception
+    {
+        JmsProducerPool.PooledProducer producer = pool.borrow(endpoint, false);
+
+        assertThat(pool.borrow(endpoint, false), not(sameInstance(producer)));
+    }
+
+    @Test
+    public void producersOverMaxIdleAreClosed() throws Exception
+    {
+        JmsProducerPool.PooledProducer first = pool.borrow(endpoint, false);
+        JmsProducerPool.PooledProducer second = pool.borrow(endpoint, false);
+        pool.release(first);
+        pool.release(second);
+
+        verify(connector, never()).closeQuietly(first.getSession());
+        verify(connector).closeQuietly(second.getSession());
+    }
+
+    @Test
+    public void invalidatedProducerIsClosed() throws Exception
+    {
+        JmsProducerPool.PooledProducer producer = pool.borrow(endpoint, false);
+        pool.invalidate(producer);
+
+        verify(connector).closeQuietly(producer.getSession());
+        assertThat(pool.borrow(endpoint, false), not(sameInstance(producer)));
+    }
+
+    @Test
+    public void clearClosesIdleAndInUseProducers() throws Exception
+    {
+        JmsProducerPool.PooledProducer idle = pool.borrow(endpoint, false);
+        JmsProducerPool.PooledProducer inUse = pool.borrow(endpoint, false);
+        pool.release(idle);
+
+        pool.clear();
+        verify(connector).closeQuietly(idle.getSession());
+
+        pool.release(inUse);
+        verify(connector).closeQuietly(inUse.getSession());
+        assertThat(pool.borrow(endpoint, false), not(sameInstance(idle)));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.api.MuleMessage;
+import org.mule.api.client.LocalMuleClient;
+import org.mule.api.transformer.TransformerException;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.transformer.AbstractTransformer;
+import org.mule.transport.NullPayload;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.jms.JMSException;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.junit.Test;
+
+public class JmsSharedReplyToDestinationTestCase extends FunctionalTestCase
+{
+
+    private static final int CONCURRENT_REQUESTS = 20;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "jms-shared-reply-to-config.xml";
+    }
+
+    @Test
+    public void repliesAreMatchedToTheirRequests() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<String>> responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++)
+            {
+                final String payload = TEST_MESSAGE + i;
+                responses.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        return muleContext.getClient().send("vm://in", payload, null).getPayloadAsString();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++)
+            {
+                assertThat(responses.get(i).get(), is(TEST_MESSAGE + i + " reply"));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        JmsReplyToStatisticsMBean statistics = getConnector().getStatistics();
+        assertThat(statistics.getRequests(), is((long) CONCURRENT_REQUESTS));
+        assertThat(statistics.getReplies(), is((long) CONCURRENT_REQUESTS));
+        assertThat(statistics.getPendingReplies(), is(0L));
+        assertThat(statistics.getTimeouts(), is(0L));
+    }
+
+    @Test
+    public void requestsWithSameCorrelationIdGetTheirOwnReplies() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            List<Future<String>> responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < 2; i++)
+            {
+                final String payload = TEST_MESSAGE + i;
+                responses.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        return muleContext.getClient().send("vm://sameCorrelationIn", payload, null).getPayloadAsString();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < 2; i++)
+            {
+                assertThat(responses.get(i).get(), is(TEST_MESSAGE + i + " reply"));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lateReplyIsDiscarded() throws Exception
+    {
+        LocalMuleClient client = muleContext.getClient();
+        MuleMessage response = client.send("vm://slowIn", TEST_MESSAGE, null);
+        assertThat(response.getPayload(), is((Object) NullPayload.getInstance()));
+
+        final JmsReplyToStatisticsMBean statistics = getConnector().getStatistics();
+        assertThat(statistics.getTimeouts(), is(1L));
+        assertThat(statistics.getPendingReplies(), is(0L));
+
+        new PollingProber().check(new JUnitProbe()
+        {
+            @Override
+            protected boolean test() throws Exception
+            {
+                assertThat(statistics.getOrphanedReplies(), is(1L));
+                return true;
+            }
+
+            @Override
+            public String describeFailure()
+            {
+                return "Late reply should be discarded.";
+            }
+        });
+    }
+
+    @Test
+    public void sharedDestinationIsKeptWhenDispatchFailsBeforeWaitingForReply() throws Exception
+    {
+        LocalMuleClient client = muleContext.getClient();
+        MuleMessage response = client.send("vm://failingCorrelationIn", TEST_MESSAGE, null);
+        assertThat(response.getExceptionPayload(), notNullValue());
+
+        response = client.send("vm://in", TEST_MESSAGE, null);
+        assertThat(response.getPayloadAsString(), is(TEST_MESSAGE + " reply"));
+    }
+
+    private JmsConnector getConnector()
+    {
+        return (JmsConnector) muleContext.getRegistry().lookupConnector("jmsConnector");
+    }
+
+    /**
+     * Creates a message which fails when the dispatcher sets its JMSCorrelationID.
+     */
+    public static class FailingCorrelationIdTransformer extends AbstractTransformer
+    {
+
+        @Override
+        protected Object doTransform(Object src, String enc) throws TransformerException
+        {
+            final ActiveMQTextMessage message = new ActiveMQTextMessage();
+            try
+            {
+                message.setText(src.toString());
+            }
+            catch (JMSException e)
+            {
+                throw new TransformerException(this, e);
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {TextMessage.class}, new InvocationHandler()
+            {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+                {
+                    if (method.getName().equals("setJMSCorrelationID"))
+                    {
+                        throw new JMSException("Expected failure setting the JMSCorrelationID");
+                    }
+                    try
+                    {
+                        return method.invoke(message, args);
+                    }
+                    catch (InvocationTargetException e)
+                    {
+                        throw e.getCause();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -13,6 +13,8 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import javax.net.ServerSocketFactory;
 
@@ -62,4 +64,10 @@ public class SslServerSocketFactory extends TcpServerSocketFactory
         }
     }
 
+    @Override
+    public ServerSocketChannel createServerSocketChannel(URI uri, int backlog, Boolean reuse) throws IOException
+    {
+        throw new IOException("SSL server sockets cannot accept connections without blocking");
+    }
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The 8 byte correlation id written in front of each message exchanged over a multiplexed
+ * connection. A multiplexed dispatcher writes it before each request and a multiplexed
+ * receiver writes it back before the response to that request, so responses can be matched
+ * to their requests even when some requests get no response at all.
+ */
+final class CorrelationHeader
+{
+
+    static final int LENGTH = 8;
+
+    private CorrelationHeader()
+    {
+        // utility class
+    }
+
+    static void write(OutputStream outputStream, long correlationId) throws IOException
+    {
+        byte[] header = new byte[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--)
+        {
+            header[i] = (byte) correlationId;
+            correlationId >>>= 8;
+        }
+        outputStream.write(header);
+    }
+
+    /**
+     * @return the correlation id, or null if the stream ended before the header started
+     * @throws EOFException if the stream ends in the middle of the header
+     */
+    static Long read(InputStream inputStream) throws IOException
+    {
+        long correlationId = 0;
+        for (int i = 0; i < LENGTH; i++)
+        {
+            int b = inputStream.read();
+            if (b < 0)
+            {
+                if (i == 0)
+                {
+                    return null;
+                }
+                throw new EOFException("Stream ended after " + i + " bytes of a correlation header");
+            }
+            correlationId = (correlationId << 8) | b;
+        }
+        return correlationId;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * An outbound socket shared by many request-response calls at the same time. Requests are
+ * written one after the other without waiting for the previous responses, and a reader thread
+ * hands each response over to the caller waiting for it.
+ * <p/>
+ * Each request is written after a {@link CorrelationHeader} holding its sequence number, and the
+ * remote end must be a multiplexed receiver, which writes the same header back before the
+ * response. Responses are matched to the requests by that header, so requests that get no
+ * response (a filtered message, for instance) only time out on their own. A response whose
+ * request already timed out is discarded. If the socket fails every request still waiting on
+ * the connection fails.
+ */
+class MultiplexedTcpConnection implements Runnable
+{
+
+    private static final Log logger = LogFactory.getLog(MultiplexedTcpConnection.class);
+
+    private final TcpSocketKey socketKey;
+    private final Socket socket;
+    private final TcpProtocol protocol;
+    private final MultiplexedTcpStatistics.EndpointStatistics statistics;
+    private final OutputStream outputStream;
+    private final InputStream inputStream;
+
+    private final Object writeLock = new Object();
+    private final Map<Long, PendingResponse> pendingResponses = new ConcurrentHashMap<Long, PendingResponse>();
+    private long nextSequence;
+    private volatile boolean closed;
+
+    MultiplexedTcpConnection(TcpSocketKey socketKey, Socket socket, TcpProtocol protocol,
+                             MultiplexedTcpStatistics.EndpointStatistics statistics) throws IOException
+    {
+        this.socketKey = socketKey;
+        this.socket = socket;
+        this.protocol = protocol;
+        this.statistics = statistics;
+        // responses are waited for with the timeout of each request, the reader never times out
+        socket.setSoTimeout(0);
+        this.outputStream = new BufferedOutputStream(socket.getOutputStream());
+        this.inputStream = new BufferedInputStream(socket.getInputStream());
+    }
+
+    /**
+     * Starts the thread reading the responses.
+     */
+    void start(ThreadFactory threadFactory)
+    {
+        Thread reader = threadFactory.newThread(this);
+        reader.setDaemon(true);
+        reader.start();
+        statistics.connectionOpened();
+    }
+
+    /**
+     * Writes a request and waits for its response.
+     *
+     * @param timeout milliseconds to wait for the response, 0 or less to wait until the connection closes
+     * @return the response read by the protocol
+     * @throws SocketTimeoutException if no response arrives within the timeout
+     * @throws IOException if the request cannot be written or the connection closes before the response arrives
+     */
+    Object send(Object data, int timeout) throws IOException, InterruptedException
+    {
+        PendingResponse pendingResponse;
+        statistics.requestQueued();
+        try
+        {
+            synchronized (writeLock)
+            {
+                statistics.requestDequeued();
+                if (closed)
+                {
+                    throw new IOException("Connection to " + socketKey + " is closed");
+                }
+                pendingResponse = new PendingResponse(nextSequence++);
+                pendingResponses.put(pendingResponse.sequence, pendingResponse);
+                statistics.requestSent();
+                try
+                {
+                    CorrelationHeader.write(outputStream, pendingResponse.sequence);
+                    protocol.write(outputStream, data);
+                    outputStream.flush();
+                }
+                catch (IOException e)
+                {
+                    statistics.requestCompleted();
+                    close(e);
+                    throw e;
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            statistics.requestFailed();
+            throw e;
+        }
+
+        return pendingResponse.await(timeout);
+    }
+
+    /**
+     * @return the number of requests written and waiting for their response
+     */
+    int getInFlightRequests()
+    {
+        return pendingResponses.size();
+    }
+
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    public void run()
+    {
+        IOException failure = null;
+        try
+        {
+            while (!closed)
+            {
+                Long sequence = CorrelationHeader.read(inputStream);
+                Object response = sequence != null ? protocol.read(inputStream) : null;
+                if (response == null)
+                {
+                    failure = new EOFException("Connection to " + socketKey + " was closed by the remote end");
+                    break;
+                }
+                PendingResponse pendingResponse = pendingResponses.remove(sequence);
+                if (pendingResponse == null)
+                {
+                    if (logger.isDebugEnabled())
+                    {
+                        logger.debug("Discarding response " + sequence + " from " + socketKey
+                                     + ", no request is waiting for it");
+                    }
+                    continue;
+                }
+                pendingResponse.complete(response);
+            }
+        }
+        catch (IOException e)
+        {
+            failure = e;
+        }
+        catch (RuntimeException e)
+        {
+            failure = new IOException(e);
+        }
+        finally
+        {
+            close(failure);
+        }
+    }
+
+    /**
+     * Closes the socket and fails all the requests waiting for their response.
+     *
+     * @param cause why the connection is closed, null if it was not caused by a failure
+     */
+    void close(IOException cause)
+    {
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+        }
+
+        if (cause != null && logger.isDebugEnabled())
+        {
+            logger.debug("Closing multiplexed connection to " + socketKey, cause);
+        }
+        try
+        {
+            socket.close();
+        }
+        catch (IOException e)
+        {
+            logger.debug("Failed to close socket to " + socketKey + ": " + e.getMessage());
+        }
+        statistics.connectionClosed();
+
+        IOException failure = cause != null ? cause : new IOException("Connection to " + socketKey + " was closed");
+        for (Iterator<PendingResponse> iterator = pendingResponses.values().iterator(); iterator.hasNext();)
+        {
+            PendingResponse pendingResponse = iterator.next();
+            iterator.remove();
+            pendingResponse.fail(failure);
+        }
+    }
+
+    private class PendingResponse
+    {
+
+        private final long sequence;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Object response;
+        private volatile IOException failure;
+
+        PendingResponse(long sequence)
+        {
+            this.sequence = sequence;
+        }
+
+        void complete(Object response)
+        {
+            this.response = response;
+            latch.countDown();
+        }
+
+        void fail(IOException failure)
+        {
+            this.failure = failure;
+            latch.countDown();
+        }
+
+        Object await(int timeout) throws IOException, InterruptedException
+        {
+            try
+            {
+                if (timeout > 0)
+                {
+                    if (!latch.await(timeout, TimeUnit.MILLISECONDS))
+                    {
+                        statistics.requestTimedOut();
+                        // a late response is discarded by the reader
+                        pendingResponses.remove(sequence);
+                        throw new SocketTimeoutException("Timed out waiting for response " + sequence
+                                                         + " from " + socketKey);
+                    }
+                }
+                else
+                {
+                    latch.await();
+                }
+            }
+            finally
+            {
+                statistics.requestCompleted();
+            }
+
+            if (failure != null)
+            {
+                statistics.requestFailed();
+                IOException e = new IOException("Failed waiting for response " + sequence + " from " + socketKey);
+                e.initCause(failure);
+                throw e;
+            }
+            return response;
+        }
+    }
+}
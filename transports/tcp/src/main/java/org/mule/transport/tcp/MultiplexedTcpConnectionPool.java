@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.util.concurrent.NamedThreadFactory;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Keeps a few {@link MultiplexedTcpConnection}s open for each remote endpoint, shared by all the
+ * request-response calls to it. Each request goes to the connection with the fewest requests in
+ * flight, and a new connection is only opened while all the existing ones are busy.
+ * <p/>
+ * Connections are not tested when they are used: the thread reading the responses of each
+ * connection notices as soon as it fails or is closed by the remote end, and closed connections
+ * are replaced the next time the endpoint is used.
+ */
+class MultiplexedTcpConnectionPool
+{
+
+    private final TcpConnector connector;
+    private final int connectionsPerEndpoint;
+    private final MultiplexedTcpStatistics statistics;
+    private final ThreadFactory readerThreadFactory;
+    private final ConcurrentMap<TcpSocketKey, EndpointConnections> endpoints = new ConcurrentHashMap<TcpSocketKey, EndpointConnections>();
+
+    MultiplexedTcpConnectionPool(TcpConnector connector, int connectionsPerEndpoint,
+                                 MultiplexedTcpStatistics statistics, String threadName)
+    {
+        this.connector = connector;
+        this.connectionsPerEndpoint = connectionsPerEndpoint;
+        this.statistics = statistics;
+        this.readerThreadFactory = new NamedThreadFactory(threadName, connector.getClass().getClassLoader());
+    }
+
+    /**
+     * Writes a request to one of the connections to the endpoint and waits for its response.
+     *
+     * @see MultiplexedTcpConnection#send(Object, int)
+     */
+    Object send(ImmutableEndpoint endpoint, Object data, int timeout) throws Exception
+    {
+        TcpSocketKey socketKey = new TcpSocketKey(endpoint);
+        EndpointConnections connections = endpoints.get(socketKey);
+        if (connections == null)
+        {
+            connections = new EndpointConnections(socketKey);
+            EndpointConnections previous = endpoints.putIfAbsent(socketKey, connections);
+            if (previous != null)
+            {
+                connections = previous;
+            }
+        }
+        return connections.select().send(data, timeout);
+    }
+
+    /**
+     * Closes all the connections, failing the requests waiting for their response.
+     */
+    void close()
+    {
+        for (EndpointConnections connections : endpoints.values())
+        {
+            connections.close();
+        }
+        endpoints.clear();
+    }
+
+    private class EndpointConnections
+    {
+
+        private final TcpSocketKey socketKey;
+        private final MultiplexedTcpStatistics.EndpointStatistics endpointStatistics;
+        private final MultiplexedTcpConnection[] connections = new MultiplexedTcpConnection[connectionsPerEndpoint];
+
+        EndpointConnections(TcpSocketKey socketKey)
+        {
+            this.socketKey = socketKey;
+            this.endpointStatistics = statistics.getEndpointStatistics(socketKey);
+        }
+
+        synchronized MultiplexedTcpConnection select() throws Exception
+        {
+            MultiplexedTcpConnection selected = null;
+            int freeSlot = -1;
+            for (int i = 0; i < connections.length; i++)
+            {
+                MultiplexedTcpConnection connection = connections[i];
+                if (connection == null || connection.isClosed())
+                {
+                    connections[i] = null;
+                    if (freeSlot < 0)
+                    {
+                        freeSlot = i;
+                    }
+                }
+                else if (selected == null || connection.getInFlightRequests() < selected.getInFlightRequests())
+                {
+                    selected = connection;
+                }
+            }
+
+            if (freeSlot >= 0 && (selected == null || selected.getInFlightRequests() > 0))
+            {
+                selected = open();
+                connections[freeSlot] = selected;
+            }
+            return selected;
+        }
+
+        private MultiplexedTcpConnection open() throws Exception
+        {
+            Socket socket = (Socket) connector.getSocketFactory().makeObject(socketKey);
+            MultiplexedTcpConnection connection;
+            try
+            {
+                connection = new MultiplexedTcpConnection(socketKey, socket, connector.getTcpProtocol(), endpointStatistics);
+            }
+            catch (IOException e)
+            {
+                connector.getSocketFactory().destroyObject(socketKey, socket);
+                throw e;
+            }
+            connection.start(readerThreadFactory);
+            return connection;
+        }
+
+        synchronized void close()
+        {
+            for (int i = 0; i < connections.length; i++)
+            {
+                if (connections[i] != null)
+                {
+                    connections[i].close(null);
+                    connections[i] = null;
+                }
+            }
+        }
+    }
+}
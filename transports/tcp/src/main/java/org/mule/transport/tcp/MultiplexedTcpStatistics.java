@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the requests going through the multiplexed outbound connections of a
+ * {@link TcpConnector}, for each remote endpoint.
+ */
+public class MultiplexedTcpStatistics implements MultiplexedTcpStatisticsMBean
+{
+
+    private final ConcurrentMap<String, EndpointStatistics> endpoints = new ConcurrentHashMap<String, EndpointStatistics>();
+
+    EndpointStatistics getEndpointStatistics(TcpSocketKey socketKey)
+    {
+        String name = socketKey.toString();
+        EndpointStatistics statistics = endpoints.get(name);
+        if (statistics == null)
+        {
+            statistics = new EndpointStatistics();
+            EndpointStatistics previous = endpoints.putIfAbsent(name, statistics);
+            if (previous != null)
+            {
+                statistics = previous;
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public long getOpenConnections()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.openConnections.get();
+        }
+        return total;
+    }
+
+    @Override
+    public long getInFlightRequests()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.inFlightRequests.get();
+        }
+        return total;
+    }
+
+    @Override
+    public long getQueuedRequests()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.queuedRequests.get();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getInFlightRequestsPerEndpoint()
+    {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<String, EndpointStatistics> entry : endpoints.entrySet())
+        {
+            result.put(entry.getKey(), entry.getValue().inFlightRequests.get());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getQueuedRequestsPerEndpoint()
+    {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<String, EndpointStatistics> entry : endpoints.entrySet())
+        {
+            result.put(entry.getKey(), entry.getValue().queuedRequests.get());
+        }
+        return result;
+    }
+
+    @Override
+    public long getRequests()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.requests.get();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTimeouts()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.timeouts.get();
+        }
+        return total;
+    }
+
+    @Override
+    public long getFailures()
+    {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            total += statistics.failures.get();
+        }
+        return total;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (EndpointStatistics statistics : endpoints.values())
+        {
+            statistics.requests.set(0);
+            statistics.timeouts.set(0);
+            statistics.failures.set(0);
+        }
+    }
+
+    /**
+     * The statistics of the connections to a single remote endpoint.
+     */
+    static class EndpointStatistics
+    {
+
+        private final AtomicLong openConnections = new AtomicLong();
+        private final AtomicLong inFlightRequests = new AtomicLong();
+        private final AtomicLong queuedRequests = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        void connectionOpened()
+        {
+            openConnections.incrementAndGet();
+        }
+
+        void connectionClosed()
+        {
+            openConnections.decrementAndGet();
+        }
+
+        void requestQueued()
+        {
+            queuedRequests.incrementAndGet();
+        }
+
+        void requestDequeued()
+        {
+            queuedRequests.decrementAndGet();
+        }
+
+        void requestSent()
+        {
+            requests.incrementAndGet();
+            inFlightRequests.incrementAndGet();
+        }
+
+        void requestCompleted()
+        {
+            inFlightRequests.decrementAndGet();
+        }
+
+        void requestTimedOut()
+        {
+            timeouts.incrementAndGet();
+        }
+
+        void requestFailed()
+        {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.util.Map;
+
+/**
+ * Management interface of the statistics of the multiplexed outbound connections of a {@link TcpConnector}.
+ */
+public interface MultiplexedTcpStatisticsMBean
+{
+
+    String DEFAULT_JMX_TYPE = "TcpMultiplexedConnections";
+
+    /**
+     * @return the number of multiplexed connections currently open
+     */
+    long getOpenConnections();
+
+    /**
+     * @return the number of requests written and waiting for their response
+     */
+    long getInFlightRequests();
+
+    /**
+     * @return the number of requests waiting for their turn to be written to a connection
+     */
+    long getQueuedRequests();
+
+    /**
+     * @return the number of requests in flight for each remote endpoint, keyed by address and port
+     */
+    Map<String, Long> getInFlightRequestsPerEndpoint();
+
+    /**
+     * @return the number of queued requests for each remote endpoint, keyed by address and port
+     */
+    Map<String, Long> getQueuedRequestsPerEndpoint();
+
+    /**
+     * @return the number of requests sent
+     */
+    long getRequests();
+
+    /**
+     * @return the number of requests that didn't get a response within their timeout
+     */
+    long getTimeouts();
+
+    /**
+     * @return the number of requests that failed because their connection failed or was closed
+     */
+    long getFailures();
+
+    /**
+     * Resets all the counters but the open connections, in flight and queued requests
+     */
+    void clear();
+}
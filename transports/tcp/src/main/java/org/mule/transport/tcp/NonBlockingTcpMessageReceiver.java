@@ -0,0 +1,701 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.endpoint.InboundEndpoint;
+import org.mule.api.lifecycle.CreateException;
+import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.transaction.Transaction;
+import org.mule.api.transaction.TransactionException;
+import org.mule.api.transport.Connector;
+import org.mule.transport.AbstractMessageReceiver;
+import org.mule.transport.AbstractReceiverWorker;
+import org.mule.transport.ConnectException;
+import org.mule.transport.tcp.i18n.TcpMessages;
+import org.mule.util.concurrent.NamedThreadFactory;
+import org.mule.util.concurrent.ThreadNameHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.spi.work.WorkException;
+import javax.resource.spi.work.WorkManager;
+
+/**
+ * <code>NonBlockingTcpMessageReceiver</code> acts like a TCP server to receive socket
+ * requests without dedicating a thread to each connection. A few selector threads accept
+ * the connections and read from them without blocking, framing the messages with the
+ * {@link TcpFrameDecoder} of the {@link NonBlockingTcpProtocol} of the connector.
+ * <p/>
+ * Only whole messages are handed over to the work manager of the receiver. The messages
+ * of a connection are processed one at a time and in order, so responses are written back
+ * in the same order. Reading from a connection is suspended while it has
+ * {@link #MAX_PENDING_MESSAGES} messages waiting to be processed, and connections that are
+ * idle for longer than the keep alive timeout of the connector are closed.
+ */
+public class NonBlockingTcpMessageReceiver extends AbstractMessageReceiver
+{
+
+    public static final int MAX_PENDING_MESSAGES = 64;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT = 1000;
+
+    private final TcpConnector tcpConnector;
+    private final AtomicInteger nextSelectorLoop = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+    private SelectorLoop[] selectorLoops;
+
+    public NonBlockingTcpMessageReceiver(Connector connector, FlowConstruct flowConstruct, InboundEndpoint endpoint)
+            throws CreateException
+    {
+        super(connector, flowConstruct, endpoint);
+        this.tcpConnector = (TcpConnector) connector;
+    }
+
+    @Override
+    protected void doInitialise() throws InitialisationException
+    {
+        TcpProtocol protocol = tcpConnector.getTcpProtocol();
+        if (tcpConnector.isMultiplexedReceiver())
+        {
+            throw new InitialisationException(TcpMessages.multiplexedReceiverNotSupported(), this);
+        }
+        try
+        {
+            if (protocol instanceof NonBlockingTcpProtocol)
+            {
+                // fail on start instead of on the first connection
+                ((NonBlockingTcpProtocol) protocol).createFrameDecoder();
+                return;
+            }
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // the protocol is not supported either
+        }
+        throw new InitialisationException(TcpMessages.nonBlockingReadsNotSupported(protocol), this);
+    }
+
+    @Override
+    protected void doConnect() throws ConnectException
+    {
+        URI uri = endpoint.getEndpointURI().getUri();
+
+        try
+        {
+            serverChannel = tcpConnector.getServerSocketChannel(uri);
+            serverChannel.configureBlocking(false);
+
+            selectorLoops = new SelectorLoop[Math.max(1, tcpConnector.getSelectorThreads())];
+            for (int i = 0; i < selectorLoops.length; i++)
+            {
+                selectorLoops[i] = new SelectorLoop();
+            }
+            selectorLoops[0].acceptFrom(serverChannel);
+        }
+        catch (Exception e)
+        {
+            closeResources();
+            throw new ConnectException(TcpMessages.failedToBindToUri(uri), e, this);
+        }
+
+        NamedThreadFactory threadFactory = new NamedThreadFactory(
+                String.format("%s.selector", ThreadNameHelper.receiver(connector.getMuleContext(), connector.getName())),
+                tcpConnector.getClass().getClassLoader());
+        for (SelectorLoop selectorLoop : selectorLoops)
+        {
+            threadFactory.newThread(selectorLoop).start();
+        }
+    }
+
+    @Override
+    protected void doDisconnect() throws ConnectException
+    {
+        closeResources();
+    }
+
+    @Override
+    protected void doDispose()
+    {
+        closeResources();
+        logger.info("Closed Tcp port");
+    }
+
+    private void closeResources()
+    {
+        if (serverChannel != null)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Closing: " + serverChannel);
+            }
+            try
+            {
+                serverChannel.close();
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to close server socket: " + e.getMessage(), e);
+            }
+            serverChannel = null;
+        }
+
+        if (selectorLoops != null)
+        {
+            for (SelectorLoop selectorLoop : selectorLoops)
+            {
+                if (selectorLoop != null)
+                {
+                    selectorLoop.stop();
+                }
+            }
+            selectorLoops = null;
+        }
+    }
+
+    private SelectorLoop nextSelectorLoop(SelectorLoop[] loops)
+    {
+        return loops[(nextSelectorLoop.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+    }
+
+    /**
+     * Runs a selector on its own thread. Channels are only registered and their interest
+     * operations only changed by this thread, other threads ask for it with
+     * {@link #execute(Runnable)}.
+     */
+    private class SelectorLoop implements Runnable
+    {
+
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+        private final Set<Connection> connections = new HashSet<Connection>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private volatile boolean running = true;
+        private long lastIdleCheck = System.currentTimeMillis();
+
+        SelectorLoop() throws IOException
+        {
+            selector = Selector.open();
+        }
+
+        void acceptFrom(ServerSocketChannel channel) throws IOException
+        {
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+
+        void execute(Runnable task)
+        {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        void stop()
+        {
+            running = false;
+            selector.wakeup();
+        }
+
+        public void run()
+        {
+            try
+            {
+                while (running)
+                {
+                    try
+                    {
+                        selector.select(SELECT_TIMEOUT);
+                        runTasks();
+                        processSelectedKeys();
+                        closeIdleConnections();
+                    }
+                    catch (ClosedSelectorException e)
+                    {
+                        running = false;
+                    }
+                    catch (Exception e)
+                    {
+                        if (running)
+                        {
+                            getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                for (Connection connection : new ArrayList<Connection>(connections))
+                {
+                    connection.close();
+                }
+                try
+                {
+                    selector.close();
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Failed to close selector: " + e.getMessage());
+                }
+            }
+        }
+
+        private void runTasks()
+        {
+            Runnable task;
+            while ((task = tasks.poll()) != null)
+            {
+                task.run();
+            }
+        }
+
+        private void processSelectedKeys()
+        {
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext())
+            {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid())
+                {
+                    continue;
+                }
+
+                if (key.isAcceptable())
+                {
+                    accept((ServerSocketChannel) key.channel());
+                }
+                else
+                {
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable())
+                    {
+                        connection.read(readBuffer);
+                    }
+                    if (key.isValid() && key.isWritable())
+                    {
+                        connection.flush();
+                    }
+                }
+            }
+        }
+
+        private void accept(ServerSocketChannel channel)
+        {
+            SelectorLoop[] loops = selectorLoops;
+            if (loops == null)
+            {
+                return;
+            }
+
+            SocketChannel socketChannel;
+            try
+            {
+                while ((socketChannel = channel.accept()) != null)
+                {
+                    try
+                    {
+                        socketChannel.configureBlocking(false);
+                        tcpConnector.configureSocket(TcpConnector.SERVER, socketChannel.socket());
+                        nextSelectorLoop(loops).register(socketChannel);
+                    }
+                    catch (IOException e)
+                    {
+                        logger.warn("Failed to accept connection: " + e.getMessage());
+                        closeQuietly(socketChannel);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                if (running)
+                {
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(
+                            new ConnectException(e, NonBlockingTcpMessageReceiver.this));
+                }
+            }
+        }
+
+        private void register(final SocketChannel channel)
+        {
+            execute(new Runnable()
+            {
+                public void run()
+                {
+                    Connection connection = new Connection(SelectorLoop.this, channel);
+                    try
+                    {
+                        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                        connections.add(connection);
+                    }
+                    catch (IOException e)
+                    {
+                        logger.warn("Failed to register connection: " + e.getMessage());
+                        closeQuietly(channel);
+                    }
+                }
+            });
+        }
+
+        private void closeIdleConnections()
+        {
+            long keepAliveTimeout = tcpConnector.getKeepAliveTimeout();
+            long now = System.currentTimeMillis();
+            if (keepAliveTimeout <= 0 || now - lastIdleCheck < SELECT_TIMEOUT)
+            {
+                return;
+            }
+
+            lastIdleCheck = now;
+            for (Connection connection : new ArrayList<Connection>(connections))
+            {
+                if (connection.isIdleSince(now - keepAliveTimeout))
+                {
+                    if (logger.isDebugEnabled())
+                    {
+                        logger.debug("Closing idle connection: " + connection.channel);
+                    }
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of an open connection. Reads happen on the selector thread, while messages
+     * are processed and responses written by a single {@link ConnectionWorker} at a time.
+     */
+    private class Connection
+    {
+
+        private final SelectorLoop selectorLoop;
+        private final SocketChannel channel;
+        private final TcpFrameDecoder decoder;
+        private final Queue<Object> pendingMessages = new LinkedList<Object>();
+        private final Queue<ByteBuffer> pendingWrites = new ConcurrentLinkedQueue<ByteBuffer>();
+        private SelectionKey key;
+        private boolean processing;
+        private boolean readingSuspended;
+        private boolean inputClosed;
+        private boolean closeWhenFlushed;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        Connection(SelectorLoop selectorLoop, SocketChannel channel)
+        {
+            this.selectorLoop = selectorLoop;
+            this.channel = channel;
+            this.decoder = ((NonBlockingTcpProtocol) tcpConnector.getTcpProtocol()).createFrameDecoder();
+        }
+
+        void read(ByteBuffer buffer)
+        {
+            boolean endOfStream;
+            buffer.clear();
+            try
+            {
+                endOfStream = channel.read(buffer) < 0;
+            }
+            catch (IOException e)
+            {
+                // do not pollute the log with a stacktrace, log only the message
+                logger.info("Socket exception occured: " + e.getMessage());
+                close();
+                return;
+            }
+            lastActivity = System.currentTimeMillis();
+            buffer.flip();
+
+            try
+            {
+                Object message;
+                while ((message = decoder.decode(buffer, endOfStream)) != null)
+                {
+                    messageReceived(message);
+                }
+            }
+            catch (Exception e)
+            {
+                getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                close();
+                return;
+            }
+
+            if (endOfStream)
+            {
+                inputClosed();
+            }
+        }
+
+        private void messageReceived(Object message)
+        {
+            boolean schedule;
+            synchronized (this)
+            {
+                pendingMessages.add(message);
+                schedule = !processing;
+                processing = true;
+                if (pendingMessages.size() >= MAX_PENDING_MESSAGES && !readingSuspended)
+                {
+                    readingSuspended = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+
+            if (schedule)
+            {
+                try
+                {
+                    getWorkManager().scheduleWork(new ConnectionWorker(this), WorkManager.INDEFINITE, null, connector);
+                }
+                catch (WorkException e)
+                {
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                    close();
+                }
+            }
+        }
+
+        private void inputClosed()
+        {
+            boolean close;
+            synchronized (this)
+            {
+                inputClosed = true;
+                if (key.isValid())
+                {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+                close = !processing;
+            }
+            if (close)
+            {
+                closeWhenFlushed();
+            }
+        }
+
+        /**
+         * Called by the worker to take the next message to process.
+         *
+         * @return the next message, or null if there are no more messages for now, in which
+         *         case the worker must finish
+         */
+        Object nextMessage()
+        {
+            synchronized (this)
+            {
+                Object message = pendingMessages.poll();
+                if (message == null)
+                {
+                    processing = false;
+                    if (inputClosed)
+                    {
+                        selectorLoop.execute(new Runnable()
+                        {
+                            public void run()
+                            {
+                                closeWhenFlushed();
+                            }
+                        });
+                    }
+                }
+                else if (readingSuspended && pendingMessages.size() < MAX_PENDING_MESSAGES / 2)
+                {
+                    readingSuspended = false;
+                    selectorLoop.execute(new Runnable()
+                    {
+                        public void run()
+                        {
+                            resumeReading();
+                        }
+                    });
+                }
+                return message;
+            }
+        }
+
+        private synchronized void resumeReading()
+        {
+            if (!readingSuspended && !inputClosed && key.isValid())
+            {
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Called by the worker to write a response, which is written by the selector thread.
+         */
+        void write(byte[] data)
+        {
+            pendingWrites.add(ByteBuffer.wrap(data));
+            selectorLoop.execute(new Runnable()
+            {
+                public void run()
+                {
+                    flush();
+                }
+            });
+        }
+
+        void flush()
+        {
+            if (!key.isValid())
+            {
+                return;
+            }
+
+            try
+            {
+                ByteBuffer buffer;
+                while ((buffer = pendingWrites.peek()) != null)
+                {
+                    channel.write(buffer);
+                    if (buffer.hasRemaining())
+                    {
+                        break;
+                    }
+                    pendingWrites.poll();
+                }
+            }
+            catch (IOException e)
+            {
+                logger.info("Socket exception occured: " + e.getMessage());
+                close();
+                return;
+            }
+            lastActivity = System.currentTimeMillis();
+
+            if (pendingWrites.isEmpty())
+            {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                if (closeWhenFlushed)
+                {
+                    close();
+                }
+            }
+            else
+            {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void closeWhenFlushed()
+        {
+            closeWhenFlushed = true;
+            flush();
+        }
+
+        synchronized boolean isIdleSince(long time)
+        {
+            return !processing && pendingWrites.isEmpty() && lastActivity < time;
+        }
+
+        void close()
+        {
+            selectorLoop.connections.remove(this);
+            if (key != null)
+            {
+                key.cancel();
+            }
+            closeQuietly(channel);
+        }
+
+        SocketAddress getRemoteAddress()
+        {
+            return channel.socket().getRemoteSocketAddress();
+        }
+    }
+
+    private void closeQuietly(SocketChannel channel)
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Socket close failed with: " + e);
+        }
+    }
+
+    /**
+     * Processes the messages of a connection until there are no more pending.
+     */
+    protected class ConnectionWorker extends AbstractReceiverWorker
+    {
+
+        private final Connection connection;
+
+        private ConnectionWorker(Connection connection)
+        {
+            super(new ArrayList<Object>(1), NonBlockingTcpMessageReceiver.this);
+            this.connection = connection;
+        }
+
+        @Override
+        protected void doRun()
+        {
+            Object message;
+            while ((message = connection.nextMessage()) != null)
+            {
+                messages.add(message);
+                super.doRun();
+            }
+        }
+
+        @Override
+        protected void bindTransaction(Transaction tx) throws TransactionException
+        {
+            //nothing to do
+        }
+
+        @Override
+        protected void handleResults(List messages) throws Exception
+        {
+            //should send back only if remote synch is set or no outbound endpoints
+            if (endpoint.getExchangePattern().hasResponse())
+            {
+                for (Object message : messages)
+                {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    tcpConnector.getTcpProtocol().write(out, message);
+                    connection.write(out.toByteArray());
+                }
+            }
+        }
+
+        @Override
+        protected void preRouteMuleMessage(final MuleMessage message) throws Exception
+        {
+            super.preRouteMuleMessage(message);
+
+            final SocketAddress clientAddress = connection.getRemoteAddress();
+            if (clientAddress != null)
+            {
+                message.setOutboundProperty(MuleProperties.MULE_REMOTE_CLIENT_ADDRESS, clientAddress.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+/**
+ * A {@link TcpProtocol} that can also frame messages read from a non-blocking channel,
+ * so it can be used by the {@link NonBlockingTcpMessageReceiver}.
+ */
+public interface NonBlockingTcpProtocol extends TcpProtocol
+{
+
+    /**
+     * Creates the decoder that frames the messages read from a single connection. Decoders
+     * keep the state of the message being read, so a new one is needed for each connection.
+     *
+     * @return a new decoder
+     * @throws UnsupportedOperationException if this protocol cannot frame messages without
+     *             blocking (for example, a subclass that reads directly from the stream)
+     */
+    TcpFrameDecoder createFrameDecoder();
+
+}
@@ -40,4 +40,13 @@ public class PollingTcpConnector extends TcpConnector
     {
         this.pollingFrequency = pollingFrequency;
     }
+
+    /**
+     * Polling receivers read from the server as clients, so they never use the non-blocking receiver
+     */
+    @Override
+    public boolean isNonBlockingReceiver()
+    {
+        return false;
+    }
 }
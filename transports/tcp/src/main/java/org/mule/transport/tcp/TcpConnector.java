@@ -11,14 +11,21 @@ import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
 import org.mule.api.MuleMessage;
 import org.mule.api.config.MuleProperties;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.context.MuleContextAware;
 import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.api.endpoint.InboundEndpoint;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.management.stats.StatisticsMBeanProvider;
 import org.mule.api.transport.Connector;
 import org.mule.api.transport.MessageDispatcherFactory;
+import org.mule.api.transport.MessageReceiver;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.model.streaming.CallbackOutputStream;
 import org.mule.transport.AbstractConnector;
 import org.mule.transport.ConfigurableKeyedObjectPool;
+import org.mule.transport.tcp.i18n.TcpMessages;
+import org.mule.transport.tcp.protocols.LengthProtocol;
 import org.mule.transport.tcp.protocols.SafeProtocol;
 import org.mule.util.concurrent.ThreadNameHelper;
 import org.mule.util.monitor.ExpiryMonitor;
@@ -31,6 +38,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 
@@ -40,7 +48,7 @@ import org.apache.commons.pool.impl.GenericKeyedObjectPool;
  * appropriate socket factories and application level protocols as required (see
  * the constructor and the SSL transport for examples).
  */
-public class TcpConnector extends AbstractConnector
+public class TcpConnector extends AbstractConnector implements StatisticsMBeanProvider<MultiplexedTcpStatisticsMBean>
 {
     public static final String TCP = "tcp";
     public static final String SEND_TCP_NO_DELAY_SYSTEM_PROPERTY = MuleProperties.SYSTEM_PROPERTY_PREFIX
@@ -53,6 +61,8 @@ public class TcpConnector extends AbstractConnector
     public static final int DEFAULT_BUFFER_SIZE = INT_VALUE_NOT_SET;
     public static final int DEFAULT_BACKLOG = INT_VALUE_NOT_SET;
     public static final int DEFAULT_WAIT_TIMEOUT = INT_VALUE_NOT_SET;
+    public static final int DEFAULT_SELECTOR_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_MULTIPLEXED_CONNECTIONS = 2;
 
     // to clarify arg to configureSocket
     public static final boolean SERVER = false;
@@ -91,6 +101,34 @@ public class TcpConnector extends AbstractConnector
      */
     private boolean keepAlive = false;
 
+    /**
+     * If set, inbound endpoints use a {@link NonBlockingTcpMessageReceiver}, which reads
+     * from all the connections with {@link #selectorThreads} threads instead of using a
+     * thread for each connection.
+     */
+    private boolean nonBlockingReceiver = false;
+
+    private int selectorThreads = DEFAULT_SELECTOR_THREADS;
+
+    /**
+     * If set, request-response calls from outbound endpoints are pipelined over up to
+     * {@link #multiplexedConnections} connections to each remote endpoint instead of taking a
+     * socket from the pool for each call. Requires a length based protocol and a remote
+     * end that is a multiplexed receiver.
+     */
+    private boolean multiplexedDispatcher = false;
+
+    /**
+     * If set, inbound endpoints read a {@link CorrelationHeader} before each message and write
+     * it back before its response, as expected by multiplexed dispatchers. Requires a length
+     * based protocol.
+     */
+    private boolean multiplexedReceiver = false;
+
+    private int multiplexedConnections = DEFAULT_MULTIPLEXED_CONNECTIONS;
+    private final MultiplexedTcpStatistics multiplexedStatistics = new MultiplexedTcpStatistics();
+    private MultiplexedTcpConnectionPool multiplexedConnectionPool;
+
     //TODO MULE-2300 remove once fixed
     private TcpSocketKey lastSocketKey;
 
@@ -170,6 +208,33 @@ public class TcpConnector extends AbstractConnector
                                                  ThreadNameHelper.getPrefix(muleContext),
                                                  getName());
         keepAliveMonitor = new ExpiryMonitor(monitorName, 1000, this.getClass().getClassLoader(), muleContext, false);
+
+        // the default protocol is not a registered object, so the context is not injected
+        if (getTcpProtocol() instanceof MuleContextAware)
+        {
+            ((MuleContextAware) getTcpProtocol()).setMuleContext(muleContext);
+        }
+
+        if ((isMultiplexedDispatcher() || isMultiplexedReceiver())
+            && !(getTcpProtocol() instanceof LengthProtocol || getTcpProtocol() instanceof SafeProtocol))
+        {
+            throw new InitialisationException(TcpMessages.multiplexingNotSupported(getTcpProtocol()), this);
+        }
+        if (isMultiplexedDispatcher())
+        {
+            multiplexedConnectionPool = new MultiplexedTcpConnectionPool(this, multiplexedConnections,
+                multiplexedStatistics, ThreadNameHelper.dispatcher(muleContext, getName()) + ".multiplexed");
+        }
+    }
+
+    @Override
+    protected MessageReceiver createReceiver(FlowConstruct flowConstruct, InboundEndpoint endpoint) throws Exception
+    {
+        if (isNonBlockingReceiver())
+        {
+            return new NonBlockingTcpMessageReceiver(this, flowConstruct, endpoint);
+        }
+        return super.createReceiver(flowConstruct, endpoint);
     }
 
     @Override
@@ -184,7 +249,11 @@ public class TcpConnector extends AbstractConnector
         {
             logger.warn("Failed to close dispatcher socket pool: " + e.getMessage());
         }
-        
+        if (multiplexedConnectionPool != null)
+        {
+            multiplexedConnectionPool.close();
+        }
+
         keepAliveMonitor.dispose();
     }
 
@@ -225,6 +294,18 @@ public class TcpConnector extends AbstractConnector
         }
     }
 
+    /**
+     * Writes a request over one of the multiplexed connections to the endpoint and waits for its response.
+     */
+    Object sendMultiplexed(ImmutableEndpoint endpoint, Object data, int timeout) throws Exception
+    {
+        if (multiplexedConnectionPool == null)
+        {
+            throw new IllegalStateException("Connector " + getName() + " does not multiplex its outbound connections");
+        }
+        return multiplexedConnectionPool.send(endpoint, data, timeout);
+    }
+
     public OutputStream getOutputStream(final ImmutableEndpoint endpoint, MuleMessage message)
             throws MuleException
     {
@@ -271,6 +352,10 @@ public class TcpConnector extends AbstractConnector
     protected void doDisconnect() throws Exception
     {
         socketsPool.clear();
+        if (multiplexedConnectionPool != null)
+        {
+            multiplexedConnectionPool.close();
+        }
     }
 
     @Override
@@ -453,6 +538,56 @@ public class TcpConnector extends AbstractConnector
         this.keepAlive = keepAlive;
     }
 
+    public boolean isNonBlockingReceiver()
+    {
+        return nonBlockingReceiver;
+    }
+
+    public void setNonBlockingReceiver(boolean nonBlockingReceiver)
+    {
+        this.nonBlockingReceiver = nonBlockingReceiver;
+    }
+
+    public int getSelectorThreads()
+    {
+        return selectorThreads;
+    }
+
+    public void setSelectorThreads(int selectorThreads)
+    {
+        this.selectorThreads = selectorThreads;
+    }
+
+    public boolean isMultiplexedDispatcher()
+    {
+        return multiplexedDispatcher;
+    }
+
+    public void setMultiplexedDispatcher(boolean multiplexedDispatcher)
+    {
+        this.multiplexedDispatcher = multiplexedDispatcher;
+    }
+
+    public boolean isMultiplexedReceiver()
+    {
+        return multiplexedReceiver;
+    }
+
+    public void setMultiplexedReceiver(boolean multiplexedReceiver)
+    {
+        this.multiplexedReceiver = multiplexedReceiver;
+    }
+
+    public int getMultiplexedConnections()
+    {
+        return multiplexedConnections;
+    }
+
+    public void setMultiplexedConnections(int multiplexedConnections)
+    {
+        this.multiplexedConnections = valueOrDefault(multiplexedConnections, 1, DEFAULT_MULTIPLEXED_CONNECTIONS);
+    }
+
     public boolean isSendTcpNoDelay()
     {
         return sendTcpNoDelay;
@@ -488,6 +623,17 @@ public class TcpConnector extends AbstractConnector
         return getServerSocketFactory().createServerSocket(uri, getReceiveBacklog(), isReuseAddress());
     }
 
+    protected ServerSocketChannel getServerSocketChannel(URI uri) throws IOException
+    {
+        if (!(getServerSocketFactory() instanceof TcpServerSocketFactory))
+        {
+            throw new IOException("Server socket factory " + getServerSocketFactory().getClass().getName()
+                                  + " cannot create non-blocking server sockets");
+        }
+        return ((TcpServerSocketFactory) getServerSocketFactory()).createServerSocketChannel(uri,
+            getReceiveBacklog(), isReuseAddress());
+    }
+
     private static int valueOrDefault(int value, int threshhold, int deflt)
     {
         if (value < threshhold)
@@ -572,6 +718,38 @@ public class TcpConnector extends AbstractConnector
         return socketsPool.getMaxWait();
     }
 
+    public MultiplexedTcpStatistics getMultiplexedStatistics()
+    {
+        return multiplexedStatistics;
+    }
+
+    @Override
+    public String getStatisticsName()
+    {
+        return getName();
+    }
+
+    @Override
+    public String getStatisticsType()
+    {
+        return MultiplexedTcpStatisticsMBean.DEFAULT_JMX_TYPE;
+    }
+
+    @Override
+    public Class<MultiplexedTcpStatisticsMBean> getStatisticsInterface()
+    {
+        return MultiplexedTcpStatisticsMBean.class;
+    }
+
+    /**
+     * @return the statistics of the multiplexed outbound connections, or null if they are not used
+     */
+    @Override
+    public MultiplexedTcpStatisticsMBean getStatistics()
+    {
+        return multiplexedDispatcher ? multiplexedStatistics : null;
+    }
+
     public Boolean isFailOnUnresolvedHost() 
     {
         return failOnUnresolvedHost;
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Frames the messages of a {@link NonBlockingTcpProtocol} from the data read from a
+ * connection as it arrives, instead of blocking on a stream until a whole message is read.
+ * <p/>
+ * {@link #decode(ByteBuffer, boolean)} is called repeatedly after each read until it
+ * returns <code>null</code>, so a single read can produce several messages.
+ */
+public interface TcpFrameDecoder
+{
+
+    /**
+     * Consumes data from the buffer and returns the next complete message, if any. When a
+     * message is returned, the data left in the buffer belongs to the following messages. When
+     * <code>null</code> is returned, all the data left in the buffer must have been consumed
+     * and kept by the decoder, since the buffer is reused for the next read.
+     *
+     * @param buffer the data read from the connection, ready to be read
+     * @param endOfStream true if the peer closed its side of the connection, so no more data
+     *            will follow the data in the buffer
+     * @return a whole message, or <code>null</code> if more data are needed
+     * @throws IOException if the data do not follow the protocol
+     */
+    Object decode(ByteBuffer buffer, boolean endOfStream) throws IOException;
+
+}
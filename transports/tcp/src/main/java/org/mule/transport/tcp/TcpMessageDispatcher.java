@@ -67,6 +67,11 @@ public class TcpMessageDispatcher extends AbstractMessageDispatcher
     @Override
     protected synchronized MuleMessage doSend(MuleEvent event) throws Exception
     {
+        if (connector.isMultiplexedDispatcher() && returnResponse(event))
+        {
+            return doSendMultiplexed(event);
+        }
+
         Socket socket = connector.getSocket(endpoint);
         doDispatchToSocket(socket, event);
         try
@@ -111,6 +116,25 @@ public class TcpMessageDispatcher extends AbstractMessageDispatcher
         
     }
 
+    private MuleMessage doSendMultiplexed(MuleEvent event) throws Exception
+    {
+        int timeout = endpoint.getResponseTimeout() != 0 ? endpoint.getResponseTimeout() : event.getTimeout();
+        try
+        {
+            Object result = connector.sendMultiplexed(endpoint, event.getMessage().getPayload(), timeout);
+            if (result instanceof MuleMessage)
+            {
+                return (MuleMessage) result;
+            }
+            return createMuleMessage(result, endpoint.getEncoding());
+        }
+        catch (SocketTimeoutException e)
+        {
+            logger.info("Timed out waiting for a multiplexed response on endpointUri: " + endpoint.getEndpointURI());
+            return new DefaultMuleMessage(NullPayload.getInstance(), getEndpoint().getMuleContext());
+        }
+    }
+
     // Socket management (get and release) is handled outside this method
     private void dispatchToSocket(Socket socket, MuleEvent event) throws Exception
     {
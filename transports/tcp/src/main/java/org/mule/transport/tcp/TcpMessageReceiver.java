@@ -219,6 +219,8 @@ public class TcpMessageReceiver extends AbstractMessageReceiver implements Work
         protected boolean dataInWorkFinished = false;
         protected Object notify = new Object();
         private boolean moreMessages = true;
+        // header of the message being processed when the connector is a multiplexed receiver
+        private Long correlationId;
         
         public TcpWorker(Socket socket, AbstractMessageReceiver receiver) throws IOException
         {
@@ -358,6 +360,14 @@ public class TcpMessageReceiver extends AbstractMessageReceiver implements Work
                         TimeUnit.MILLISECONDS, this);
                 }
                 
+                if (((TcpConnector) connector).isMultiplexedReceiver())
+                {
+                    correlationId = CorrelationHeader.read(dataIn);
+                    if (correlationId == null)
+                    {
+                        return null;
+                    }
+                }
                 readMsg = protocol.read(dataIn);
                 
                 // There was some action so we can clear the monitor
@@ -404,6 +414,10 @@ public class TcpMessageReceiver extends AbstractMessageReceiver implements Work
                 for (Iterator iterator = messages.iterator(); iterator.hasNext();)
                 {
                     Object o = iterator.next();
+                    if (correlationId != null)
+                    {
+                        CorrelationHeader.write(dataOut, correlationId);
+                    }
                     protocol.write(dataOut, o);
                     dataOut.flush();
                 }
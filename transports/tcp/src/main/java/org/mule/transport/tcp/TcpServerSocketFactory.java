@@ -15,6 +15,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,9 +29,8 @@ public class TcpServerSocketFactory implements SimpleServerSocketFactory
         String host = StringUtils.defaultIfEmpty(uri.getHost(), "localhost");
         InetAddress inetAddress = InetAddress.getByName(host);
 
-        if ((inetAddress.equals(NetworkUtils.getLocalHost()) || host.trim().equals("localhost")) && TcpPropertyHelper.isBindingLocalhostToAllLocalInterfaces())
+        if (isBindingToAllLocalInterfaces(host, inetAddress))
         {
-            logger.warn(TcpMessages.localhostBoundToAllLocalInterfaces());
             return createServerSocket(uri.getPort(), backlog, reuse);
         }
         else
@@ -39,6 +39,48 @@ public class TcpServerSocketFactory implements SimpleServerSocketFactory
         }
     }
 
+    /**
+     * Creates a server socket channel, to accept connections without blocking, bound as the
+     * server sockets created by {@link #createServerSocket(URI, int, Boolean)}.
+     */
+    public ServerSocketChannel createServerSocketChannel(URI uri, int backlog, Boolean reuse) throws IOException
+    {
+        String host = StringUtils.defaultIfEmpty(uri.getHost(), "localhost");
+        InetAddress inetAddress = InetAddress.getByName(host);
+
+        InetSocketAddress address;
+        if (isBindingToAllLocalInterfaces(host, inetAddress))
+        {
+            address = new InetSocketAddress(uri.getPort());
+        }
+        else
+        {
+            address = new InetSocketAddress(inetAddress, uri.getPort());
+        }
+
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try
+        {
+            configure(channel.socket(), reuse, address, backlog);
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private boolean isBindingToAllLocalInterfaces(String host, InetAddress inetAddress)
+    {
+        if ((inetAddress.equals(NetworkUtils.getLocalHost()) || host.trim().equals("localhost")) && TcpPropertyHelper.isBindingLocalhostToAllLocalInterfaces())
+        {
+            logger.warn(TcpMessages.localhostBoundToAllLocalInterfaces());
+            return true;
+        }
+        return false;
+    }
+
     public ServerSocket createServerSocket(InetAddress address, int port, int backlog, Boolean reuse) throws IOException
     {
         return configure(new ServerSocket(), reuse, new InetSocketAddress(address, port), backlog);
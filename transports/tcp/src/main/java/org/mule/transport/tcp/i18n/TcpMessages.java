@@ -10,6 +10,7 @@ import org.mule.config.i18n.Message;
 import org.mule.config.i18n.MessageFactory;
 import org.mule.transport.tcp.TcpConnector;
 import org.mule.transport.tcp.TcpPropertyHelper;
+import org.mule.transport.tcp.TcpProtocol;
 
 import java.net.URI;
 
@@ -48,6 +49,21 @@ public class TcpMessages extends MessageFactory
     {
         return factory.createMessage(BUNDLE_PATH, 6, TcpPropertyHelper.MULE_TCP_BIND_LOCALHOST_TO_ALL_LOCAL_INTERFACES_PROPERTY);
     }
+
+    public static Message nonBlockingReadsNotSupported(TcpProtocol protocol)
+    {
+        return factory.createMessage(BUNDLE_PATH, 7, protocol.getClass().getName());
+    }
+
+    public static Message multiplexingNotSupported(TcpProtocol protocol)
+    {
+        return factory.createMessage(BUNDLE_PATH, 8, protocol.getClass().getName());
+    }
+
+    public static Message multiplexedReceiverNotSupported()
+    {
+        return factory.createMessage(BUNDLE_PATH, 9);
+    }
 }
 
 
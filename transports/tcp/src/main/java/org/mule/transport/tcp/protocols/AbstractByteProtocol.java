@@ -8,7 +8,9 @@
 package org.mule.transport.tcp.protocols;
 
 import org.mule.ResponseOutputStream;
+import org.mule.api.MuleContext;
 import org.mule.api.MuleMessage;
+import org.mule.api.context.MuleContextAware;
 import org.mule.transport.tcp.TcpProtocol;
 import org.mule.util.ClassUtils;
 import org.mule.util.IOUtils;
@@ -21,6 +23,7 @@ import java.io.Serializable;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,8 +39,10 @@ import org.apache.commons.logging.LogFactory;
  * all cases it is possible to call {@link #write(java.io.OutputStream, Object)} which
  * will, via {@link #write(java.io.OutputStream, Object)}, dispatch to
  * {@link #writeByteArray(java.io.OutputStream, byte[])}.</p>.
+ * <p>Serializable objects are serialized with the {@link org.mule.api.serialization.ObjectSerializer}
+ * of the {@link MuleContext} when one is set.</p>
  */
-public abstract class AbstractByteProtocol implements TcpProtocol
+public abstract class AbstractByteProtocol implements TcpProtocol, MuleContextAware
 {
     private static final Log logger = LogFactory.getLog(DirectProtocol.class);
     private static final long PAUSE_PERIOD = 100;
@@ -48,12 +53,19 @@ public abstract class AbstractByteProtocol implements TcpProtocol
     public static final boolean NO_STREAM = false;
     private boolean streamOk;
     private boolean rethrowExceptionOnRead = false;
+    protected MuleContext muleContext;
 
     public AbstractByteProtocol(boolean streamOk)
     {
         this.streamOk = streamOk;
     }
 
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        this.muleContext = context;
+    }
+
     public void write(OutputStream os, Object data) throws IOException
     {
         if (data instanceof InputStream)
@@ -88,7 +100,7 @@ public abstract class AbstractByteProtocol implements TcpProtocol
         }
         else if (data instanceof Serializable)
         {
-            writeByteArray(os, SerializationUtils.serialize((Serializable) data));
+            writeByteArray(os, SerializationUtils.serialize((Serializable) data, muleContext));
         }
         else
         {
@@ -209,6 +221,19 @@ public abstract class AbstractByteProtocol implements TcpProtocol
         return len;
     }
 
+    /**
+     * Consume all the data left in a buffer
+     *
+     * @param buffer Source of data
+     * @return The data that were left in the buffer
+     */
+    protected byte[] drain(ByteBuffer buffer)
+    {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
     protected byte[] nullEmptyArray(byte[] data)
     {
         if (0 == data.length)
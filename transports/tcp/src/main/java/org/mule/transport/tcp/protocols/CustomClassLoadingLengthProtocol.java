@@ -6,6 +6,8 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.TcpFrameDecoder;
+
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -54,6 +56,15 @@ public class CustomClassLoadingLengthProtocol extends LengthProtocol
         }
     }
 
+    /**
+     * The object is read directly from the stream, so this protocol cannot read without blocking
+     */
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        throw new UnsupportedOperationException("CustomClassLoadingLengthProtocol cannot read without blocking");
+    }
+
     public ClassLoader getClassLoader()
     {
         if (this.classLoader == null)
@@ -6,8 +6,12 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.NonBlockingTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
@@ -23,8 +27,10 @@ import org.apache.commons.logging.LogFactory;
  * {@link org.mule.transport.tcp.protocols.LengthProtocol} may be more reliable.
  *
  * <p>Writing simply writes the data to the socket.</p>
+ *
+ * <p>When reading without blocking, the data available after each read are a message.</p>
  */
-public class DirectProtocol extends AbstractByteProtocol
+public class DirectProtocol extends AbstractByteProtocol implements NonBlockingTcpProtocol
 {
 
     protected static final int UNLIMITED = -1;
@@ -85,6 +91,17 @@ public class DirectProtocol extends AbstractByteProtocol
         return nullEmptyArray(baos.toByteArray());
     }
 
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new TcpFrameDecoder()
+        {
+            public Object decode(ByteBuffer buffer, boolean endOfStream)
+            {
+                return buffer.hasRemaining() ? drain(buffer) : null;
+            }
+        };
+    }
+
     protected int remaining(int limit, int remain, int len)
     {
         if (UNLIMITED == limit)
@@ -6,6 +6,11 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
 /**
  * The EOFProtocol class is an application level tcp protocol that does nothing.
  * Reading is terminated by the stream being closed by the client.
@@ -26,4 +31,32 @@ public class EOFProtocol extends DirectProtocol
         return true;
     }
 
+    /**
+     * Keep all the data read until the client closes the stream
+     */
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new TcpFrameDecoder()
+        {
+            private final ByteArrayOutputStream data = new ByteArrayOutputStream(bufferSize);
+            private boolean read = false;
+
+            public Object decode(ByteBuffer buffer, boolean endOfStream)
+            {
+                if (buffer.hasRemaining())
+                {
+                    byte[] bytes = drain(buffer);
+                    data.write(bytes, 0, bytes.length);
+                }
+                if (!endOfStream || read)
+                {
+                    return null;
+                }
+                read = true;
+                return nullEmptyArray(data.toByteArray());
+            }
+        };
+    }
+
 }
@@ -6,11 +6,15 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.TcpFrameDecoder;
+
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -82,6 +86,12 @@ public class LengthProtocol extends DirectProtocol
         return buffer;
     }
 
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new LengthFrameDecoder(getMaxMessageLength());
+    }
+
     @Override
     protected void writeByteArray(OutputStream os, byte[] data) throws IOException
     {
@@ -120,5 +130,73 @@ public class LengthProtocol extends DirectProtocol
     {
         this.maxMessageLength = maxMessageLength;
     }
-    
+
+    /**
+     * Reads the integer with the length of the message and then the message itself, as
+     * the data arrive.
+     */
+    static class LengthFrameDecoder implements TcpFrameDecoder
+    {
+
+        private final int maxMessageLength;
+        private final ByteBuffer lengthBuffer = ByteBuffer.allocate(SIZE_INT);
+        private byte[] message;
+        private int position;
+
+        LengthFrameDecoder(int maxMessageLength)
+        {
+            this.maxMessageLength = maxMessageLength;
+        }
+
+        public Object decode(ByteBuffer buffer, boolean endOfStream) throws IOException
+        {
+            if (message == null)
+            {
+                while (lengthBuffer.hasRemaining() && buffer.hasRemaining())
+                {
+                    lengthBuffer.put(buffer.get());
+                }
+                if (lengthBuffer.hasRemaining())
+                {
+                    if (endOfStream && lengthBuffer.position() > 0)
+                    {
+                        throw new EOFException();
+                    }
+                    return null;
+                }
+
+                lengthBuffer.flip();
+                int length = lengthBuffer.getInt();
+                lengthBuffer.clear();
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("length: " + length);
+                }
+
+                if (length < 0 || (maxMessageLength > 0 && length > maxMessageLength))
+                {
+                    throw new IOException("Length " + length + " exceeds limit: " + maxMessageLength);
+                }
+                message = new byte[length];
+                position = 0;
+            }
+
+            int len = Math.min(message.length - position, buffer.remaining());
+            buffer.get(message, position, len);
+            position += len;
+            if (position < message.length)
+            {
+                if (endOfStream)
+                {
+                    throw new EOFException();
+                }
+                return null;
+            }
+
+            byte[] result = message;
+            message = null;
+            return result;
+        }
+    }
+
 }
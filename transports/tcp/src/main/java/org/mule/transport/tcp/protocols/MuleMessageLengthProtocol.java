@@ -9,6 +9,7 @@ package org.mule.transport.tcp.protocols;
 import org.mule.api.MuleContext;
 import org.mule.api.context.MuleContextAware;
 import org.mule.transformer.wire.SerializedMuleMessageWireFormat;
+import org.mule.transport.tcp.TcpFrameDecoder;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,6 +33,12 @@ public class MuleMessageLengthProtocol extends LengthProtocol implements MuleCon
         return messageWorker.doRead(super.read(is));
     }
 
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return messageWorker.createFrameDecoder(super.createFrameDecoder());
+    }
+
     @Override
     public void write(OutputStream os, Object unused) throws IOException
     {
@@ -41,6 +48,7 @@ public class MuleMessageLengthProtocol extends LengthProtocol implements MuleCon
     @Override
     public void setMuleContext(MuleContext context)
     {
+        super.setMuleContext(context);
         wireFormat.setMuleContext(context);
     }
 }
@@ -9,6 +9,7 @@ package org.mule.transport.tcp.protocols;
 import org.mule.api.MuleContext;
 import org.mule.api.context.MuleContextAware;
 import org.mule.transformer.wire.SerializedMuleMessageWireFormat;
+import org.mule.transport.tcp.TcpFrameDecoder;
 
 import java.io.InputStream;
 import java.io.IOException;
@@ -32,6 +33,12 @@ public class MuleMessageSafeProtocol extends SafeProtocol implements MuleContext
         return messageWorker.doRead(super.read(is));
     }
 
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return messageWorker.createFrameDecoder(super.createFrameDecoder());
+    }
+
     @Override
     public void write(OutputStream os, Object unused) throws IOException
     {
@@ -41,6 +48,7 @@ public class MuleMessageSafeProtocol extends SafeProtocol implements MuleContext
     @Override
     public void setMuleContext(MuleContext context)
     {
+        super.setMuleContext(context);
         wireFormat.setMuleContext(context);
     }
 }
@@ -10,11 +10,13 @@ import org.mule.DefaultMuleMessage;
 import org.mule.RequestContext;
 import org.mule.api.MuleException;
 import org.mule.api.transformer.wire.WireFormat;
+import org.mule.transport.tcp.TcpFrameDecoder;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Helper class for Mule message handling so that we can apply the same logic across all
@@ -46,6 +48,17 @@ class MuleMessageWorker
         return baos.toByteArray();
     }
 
+    public TcpFrameDecoder createFrameDecoder(final TcpFrameDecoder decoder)
+    {
+        return new TcpFrameDecoder()
+        {
+            public Object decode(ByteBuffer buffer, boolean endOfStream) throws IOException
+            {
+                return doRead(decoder.decode(buffer, endOfStream));
+            }
+        };
+    }
+
     public Object doRead(Object message) throws IOException
     {
         if (message == null)
@@ -7,12 +7,17 @@
 package org.mule.transport.tcp.protocols;
 
 import org.mule.ResponseOutputStream;
+import org.mule.api.MuleContext;
+import org.mule.api.context.MuleContextAware;
+import org.mule.transport.tcp.NonBlockingTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
 import org.mule.transport.tcp.TcpProtocol;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * This precedes every message with a cookie.
@@ -21,12 +26,13 @@ import java.net.Socket;
  * You should probably change to LengthProtocol.
  * Remember - both sender and receiver must use the same protocol.
  */
-public class SafeProtocol implements TcpProtocol
+public class SafeProtocol implements NonBlockingTcpProtocol, MuleContextAware
 {
 
     public static final String COOKIE = "You are using SafeProtocol";
-    private TcpProtocol delegate = new LengthProtocol();
+    private LengthProtocol delegate = new LengthProtocol();
     private TcpProtocol cookieProtocol = new LengthProtocol(COOKIE.length());
+    private MuleContext muleContext;
 
     public Object read(InputStream is) throws IOException
     {
@@ -52,6 +58,50 @@ public class SafeProtocol implements TcpProtocol
         delegate.write(os, data);
     }
 
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new TcpFrameDecoder()
+        {
+            private final TcpFrameDecoder cookieDecoder = new LengthProtocol.LengthFrameDecoder(COOKIE.length());
+            private final TcpFrameDecoder delegateDecoder = delegate.createFrameDecoder();
+            private boolean cookieRead = false;
+
+            public Object decode(ByteBuffer buffer, boolean endOfStream) throws IOException
+            {
+                if (!cookieRead)
+                {
+                    Object cookie = null;
+                    try
+                    {
+                        cookie = cookieDecoder.decode(buffer, endOfStream);
+                    }
+                    catch (Exception e)
+                    {
+                        helpUser(e);
+                    }
+                    if (null == cookie)
+                    {
+                        return null;
+                    }
+                    assertCookie(cookie);
+                    cookieRead = true;
+                }
+
+                Object result = delegateDecoder.decode(buffer, endOfStream);
+                if (null != result)
+                {
+                    cookieRead = false;
+                }
+                else if (endOfStream)
+                {
+                    // EOF after cookie but before data
+                    helpUser();
+                }
+                return result;
+            }
+        };
+    }
+
     public ResponseOutputStream createResponse(Socket socket) throws IOException
     {
         return new ResponseOutputStream(socket, new ProtocolStream(this, false, socket.getOutputStream()));
@@ -80,20 +130,22 @@ public class SafeProtocol implements TcpProtocol
         }
         if (null != cookie)
         {
-            if (!(cookie instanceof byte[]
-                    && ((byte[]) cookie).length == COOKIE.length()
-                    && COOKIE.equals(new String((byte[]) cookie))))
-            {
-                helpUser();
-            }
-            else
-            {
-                return true;
-            }
+            assertCookie(cookie);
+            return true;
         }
         return false; // eof
     }
 
+    private void assertCookie(Object cookie) throws IOException
+    {
+        if (!(cookie instanceof byte[]
+                && ((byte[]) cookie).length == COOKIE.length()
+                && COOKIE.equals(new String((byte[]) cookie))))
+        {
+            helpUser();
+        }
+    }
+
     private void helpUser() throws IOException
     {
         throw new IOException("You are not using a consistent protocol on your TCP transport. "
@@ -112,6 +164,14 @@ public class SafeProtocol implements TcpProtocol
     public void setMaxMessageLength(int maxMessageLength)
     {
         delegate = new LengthProtocol(maxMessageLength);
+        delegate.setMuleContext(muleContext);
+    }
+
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        this.muleContext = context;
+        delegate.setMuleContext(context);
     }
 
 }
@@ -6,6 +6,7 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.TcpFrameDecoder;
 import org.mule.transport.tcp.TcpInputStream;
 import org.mule.transport.tcp.TcpProtocol;
 
@@ -31,6 +32,15 @@ public class StreamingProtocol extends EOFProtocol implements TcpProtocol
         return is;
     }
 
+    /**
+     * The stream itself is the message, so this protocol cannot read without blocking
+     */
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        throw new UnsupportedOperationException("StreamingProtocol cannot read without blocking");
+    }
+
     /**
      * 
      * @param is
@@ -6,9 +6,14 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.NonBlockingTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -45,10 +50,11 @@ import java.util.concurrent.ConcurrentMap;
  * be read later.
  * </p>
  */
-public class XmlMessageProtocol extends AbstractByteProtocol
+public class XmlMessageProtocol extends AbstractByteProtocol implements NonBlockingTcpProtocol
 {
     
     private static final String XML_PATTERN = "<?xml";
+    private static final byte[] XML_PATTERN_BYTES = XML_PATTERN.getBytes();
 
     private static final int READ_BUFFER_SIZE = 4096;
     private static final int PUSHBACK_BUFFER_SIZE = READ_BUFFER_SIZE * 2;
@@ -127,6 +133,69 @@ public class XmlMessageProtocol extends AbstractByteProtocol
         }
     }
 
+    /**
+     * When reading without blocking, the data read are a message once the next document is
+     * found or, as in {@link #read(InputStream)}, when {@link #isRepeat(int, int, int)} says
+     * reading should not continue once there are no more data available.
+     */
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new TcpFrameDecoder()
+        {
+            private final ByteArrayOutputStream data = new ByteArrayOutputStream(READ_BUFFER_SIZE);
+
+            public Object decode(ByteBuffer buffer, boolean endOfStream)
+            {
+                if (buffer.hasRemaining())
+                {
+                    byte[] bytes = drain(buffer);
+                    data.write(bytes, 0, bytes.length);
+                }
+                if (data.size() == 0)
+                {
+                    return null;
+                }
+
+                byte[] message = data.toByteArray();
+                // start search at 2nd character (index=1) to indicate whether we
+                // have reached a new document
+                int patternIndex = indexOf(message, XML_PATTERN_BYTES, 1);
+                if (patternIndex > 0)
+                {
+                    // keep the start of the next message
+                    data.reset();
+                    data.write(message, patternIndex, message.length - patternIndex);
+                    byte[] result = new byte[patternIndex];
+                    System.arraycopy(message, 0, result, 0, patternIndex);
+                    return result;
+                }
+                else if (endOfStream || !isRepeat(patternIndex, READ_BUFFER_SIZE, 0))
+                {
+                    data.reset();
+                    return message;
+                }
+                return null;
+            }
+        };
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int fromIndex)
+    {
+        for (int i = fromIndex; i <= data.length - pattern.length; i++)
+        {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j])
+            {
+                j++;
+            }
+            if (j == pattern.length)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Show we continue reading?  This class, following previous implementations, only
      * reads while input is saturated.
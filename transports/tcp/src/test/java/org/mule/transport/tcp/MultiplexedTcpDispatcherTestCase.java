@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.transport.NullPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class MultiplexedTcpDispatcherTestCase extends FunctionalTestCase
+{
+
+    private static final int REQUESTS = 50;
+    private static final int THREADS = 10;
+
+    @Rule
+    public DynamicPort port = new DynamicPort("port");
+
+    @Rule
+    public DynamicPort filteringPort = new DynamicPort("filteringPort");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "tcp-multiplexed-dispatcher-config.xml";
+    }
+
+    @Test
+    public void matchesConcurrentResponsesToTheirRequests() throws Exception
+    {
+        final MuleClient client = muleContext.getClient();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < REQUESTS; i++)
+            {
+                final String request = TEST_MESSAGE + i;
+                results.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        MuleMessage result = client.send("clientEndpoint", request, null);
+                        return result.getPayloadAsString();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < REQUESTS; i++)
+            {
+                assertEquals(TEST_MESSAGE + i + " Received", results.get(i).get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        MultiplexedTcpStatistics statistics = getClientConnector().getMultiplexedStatistics();
+        assertEquals(REQUESTS, statistics.getRequests());
+        assertEquals(1, statistics.getOpenConnections());
+        assertEquals(0, statistics.getInFlightRequests());
+        assertEquals(0, statistics.getQueuedRequests());
+        assertEquals(0, statistics.getTimeouts());
+    }
+
+    @Test
+    public void matchesResponsesWhenServerDoesNotRespondToSomeRequests() throws Exception
+    {
+        final MuleClient client = muleContext.getClient();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<MuleMessage> filtered = executor.submit(new Callable<MuleMessage>()
+            {
+                @Override
+                public MuleMessage call() throws Exception
+                {
+                    return client.send("filteringClientEndpoint", "drop me", null);
+                }
+            });
+            waitForInFlightRequest();
+
+            // written after the filtered request on the same connection
+            MuleMessage result = client.send("filteringClientEndpoint", TEST_MESSAGE, null);
+            assertEquals(TEST_MESSAGE + " Received", result.getPayloadAsString());
+
+            assertTrue(filtered.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS).getPayload() instanceof NullPayload);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        MultiplexedTcpStatistics statistics = getClientConnector().getMultiplexedStatistics();
+        assertEquals(2, statistics.getRequests());
+        assertEquals(1, statistics.getOpenConnections());
+        assertEquals(1, statistics.getTimeouts());
+    }
+
+    private void waitForInFlightRequest() throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + RECEIVE_TIMEOUT;
+        while (getClientConnector().getMultiplexedStatistics().getInFlightRequests() == 0)
+        {
+            assertTrue("Request was not sent", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private TcpConnector getClientConnector()
+    {
+        return (TcpConnector) muleContext.getRegistry().lookupConnector("clientConnector");
+    }
+}
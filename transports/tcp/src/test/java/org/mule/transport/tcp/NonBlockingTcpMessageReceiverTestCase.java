@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.api.transport.MessageReceiver;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class NonBlockingTcpMessageReceiverTestCase extends FunctionalTestCase
+{
+
+    private static final int MESSAGES = 10;
+
+    @Rule
+    public DynamicPort port = new DynamicPort("port");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "tcp-non-blocking-receiver-config.xml";
+    }
+
+    @Test
+    public void usesNonBlockingReceiver() throws Exception
+    {
+        TcpConnector connector = (TcpConnector) muleContext.getRegistry().lookupConnector("serverConnector");
+        for (MessageReceiver receiver : connector.getReceivers().values())
+        {
+            assertTrue(receiver instanceof NonBlockingTcpMessageReceiver);
+        }
+    }
+
+    @Test
+    public void receivesSeveralMessagesOnSameConnection() throws Exception
+    {
+        MuleClient client = muleContext.getClient();
+        for (int i = 0; i < MESSAGES; i++)
+        {
+            MuleMessage result = client.send("clientEndpoint", TEST_MESSAGE + i, null);
+            assertEquals(TEST_MESSAGE + i + " Received", result.getPayloadAsString());
+        }
+    }
+
+    @Test
+    public void respondsToPipelinedMessagesInOrder() throws Exception
+    {
+        Socket socket = new Socket("localhost", port.getNumber());
+        try
+        {
+            // all the messages are written at once, split across frame boundaries
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            for (int i = 0; i < MESSAGES; i++)
+            {
+                byte[] data = (TEST_MESSAGE + i).getBytes();
+                out.writeInt(data.length);
+                out.write(data);
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < MESSAGES; i++)
+            {
+                byte[] response = new byte[in.readInt()];
+                in.readFully(response);
+                assertEquals(TEST_MESSAGE + i + " Received", new String(response));
+            }
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.api.MuleContext;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class AbstractByteProtocolTestCase extends AbstractMuleTestCase
+{
+
+    private static final byte[] SERIALIZED = new byte[] {1, 2, 3};
+
+    private final Date payload = new Date(0);
+    private final DirectProtocol protocol = new DirectProtocol();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    public void serializesWithContextSerializer() throws Exception
+    {
+        ObjectSerializer serializer = mock(ObjectSerializer.class);
+        when(serializer.serialize(payload)).thenReturn(SERIALIZED);
+        MuleContext muleContext = mock(MuleContext.class);
+        when(muleContext.getObjectSerializer()).thenReturn(serializer);
+        protocol.setMuleContext(muleContext);
+
+        protocol.write(out, payload);
+
+        assertThat(out.toByteArray(), equalTo(SERIALIZED));
+    }
+
+    @Test
+    public void serializesWithJavaSerializationWithoutContext() throws Exception
+    {
+        protocol.write(out, payload);
+
+        assertThat(SerializationUtils.deserialize(out.toByteArray()), equalTo((Object) payload));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.transport.tcp.TcpFrameDecoder;
+import org.mule.transport.tcp.TcpProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class TcpFrameDecoderTestCase extends AbstractMuleTestCase
+{
+
+    private static final String FIRST = "first message";
+    private static final String SECOND = "second message";
+
+    @Test
+    public void lengthProtocolFramesMessagesSplitAcrossReads() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = concat(encode(protocol, FIRST), encode(protocol, SECOND));
+
+        assertMessages(decodeInChunks(protocol.createFrameDecoder(), data, 3), FIRST, SECOND);
+    }
+
+    @Test
+    public void lengthProtocolFramesSeveralMessagesInOneRead() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = concat(encode(protocol, FIRST), encode(protocol, SECOND));
+
+        assertMessages(decodeInChunks(protocol.createFrameDecoder(), data, data.length), FIRST, SECOND);
+    }
+
+    @Test(expected = IOException.class)
+    public void lengthProtocolFailsWhenMessageExceedsLimit() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol(4);
+        protocol.createFrameDecoder().decode(ByteBuffer.wrap(encode(protocol, FIRST)), false);
+    }
+
+    @Test
+    public void safeProtocolFramesMessagesSplitAcrossReads() throws Exception
+    {
+        SafeProtocol protocol = new SafeProtocol();
+        byte[] data = concat(encode(protocol, FIRST), encode(protocol, SECOND));
+
+        assertMessages(decodeInChunks(protocol.createFrameDecoder(), data, 5), FIRST, SECOND);
+    }
+
+    @Test(expected = IOException.class)
+    public void safeProtocolFailsWithoutCookie() throws Exception
+    {
+        byte[] data = encode(new LengthProtocol(), FIRST);
+        new SafeProtocol().createFrameDecoder().decode(ByteBuffer.wrap(data), false);
+    }
+
+    @Test
+    public void eofProtocolFramesMessageOnEndOfStream() throws Exception
+    {
+        TcpFrameDecoder decoder = new EOFProtocol().createFrameDecoder();
+
+        assertNull(decoder.decode(ByteBuffer.wrap(FIRST.getBytes()), false));
+        assertNull(decoder.decode(ByteBuffer.wrap(SECOND.getBytes()), false));
+        assertEquals(FIRST + SECOND, new String((byte[]) decoder.decode(ByteBuffer.allocate(0), true)));
+        assertNull(decoder.decode(ByteBuffer.allocate(0), true));
+    }
+
+    @Test
+    public void xmlMessageEofProtocolFramesDocuments() throws Exception
+    {
+        String first = "<?xml version=\"1.0\"?><first/>";
+        String second = "<?xml version=\"1.0\"?><second/>";
+        byte[] data = (first + second).getBytes();
+
+        TcpFrameDecoder decoder = new XmlMessageEOFProtocol().createFrameDecoder();
+        List<Object> messages = decodeInChunks(decoder, data, 7);
+        messages.addAll(decodeAll(decoder, ByteBuffer.allocate(0), true));
+        assertMessages(messages, first, second);
+    }
+
+    private byte[] encode(TcpProtocol protocol, String message) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        protocol.write(out, message);
+        return out.toByteArray();
+    }
+
+    private byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private List<Object> decodeInChunks(TcpFrameDecoder decoder, byte[] data, int chunkSize) throws IOException
+    {
+        List<Object> messages = new ArrayList<Object>();
+        for (int offset = 0; offset < data.length; offset += chunkSize)
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(data, offset, Math.min(chunkSize, data.length - offset));
+            messages.addAll(decodeAll(decoder, buffer, false));
+        }
+        return messages;
+    }
+
+    private List<Object> decodeAll(TcpFrameDecoder decoder, ByteBuffer buffer, boolean endOfStream) throws IOException
+    {
+        List<Object> messages = new ArrayList<Object>();
+        Object message;
+        while ((message = decoder.decode(buffer, endOfStream)) != null)
+        {
+            messages.add(message);
+        }
+        assertEquals(0, buffer.remaining());
+        return messages;
+    }
+
+    private void assertMessages(List<Object> messages, String... expected)
+    {
+        assertEquals(expected.length, messages.size());
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(expected[i], new String((byte[]) messages.get(i)));
+        }
+    }
+}
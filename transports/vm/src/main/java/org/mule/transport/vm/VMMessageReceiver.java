@@ -26,6 +26,7 @@ import org.mule.transport.TransactedPollingMessageReceiver;
 import org.mule.util.queue.Queue;
 import org.mule.util.queue.QueueSession;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -191,23 +192,22 @@ public class VMMessageReceiver extends TransactedPollingMessageReceiver
 
         int batchSize = getBatchSize(queue.size());
 
-        // try to get the first event off the queue
-        MuleEvent message = (MuleEvent) queue.poll(connector.getQueueTimeout());
+        // take the first event and the ones already available off the queue at once
+        List<Serializable> events = new ArrayList<Serializable>(batchSize + 1);
+        queue.drainTo(events, batchSize + 1, connector.getQueueTimeout());
 
-        if (message != null)
+        for (int i = 0; i < events.size(); i++)
         {
-            // keep first dequeued event
-            ((DefaultMuleMessage)message.getMessage()).setMuleContext(endpoint.getMuleContext());
-            messages.add(message.getMessage());
-
-            // keep batching if more events are available
-            for (int i = 0; i < batchSize && message != null; i++)
+            MuleEvent message = (MuleEvent) events.get(i);
+            if (i == 0)
             {
-                message = (MuleEvent)queue.poll(0);
-                if (message != null)
-                {
-                    messages.add(new DefaultMuleMessage(message.getMessage(), endpoint.getMuleContext()));
-                }
+                // keep first dequeued event
+                ((DefaultMuleMessage)message.getMessage()).setMuleContext(endpoint.getMuleContext());
+                messages.add(message.getMessage());
+            }
+            else
+            {
+                messages.add(new DefaultMuleMessage(message.getMessage(), endpoint.getMuleContext()));
             }
         }
 